@@ -0,0 +1,124 @@
+package com.verto.ase_challenge.benchmark;
+
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.encoder.PatternLayoutEncoder;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.FileAppender;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.verto.ase_challenge.audit.AuditEvent;
+import com.verto.ase_challenge.audit.AuditLog;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.slf4j.LoggerFactory;
+import org.springframework.util.FileSystemUtils;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * What logging a stock operation costs the request thread. {@code synchronousLogLine} is the
+ * former approach: one formatted INFO line per operation, written and flushed to a file by the
+ * calling thread. {@code auditStockChange} offers the same operation to AuditLog, whose writer
+ * thread formats it as JSON and appends it to its own file, and {@code auditSampledRead} is a
+ * read at the default one-in-a-hundred sample rate. Events the writer cannot keep up with are
+ * dropped and counted rather than queued; the counts are printed after each trial.
+ * Run with {@code ./mvnw -Pbenchmark verify -Djmh.args=AuditLog}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(4)
+@Fork(1)
+public class AuditLogBenchmark {
+    
+    private Path logDirectory;
+    private LoggerContext loggerContext;
+    private org.slf4j.Logger synchronousLog;
+    private SimpleMeterRegistry registry;
+    private AuditLog auditLog;
+    
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        logDirectory = Files.createTempDirectory("audit-benchmark");
+        loggerContext = (LoggerContext) LoggerFactory.getILoggerFactory();
+        synchronousLog = fileLogger("bench.sync", "%d %-5level [%thread] %logger{36} - %msg%n");
+        fileLogger("audit", "%msg%n");
+        ObjectMapper objectMapper = new ObjectMapper()
+            .registerModule(new JavaTimeModule())
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        registry = new SimpleMeterRegistry();
+        auditLog = new AuditLog(objectMapper, registry, true, 8192, 0.01, Duration.ofMillis(5));
+        auditLog.start();
+    }
+    
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        auditLog.stop();
+        System.out.printf("%naudit events written: %.0f, dropped: %.0f%n",
+            registry.get("inventory.audit.written").counter().count(),
+            registry.get("inventory.audit.dropped").counter().count());
+        loggerContext.getLogger("bench.sync").detachAndStopAllAppenders();
+        loggerContext.getLogger("audit").detachAndStopAllAppenders();
+        FileSystemUtils.deleteRecursively(logDirectory);
+    }
+    
+    @Benchmark
+    public void synchronousLogLine() {
+        long id = randomId();
+        synchronousLog.info("Stock decreased for product ID: {}. New stock: {}", id, 100);
+    }
+    
+    @Benchmark
+    public void auditStockChange() {
+        auditLog.stockChanged(AuditEvent.Action.DECREASE, randomId(), -1, 100);
+    }
+    
+    @Benchmark
+    public void auditSampledRead() {
+        auditLog.read(AuditEvent.Action.GET, randomId());
+    }
+    
+    // A logger of its own with a single file appender, so nothing reaches the console
+    private org.slf4j.Logger fileLogger(String name, String pattern) {
+        PatternLayoutEncoder encoder = new PatternLayoutEncoder();
+        encoder.setContext(loggerContext);
+        encoder.setPattern(pattern);
+        encoder.start();
+        FileAppender<ILoggingEvent> appender = new FileAppender<>();
+        appender.setContext(loggerContext);
+        appender.setFile(logDirectory.resolve(name + ".log").toString());
+        appender.setEncoder(encoder);
+        appender.start();
+        Logger logger = loggerContext.getLogger(name);
+        logger.detachAndStopAllAppenders();
+        logger.addAppender(appender);
+        logger.setLevel(ch.qos.logback.classic.Level.INFO);
+        logger.setAdditive(false);
+        return logger;
+    }
+    
+    private static long randomId() {
+        return ThreadLocalRandom.current().nextLong(1, 10_000);
+    }
+}
@@ -0,0 +1,70 @@
+package com.verto.ase_challenge.benchmark;
+
+import com.verto.ase_challenge.AseChallengeApplication;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Boots the application against a private embedded H2 database for benchmarks,
+ * with SQL logging off and (unless asked for) no web server, and seeds a synthetic catalog.
+ */
+final class BenchmarkApplication {
+    
+    private static final int SEED_BATCH_SIZE = 1000;
+    
+    private BenchmarkApplication() {
+    }
+    
+    static ConfigurableApplicationContext start(String... properties) {
+        return start(WebApplicationType.NONE, properties);
+    }
+    
+    static ConfigurableApplicationContext start(WebApplicationType webApplicationType, String... properties) {
+        List<String> defaults = new ArrayList<>(List.of(
+            "spring.datasource.url=jdbc:h2:mem:bench-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+            "spring.sql.init.mode=never",
+            "spring.jpa.show-sql=false",
+            "spring.jpa.properties.hibernate.format_sql=false",
+            "spring.h2.console.enabled=false",
+            "spring.main.banner-mode=off",
+            "logging.level.root=WARN",
+            "logging.level.com.verto.ase_challenge=WARN"
+        ));
+        defaults.addAll(List.of(properties));
+        // Passed as command-line arguments so they override application.properties
+        return new SpringApplicationBuilder(AseChallengeApplication.class)
+            .web(webApplicationType)
+            .run(defaults.stream().map(property -> "--" + property).toArray(String[]::new));
+    }
+    
+    /**
+     * Inserts {@code size} products; roughly one in ten starts at or below its threshold.
+     */
+    static void seedCatalog(ConfigurableApplicationContext context, int size, int stockQuantity) {
+        JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        List<Object[]> rows = new ArrayList<>(SEED_BATCH_SIZE);
+        for (int i = 1; i <= size; i++) {
+            boolean lowStock = random.nextInt(10) == 0;
+            rows.add(new Object[] {
+                "Product " + i,
+                "Synthetic catalog entry number " + i + " used for benchmarking",
+                lowStock ? random.nextInt(10) : stockQuantity,
+                10
+            });
+            if (rows.size() == SEED_BATCH_SIZE || i == size) {
+                jdbcTemplate.batchUpdate(
+                    "INSERT INTO products (name, description, stock_quantity, low_stock_threshold) VALUES (?, ?, ?, ?)",
+                    rows);
+                rows.clear();
+            }
+        }
+    }
+}
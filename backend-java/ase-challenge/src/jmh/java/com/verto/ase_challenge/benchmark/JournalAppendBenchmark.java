@@ -0,0 +1,77 @@
+package com.verto.ase_challenge.benchmark;
+
+import com.verto.ase_challenge.journal.JournalWriter;
+import com.verto.ase_challenge.journal.StockMovement;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.util.FileSystemUtils;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Raw append cost of the stock journal with four concurrent appenders while a
+ * background thread syncs every 10ms, the same split as in the application.
+ * Segments are 16MB, so rollovers onto the pre-mapped standby segment are included.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(4)
+public class JournalAppendBenchmark {
+    
+    private Path directory;
+    private JournalWriter writer;
+    private ScheduledExecutorService syncer;
+    
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("journal-bench");
+        writer = new JournalWriter(directory, 1, 16 * 1024 * 1024);
+        syncer = Executors.newSingleThreadScheduledExecutor();
+        syncer.scheduleWithFixedDelay(() -> {
+            try {
+                // Completed segments are dropped right away to keep the disk footprint flat
+                for (Path segment : writer.sync()) {
+                    Files.deleteIfExists(segment);
+                }
+                writer.prepareStandby();
+            } catch (IOException ex) {
+                throw new IllegalStateException(ex);
+            }
+        }, 10, 10, TimeUnit.MILLISECONDS);
+    }
+    
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        syncer.shutdown();
+        syncer.awaitTermination(5, TimeUnit.SECONDS);
+        writer.close();
+        FileSystemUtils.deleteRecursively(directory);
+    }
+    
+    @Benchmark
+    public long append() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        return writer.append(StockMovement.Type.DECREASED, random.nextLong(1, 10_000), -1, random.nextInt(1_000));
+    }
+}
@@ -0,0 +1,69 @@
+package com.verto.ase_challenge.benchmark;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.verto.ase_challenge.dto.ProductResponse;
+import com.verto.ase_challenge.entity.Product;
+import com.verto.ase_challenge.repository.ProductRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Entity-to-DTO mapping and Jackson encoding of {@link ProductResponse} lists, using the
+ * application's configured {@link ObjectMapper}. Entities are loaded from H2 once per trial
+ * so the measurement covers only mapping and serialization.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JsonEncodingBenchmark {
+    
+    @Param({"1", "50", "500"})
+    public int listSize;
+    
+    private ObjectMapper objectMapper;
+    private List<Product> products;
+    private List<ProductResponse> responses;
+    
+    @Setup(Level.Trial)
+    public void setUp() {
+        try (ConfigurableApplicationContext context = BenchmarkApplication.start()) {
+            BenchmarkApplication.seedCatalog(context, listSize, 100);
+            objectMapper = context.getBean(ObjectMapper.class);
+            products = context.getBean(ProductRepository.class).findAll();
+        }
+        responses = products.stream().map(ProductResponse::fromEntity).toList();
+    }
+    
+    @Benchmark
+    public List<ProductResponse> fromEntity() {
+        return products.stream().map(ProductResponse::fromEntity).toList();
+    }
+    
+    @Benchmark
+    public byte[] encode() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(responses);
+    }
+    
+    @Benchmark
+    public byte[] mapAndEncode() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(products.stream().map(ProductResponse::fromEntity).toList());
+    }
+}
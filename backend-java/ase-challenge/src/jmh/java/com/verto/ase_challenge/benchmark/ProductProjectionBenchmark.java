@@ -0,0 +1,119 @@
+package com.verto.ase_challenge.benchmark;
+
+import com.verto.ase_challenge.dto.ProductQuery;
+import com.verto.ase_challenge.dto.ProductResponse;
+import com.verto.ase_challenge.entity.Product;
+import com.verto.ase_challenge.repository.ProductRepository;
+import com.verto.ase_challenge.repository.ProductSpecifications;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Sort;
+import org.springframework.orm.jpa.SharedEntityManagerCreator;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Listing products as managed entities copied through {@code ProductResponse.fromEntity}
+ * versus selecting {@code ProductResponse} directly, for one page of the filtered listing
+ * and a full walk of the export cursor. Scores are per listed product; run with
+ * {@code -prof gc} and compare {@code gc.alloc.rate.norm} for the bytes each product costs.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ProductProjectionBenchmark {
+    
+    private static final int CATALOG_SIZE = 10_000;
+    private static final int PAGE_SIZE = ProductQuery.MAX_LIMIT;
+    
+    private ConfigurableApplicationContext context;
+    private ProductRepository productRepository;
+    private EntityManager entityManager;
+    private TransactionTemplate readOnly;
+    
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkApplication.start();
+        BenchmarkApplication.seedCatalog(context, CATALOG_SIZE, 100);
+        productRepository = context.getBean(ProductRepository.class);
+        entityManager = SharedEntityManagerCreator.createSharedEntityManager(context.getBean(EntityManagerFactory.class));
+        // Same transaction the service methods run in
+        readOnly = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        readOnly.setReadOnly(true);
+    }
+    
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+    
+    @Benchmark
+    @OperationsPerInvocation(PAGE_SIZE)
+    public List<ProductResponse> pageOfEntities() {
+        long afterId = randomPageStart();
+        return readOnly.execute(status -> productRepository.findBy(
+                ProductSpecifications.matching(afterId, new ProductQuery()),
+                q -> q.sortBy(Sort.by("id")).limit(PAGE_SIZE).all())
+            .stream()
+            .map(ProductResponse::fromEntity)
+            .toList());
+    }
+    
+    @Benchmark
+    @OperationsPerInvocation(PAGE_SIZE)
+    public List<ProductResponse> pageProjected() {
+        long afterId = randomPageStart();
+        return readOnly.execute(status -> productRepository.findResponses(
+            ProductSpecifications.matching(afterId, new ProductQuery()), PAGE_SIZE));
+    }
+    
+    @Benchmark
+    @OperationsPerInvocation(CATALOG_SIZE)
+    public void exportEntities(Blackhole blackhole) {
+        readOnly.executeWithoutResult(status -> {
+            try (Stream<Product> products = productRepository.streamAll()) {
+                products.forEach(product -> {
+                    blackhole.consume(ProductResponse.fromEntity(product));
+                    entityManager.detach(product);
+                });
+            }
+        });
+    }
+    
+    @Benchmark
+    @OperationsPerInvocation(CATALOG_SIZE)
+    public void exportProjected(Blackhole blackhole) {
+        readOnly.executeWithoutResult(status -> {
+            try (Stream<ProductResponse> products = productRepository.streamAllResponses()) {
+                products.forEach(blackhole::consume);
+            }
+        });
+    }
+    
+    private static long randomPageStart() {
+        return ThreadLocalRandom.current().nextLong(CATALOG_SIZE - PAGE_SIZE);
+    }
+}
@@ -0,0 +1,98 @@
+package com.verto.ase_challenge.benchmark;
+
+import com.verto.ase_challenge.dto.ProductPage;
+import com.verto.ase_challenge.dto.ProductQuery;
+import com.verto.ase_challenge.dto.ProductResponse;
+import com.verto.ase_challenge.repository.ProductRepository;
+import com.verto.ase_challenge.service.ProductService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Read paths against embedded H2 at several catalog sizes: single product lookups
+ * (cached and uncached), a full catalog walk via pages and the export stream, and the
+ * low-stock report.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ProductReadBenchmark {
+    
+    @Param({"100", "1000", "10000"})
+    public int catalogSize;
+    
+    private ConfigurableApplicationContext context;
+    private ProductService productService;
+    private ProductRepository productRepository;
+    
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkApplication.start();
+        BenchmarkApplication.seedCatalog(context, catalogSize, 100);
+        productService = context.getBean(ProductService.class);
+        productRepository = context.getBean(ProductRepository.class);
+    }
+    
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+    
+    @Benchmark
+    public ProductResponse getProductByIdCached() {
+        return productService.getProductById(randomId());
+    }
+    
+    @Benchmark
+    public ProductResponse getProductByIdFromDatabase() {
+        return productRepository.findById(randomId())
+            .map(ProductResponse::fromEntity)
+            .orElseThrow();
+    }
+    
+    @Benchmark
+    public void listAllPaged(Blackhole blackhole) {
+        ProductQuery query = new ProductQuery();
+        query.setLimit(ProductQuery.MAX_LIMIT);
+        ProductPage page;
+        do {
+            page = productService.getProducts(query);
+            blackhole.consume(page.getItems());
+            query.setCursor(page.getNextCursor());
+        } while (page.getNextCursor() != null);
+    }
+    
+    @Benchmark
+    public long listAllExport(Blackhole blackhole) {
+        return productService.exportProducts(blackhole::consume);
+    }
+    
+    @Benchmark
+    public List<ProductResponse> lowStock() {
+        return productService.getLowStockProducts();
+    }
+    
+    private long randomId() {
+        return ThreadLocalRandom.current().nextLong(1, catalogSize + 1);
+    }
+}
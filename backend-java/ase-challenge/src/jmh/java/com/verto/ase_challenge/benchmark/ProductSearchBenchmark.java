@@ -0,0 +1,103 @@
+package com.verto.ase_challenge.benchmark;
+
+import com.verto.ase_challenge.entity.Product;
+import com.verto.ase_challenge.search.ProductSearchIndex;
+import com.verto.ase_challenge.search.SearchMode;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Index lookups for the search endpoint, without the page load from the database.
+ * Products get a three-word name and a 30-word description drawn from a 20,000-word
+ * vocabulary with a skewed distribution, so a few words are in a large share of the
+ * catalog and most are rare. Queries cover a rare and a common whole word, a
+ * three-letter prefix, two words that must both match, and a fragment found through
+ * the trigram index. Needs a few GB of heap at a million products.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class ProductSearchBenchmark {
+    
+    private static final int VOCABULARY_SIZE = 20_000;
+    private static final int PAGE_SIZE = 50;
+    
+    @Param({"100000", "1000000"})
+    public int catalogSize;
+    
+    private ProductSearchIndex index;
+    private String[] vocabulary;
+    
+    @Setup(Level.Trial)
+    public void setUp() {
+        Random random = new Random(42);
+        vocabulary = new String[VOCABULARY_SIZE];
+        String[] syllables = {"ka", "lo", "mi", "ten", "dra", "vo", "sil", "ne", "pur", "ax", "bel", "co", "rin", "tu"};
+        for (int i = 0; i < VOCABULARY_SIZE; i++) {
+            StringBuilder word = new StringBuilder();
+            for (int n = i; word.length() < 4 || n > 0; n /= syllables.length) {
+                word.append(syllables[n % syllables.length]);
+            }
+            vocabulary[i] = word.toString();
+        }
+        
+        // Fed directly rather than rebuilt from a database
+        index = new ProductSearchIndex(null, null, true);
+        for (long id = 1; id <= catalogSize; id++) {
+            Product product = new Product(words(random, 3), words(random, 30), 10, 5);
+            product.setId(id);
+            index.index(product);
+        }
+    }
+    
+    @Benchmark
+    public ProductSearchIndex.Hits rareToken() {
+        return index.search(vocabulary[15_000], SearchMode.TOKEN, 0, PAGE_SIZE);
+    }
+    
+    @Benchmark
+    public ProductSearchIndex.Hits commonToken() {
+        return index.search(vocabulary[10], SearchMode.TOKEN, 0, PAGE_SIZE);
+    }
+    
+    @Benchmark
+    public ProductSearchIndex.Hits prefix() {
+        return index.search(vocabulary[5_000].substring(0, 3), SearchMode.PREFIX, 0, PAGE_SIZE);
+    }
+    
+    @Benchmark
+    public ProductSearchIndex.Hits twoWords() {
+        return index.search(vocabulary[100] + " " + vocabulary[8_000], SearchMode.PREFIX, 0, PAGE_SIZE);
+    }
+    
+    @Benchmark
+    public ProductSearchIndex.Hits contains() {
+        return index.search(vocabulary[12_000].substring(1, 5), SearchMode.CONTAINS, 0, PAGE_SIZE);
+    }
+    
+    // Cubing a uniform sample skews it towards the front of the vocabulary
+    private String words(Random random, int count) {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < count; i++) {
+            double sample = random.nextDouble();
+            text.append(vocabulary[(int) (sample * sample * sample * VOCABULARY_SIZE)]).append(' ');
+        }
+        return text.toString();
+    }
+}
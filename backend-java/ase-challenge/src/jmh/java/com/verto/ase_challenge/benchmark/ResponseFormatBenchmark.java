@@ -0,0 +1,91 @@
+package com.verto.ase_challenge.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.verto.ase_challenge.dto.ProductPage;
+import com.verto.ase_challenge.dto.ProductQuery;
+import com.verto.ase_challenge.repository.ProductRepository;
+import com.verto.ase_challenge.repository.ProductSpecifications;
+import com.verto.ase_challenge.web.SmileConfiguration;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Encoding and decoding a page of products as JSON versus Smile, with the mappers the
+ * application configures for each, and the cost of gzipping the encoded body as the server
+ * does above its compression threshold. Payload sizes, raw and gzipped, are printed once per trial.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ResponseFormatBenchmark {
+    
+    public enum Format { JSON, SMILE }
+    
+    @Param({"JSON", "SMILE"})
+    public Format format;
+    
+    @Param({"50", "500"})
+    public int pageSize;
+    
+    private ObjectMapper mapper;
+    private ProductPage page;
+    private byte[] encoded;
+    
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        try (ConfigurableApplicationContext context = BenchmarkApplication.start()) {
+            BenchmarkApplication.seedCatalog(context, pageSize, 100);
+            mapper = format == Format.JSON
+                ? context.getBean(ObjectMapper.class)
+                : SmileConfiguration.smileMapper(context.getBean(Jackson2ObjectMapperBuilder.class));
+            page = new ProductPage(context.getBean(ProductRepository.class)
+                .findResponses(ProductSpecifications.matching(null, new ProductQuery()), pageSize), "MTIzNDU2");
+        }
+        encoded = mapper.writeValueAsBytes(page);
+        System.out.printf("%n%s, %d products: %d bytes, %d gzipped%n",
+            format, pageSize, encoded.length, gzip(encoded).length);
+    }
+    
+    @Benchmark
+    public byte[] encode() throws IOException {
+        return mapper.writeValueAsBytes(page);
+    }
+    
+    @Benchmark
+    public ProductPage decode() throws IOException {
+        return mapper.readValue(encoded, ProductPage.class);
+    }
+    
+    @Benchmark
+    public byte[] encodeAndGzip() throws IOException {
+        return gzip(mapper.writeValueAsBytes(page));
+    }
+    
+    private static byte[] gzip(byte[] body) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(body.length / 4);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(body);
+        }
+        return out.toByteArray();
+    }
+}
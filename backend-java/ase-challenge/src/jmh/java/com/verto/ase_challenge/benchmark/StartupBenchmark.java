@@ -0,0 +1,129 @@
+package com.verto.ase_challenge.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.net.ConnectException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.net.http.HttpTimeoutException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Time from launching a fresh JVM to {@code /actuator/health/readiness} reporting UP, for the
+ * application built by {@code -Pfast-startup}, with and without its AOT code and CDS archive.
+ * Every invocation is a new process, so each measurement is a cold start. {@code warmupRounds}
+ * adds the ProductService warmup that gates readiness in the fast-startup profile.
+ * Build and run in one go: {@code ./mvnw -Pfast-startup,benchmark verify -Djmh.args=Startup}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 5)
+@Fork(1)
+public class StartupBenchmark {
+    
+    private static final Path APPLICATION_DIRECTORY = Path.of("target", "fast-startup");
+    private static final String APPLICATION_JAR = "ase-challenge-0.0.1-SNAPSHOT.jar";
+    private static final String CDS_ARCHIVE = "application.jsa";
+    private static final Duration STARTUP_TIMEOUT = Duration.ofMinutes(2);
+    
+    @Param({"plain", "aot", "cds", "aot-cds"})
+    public String mode;
+    
+    @Param({"0", "200"})
+    public int warmupRounds;
+    
+    private HttpClient httpClient;
+    
+    @Setup
+    public void setUp() {
+        if (!Files.exists(APPLICATION_DIRECTORY.resolve(CDS_ARCHIVE))) {
+            throw new IllegalStateException(APPLICATION_DIRECTORY.resolve(CDS_ARCHIVE)
+                + " not found; build it with ./mvnw -Pfast-startup package");
+        }
+        httpClient = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(1)).build();
+    }
+    
+    @Benchmark
+    public long startUntilReady() throws Exception {
+        int port = freePort();
+        long started = System.nanoTime();
+        Process process = new ProcessBuilder(command(port))
+            .directory(APPLICATION_DIRECTORY.toFile())
+            .redirectErrorStream(true)
+            .redirectOutput(ProcessBuilder.Redirect.DISCARD)
+            .start();
+        try {
+            awaitReady(process, URI.create("http://localhost:" + port + "/actuator/health/readiness"));
+            return System.nanoTime() - started;
+        } finally {
+            process.destroy();
+            if (!process.waitFor(30, TimeUnit.SECONDS)) {
+                process.destroyForcibly();
+            }
+        }
+    }
+    
+    private List<String> command(int port) {
+        List<String> command = new ArrayList<>();
+        command.add(Path.of(System.getProperty("java.home"), "bin", "java").toString());
+        if (mode.contains("cds")) {
+            command.add("-XX:SharedArchiveFile=" + CDS_ARCHIVE);
+        }
+        if (mode.contains("aot")) {
+            command.add("-Dspring.aot.enabled=true");
+        }
+        command.addAll(List.of(
+            "-jar", APPLICATION_JAR,
+            "--spring.profiles.active=fast-startup",
+            "--server.port=" + port,
+            "--inventory.warmup.rounds=" + warmupRounds
+        ));
+        return command;
+    }
+    
+    private void awaitReady(Process process, URI readiness) throws IOException, InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(readiness).timeout(Duration.ofSeconds(1)).GET().build();
+        long deadline = System.nanoTime() + STARTUP_TIMEOUT.toNanos();
+        while (System.nanoTime() < deadline) {
+            if (!process.isAlive()) {
+                throw new IllegalStateException("Application exited with status " + process.exitValue());
+            }
+            try {
+                if (httpClient.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() == 200) {
+                    return;
+                }
+            } catch (ConnectException | HttpTimeoutException ex) {
+                // Not listening yet
+            }
+            Thread.sleep(5);
+        }
+        throw new IllegalStateException("Application not ready within " + STARTUP_TIMEOUT);
+    }
+    
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+}
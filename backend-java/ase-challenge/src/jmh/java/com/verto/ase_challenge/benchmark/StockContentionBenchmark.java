@@ -0,0 +1,93 @@
+package com.verto.ase_challenge.benchmark;
+
+import com.verto.ase_challenge.dto.ProductResponse;
+import com.verto.ase_challenge.service.ProductService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.util.FileSystemUtils;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Concurrent stock increases and decreases against a small set of hot products.
+ * {@code hotProducts=1} puts every thread on the same row, which is the worst case
+ * for the guarded UPDATE; {@code writeBehind=true} measures the in-memory counters and
+ * {@code journal=true} adds the stock movement journal to every change.
+ */
+@State(Scope.Group)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class StockContentionBenchmark {
+    
+    // Large enough that the decreasing threads never drain a product within a run
+    private static final int INITIAL_STOCK = 1_000_000_000;
+    
+    @Param({"1", "16"})
+    public int hotProducts;
+    
+    @Param({"false", "true"})
+    public boolean writeBehind;
+    
+    @Param({"false", "true"})
+    public boolean journal;
+    
+    private ConfigurableApplicationContext context;
+    private ProductService productService;
+    private Path journalDirectory;
+    
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        journalDirectory = Files.createTempDirectory("stock-journal");
+        context = BenchmarkApplication.start(
+            "inventory.stock.write-behind.enabled=" + writeBehind,
+            "inventory.journal.enabled=" + journal,
+            "inventory.journal.directory=" + journalDirectory);
+        BenchmarkApplication.seedCatalog(context, hotProducts, INITIAL_STOCK);
+        productService = context.getBean(ProductService.class);
+    }
+    
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        context.close();
+        FileSystemUtils.deleteRecursively(journalDirectory);
+    }
+    
+    @Benchmark
+    @Group("stock")
+    @GroupThreads(4)
+    public ProductResponse increase() {
+        return productService.increaseStock(randomId(), 1);
+    }
+    
+    @Benchmark
+    @Group("stock")
+    @GroupThreads(4)
+    public ProductResponse decrease() {
+        return productService.decreaseStock(randomId(), 1);
+    }
+    
+    private long randomId() {
+        return ThreadLocalRandom.current().nextLong(1, hotProducts + 1);
+    }
+}
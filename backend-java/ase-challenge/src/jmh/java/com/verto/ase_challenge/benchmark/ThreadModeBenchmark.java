@@ -0,0 +1,166 @@
+package com.verto.ase_challenge.benchmark;
+
+import com.verto.ase_challenge.jdbc.ConcurrencyLimitedDataSource;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Platform-thread Tomcat pool versus virtual threads (with the JDBC concurrency gate) while the
+ * database is slow. Every connection checkout is delayed by {@code dbLatencyMillis}, so DB-bound
+ * listing requests hold their thread and connection for at least that long. Meanwhile another
+ * group of clients hits product lookups that the cache serves without touching the database.
+ *
+ * <p>With a fixed pool the slow requests occupy every worker thread, so cache hits queue behind
+ * them. With virtual threads the slow requests only wait on the gate and cache hits keep flowing.
+ * Tomcat is capped at 32 threads so that 64 client threads saturate it on a laptop.
+ * The {@code virtual} mode needs a Java 21 runtime:
+ * {@code JAVA_HOME=<jdk21> ./mvnw -Pjava21,benchmark verify -Djmh.args=ThreadMode}.
+ */
+@State(Scope.Group)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 10)
+@Fork(1)
+public class ThreadModeBenchmark {
+    
+    private static final int CATALOG_SIZE = 1000;
+    private static final int CACHED_PRODUCTS = 100;
+    
+    @Param({"platform", "virtual"})
+    public String threadMode;
+    
+    @Param({"0", "20"})
+    public int dbLatencyMillis;
+    
+    private ConfigurableApplicationContext context;
+    private HttpClient httpClient;
+    private URI baseUri;
+    
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        boolean virtual = threadMode.equals("virtual");
+        if (virtual && Runtime.version().feature() < 21) {
+            throw new IllegalStateException("threadMode=virtual needs a Java 21 runtime; run with -Pjava21 on JDK 21");
+        }
+        SlowDatabase.latencyMillis = dbLatencyMillis;
+        context = BenchmarkApplication.start(WebApplicationType.SERVLET,
+            "server.port=0",
+            "server.tomcat.threads.max=32",
+            "inventory.cache.products.ttl=1h",
+            "spring.main.sources=" + SlowDatabase.class.getName(),
+            "spring.threads.virtual.enabled=" + virtual,
+            "inventory.jdbc.gate.enabled=" + virtual);
+        BenchmarkApplication.seedCatalog(context, CATALOG_SIZE, 100);
+        
+        int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+        baseUri = URI.create("http://localhost:" + port);
+        httpClient = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+        for (int id = 1; id <= CACHED_PRODUCTS; id++) {
+            send("/api/products/" + id);
+        }
+    }
+    
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+    
+    @Benchmark
+    @Group("slowDatabase")
+    @GroupThreads(48)
+    public int listPage() throws Exception {
+        return send("/api/products?limit=20&lowStock=true");
+    }
+    
+    @Benchmark
+    @Group("slowDatabase")
+    @GroupThreads(16)
+    public int cachedGet() throws Exception {
+        return send("/api/products/" + ThreadLocalRandom.current().nextInt(1, CACHED_PRODUCTS + 1));
+    }
+    
+    private int send(String path) throws IOException, InterruptedException {
+        HttpResponse<byte[]> response = httpClient.send(
+            HttpRequest.newBuilder(baseUri.resolve(path)).GET().build(),
+            HttpResponse.BodyHandlers.ofByteArray());
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException(path + " returned " + response.statusCode());
+        }
+        return response.body().length;
+    }
+    
+    /**
+     * Delays every connection checkout, holding the pooled connection while it sleeps,
+     * to simulate a database latency spike.
+     */
+    public static class SlowDatabase {
+        
+        static volatile int latencyMillis;
+        
+        @Bean
+        static BeanPostProcessor slowDataSource() {
+            return new BeanPostProcessor() {
+                @Override
+                public Object postProcessAfterInitialization(Object bean, String beanName) {
+                    if (bean instanceof DataSource dataSource && !(bean instanceof SlowDataSource)
+                            && !(bean instanceof ConcurrencyLimitedDataSource)) {
+                        return new SlowDataSource(dataSource);
+                    }
+                    return bean;
+                }
+            };
+        }
+    }
+    
+    static class SlowDataSource extends DelegatingDataSource {
+        
+        SlowDataSource(DataSource target) {
+            super(target);
+        }
+        
+        @Override
+        public Connection getConnection() throws SQLException {
+            Connection connection = super.getConnection();
+            int latency = SlowDatabase.latencyMillis;
+            if (latency > 0) {
+                try {
+                    Thread.sleep(latency);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            return connection;
+        }
+    }
+}
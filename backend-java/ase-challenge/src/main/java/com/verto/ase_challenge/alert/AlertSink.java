@@ -0,0 +1,14 @@
+package com.verto.ase_challenge.alert;
+
+import com.verto.ase_challenge.entity.LowStockAlert;
+
+import java.util.List;
+
+// Where the dispatcher delivers low-stock alerts; see AlertSinkConfiguration for the built-in
+// ones. Delivery is at least once: a sink that throws leaves the whole batch pending, and it
+// is offered again on the next dispatch.
+@FunctionalInterface
+public interface AlertSink {
+    
+    void deliver(List<LowStockAlert> alerts);
+}
@@ -0,0 +1,33 @@
+package com.verto.ase_challenge.alert;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.nio.file.Path;
+
+/**
+ * Chooses the low-stock {@link AlertSink} from {@code inventory.alerts.sink}: {@code log}
+ * (the default) or {@code file}, which appends JSON Lines to {@code inventory.alerts.file}.
+ * Any other value registers neither, leaving the application to declare its own
+ * {@code AlertSink} bean, e.g. one posting to a webhook.
+ */
+@Configuration(proxyBeanMethods = false)
+public class AlertSinkConfiguration {
+    
+    @Bean
+    @ConditionalOnProperty(name = "inventory.alerts.sink", havingValue = "log", matchIfMissing = true)
+    LoggingAlertSink loggingAlertSink() {
+        return new LoggingAlertSink();
+    }
+    
+    @Bean
+    @ConditionalOnProperty(name = "inventory.alerts.sink", havingValue = "file")
+    FileAlertSink fileAlertSink(
+            @Value("${inventory.alerts.file:data/low-stock-alerts.jsonl}") Path file,
+            ObjectMapper objectMapper) {
+        return new FileAlertSink(file, objectMapper);
+    }
+}
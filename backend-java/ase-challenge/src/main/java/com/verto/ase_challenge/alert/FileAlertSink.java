@@ -0,0 +1,44 @@
+package com.verto.ase_challenge.alert;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.verto.ase_challenge.entity.LowStockAlert;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+// Appends each batch to a JSON Lines file in a single write. A batch that is retried after
+// a failed write may appear twice, so consumers should de-duplicate on the alert id.
+public class FileAlertSink implements AlertSink {
+    
+    private final Path file;
+    private final ObjectMapper objectMapper;
+    
+    public FileAlertSink(Path file, ObjectMapper objectMapper) {
+        this.file = file;
+        this.objectMapper = objectMapper;
+    }
+    
+    @Override
+    public void deliver(List<LowStockAlert> alerts) {
+        try {
+            List<String> lines = new ArrayList<>(alerts.size());
+            for (LowStockAlert alert : alerts) {
+                lines.add(objectMapper.writeValueAsString(alert));
+            }
+            if (file.getParent() != null) {
+                Files.createDirectories(file.getParent());
+            }
+            Files.write(file, lines, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        } catch (JsonProcessingException ex) {
+            throw new IllegalStateException("Could not serialize low-stock alert", ex);
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Could not append low-stock alerts to " + file, ex);
+        }
+    }
+}
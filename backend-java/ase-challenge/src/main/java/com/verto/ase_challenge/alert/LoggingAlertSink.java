@@ -0,0 +1,19 @@
+package com.verto.ase_challenge.alert;
+
+import com.verto.ase_challenge.entity.LowStockAlert;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.List;
+
+// Default sink: one WARN line per alert
+@Slf4j
+public class LoggingAlertSink implements AlertSink {
+    
+    @Override
+    public void deliver(List<LowStockAlert> alerts) {
+        for (LowStockAlert alert : alerts) {
+            log.warn("{} alert for product ID: {}. Stock: {}, threshold: {}",
+                alert.getType(), alert.getProductId(), alert.getStockQuantity(), alert.getLowStockThreshold());
+        }
+    }
+}
@@ -0,0 +1,180 @@
+package com.verto.ase_challenge.alert;
+
+import com.verto.ase_challenge.entity.LowStockAlert;
+import com.verto.ase_challenge.repository.LowStockAlertRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+// Drains the low_stock_alerts outbox into the AlertSink in batches. A product's crossings
+// are held until it has been quiet for the debounce window (but no longer than max-delay),
+// then collapsed: a product that dipped below its threshold and recovered in between yields
+// nothing, one that ended up on the other side yields a single alert for its latest state.
+// Rows are marked only after the sink accepted the batch, so delivery is at least once.
+@Component
+@Slf4j
+public class LowStockAlertDispatcher {
+    
+    private final LowStockAlertRepository alertRepository;
+    private final AlertSink sink;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+    private final Duration dispatchInterval;
+    private final Duration debounce;
+    private final Duration maxDelay;
+    private final int batchSize;
+    private final Counter delivered;
+    private final Counter suppressed;
+    private final Counter failures;
+    private ScheduledExecutorService dispatcher;
+    
+    public LowStockAlertDispatcher(
+            LowStockAlertRepository alertRepository,
+            AlertSink sink,
+            PlatformTransactionManager transactionManager,
+            MeterRegistry registry,
+            @Value("${inventory.alerts.enabled:true}") boolean enabled,
+            @Value("${inventory.alerts.dispatch-interval:1s}") Duration dispatchInterval,
+            @Value("${inventory.alerts.debounce:5s}") Duration debounce,
+            @Value("${inventory.alerts.max-delay:1m}") Duration maxDelay,
+            @Value("${inventory.alerts.batch-size:500}") int batchSize) {
+        this.alertRepository = alertRepository;
+        this.sink = sink;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.enabled = enabled;
+        this.dispatchInterval = dispatchInterval;
+        this.debounce = debounce;
+        this.maxDelay = maxDelay;
+        this.batchSize = batchSize;
+        this.delivered = Counter.builder("inventory.alerts.delivered")
+            .description("Low-stock alerts accepted by the alert sink")
+            .register(registry);
+        this.suppressed = Counter.builder("inventory.alerts.suppressed")
+            .description("Low-stock alerts dropped because a later crossing superseded them")
+            .register(registry);
+        this.failures = Counter.builder("inventory.alerts.delivery_failures")
+            .description("Alert batches the sink rejected; they are retried on the next dispatch")
+            .register(registry);
+        // Evaluated on scrape only; served from the status index
+        Gauge.builder("inventory.alerts.pending", alertRepository,
+                repository -> repository.countByStatus(LowStockAlert.Status.PENDING))
+            .description("Low-stock alerts waiting in the outbox")
+            .register(registry);
+    }
+    
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        dispatcher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "low-stock-alerts");
+            thread.setDaemon(true);
+            return thread;
+        });
+        dispatcher.scheduleWithFixedDelay(this::dispatchQuietly,
+            dispatchInterval.toMillis(), dispatchInterval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+    
+    // Pending rows stay in the outbox and are picked up after the restart
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        if (dispatcher == null) {
+            return;
+        }
+        dispatcher.shutdown();
+        dispatcher.awaitTermination(5, TimeUnit.SECONDS);
+    }
+    
+    // Returns the number of alerts delivered
+    public int dispatch(Instant now) {
+        List<LowStockAlert> pending = transactionTemplate.execute(status ->
+            alertRepository.findByStatusOrderByIdAsc(LowStockAlert.Status.PENDING, Limit.of(batchSize)));
+        if (pending.isEmpty()) {
+            return 0;
+        }
+        
+        Map<Long, List<LowStockAlert>> crossingsByProduct = pending.stream()
+            .collect(Collectors.groupingBy(LowStockAlert::getProductId, LinkedHashMap::new, Collectors.toList()));
+        if (pending.size() == batchSize && crossingsByProduct.size() > 1) {
+            // A full batch may have cut the last product's crossings short; leave it for the next run
+            crossingsByProduct.remove(pending.get(pending.size() - 1).getProductId());
+        }
+        
+        List<LowStockAlert> toDeliver = new ArrayList<>();
+        List<LowStockAlert> toSuppress = new ArrayList<>();
+        Instant quietSince = now.minus(debounce);
+        Instant overdueSince = now.minus(maxDelay);
+        for (List<LowStockAlert> crossings : crossingsByProduct.values()) {
+            LowStockAlert first = crossings.get(0);
+            LowStockAlert latest = crossings.get(crossings.size() - 1);
+            if (latest.getCreatedAt().isAfter(quietSince) && first.getCreatedAt().isAfter(overdueSince)) {
+                continue;
+            }
+            // Crossings alternate, so before the first one the product was on the other side.
+            // Ending on the first one's side is a net crossing; anything else is a round trip.
+            if (latest.getType() == first.getType()) {
+                toDeliver.add(latest);
+                toSuppress.addAll(crossings.subList(0, crossings.size() - 1));
+            } else {
+                toSuppress.addAll(crossings);
+            }
+        }
+        
+        if (!toDeliver.isEmpty()) {
+            try {
+                sink.deliver(toDeliver);
+            } catch (RuntimeException ex) {
+                failures.increment();
+                log.warn("Alert sink rejected {} low-stock alerts, retrying on the next dispatch: {}",
+                    toDeliver.size(), ex.getMessage());
+                return 0;
+            }
+        }
+        transactionTemplate.executeWithoutResult(status -> {
+            markProcessed(toDeliver, LowStockAlert.Status.SENT, now);
+            markProcessed(toSuppress, LowStockAlert.Status.SUPPRESSED, now);
+        });
+        delivered.increment(toDeliver.size());
+        suppressed.increment(toSuppress.size());
+        if (!toDeliver.isEmpty() || !toSuppress.isEmpty()) {
+            log.info("Dispatched {} low-stock alerts, suppressed {}", toDeliver.size(), toSuppress.size());
+        }
+        return toDeliver.size();
+    }
+    
+    private void dispatchQuietly() {
+        try {
+            dispatch(Instant.now());
+        } catch (RuntimeException ex) {
+            // Keep the schedule alive; the rows are still pending
+            log.error("Low-stock alert dispatch failed", ex);
+        }
+    }
+    
+    private void markProcessed(List<LowStockAlert> alerts, LowStockAlert.Status status, Instant now) {
+        if (!alerts.isEmpty()) {
+            alertRepository.markProcessed(alerts.stream().map(LowStockAlert::getId).toList(), status, now);
+        }
+    }
+}
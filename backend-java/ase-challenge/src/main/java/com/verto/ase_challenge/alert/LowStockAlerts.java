@@ -0,0 +1,59 @@
+package com.verto.ase_challenge.alert;
+
+import com.verto.ase_challenge.dto.ProductResponse;
+import com.verto.ase_challenge.entity.LowStockAlert;
+import com.verto.ase_challenge.repository.LowStockAlertRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.util.function.Supplier;
+
+// Records low-stock threshold crossings in the low_stock_alerts outbox (inventory.alerts.*).
+// The insert joins the transaction of the stock change, so an alert is written if and only
+// if its change commits; LowStockAlertDispatcher delivers them from there. Only crossings
+// are written, so the many stock changes that stay on one side of the threshold cost nothing.
+@Component
+public class LowStockAlerts {
+    
+    private final LowStockAlertRepository alertRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+    
+    public LowStockAlerts(
+            LowStockAlertRepository alertRepository,
+            PlatformTransactionManager transactionManager,
+            @Value("${inventory.alerts.enabled:true}") boolean enabled) {
+        this.alertRepository = alertRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.enabled = enabled;
+    }
+    
+    public boolean isEnabled() {
+        return enabled;
+    }
+    
+    // For stock changes that are otherwise a single auto-committed UPDATE: runs the change in
+    // a transaction (or the caller's) so that its alert commits with it. With alerts off the
+    // change runs as it is, without the extra transaction.
+    public <T> T inTransaction(Supplier<T> change) {
+        return enabled ? transactionTemplate.execute(status -> change.get()) : change.get();
+    }
+    
+    // product is the state after the change, as in StockEvents
+    public void stockChanged(ProductResponse product, boolean wasLowStock) {
+        boolean lowStock = product.getStockQuantity() <= product.getLowStockThreshold();
+        if (!enabled || lowStock == wasLowStock) {
+            return;
+        }
+        alertRepository.save(new LowStockAlert(
+            product.getId(),
+            lowStock ? LowStockAlert.Type.LOW_STOCK : LowStockAlert.Type.RESTOCKED,
+            product.getStockQuantity(),
+            product.getLowStockThreshold(),
+            Instant.now()
+        ));
+    }
+}
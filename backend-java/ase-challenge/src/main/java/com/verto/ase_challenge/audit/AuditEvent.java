@@ -0,0 +1,44 @@
+package com.verto.ase_challenge.audit;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.time.Instant;
+import java.util.UUID;
+
+// One line of the audit log. quantity is the requested change (negative for removals),
+// stockAfter the resulting level; rejection is set, and stockAfter absent, when the
+// operation was turned down. Reservation events carry their reservationId; quantity is the
+// reservation's size, negative when it holds or sells units and positive when it returns
+// them. Reads carry sampleRate, the fraction of them that is logged.
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record AuditEvent(
+    Instant at,
+    Action action,
+    Long productId,
+    UUID reservationId,
+    Integer quantity,
+    Integer stockAfter,
+    String rejection,
+    Double sampleRate
+) {
+    
+    public enum Action {
+        CREATE,
+        UPDATE,
+        DELETE,
+        INCREASE,
+        DECREASE,
+        BATCH_ADJUST,
+        LOCATION_INCREASE,
+        LOCATION_DECREASE,
+        RESERVATION_HOLD,
+        RESERVATION_CONFIRM,
+        RESERVATION_RELEASE,
+        RESERVATION_EXPIRE,
+        GET,
+        LIST,
+        SEARCH,
+        LIST_LOW_STOCK,
+        EXPORT
+    }
+}
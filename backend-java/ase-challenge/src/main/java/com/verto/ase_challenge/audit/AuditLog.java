@@ -0,0 +1,173 @@
+package com.verto.ase_challenge.audit;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+// Structured audit trail of product operations, written as one JSON object per line to the
+// "audit" logger (inventory.audit.*). Request threads only build an AuditEvent and offer it to
+// an AuditRingBuffer; formatting and the logger's appenders run on the audit-writer thread.
+// Stock operations are always recorded, successful ones once their transaction commits. Reads
+// are sampled at read-sample-rate, since at full volume they would be most of the log and say
+// little. When the writer falls a whole buffer behind, new events are dropped and counted in
+// inventory.audit.dropped rather than slowing requests down.
+@Component
+@Slf4j
+public class AuditLog {
+    
+    private static final Logger AUDIT = LoggerFactory.getLogger("audit");
+    private static final int DRAIN_BATCH = 256;
+    
+    private final ObjectMapper objectMapper;
+    private final boolean enabled;
+    private final double readSampleRate;
+    private final long idleNanos;
+    private final AuditRingBuffer<AuditEvent> buffer;
+    private final Counter written;
+    private final Counter dropped;
+    private volatile boolean running;
+    private Thread writer;
+    
+    public AuditLog(
+            ObjectMapper objectMapper,
+            MeterRegistry registry,
+            @Value("${inventory.audit.enabled:true}") boolean enabled,
+            @Value("${inventory.audit.buffer-size:8192}") int bufferSize,
+            @Value("${inventory.audit.read-sample-rate:0.01}") double readSampleRate,
+            @Value("${inventory.audit.idle-wait:5ms}") Duration idleWait) {
+        this.objectMapper = objectMapper;
+        this.enabled = enabled;
+        this.readSampleRate = readSampleRate;
+        this.idleNanos = idleWait.toNanos();
+        this.buffer = new AuditRingBuffer<>(bufferSize);
+        this.written = Counter.builder("inventory.audit.written")
+            .description("Audit events written to the audit log")
+            .register(registry);
+        this.dropped = Counter.builder("inventory.audit.dropped")
+            .description("Audit events dropped because the audit writer was a whole buffer behind")
+            .register(registry);
+        Gauge.builder("inventory.audit.pending", buffer, AuditRingBuffer::size)
+            .description("Audit events waiting for the audit writer")
+            .register(registry);
+    }
+    
+    // Events offered before this sit in the buffer until the writer starts
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        running = true;
+        writer = new Thread(this::writeLoop, "audit-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+    
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        if (writer == null) {
+            return;
+        }
+        running = false;
+        LockSupport.unpark(writer);
+        writer.join(TimeUnit.SECONDS.toMillis(5));
+    }
+    
+    // quantity is the signed change; recorded after commit when a transaction is active
+    public void stockChanged(AuditEvent.Action action, Long productId, int quantity, int stockAfter) {
+        if (enabled) {
+            afterCommit(new AuditEvent(Instant.now(), action, productId, null, quantity, stockAfter, null, null));
+        }
+    }
+    
+    // A reservation held, confirmed, released or expired, after commit; stockAfter is null when
+    // the operation leaves stock_quantity as it is
+    public void reservationChanged(
+            AuditEvent.Action action, UUID reservationId, Long productId, int quantity, Integer stockAfter) {
+        if (enabled) {
+            afterCommit(new AuditEvent(Instant.now(), action, productId, reservationId, quantity, stockAfter, null, null));
+        }
+    }
+    
+    // An operation turned down for an expected reason such as insufficient stock
+    public void rejected(AuditEvent.Action action, Long productId, Integer quantity, String reason) {
+        if (enabled) {
+            offer(new AuditEvent(Instant.now(), action, productId, null, quantity, null, reason, null));
+        }
+    }
+    
+    // productId is null for listings and searches
+    public void read(AuditEvent.Action action, Long productId) {
+        if (enabled && ThreadLocalRandom.current().nextDouble() < readSampleRate) {
+            offer(new AuditEvent(Instant.now(), action, productId, null, null, null, null, readSampleRate));
+        }
+    }
+    
+    private void afterCommit(AuditEvent event) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    offer(event);
+                }
+            });
+        } else {
+            offer(event);
+        }
+    }
+    
+    private void offer(AuditEvent event) {
+        if (!buffer.offer(event)) {
+            dropped.increment();
+        }
+    }
+    
+    private void writeLoop() {
+        List<AuditEvent> batch = new ArrayList<>(DRAIN_BATCH);
+        while (true) {
+            if (drain(batch) > 0) {
+                continue;
+            }
+            if (!running) {
+                // Everything offered before shutdown has been written
+                return;
+            }
+            LockSupport.parkNanos(idleNanos);
+        }
+    }
+    
+    private int drain(List<AuditEvent> batch) {
+        int count = buffer.drainTo(batch, DRAIN_BATCH);
+        for (AuditEvent event : batch) {
+            try {
+                AUDIT.info(objectMapper.writeValueAsString(event));
+            } catch (JsonProcessingException | RuntimeException ex) {
+                log.warn("Could not write audit event {}: {}", event, ex.getMessage());
+            }
+        }
+        written.increment(count);
+        batch.clear();
+        return count;
+    }
+}
@@ -0,0 +1,77 @@
+package com.verto.ase_challenge.audit;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+// Bounded many-producer, single-consumer ring. Each slot carries the sequence it is ready for:
+// a producer claims position p with one CAS on the tail once slot p holds p, stores its value
+// and sets the slot to p + 1; the consumer takes position p once the slot holds p + 1 and hands
+// it back for the next lap by setting p + capacity. Producers never block and never wait for
+// the consumer: a full ring rejects the offer instead.
+public final class AuditRingBuffer<T> {
+    
+    private final int mask;
+    private final int capacity;
+    private final AtomicReferenceArray<T> values;
+    private final AtomicLongArray sequences;
+    private final AtomicLong tail = new AtomicLong();
+    // Only the consumer thread moves the head
+    private long head;
+    
+    public AuditRingBuffer(int capacity) {
+        if (Integer.bitCount(capacity) != 1) {
+            throw new IllegalArgumentException("Buffer capacity must be a power of two: " + capacity);
+        }
+        this.capacity = capacity;
+        this.mask = capacity - 1;
+        this.values = new AtomicReferenceArray<>(capacity);
+        this.sequences = new AtomicLongArray(capacity);
+        for (int i = 0; i < capacity; i++) {
+            sequences.set(i, i);
+        }
+    }
+    
+    // False when the ring is full
+    public boolean offer(T value) {
+        while (true) {
+            long position = tail.get();
+            int index = (int) position & mask;
+            long ready = sequences.get(index);
+            if (ready == position) {
+                if (tail.compareAndSet(position, position + 1)) {
+                    values.lazySet(index, value);
+                    sequences.set(index, position + 1);
+                    return true;
+                }
+            } else if (ready < position) {
+                // The consumer has not yet taken this slot's value from the previous lap
+                return false;
+            }
+            // Otherwise another producer claimed the position first; try the next one
+        }
+    }
+    
+    // Consumer thread only. Moves up to max values into the target, oldest first.
+    public int drainTo(List<? super T> target, int max) {
+        int drained = 0;
+        while (drained < max) {
+            int index = (int) head & mask;
+            if (sequences.get(index) != head + 1) {
+                break;
+            }
+            target.add(values.get(index));
+            values.lazySet(index, null);
+            sequences.set(index, head + capacity);
+            head++;
+            drained++;
+        }
+        return drained;
+    }
+    
+    // Exact on the consumer thread, approximate anywhere else
+    public int size() {
+        return (int) Math.max(0, tail.get() - head);
+    }
+}
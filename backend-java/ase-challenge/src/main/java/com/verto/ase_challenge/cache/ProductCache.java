@@ -0,0 +1,96 @@
+package com.verto.ase_challenge.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.verto.ase_challenge.dto.CacheStatsResponse;
+import com.verto.ase_challenge.dto.ProductResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+@Component
+public class ProductCache {
+    
+    private static final int STRIPES = 64;
+    
+    private final Cache<Long, ProductResponse> cache;
+    
+    // Bumped before every invalidation. A loader only publishes its result if the
+    // stamp for its stripe did not move while it was reading from the database,
+    // so a slow read can never re-insert a value that a writer already replaced.
+    private final AtomicLongArray stamps = new AtomicLongArray(STRIPES);
+    private final LongAdder invalidations = new LongAdder();
+    
+    public ProductCache(
+            @Value("${inventory.cache.products.maximum-size:10000}") long maximumSize,
+            @Value("${inventory.cache.products.ttl:30s}") Duration ttl) {
+        this.cache = Caffeine.newBuilder()
+            .maximumSize(maximumSize)
+            .expireAfterWrite(ttl)
+            .recordStats()
+            .build();
+    }
+    
+    public ProductResponse get(Long id, Function<Long, ProductResponse> loader) {
+        ProductResponse cached = cache.getIfPresent(id);
+        if (cached != null) {
+            return cached;
+        }
+        
+        int stripe = stripe(id);
+        long stamp = stamps.get(stripe);
+        ProductResponse loaded = loader.apply(id);
+        // Checked under the map's per-key lock; writers bump the stamp before removing,
+        // so either they see our entry and remove it or we see their stamp and skip
+        cache.asMap().compute(id, (key, current) -> stamps.get(stripe) == stamp ? loaded : null);
+        return loaded;
+    }
+    
+    // Drops the entry now and again once the surrounding transaction completes, so
+    // readers that loaded the pre-commit row in between cannot leave it behind.
+    public void invalidate(Long id) {
+        evict(id);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    evict(id);
+                }
+            });
+        }
+    }
+    
+    public CacheStatsResponse stats() {
+        CacheStats stats = cache.stats();
+        return new CacheStatsResponse(
+            stats.hitCount(),
+            stats.missCount(),
+            stats.hitRate(),
+            stats.evictionCount(),
+            invalidations.sum(),
+            cache.estimatedSize()
+        );
+    }
+    
+    // Runs pending size/expiry maintenance immediately instead of on the next access
+    public void cleanUp() {
+        cache.cleanUp();
+    }
+    
+    private void evict(Long id) {
+        stamps.incrementAndGet(stripe(id));
+        cache.invalidate(id);
+        invalidations.increment();
+    }
+    
+    private static int stripe(Long id) {
+        return Long.hashCode(id) & (STRIPES - 1);
+    }
+}
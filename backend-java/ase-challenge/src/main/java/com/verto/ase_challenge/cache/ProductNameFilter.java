@@ -0,0 +1,143 @@
+package com.verto.ase_challenge.cache;
+
+import com.verto.ase_challenge.entity.Product;
+import com.verto.ase_challenge.repository.ProductRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.stream.Stream;
+
+// Bloom filter over normalized product names (inventory.names.filter.*). A "no" is
+// definite, so most creates and renames skip the uniqueness query entirely; a "maybe"
+// falls through to the indexed lookup, and the unique index stays the real guarantee.
+// Names are only ever added: a deleted name keeps its bits until the next restart,
+// which costs one extra query when it is reused, never a wrong answer.
+@Component
+@Slf4j
+public class ProductNameFilter {
+    
+    private final ProductRepository productRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+    private final long bitCount;
+    private final int hashCount;
+    // Lock-free: setting a bit is a CAS on one word, and a reader racing an add can
+    // only see fewer bits, i.e. answer "maybe" late, which the query then settles
+    private final AtomicLongArray bits;
+    
+    public ProductNameFilter(
+            ProductRepository productRepository,
+            PlatformTransactionManager transactionManager,
+            @Value("${inventory.names.filter.enabled:true}") boolean enabled,
+            @Value("${inventory.names.filter.expected-names:1000000}") long expectedNames,
+            @Value("${inventory.names.filter.false-positive-rate:0.01}") double falsePositiveRate) {
+        if (expectedNames <= 0 || falsePositiveRate <= 0 || falsePositiveRate >= 1) {
+            throw new IllegalArgumentException("Name filter needs expected-names > 0 and 0 < false-positive-rate < 1");
+        }
+        this.productRepository = productRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+        this.enabled = enabled;
+        // Standard sizing: m = -n ln p / (ln 2)^2 bits and k = m / n ln 2 hash functions,
+        // about 1.2 MB and 7 probes for a million names at 1%
+        long optimalBits = (long) Math.ceil(-expectedNames * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+        int words = enabled ? (int) Math.min(Integer.MAX_VALUE - 8, (optimalBits + 63) / 64) : 1;
+        this.bits = new AtomicLongArray(words);
+        this.bitCount = (long) words * 64;
+        this.hashCount = Math.max(1, (int) Math.round((double) optimalBits / expectedNames * Math.log(2)));
+    }
+    
+    public boolean isEnabled() {
+        return enabled;
+    }
+    
+    @PostConstruct
+    public void load() {
+        if (!enabled) {
+            return;
+        }
+        long started = System.nanoTime();
+        long loaded = transactionTemplate.execute(status -> {
+            long count = 0;
+            try (Stream<String> keys = productRepository.streamNameKeys()) {
+                for (String key : (Iterable<String>) keys::iterator) {
+                    put(key);
+                    count++;
+                }
+            }
+            return count;
+        });
+        log.info("Product name filter loaded with {} names ({} KB, {} hashes) in {} ms",
+            loaded, bitCount / 8 / 1024, hashCount, (System.nanoTime() - started) / 1_000_000);
+    }
+    
+    // False only when no product has this name (ignoring case and surrounding spaces).
+    // Always true when the filter is disabled, so callers simply run their query.
+    public boolean mightContain(String name) {
+        if (!enabled) {
+            return true;
+        }
+        long h1 = hash(Product.nameKey(name));
+        long h2 = mix(h1);
+        for (int i = 1; i <= hashCount; i++) {
+            long bit = index(h1, h2, i);
+            if ((bits.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+    
+    // Called before the insert commits: a name that is rolled back only leaves a false
+    // positive behind, while adding it after commit would let a concurrent duplicate skip
+    // the query and fail on the unique index instead
+    public void add(String name) {
+        if (enabled) {
+            put(Product.nameKey(name));
+        }
+    }
+    
+    private void put(String key) {
+        long h1 = hash(key);
+        long h2 = mix(h1);
+        for (int i = 1; i <= hashCount; i++) {
+            long bit = index(h1, h2, i);
+            int word = (int) (bit >>> 6);
+            long mask = 1L << bit;
+            long current = bits.get(word);
+            while ((current & mask) == 0 && !bits.compareAndSet(word, current, current | mask)) {
+                current = bits.get(word);
+            }
+        }
+    }
+    
+    // Double hashing (Kirsch-Mitzenmacher): k probes derived from two 64-bit hashes
+    private long index(long h1, long h2, int i) {
+        return ((h1 + i * h2) & Long.MAX_VALUE) % bitCount;
+    }
+    
+    // FNV-1a over the chars, then a finalizer so every bit of the result is well mixed
+    private static long hash(String key) {
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < key.length(); i++) {
+            hash ^= key.charAt(i);
+            hash *= 0x100000001b3L;
+        }
+        return mix(hash);
+    }
+    
+    // MurmurHash3's 64-bit finalizer
+    private static long mix(long hash) {
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+}
@@ -0,0 +1,57 @@
+package com.verto.ase_challenge.controller;
+
+import com.verto.ase_challenge.dto.LocationStockResponse;
+import com.verto.ase_challenge.dto.StockUpdateRequest;
+import com.verto.ase_challenge.service.LocationStockService;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+/**
+ * Stock held at warehouse locations. Location codes are 1-32 letters, digits, '_' or '-'.
+ * The product's stockQuantity includes these amounts once LocationStockAggregator has
+ * folded them in, shortly after each change.
+ */
+@RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@ConditionalOnProperty(name = "inventory.stock.write-behind.enabled", havingValue = "false", matchIfMissing = true)
+@RequestMapping("/api/products/{id}/locations")
+@RequiredArgsConstructor
+@Slf4j
+public class LocationStockController {
+    
+    private final LocationStockService locationStockService;
+    
+    @GetMapping
+    public ResponseEntity<List<LocationStockResponse>> getLocations(@PathVariable Long id) {
+        log.debug("GET /api/products/{}/locations - Fetching location stock", id);
+        List<LocationStockResponse> response = locationStockService.getLocations(id);
+        return ResponseEntity.ok(response);
+    }
+    
+    @PostMapping("/{location:[A-Za-z0-9_-]{1,32}}/stock/increase")
+    public ResponseEntity<LocationStockResponse> increaseStock(
+            @PathVariable Long id,
+            @PathVariable String location,
+            @Valid @RequestBody StockUpdateRequest request) {
+        log.debug("POST /api/products/{}/locations/{}/stock/increase - Increasing stock by {}", id, location, request.getQuantity());
+        LocationStockResponse response = locationStockService.increaseStock(id, location, request.getQuantity());
+        return ResponseEntity.ok(response);
+    }
+    
+    @PostMapping("/{location:[A-Za-z0-9_-]{1,32}}/stock/decrease")
+    public ResponseEntity<LocationStockResponse> decreaseStock(
+            @PathVariable Long id,
+            @PathVariable String location,
+            @Valid @RequestBody StockUpdateRequest request) {
+        log.debug("POST /api/products/{}/locations/{}/stock/decrease - Decreasing stock by {}", id, location, request.getQuantity());
+        LocationStockResponse response = locationStockService.decreaseStock(id, location, request.getQuantity());
+        return ResponseEntity.ok(response);
+    }
+}
@@ -1,59 +1,132 @@
 package com.verto.ase_challenge.controller;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.verto.ase_challenge.dto.BatchStockUpdateRequest;
+import com.verto.ase_challenge.dto.BatchStockUpdateResponse;
+import com.verto.ase_challenge.dto.CacheStatsResponse;
+import com.verto.ase_challenge.dto.ProductImportReport;
+import com.verto.ase_challenge.dto.ProductPage;
+import com.verto.ase_challenge.dto.ProductQuery;
 import com.verto.ase_challenge.dto.ProductRequest;
 import com.verto.ase_challenge.dto.ProductResponse;
+import com.verto.ase_challenge.dto.ProductSearchPage;
+import com.verto.ase_challenge.dto.ProductSearchQuery;
 import com.verto.ase_challenge.dto.StockUpdateRequest;
+import com.verto.ase_challenge.service.ProductImportService;
 import com.verto.ase_challenge.service.ProductService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
 import java.util.List;
 
 @RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 @RequestMapping("/api/products")
 @RequiredArgsConstructor
 @Slf4j
 public class ProductController {
     
     private final ProductService productService;
+    private final ProductImportService productImportService;
+    private final ObjectMapper objectMapper;
     
     @PostMapping
     public ResponseEntity<ProductResponse> createProduct(@Valid @RequestBody ProductRequest request) {
-        log.info("POST /api/products - Creating product: {}", request.getName());
+        log.debug("POST /api/products - Creating product: {}", request.getName());
         ProductResponse response = productService.createProduct(request);
-        return ResponseEntity.status(HttpStatus.CREATED).body(response);
+        return ResponseEntity.status(HttpStatus.CREATED).eTag(response.eTag()).body(response);
     }
     
     @GetMapping("/{id}")
     public ResponseEntity<ProductResponse> getProduct(@PathVariable Long id) {
-        log.info("GET /api/products/{} - Fetching product", id);
+        log.debug("GET /api/products/{} - Fetching product", id);
         ProductResponse response = productService.getProductById(id);
-        return ResponseEntity.ok(response);
+        // A matching If-None-Match is answered with 304 before the body is serialized;
+        // on a cache hit that is without any database access at all
+        return ResponseEntity.ok().eTag(response.eTag()).body(response);
     }
     
     @GetMapping
-    public ResponseEntity<List<ProductResponse>> getAllProducts() {
-        log.info("GET /api/products - Fetching all products");
-        List<ProductResponse> response = productService.getAllProducts();
+    public ResponseEntity<ProductPage> getAllProducts(ProductQuery query) {
+        log.debug("GET /api/products - Fetching products page");
+        ProductPage response = productService.getProducts(query);
+        return ResponseEntity.ok(response);
+    }
+    
+    @GetMapping("/search")
+    public ResponseEntity<ProductSearchPage> searchProducts(ProductSearchQuery query) {
+        log.debug("GET /api/products/search - Searching products");
+        ProductSearchPage response = productService.searchProducts(query);
+        return ResponseEntity.ok(response);
+    }
+    
+    @GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportProducts() {
+        log.debug("GET /api/products/export - Streaming product export");
+        // Let the generator buffer rows instead of flushing the socket after each one
+        ObjectWriter writer = objectMapper.writerFor(ProductResponse.class)
+            .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        StreamingResponseBody body = out -> {
+            try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+                generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+                generator.setRootValueSeparator(null);
+                productService.exportProducts(product -> {
+                    try {
+                        writer.writeValue(generator, product);
+                        generator.writeRaw('\n');
+                    } catch (IOException ex) {
+                        throw new UncheckedIOException(ex);
+                    }
+                });
+            }
+        };
+        return ResponseEntity.ok()
+            .contentType(MediaType.APPLICATION_NDJSON)
+            .body(body);
+    }
+    
+    // The body is read as a stream; rows are parsed and inserted while it is still arriving
+    @PostMapping(value = "/import", consumes = "text/csv")
+    public ResponseEntity<ProductImportReport> importCsv(InputStream body) throws IOException {
+        log.debug("POST /api/products/import - Importing products from CSV");
+        ProductImportReport response = productImportService.importProducts(body, ProductImportReport.Format.CSV);
+        return ResponseEntity.ok(response);
+    }
+    
+    @PostMapping(value = "/import", consumes = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<ProductImportReport> importNdjson(InputStream body) throws IOException {
+        log.debug("POST /api/products/import - Importing products from NDJSON");
+        ProductImportReport response = productImportService.importProducts(body, ProductImportReport.Format.NDJSON);
         return ResponseEntity.ok(response);
     }
     
     @PutMapping("/{id}")
     public ResponseEntity<ProductResponse> updateProduct(
             @PathVariable Long id, 
-            @Valid @RequestBody ProductRequest request) {
-        log.info("PUT /api/products/{} - Updating product", id);
-        ProductResponse response = productService.updateProduct(id, request);
-        return ResponseEntity.ok(response);
+            @Valid @RequestBody ProductRequest request,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        log.debug("PUT /api/products/{} - Updating product", id);
+        ProductResponse response = productService.updateProduct(id, request, ifMatch);
+        return ResponseEntity.ok().eTag(response.eTag()).body(response);
     }
     
     @DeleteMapping("/{id}")
     public ResponseEntity<Void> deleteProduct(@PathVariable Long id) {
-        log.info("DELETE /api/products/{} - Deleting product", id);
+        log.debug("DELETE /api/products/{} - Deleting product", id);
         productService.deleteProduct(id);
         return ResponseEntity.noContent().build();
     }
@@ -61,25 +134,42 @@ public ResponseEntity<Void> deleteProduct(@PathVariable Long id) {
     @PostMapping("/{id}/stock/increase")
     public ResponseEntity<ProductResponse> increaseStock(
             @PathVariable Long id, 
-            @Valid @RequestBody StockUpdateRequest request) {
-        log.info("POST /api/products/{}/stock/increase - Increasing stock by {}", id, request.getQuantity());
-        ProductResponse response = productService.increaseStock(id, request.getQuantity());
-        return ResponseEntity.ok(response);
+            @Valid @RequestBody StockUpdateRequest request,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        log.debug("POST /api/products/{}/stock/increase - Increasing stock by {}", id, request.getQuantity());
+        ProductResponse response = productService.increaseStock(id, request.getQuantity(), ifMatch);
+        return ResponseEntity.ok().eTag(response.eTag()).body(response);
     }
     
     @PostMapping("/{id}/stock/decrease")
     public ResponseEntity<ProductResponse> decreaseStock(
             @PathVariable Long id, 
-            @Valid @RequestBody StockUpdateRequest request) {
-        log.info("POST /api/products/{}/stock/decrease - Decreasing stock by {}", id, request.getQuantity());
-        ProductResponse response = productService.decreaseStock(id, request.getQuantity());
+            @Valid @RequestBody StockUpdateRequest request,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        log.debug("POST /api/products/{}/stock/decrease - Decreasing stock by {}", id, request.getQuantity());
+        ProductResponse response = productService.decreaseStock(id, request.getQuantity(), ifMatch);
+        return ResponseEntity.ok().eTag(response.eTag()).body(response);
+    }
+    
+    @PostMapping("/stock/batch")
+    public ResponseEntity<BatchStockUpdateResponse> adjustStockBatch(
+            @Valid @RequestBody BatchStockUpdateRequest request) {
+        log.debug("POST /api/products/stock/batch - Applying {} stock adjustments", request.getItems().size());
+        BatchStockUpdateResponse response = productService.adjustStockBatch(request);
         return ResponseEntity.ok(response);
     }
     
     @GetMapping("/low-stock")
     public ResponseEntity<List<ProductResponse>> getLowStockProducts() {
-        log.info("GET /api/products/low-stock - Fetching low stock products");
+        log.debug("GET /api/products/low-stock - Fetching low stock products");
         List<ProductResponse> response = productService.getLowStockProducts();
         return ResponseEntity.ok(response);
     }
-}
\ No newline at end of file
+    
+    @GetMapping("/cache/stats")
+    public ResponseEntity<CacheStatsResponse> getProductCacheStats() {
+        log.debug("GET /api/products/cache/stats - Fetching product cache statistics");
+        CacheStatsResponse response = productService.getProductCacheStats();
+        return ResponseEntity.ok(response);
+    }
+}
@@ -0,0 +1,54 @@
+package com.verto.ase_challenge.controller;
+
+import com.verto.ase_challenge.dto.ReservationRequest;
+import com.verto.ase_challenge.dto.ReservationResponse;
+import com.verto.ase_challenge.service.ReservationService;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.UUID;
+
+@RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@RequestMapping("/api/products")
+@RequiredArgsConstructor
+@Slf4j
+public class ReservationController {
+    
+    private final ReservationService reservationService;
+    
+    @PostMapping("/{id}/reservations")
+    public ResponseEntity<ReservationResponse> reserve(
+            @PathVariable Long id,
+            @Valid @RequestBody ReservationRequest request) {
+        log.debug("POST /api/products/{}/reservations - Reserving {} units", id, request.getQuantity());
+        ReservationResponse response = reservationService.reserve(id, request);
+        return ResponseEntity.status(HttpStatus.CREATED).body(response);
+    }
+    
+    @GetMapping("/reservations/{reservationId}")
+    public ResponseEntity<ReservationResponse> getReservation(@PathVariable UUID reservationId) {
+        log.debug("GET /api/products/reservations/{} - Fetching reservation", reservationId);
+        ReservationResponse response = reservationService.getReservation(reservationId);
+        return ResponseEntity.ok(response);
+    }
+    
+    @PostMapping("/reservations/{reservationId}/confirm")
+    public ResponseEntity<ReservationResponse> confirm(@PathVariable UUID reservationId) {
+        log.debug("POST /api/products/reservations/{}/confirm - Confirming reservation", reservationId);
+        ReservationResponse response = reservationService.confirm(reservationId);
+        return ResponseEntity.ok(response);
+    }
+    
+    @PostMapping("/reservations/{reservationId}/release")
+    public ResponseEntity<ReservationResponse> release(@PathVariable UUID reservationId) {
+        log.debug("POST /api/products/reservations/{}/release - Releasing reservation", reservationId);
+        ReservationResponse response = reservationService.release(reservationId);
+        return ResponseEntity.ok(response);
+    }
+}
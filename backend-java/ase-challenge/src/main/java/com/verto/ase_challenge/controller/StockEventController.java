@@ -0,0 +1,36 @@
+package com.verto.ase_challenge.controller;
+
+import com.verto.ase_challenge.dto.StockEvent;
+import com.verto.ase_challenge.events.StockEvents;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Flux;
+
+/**
+ * Server-Sent Events feed of stock changes. Served by both stacks: Spring MVC adapts the
+ * returned Flux to an SSE response, WebFlux writes it directly.
+ */
+@RestController
+@RequestMapping("/api/products")
+@RequiredArgsConstructor
+@Slf4j
+public class StockEventController {
+    
+    private final StockEvents stockEvents;
+    
+    // Browsers reconnect with Last-Event-ID, and the stream resumes after it while it is still buffered
+    @GetMapping(value = "/stock-events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public Flux<ServerSentEvent<StockEvent>> streamStockEvents(
+            @RequestParam(defaultValue = "false") boolean lowStockOnly,
+            @RequestHeader(value = "Last-Event-ID", required = false) Long lastEventId) {
+        log.debug("GET /api/products/stock-events - Opening stock event stream (lowStockOnly: {})", lowStockOnly);
+        return stockEvents.subscribe(lastEventId, lowStockOnly).map(StockEvents::toServerSentEvent);
+    }
+}
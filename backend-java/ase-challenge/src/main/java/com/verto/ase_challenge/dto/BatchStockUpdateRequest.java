@@ -0,0 +1,52 @@
+package com.verto.ase_challenge.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.AssertTrue;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchStockUpdateRequest {
+    
+    public enum Mode {
+        // Any failed item rolls back the whole batch
+        ALL_OR_NOTHING,
+        // Failed items are reported, the rest are committed
+        BEST_EFFORT
+    }
+    
+    @NotEmpty(message = "At least one item is required")
+    @Size(max = 1000, message = "A batch cannot contain more than 1000 items")
+    private List<@Valid @NotNull StockAdjustmentItem> items;
+    
+    @NotNull(message = "Mode is required")
+    private Mode mode = Mode.ALL_OR_NOTHING;
+    
+    // Low-stock alerts and stock events work out a product's threshold crossing from its state
+    // before and after its change; two items on one product would each see only half of that
+    @JsonIgnore
+    @AssertTrue(message = "A batch can adjust each product only once")
+    public boolean isEachProductOnce() {
+        if (items == null) {
+            return true;
+        }
+        Set<Long> ids = new HashSet<>();
+        for (StockAdjustmentItem item : items) {
+            if (item != null && item.getId() != null && !ids.add(item.getId())) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
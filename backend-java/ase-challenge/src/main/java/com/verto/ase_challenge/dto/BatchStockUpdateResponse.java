@@ -0,0 +1,18 @@
+package com.verto.ase_challenge.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchStockUpdateResponse {
+    
+    private BatchStockUpdateRequest.Mode mode;
+    private int applied;
+    private int failed;
+    private List<StockAdjustmentResult> results;
+}
@@ -0,0 +1,15 @@
+package com.verto.ase_challenge.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class LocationStockResponse {
+    
+    private Long productId;
+    private String location;
+    private Integer stockQuantity;
+}
@@ -0,0 +1,20 @@
+package com.verto.ase_challenge.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Map;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class ProductImportError {
+    
+    // 1-based data row (CSV rows after the header, NDJSON lines)
+    private long row;
+    private String message;
+    private Map<String, String> validationErrors;
+}
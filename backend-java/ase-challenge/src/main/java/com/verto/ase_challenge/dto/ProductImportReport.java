@@ -0,0 +1,26 @@
+package com.verto.ase_challenge.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductImportReport {
+    
+    public enum Format {
+        CSV,
+        NDJSON
+    }
+    
+    private Format format;
+    private long processed;
+    private long imported;
+    private long failed;
+    // Only the first inventory.import.max-reported-errors failures are listed
+    private boolean errorsTruncated;
+    private List<ProductImportError> errors;
+}
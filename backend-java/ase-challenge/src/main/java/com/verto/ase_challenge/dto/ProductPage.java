@@ -0,0 +1,17 @@
+package com.verto.ase_challenge.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductPage {
+    
+    private List<ProductResponse> items;
+    // Null when this is the last page
+    private String nextCursor;
+}
@@ -0,0 +1,21 @@
+package com.verto.ase_challenge.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductQuery {
+    
+    public static final int DEFAULT_LIMIT = 50;
+    public static final int MAX_LIMIT = 500;
+    
+    // Opaque token taken from the previous page's next cursor
+    private String cursor;
+    private Integer limit = DEFAULT_LIMIT;
+    private Integer minStock;
+    private Integer maxStock;
+    private Boolean lowStock;
+}
@@ -1,5 +1,6 @@
 package com.verto.ase_challenge.dto;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.verto.ase_challenge.entity.Product;
 import lombok.AllArgsConstructor;
 import lombok.Data;
@@ -16,6 +17,9 @@ public class ProductResponse {
     private Integer stockQuantity;
     private Integer lowStockThreshold;
     private boolean isLowStock;
+    // Carried for the ETag header only, not part of the body
+    @JsonIgnore
+    private Long version;
     
     public static ProductResponse fromEntity(Product product) {
         return new ProductResponse(
@@ -24,7 +28,14 @@ public static ProductResponse fromEntity(Product product) {
             product.getDescription(),
             product.getStockQuantity(),
             product.getLowStockThreshold(),
-            product.isLowStock()
+            product.isLowStock(),
+            product.getVersion()
         );
     }
+    
+    // Strong validator for this representation. The live stock is part of it because the
+    // write-behind counters change stock without touching the row, and so its version.
+    public String eTag() {
+        return "\"" + version + "-" + stockQuantity + "\"";
+    }
 }
\ No newline at end of file
@@ -0,0 +1,22 @@
+package com.verto.ase_challenge.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductSearchPage {
+    
+    // Best matches first
+    private List<ProductResponse> items;
+    // Number of matching products across all pages
+    private long total;
+    // False when counting stopped early for a very common query; total is then a lower bound
+    private boolean totalExact;
+    // Null when this is the last page
+    private String nextCursor;
+}
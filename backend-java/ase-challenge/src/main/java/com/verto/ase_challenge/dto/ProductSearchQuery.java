@@ -0,0 +1,19 @@
+package com.verto.ase_challenge.dto;
+
+import com.verto.ase_challenge.search.SearchMode;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductSearchQuery {
+    
+    // Words to find in the name or description; every word must match
+    private String q;
+    private SearchMode mode = SearchMode.PREFIX;
+    // Opaque token taken from the previous page's next cursor
+    private String cursor;
+    private Integer limit = ProductQuery.DEFAULT_LIMIT;
+}
@@ -0,0 +1,23 @@
+package com.verto.ase_challenge.dto;
+
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReservationRequest {
+    
+    @NotNull(message = "Quantity is required")
+    @Min(value = 1, message = "Quantity must be at least 1")
+    private Integer quantity;
+    
+    // Falls back to inventory.reservations.default-ttl when omitted
+    @Min(value = 1, message = "TTL must be at least 1 second")
+    @Max(value = 86400, message = "TTL cannot exceed one day")
+    private Integer ttlSeconds;
+}
@@ -0,0 +1,34 @@
+package com.verto.ase_challenge.dto;
+
+import com.verto.ase_challenge.entity.Reservation;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+import java.util.UUID;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReservationResponse {
+    
+    private UUID id;
+    private Long productId;
+    private Integer quantity;
+    private Reservation.Status status;
+    private Instant expiresAt;
+    // On-hand stock minus all active holds for the product, after this operation
+    private Integer availableStock;
+    
+    public static ReservationResponse fromEntity(Reservation reservation, Integer availableStock) {
+        return new ReservationResponse(
+            reservation.getId(),
+            reservation.getProductId(),
+            reservation.getQuantity(),
+            reservation.getStatus(),
+            reservation.getExpiresAt(),
+            availableStock
+        );
+    }
+}
@@ -0,0 +1,18 @@
+package com.verto.ase_challenge.dto;
+
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class StockAdjustmentItem {
+    
+    @NotNull(message = "Product ID is required")
+    private Long id;
+    
+    @NotNull(message = "Delta is required")
+    private Integer delta;
+}
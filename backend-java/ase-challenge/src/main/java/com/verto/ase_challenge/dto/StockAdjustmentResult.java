@@ -0,0 +1,23 @@
+package com.verto.ase_challenge.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class StockAdjustmentResult {
+    
+    public enum Status {
+        APPLIED,
+        NOT_FOUND,
+        INSUFFICIENT_STOCK
+    }
+    
+    private Long id;
+    private Integer delta;
+    private Status status;
+    private Integer stockQuantity;
+    private String message;
+}
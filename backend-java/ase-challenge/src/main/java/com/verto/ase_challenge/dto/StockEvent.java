@@ -0,0 +1,34 @@
+package com.verto.ase_challenge.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class StockEvent {
+    
+    public enum Type {
+        STOCK_CHANGED,
+        // The change took the product to or below its threshold
+        LOW_STOCK,
+        // The change took the product back above its threshold
+        RESTOCKED,
+        DELETED
+    }
+    
+    // Also the SSE event id. Every event takes the next sequence, so a gap the filter
+    // does not explain means the subscriber fell too far behind and lost events.
+    private Long sequence;
+    private Type type;
+    private Long productId;
+    // Null for DELETED
+    private Integer stockQuantity;
+    private Integer lowStockThreshold;
+    private Integer delta;
+    private boolean lowStock;
+    private Instant timestamp;
+}
@@ -0,0 +1,55 @@
+package com.verto.ase_challenge.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+import org.hibernate.annotations.ColumnDefault;
+import org.hibernate.annotations.OnDelete;
+import org.hibernate.annotations.OnDeleteAction;
+
+// Stock of one product at one warehouse location. Location writes update only this row,
+// so different sites of the same product never wait on each other; the product's total
+// (products.stock_quantity) catches up through LocationStockAggregator.
+@Entity
+@Table(name = "location_stock", uniqueConstraints = {
+    @UniqueConstraint(name = "uk_location_stock_product_location", columnNames = {"product_id", "location"})
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class LocationStock {
+    
+    public static final int MAX_LOCATION_LENGTH = 32;
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    
+    @Column(nullable = false)
+    private Long productId;
+    
+    // Only here for the foreign key: the database drops a product's location rows with the
+    // product, so a location write that races a delete cannot leave an orphan behind
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
+    @JoinColumn(name = "productId", insertable = false, updatable = false,
+        foreignKey = @ForeignKey(name = "fk_location_stock_product"))
+    @OnDelete(action = OnDeleteAction.CASCADE)
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    private Product product;
+    
+    @Column(nullable = false, length = MAX_LOCATION_LENGTH)
+    private String location;
+    
+    @Column(nullable = false)
+    private Integer quantity;
+    
+    // How much of quantity has been folded into the product's total so far. Rows where the
+    // two differ still owe the total a delta, which also survives a restart.
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private Integer aggregatedQuantity;
+}
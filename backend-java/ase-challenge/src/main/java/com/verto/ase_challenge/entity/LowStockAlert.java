@@ -0,0 +1,70 @@
+package com.verto.ase_challenge.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+// Outbox row for a low-stock threshold crossing. Written in the transaction that moved the
+// stock, so an alert exists exactly when its change committed, and marked once the dispatcher
+// has delivered it or found it superseded by a later crossing of the same product.
+@Entity
+@Table(name = "low_stock_alerts", indexes = {
+    @Index(name = "idx_low_stock_alerts_status", columnList = "status, id")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class LowStockAlert {
+    
+    public enum Type {
+        // Stock fell to or below the threshold
+        LOW_STOCK,
+        // Stock rose back above the threshold
+        RESTOCKED
+    }
+    
+    public enum Status {
+        PENDING,
+        SENT,
+        SUPPRESSED
+    }
+    
+    // IDENTITY: alerts are rare, so batching their inserts is not worth a sequence
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    
+    @Column(nullable = false)
+    private Long productId;
+    
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private Type type;
+    
+    @Column(nullable = false)
+    private Integer stockQuantity;
+    
+    @Column(nullable = false)
+    private Integer lowStockThreshold;
+    
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private Status status;
+    
+    @Column(nullable = false)
+    private Instant createdAt;
+    
+    private Instant processedAt;
+    
+    public LowStockAlert(Long productId, Type type, Integer stockQuantity, Integer lowStockThreshold, Instant createdAt) {
+        this.productId = productId;
+        this.type = type;
+        this.stockQuantity = stockQuantity;
+        this.lowStockThreshold = lowStockThreshold;
+        this.status = Status.PENDING;
+        this.createdAt = createdAt;
+    }
+}
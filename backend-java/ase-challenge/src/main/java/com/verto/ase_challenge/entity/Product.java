@@ -4,19 +4,40 @@
 import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
+import lombok.AccessLevel;
 import lombok.AllArgsConstructor;
 import lombok.Data;
+import lombok.Getter;
 import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.hibernate.annotations.ColumnDefault;
+import org.hibernate.annotations.DynamicUpdate;
+
+import java.util.Locale;
 
 @Entity
-@Table(name = "products")
+@DynamicUpdate
+@Table(name = "products", indexes = {
+    @Index(name = "idx_products_stock_quantity", columnList = "stock_quantity, id"),
+    @Index(name = "idx_products_low_stock", columnList = "low_stock, id")
+}, uniqueConstraints = {
+    @UniqueConstraint(name = Product.NAME_KEY_CONSTRAINT, columnNames = "name_key")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 public class Product {
     
+    public static final int ALLOCATION_SIZE = 50;
+    public static final String NAME_KEY_CONSTRAINT = "uk_products_name_key";
+    
+    // Pooled sequence (pooled-lo, see application.properties): Hibernate reserves ALLOCATION_SIZE
+    // ids per round trip and can batch inserts, which IDENTITY rules out. The column default
+    // keeps plain SQL and R2DBC inserts working; each of those consumes a whole block.
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "product_seq")
+    @SequenceGenerator(name = "product_seq", sequenceName = "product_seq", allocationSize = ALLOCATION_SIZE)
+    @ColumnDefault("next value for product_seq")
     private Long id;
     
     @NotBlank(message = "Product name is required")
@@ -35,6 +56,54 @@ public class Product {
     @Column(nullable = false)
     private Integer lowStockThreshold = 10; // Default threshold
     
+    // Units held by active reservations; available stock is stockQuantity - reservedQuantity - locatedQuantity
+    @Min(value = 0, message = "Reserved quantity cannot be negative")
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private Integer reservedQuantity = 0;
+    
+    // Part of stockQuantity held at warehouse locations (see LocationStock); only location
+    // writes move it, so product-level stock changes and reservations draw on the rest.
+    // Maintained by LocationStockAggregator together with stockQuantity.
+    @Min(value = 0, message = "Located quantity cannot be negative")
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private Integer locatedQuantity = 0;
+    
+    // Optimistic lock and ETag source. JPA updates bump it, and so do the guarded stock and
+    // reservation UPDATEs, which set the column themselves; a hold changes the floor an
+    // update's stockQuantity must stay above, so a stale update has to fail on it too.
+    // Null until persisted, so save() can tell new rows.
+    @Version
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private Long version;
+    
+    // Maintained by the database on every write (including bulk UPDATEs) so the
+    // low-stock listing is an index lookup; only ever read through queries.
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    @Column(name = "low_stock", insertable = false, updatable = false,
+            columnDefinition = "BOOLEAN GENERATED ALWAYS AS (stock_quantity <= low_stock_threshold)")
+    private Boolean lowStock;
+    
+    // Names are unique ignoring case and surrounding spaces. H2 has no expression indexes,
+    // so the normalized name is a generated column and the unique index goes on that;
+    // it holds for every writer, including raw SQL and the reactive stack.
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    @Column(name = "name_key", insertable = false, updatable = false,
+            columnDefinition = "VARCHAR(255) GENERATED ALWAYS AS (LOWER(TRIM(name)))")
+    private String nameKey;
+    
+    public Product(Long id, String name, String description, Integer stockQuantity, Integer lowStockThreshold) {
+        this.id = id;
+        this.name = name;
+        this.description = description;
+        this.stockQuantity = stockQuantity;
+        this.lowStockThreshold = lowStockThreshold;
+    }
+    
     public Product(String name, String description, Integer stockQuantity, Integer lowStockThreshold) {
         this.name = name;
         this.description = description;
@@ -42,6 +111,16 @@ public Product(String name, String description, Integer stockQuantity, Integer l
         this.lowStockThreshold = lowStockThreshold != null ? lowStockThreshold : 10;
     }
     
+    // Same normalization as the name_key column, for lookups against it
+    public static String nameKey(String name) {
+        return name == null ? null : name.trim().toLowerCase(Locale.ROOT);
+    }
+    
+    public int getAvailableQuantity() {
+        return (stockQuantity != null ? stockQuantity : 0) - (reservedQuantity != null ? reservedQuantity : 0)
+            - (locatedQuantity != null ? locatedQuantity : 0);
+    }
+    
     public boolean isLowStock() {
         return stockQuantity != null && lowStockThreshold != null && stockQuantity <= lowStockThreshold;
     }
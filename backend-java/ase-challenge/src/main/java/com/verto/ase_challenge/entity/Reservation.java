@@ -0,0 +1,54 @@
+package com.verto.ase_challenge.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+import java.util.UUID;
+
+@Entity
+@Table(name = "stock_reservations", indexes = {
+    @Index(name = "idx_stock_reservations_status", columnList = "status")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class Reservation {
+    
+    public enum Status {
+        ACTIVE,
+        CONFIRMED,
+        RELEASED,
+        EXPIRED
+    }
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    private UUID id;
+    
+    @Column(nullable = false)
+    private Long productId;
+    
+    @Column(nullable = false)
+    private Integer quantity;
+    
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private Status status;
+    
+    @Column(nullable = false)
+    private Instant expiresAt;
+    
+    @Column(nullable = false)
+    private Instant createdAt;
+    
+    public Reservation(Long productId, Integer quantity, Instant createdAt, Instant expiresAt) {
+        this.productId = productId;
+        this.quantity = quantity;
+        this.status = Status.ACTIVE;
+        this.createdAt = createdAt;
+        this.expiresAt = expiresAt;
+    }
+}
@@ -0,0 +1,167 @@
+package com.verto.ase_challenge.events;
+
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.FluxSink;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongFunction;
+import java.util.function.Predicate;
+
+// Fixed-size broadcast ring. Every subscriber sees, in order, each value published after
+// it joined, unless it falls a whole ring behind: then it skips ahead to the oldest value
+// still held and loses the ones in between, which no other subscriber notices. Publishing
+// is one atomic increment and one compare-and-set store that never replaces a newer
+// sequence, so writers never wait for a subscriber.
+// A single dispatcher thread moves values to each subscriber as far as its Reactor demand
+// allows. onNext must not block: Spring MVC hands each SSE write to its async executor and
+// WebFlux writes are non-blocking, so a slow client only ever delays itself.
+@Slf4j
+public final class BroadcastBuffer<T> implements AutoCloseable {
+    
+    private final int capacity;
+    private final int mask;
+    private final AtomicReferenceArray<Slot<T>> slots;
+    // Sequences start at 1, so 0 can mean "nothing seen yet"
+    private final AtomicLong nextSequence = new AtomicLong(1);
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+    private final ExecutorService dispatcher;
+    private final AtomicBoolean dispatchPending = new AtomicBoolean();
+    private final LongAdder dropped = new LongAdder();
+    
+    public BroadcastBuffer(String name, int capacity) {
+        if (Integer.bitCount(capacity) != 1) {
+            throw new IllegalArgumentException("Buffer capacity must be a power of two: " + capacity);
+        }
+        this.capacity = capacity;
+        this.mask = capacity - 1;
+        this.slots = new AtomicReferenceArray<>(capacity);
+        this.dispatcher = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, name);
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+    
+    // The factory receives the value's sequence, e.g. to carry it as an event id
+    public void publish(LongFunction<T> factory) {
+        long sequence = nextSequence.getAndIncrement();
+        // Always fill the claimed slot: subscribers wait at a sequence that is never stored
+        Slot<T> slot = new Slot<>(sequence, null);
+        try {
+            slot = new Slot<>(sequence, factory.apply(sequence));
+        } finally {
+            store(slot);
+        }
+        if (!subscribers.isEmpty() && dispatchPending.compareAndSet(false, true)) {
+            dispatcher.execute(() -> {
+                // Cleared first, so a publish during this pass schedules another one
+                dispatchPending.set(false);
+                subscribers.forEach(Subscriber::drain);
+            });
+        }
+    }
+    
+    // Starts right after sequence `after` while that is still in the ring (as far back as
+    // it goes otherwise), or with the next value published when `after` is 0 or unknown
+    public Flux<T> subscribe(long after, Predicate<T> filter) {
+        return Flux.create(sink -> {
+            Subscriber subscriber = new Subscriber(sink, filter, startSequence(after));
+            subscribers.add(subscriber);
+            sink.onRequest(demand -> subscriber.schedule());
+            sink.onDispose(() -> subscribers.remove(subscriber));
+        });
+    }
+    
+    public int subscriberCount() {
+        return subscribers.size();
+    }
+    
+    // Values skipped by subscribers that fell a whole ring behind, summed over subscribers
+    public long droppedCount() {
+        return dropped.sum();
+    }
+    
+    @Override
+    public void close() {
+        dispatcher.shutdownNow();
+        subscribers.forEach(subscriber -> subscriber.sink.complete());
+    }
+    
+    private long startSequence(long after) {
+        long next = nextSequence.get();
+        if (after <= 0 || after >= next) {
+            return next;
+        }
+        return Math.max(after + 1, next - capacity);
+    }
+    
+    // A publisher held up for a whole lap (e.g. in its factory) must not overwrite the newer
+    // value in its slot: a subscriber waiting at that newer sequence would read the older one
+    // as "not published yet" and stall until the slot came round again
+    private void store(Slot<T> slot) {
+        int index = index(slot.sequence());
+        Slot<T> current = slots.get(index);
+        while ((current == null || current.sequence() < slot.sequence()) && !slots.compareAndSet(index, current, slot)) {
+            current = slots.get(index);
+        }
+    }
+    
+    private int index(long sequence) {
+        return (int) sequence & mask;
+    }
+    
+    private record Slot<T>(long sequence, T value) {
+    }
+    
+    private final class Subscriber {
+        
+        private final FluxSink<T> sink;
+        private final Predicate<T> filter;
+        private final AtomicBoolean scheduled = new AtomicBoolean();
+        // Next sequence to deliver; only touched on the dispatcher thread
+        private long cursor;
+        
+        Subscriber(FluxSink<T> sink, Predicate<T> filter, long cursor) {
+            this.sink = sink;
+            this.filter = filter;
+            this.cursor = cursor;
+        }
+        
+        void schedule() {
+            if (scheduled.compareAndSet(false, true)) {
+                dispatcher.execute(this::drain);
+            }
+        }
+        
+        void drain() {
+            scheduled.set(false);
+            while (sink.requestedFromDownstream() > 0 && !sink.isCancelled()) {
+                Slot<T> slot = slots.get(index(cursor));
+                if (slot == null || slot.sequence() < cursor) {
+                    // Not published yet; its publisher dispatches again once it is
+                    return;
+                }
+                if (slot.sequence() > cursor) {
+                    // Overwritten: skip to the oldest sequence the ring can still hold
+                    long oldest = Math.max(cursor + 1, nextSequence.get() - capacity);
+                    dropped.add(oldest - cursor);
+                    log.debug("Subscriber fell behind, dropping {} events", oldest - cursor);
+                    cursor = oldest;
+                    continue;
+                }
+                cursor++;
+                if (slot.value() != null && filter.test(slot.value())) {
+                    sink.next(slot.value());
+                }
+            }
+        }
+    }
+}
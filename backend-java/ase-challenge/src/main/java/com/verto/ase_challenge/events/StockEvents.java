@@ -0,0 +1,97 @@
+package com.verto.ase_challenge.events;
+
+import com.verto.ase_challenge.dto.ProductResponse;
+import com.verto.ase_challenge.dto.StockEvent;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import reactor.core.publisher.Flux;
+
+import java.time.Instant;
+import java.util.Locale;
+
+// Live feed of stock changes behind GET /api/products/stock-events. The product services
+// report each change here and it is published once the surrounding transaction commits, so
+// subscribers never see a change that was rolled back. Changes that cross the low-stock
+// threshold are published as LOW_STOCK or RESTOCKED instead of STOCK_CHANGED, so a
+// dashboard can follow the low-stock list without polling it.
+@Component
+public class StockEvents {
+    
+    private final BroadcastBuffer<StockEvent> buffer;
+    
+    public StockEvents(
+            MeterRegistry registry,
+            @Value("${inventory.events.buffer-size:1024}") int bufferSize) {
+        this.buffer = new BroadcastBuffer<>("stock-events", bufferSize);
+        Gauge.builder("inventory.events.subscribers", buffer, BroadcastBuffer::subscriberCount)
+            .description("Open stock event streams")
+            .register(registry);
+        FunctionCounter.builder("inventory.events.dropped", buffer, BroadcastBuffer::droppedCount)
+            .description("Stock events skipped by subscribers that fell a whole buffer behind")
+            .register(registry);
+    }
+    
+    @PreDestroy
+    public void close() {
+        buffer.close();
+    }
+    
+    // product is the state after the change; whether it was low before follows from the delta
+    public void stockChanged(ProductResponse product, int delta) {
+        stockChanged(product, delta, product.getStockQuantity() - delta <= product.getLowStockThreshold());
+    }
+    
+    // For changes that may also move the threshold, such as a product update
+    public void stockChanged(ProductResponse product, int delta, boolean wasLowStock) {
+        boolean lowStock = product.getStockQuantity() <= product.getLowStockThreshold();
+        StockEvent.Type type = lowStock == wasLowStock
+            ? StockEvent.Type.STOCK_CHANGED
+            : lowStock ? StockEvent.Type.LOW_STOCK : StockEvent.Type.RESTOCKED;
+        if (type == StockEvent.Type.STOCK_CHANGED && delta == 0) {
+            return;
+        }
+        Long productId = product.getId();
+        Integer stockQuantity = product.getStockQuantity();
+        Integer lowStockThreshold = product.getLowStockThreshold();
+        afterCommit(() -> buffer.publish(sequence -> new StockEvent(
+            sequence, type, productId, stockQuantity, lowStockThreshold, delta, lowStock, Instant.now())));
+    }
+    
+    public void productDeleted(Long productId) {
+        afterCommit(() -> buffer.publish(sequence -> new StockEvent(
+            sequence, StockEvent.Type.DELETED, productId, null, null, null, false, Instant.now())));
+    }
+    
+    // lowStockOnly leaves out plain STOCK_CHANGED events
+    public Flux<StockEvent> subscribe(Long lastEventId, boolean lowStockOnly) {
+        return buffer.subscribe(lastEventId != null ? lastEventId : 0,
+            event -> !lowStockOnly || event.getType() != StockEvent.Type.STOCK_CHANGED);
+    }
+    
+    public static ServerSentEvent<StockEvent> toServerSentEvent(StockEvent event) {
+        return ServerSentEvent.builder(event)
+            .id(String.valueOf(event.getSequence()))
+            .event(event.getType().name().toLowerCase(Locale.ROOT).replace('_', '-'))
+            .build();
+    }
+    
+    private static void afterCommit(Runnable publish) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    publish.run();
+                }
+            });
+        } else {
+            publish.run();
+        }
+    }
+}
@@ -0,0 +1,12 @@
+package com.verto.ase_challenge.exception;
+
+public class DuplicateProductNameException extends RuntimeException {
+    
+    public DuplicateProductNameException(String message) {
+        super(message);
+    }
+    
+    public DuplicateProductNameException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
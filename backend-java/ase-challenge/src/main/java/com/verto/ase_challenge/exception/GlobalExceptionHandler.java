@@ -1,24 +1,35 @@
 package com.verto.ase_challenge.exception;
 
+import com.verto.ase_challenge.entity.Product;
+import com.verto.ase_challenge.metrics.InventoryMetrics;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.validation.BindingResult;
 import org.springframework.validation.FieldError;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.bind.support.WebExchangeBindException;
 
 import java.time.LocalDateTime;
 import java.util.HashMap;
+import java.util.Locale;
 import java.util.Map;
 
 @RestControllerAdvice
+@RequiredArgsConstructor
 @Slf4j
 public class GlobalExceptionHandler {
     
+    private final InventoryMetrics metrics;
+    
     @ExceptionHandler(ProductNotFoundException.class)
     public ResponseEntity<ErrorResponse> handleProductNotFound(ProductNotFoundException ex) {
-        log.error("Product not found: {}", ex.getMessage());
+        rejected(InventoryMetrics.Rejection.PRODUCT_NOT_FOUND, ex);
         ErrorResponse error = new ErrorResponse(
             HttpStatus.NOT_FOUND.value(),
             "Product Not Found",
@@ -30,7 +41,7 @@ public ResponseEntity<ErrorResponse> handleProductNotFound(ProductNotFoundExcept
     
     @ExceptionHandler(InsufficientStockException.class)
     public ResponseEntity<ErrorResponse> handleInsufficientStock(InsufficientStockException ex) {
-        log.error("Insufficient stock: {}", ex.getMessage());
+        rejected(InventoryMetrics.Rejection.INSUFFICIENT_STOCK, ex);
         ErrorResponse error = new ErrorResponse(
             HttpStatus.BAD_REQUEST.value(),
             "Insufficient Stock",
@@ -40,11 +51,114 @@ public ResponseEntity<ErrorResponse> handleInsufficientStock(InsufficientStockEx
         return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(error);
     }
     
+    @ExceptionHandler(ReservationNotFoundException.class)
+    public ResponseEntity<ErrorResponse> handleReservationNotFound(ReservationNotFoundException ex) {
+        rejected(InventoryMetrics.Rejection.RESERVATION_NOT_FOUND, ex);
+        ErrorResponse error = new ErrorResponse(
+            HttpStatus.NOT_FOUND.value(),
+            "Reservation Not Found",
+            ex.getMessage(),
+            LocalDateTime.now()
+        );
+        return ResponseEntity.status(HttpStatus.NOT_FOUND).body(error);
+    }
+    
+    @ExceptionHandler(ReservationConflictException.class)
+    public ResponseEntity<ErrorResponse> handleReservationConflict(ReservationConflictException ex) {
+        rejected(InventoryMetrics.Rejection.RESERVATION_CONFLICT, ex);
+        ErrorResponse error = new ErrorResponse(
+            HttpStatus.CONFLICT.value(),
+            "Reservation Conflict",
+            ex.getMessage(),
+            LocalDateTime.now()
+        );
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(error);
+    }
+    
+    @ExceptionHandler(DuplicateProductNameException.class)
+    public ResponseEntity<ErrorResponse> handleDuplicateProductName(DuplicateProductNameException ex) {
+        rejected(InventoryMetrics.Rejection.DUPLICATE_NAME, ex);
+        ErrorResponse error = new ErrorResponse(
+            HttpStatus.CONFLICT.value(),
+            "Duplicate Product Name",
+            ex.getMessage(),
+            LocalDateTime.now()
+        );
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(error);
+    }
+    
+    // A concurrent writer can still win the race past the service's check, and the reactive
+    // stack has no check at all; either way the unique name_key index rejects the row
+    @ExceptionHandler(DataIntegrityViolationException.class)
+    public ResponseEntity<ErrorResponse> handleDataIntegrityViolation(DataIntegrityViolationException ex) {
+        String cause = String.valueOf(ex.getMostSpecificCause().getMessage());
+        if (!cause.toLowerCase(Locale.ROOT).contains(Product.NAME_KEY_CONSTRAINT)) {
+            return handleGenericException(ex);
+        }
+        return handleDuplicateProductName(
+            new DuplicateProductNameException("A product with this name already exists", ex));
+    }
+    
+    @ExceptionHandler(PreconditionFailedException.class)
+    public ResponseEntity<ErrorResponse> handlePreconditionFailed(PreconditionFailedException ex) {
+        rejected(InventoryMetrics.Rejection.PRECONDITION_FAILED, ex);
+        ErrorResponse error = new ErrorResponse(
+            HttpStatus.PRECONDITION_FAILED.value(),
+            "Precondition Failed",
+            ex.getMessage(),
+            LocalDateTime.now()
+        );
+        return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).body(error);
+    }
+    
+    // Two overlapping updates of the same product: @Version rejects the one that commits second
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    public ResponseEntity<ErrorResponse> handleOptimisticLockingFailure(OptimisticLockingFailureException ex) {
+        rejected(InventoryMetrics.Rejection.CONCURRENT_MODIFICATION, ex);
+        ErrorResponse error = new ErrorResponse(
+            HttpStatus.CONFLICT.value(),
+            "Concurrent Modification",
+            "The product was modified by another request; fetch it again and retry",
+            LocalDateTime.now()
+        );
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(error);
+    }
+    
+    @ExceptionHandler(InvalidCursorException.class)
+    public ResponseEntity<ErrorResponse> handleInvalidCursor(InvalidCursorException ex) {
+        rejected(InventoryMetrics.Rejection.INVALID_CURSOR, ex);
+        ErrorResponse error = new ErrorResponse(
+            HttpStatus.BAD_REQUEST.value(),
+            "Invalid Cursor",
+            ex.getMessage(),
+            LocalDateTime.now()
+        );
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(error);
+    }
+    
     @ExceptionHandler(MethodArgumentNotValidException.class)
     public ResponseEntity<ValidationErrorResponse> handleValidationErrors(MethodArgumentNotValidException ex) {
-        log.error("Validation error: {}", ex.getMessage());
+        rejected(InventoryMetrics.Rejection.VALIDATION, ex);
+        return validationFailed(ex.getBindingResult());
+    }
+    
+    // The reactive stack reports @Valid failures with its own exception type
+    @ExceptionHandler(WebExchangeBindException.class)
+    public ResponseEntity<ValidationErrorResponse> handleReactiveValidationErrors(WebExchangeBindException ex) {
+        rejected(InventoryMetrics.Rejection.VALIDATION, ex);
+        return validationFailed(ex.getBindingResult());
+    }
+    
+    // Expected failures are the client's to handle: a counter per reason shows their rate, and
+    // the message is there at DEBUG. Only unexpected errors are logged at ERROR, with their trace.
+    private void rejected(InventoryMetrics.Rejection rejection, Exception ex) {
+        metrics.rejected(rejection);
+        log.debug("Request rejected ({}): {}", rejection, ex.getMessage());
+    }
+    
+    private ResponseEntity<ValidationErrorResponse> validationFailed(BindingResult bindingResult) {
         Map<String, String> errors = new HashMap<>();
-        ex.getBindingResult().getAllErrors().forEach((error) -> {
+        bindingResult.getAllErrors().forEach((error) -> {
             String fieldName = ((FieldError) error).getField();
             String errorMessage = error.getDefaultMessage();
             errors.put(fieldName, errorMessage);
@@ -0,0 +1,12 @@
+package com.verto.ase_challenge.exception;
+
+public class ReservationConflictException extends RuntimeException {
+    
+    public ReservationConflictException(String message) {
+        super(message);
+    }
+    
+    public ReservationConflictException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
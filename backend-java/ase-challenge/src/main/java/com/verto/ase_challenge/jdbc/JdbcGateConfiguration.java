@@ -0,0 +1,54 @@
+package com.verto.ase_challenge.jdbc;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+/**
+ * Wraps the application {@link DataSource} in a {@link ConcurrencyLimitedDataSource} when
+ * {@code inventory.jdbc.gate.enabled=true} (on by default in the virtual-threads profile).
+ * The permit count defaults to the Hikari pool size.
+ */
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnProperty(name = "inventory.jdbc.gate.enabled", havingValue = "true")
+public class JdbcGateConfiguration {
+    
+    // Static so the post-processor is registered before the DataSource is created
+    @Bean
+    static BeanPostProcessor jdbcConcurrencyGate(Environment environment) {
+        int maxConcurrency = environment.getProperty("inventory.jdbc.gate.max-concurrency", Integer.class,
+            environment.getProperty("spring.datasource.hikari.maximum-pool-size", Integer.class, 10));
+        Duration acquireTimeout = environment.getProperty("inventory.jdbc.gate.acquire-timeout", Duration.class,
+            Duration.ofSeconds(2));
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource dataSource && !(bean instanceof ConcurrencyLimitedDataSource)) {
+                    return new ConcurrencyLimitedDataSource(dataSource, maxConcurrency, acquireTimeout);
+                }
+                return bean;
+            }
+        };
+    }
+    
+    @Bean
+    MeterBinder jdbcGateMetrics(DataSource dataSource) {
+        return registry -> {
+            if (dataSource instanceof ConcurrencyLimitedDataSource gate) {
+                Gauge.builder("inventory.jdbc.gate.active", gate, ConcurrencyLimitedDataSource::getActiveCount)
+                    .description("Threads currently holding a JDBC connection")
+                    .register(registry);
+                Gauge.builder("inventory.jdbc.gate.waiting", gate, ConcurrencyLimitedDataSource::getWaitingCount)
+                    .description("Threads queued for a JDBC connection permit")
+                    .register(registry);
+            }
+        };
+    }
+}
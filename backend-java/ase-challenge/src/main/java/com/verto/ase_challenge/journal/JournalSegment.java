@@ -0,0 +1,196 @@
+package com.verto.ase_challenge.journal;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+
+// One pre-sized, memory-mapped journal file holding fixed-size records. Appenders
+// claim a slot with a single atomic increment and write it with an absolute put, so
+// concurrent appends never lock; the sequence number is derived from the slot
+// (baseSequence + slot), which makes file order and sequence order the same thing.
+//
+// Record layout (big-endian, RECORD_SIZE bytes):
+//   0 sequence (long)   8 timestamp millis (long)   16 product id (long)
+//  24 type (short)     26 reserved (short)          28 delta (int)
+//  32 stock after (int) 36 CRC32C of bytes 0-35 (int)
+final class JournalSegment {
+    
+    static final int RECORD_SIZE = 40;
+    
+    private static final int CHECKSUMMED_BYTES = 36;
+    private static final Pattern FILE_NAME = Pattern.compile("stock-(\\d{20})\\.journal");
+    
+    private final Path path;
+    private final long baseSequence;
+    private final int capacity;
+    private final FileChannel channel;
+    private final MappedByteBuffer buffer;
+    private final AtomicInteger nextSlot = new AtomicInteger();
+    // Appenders between claiming a slot and finishing the write
+    private final AtomicInteger writers = new AtomicInteger();
+    // Slots known to be written and forced; only touched by the syncing thread
+    private int forcedSlots;
+    
+    private JournalSegment(Path path, long baseSequence, int capacity, FileChannel channel, MappedByteBuffer buffer) {
+        this.path = path;
+        this.baseSequence = baseSequence;
+        this.capacity = capacity;
+        this.channel = channel;
+        this.buffer = buffer;
+    }
+    
+    static JournalSegment create(Path directory, long baseSequence, int capacity) throws IOException {
+        Path path = directory.resolve(fileName(baseSequence));
+        FileChannel channel = FileChannel.open(path,
+            StandardOpenOption.CREATE_NEW, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, (long) capacity * RECORD_SIZE);
+            return new JournalSegment(path, baseSequence, capacity, channel, buffer);
+        } catch (IOException | RuntimeException ex) {
+            channel.close();
+            Files.deleteIfExists(path);
+            throw ex;
+        }
+    }
+    
+    static String fileName(long baseSequence) {
+        return String.format("stock-%020d.journal", baseSequence);
+    }
+    
+    // Journal files in the directory, oldest first
+    static List<Path> list(Path directory) throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files
+                .filter(file -> FILE_NAME.matcher(file.getFileName().toString()).matches())
+                .sorted()
+                .toList();
+        }
+    }
+    
+    // Feeds every valid record of a journal file to the consumer in sequence order and
+    // returns the number of slots that were written but fail validation (torn writes)
+    static int read(Path path, Consumer<StockMovement> consumer) throws IOException {
+        Matcher matcher = FILE_NAME.matcher(path.getFileName().toString());
+        if (!matcher.matches()) {
+            throw new IllegalArgumentException("Not a journal file: " + path);
+        }
+        long baseSequence = Long.parseLong(matcher.group(1));
+        
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            int slots = (int) (channel.size() / RECORD_SIZE);
+            int corrupt = 0;
+            for (int slot = 0; slot < slots; slot++) {
+                int offset = slot * RECORD_SIZE;
+                long sequence = buffer.getLong(offset);
+                int checksum = buffer.getInt(offset + CHECKSUMMED_BYTES);
+                if (sequence == 0 && checksum == 0) {
+                    // Never claimed, or claimed by an appender that did not get to write it
+                    continue;
+                }
+                StockMovement.Type type = StockMovement.Type.fromOrdinal(buffer.getShort(offset + 24));
+                if (sequence != baseSequence + slot || type == null
+                        || checksum != checksum(buffer.slice(offset, CHECKSUMMED_BYTES))) {
+                    corrupt++;
+                    continue;
+                }
+                consumer.accept(new StockMovement(
+                    sequence,
+                    buffer.getLong(offset + 8),
+                    buffer.getLong(offset + 16),
+                    type,
+                    buffer.getInt(offset + 28),
+                    buffer.getInt(offset + 32)
+                ));
+            }
+            return corrupt;
+        }
+    }
+    
+    // Returns the record's sequence number, or -1 if the segment is full or sealed
+    long tryAppend(long timestamp, StockMovement.Type type, long productId, int delta, int stockAfter) {
+        writers.incrementAndGet();
+        try {
+            int slot = nextSlot.getAndIncrement();
+            if (slot >= capacity) {
+                return -1;
+            }
+            long sequence = baseSequence + slot;
+            ByteBuffer record = ByteBuffer.allocate(RECORD_SIZE)
+                .putLong(sequence)
+                .putLong(timestamp)
+                .putLong(productId)
+                .putShort((short) type.ordinal())
+                .putShort((short) 0)
+                .putInt(delta)
+                .putInt(stockAfter);
+            record.putInt(checksum(record.slice(0, CHECKSUMMED_BYTES)));
+            buffer.put(slot * RECORD_SIZE, record.array());
+            return sequence;
+        } finally {
+            writers.decrementAndGet();
+        }
+    }
+    
+    // Stops further appends; returns the number of slots that were handed out
+    int seal() {
+        return Math.min(nextSlot.getAndUpdate(slot -> Math.max(slot, capacity)), capacity);
+    }
+    
+    int usedSlots() {
+        return Math.min(nextSlot.get(), capacity);
+    }
+    
+    // Forces the records appended since the last call. Returns true when every claimed
+    // slot was already written before the force, i.e. nothing is left to sync for now.
+    boolean sync() {
+        int claimed = usedSlots();
+        // Appenders register before claiming, so none in flight means all slots below claimed are written
+        boolean quiescent = writers.get() == 0;
+        if (claimed > forcedSlots) {
+            buffer.force(forcedSlots * RECORD_SIZE, (claimed - forcedSlots) * RECORD_SIZE);
+            if (quiescent) {
+                forcedSlots = claimed;
+            }
+        }
+        return quiescent;
+    }
+    
+    void close() throws IOException {
+        // The mapping itself is released when the buffer is collected
+        channel.close();
+    }
+    
+    Path path() {
+        return path;
+    }
+    
+    long baseSequence() {
+        return baseSequence;
+    }
+    
+    long nextBaseSequence() {
+        return baseSequence + capacity;
+    }
+    
+    int capacity() {
+        return capacity;
+    }
+    
+    private static int checksum(ByteBuffer bytes) {
+        CRC32C crc = new CRC32C();
+        crc.update(bytes);
+        return (int) crc.getValue();
+    }
+}
@@ -0,0 +1,134 @@
+package com.verto.ase_challenge.journal;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+// Append side of the stock journal: a chain of memory-mapped segments. Appends only
+// touch memory (one atomic slot claim plus a 40-byte copy), and durability is provided
+// by sync(), which a single background thread calls periodically so that one force
+// covers every record appended since the previous one (group fsync). Records survive a
+// process crash as soon as append() returns; an OS crash or power loss can lose at most
+// the records appended since the last sync.
+@Slf4j
+public final class JournalWriter implements Closeable {
+    
+    private final Path directory;
+    private final int recordsPerSegment;
+    private volatile JournalSegment active;
+    // Pre-mapped next segment so that rolling over never creates a file on an appender thread
+    private volatile JournalSegment standby;
+    // Rolled segments that may still have appenders finishing their writes, oldest first
+    private final Queue<JournalSegment> sealing = new ConcurrentLinkedQueue<>();
+    
+    public JournalWriter(Path directory, long firstSequence, int segmentBytes) throws IOException {
+        this.directory = directory;
+        this.recordsPerSegment = Math.max(1, segmentBytes / JournalSegment.RECORD_SIZE);
+        this.active = JournalSegment.create(directory, firstSequence, recordsPerSegment);
+    }
+    
+    // Returns the sequence number assigned to the record
+    public long append(StockMovement.Type type, long productId, int delta, int stockAfter) {
+        long timestamp = System.currentTimeMillis();
+        for (;;) {
+            JournalSegment segment = active;
+            long sequence = segment.tryAppend(timestamp, type, productId, delta, stockAfter);
+            if (sequence >= 0) {
+                return sequence;
+            }
+            roll(segment);
+        }
+    }
+    
+    // Seals the active segment if anything was written to it; used before taking a snapshot
+    public boolean roll() {
+        JournalSegment segment = active;
+        if (segment.usedSlots() == 0) {
+            return false;
+        }
+        roll(segment);
+        return true;
+    }
+    
+    // Forces pending records and returns the rolled segments that are now complete and
+    // durable, oldest first; those files are immutable from here on and can be folded
+    // into a snapshot. Must only be called from one thread.
+    public List<Path> sync() throws IOException {
+        active.sync();
+        List<Path> completed = new ArrayList<>();
+        for (JournalSegment segment = sealing.peek(); segment != null; segment = sealing.peek()) {
+            if (!segment.sync()) {
+                // Keep sequence order: later segments wait until this one has no writers left
+                break;
+            }
+            sealing.poll();
+            segment.close();
+            completed.add(segment.path());
+        }
+        return completed;
+    }
+    
+    // Maps the next segment ahead of time; called from the syncing thread
+    public void prepareStandby() throws IOException {
+        if (standby != null) {
+            return;
+        }
+        synchronized (this) {
+            if (standby == null) {
+                standby = JournalSegment.create(directory, active.nextBaseSequence(), recordsPerSegment);
+            }
+        }
+    }
+    
+    public long activeBaseSequence() {
+        return active.baseSequence();
+    }
+    
+    @Override
+    public synchronized void close() throws IOException {
+        // Give appenders still writing into a rolled segment a moment to finish
+        for (int attempt = 0; attempt < 1000 && !sealing.isEmpty(); attempt++) {
+            sync();
+            Thread.onSpinWait();
+        }
+        for (JournalSegment segment = sealing.poll(); segment != null; segment = sealing.poll()) {
+            segment.sync();
+            segment.close();
+        }
+        active.sync();
+        active.close();
+        if (standby != null) {
+            standby.close();
+            Files.deleteIfExists(standby.path());
+            standby = null;
+        }
+    }
+    
+    private synchronized void roll(JournalSegment expected) {
+        if (active != expected) {
+            // Another appender already rolled it
+            return;
+        }
+        expected.seal();
+        JournalSegment next = standby;
+        standby = null;
+        if (next == null || next.baseSequence() != expected.nextBaseSequence()) {
+            try {
+                next = JournalSegment.create(directory, expected.nextBaseSequence(), recordsPerSegment);
+            } catch (IOException ex) {
+                throw new UncheckedIOException("Could not roll stock journal segment", ex);
+            }
+            log.debug("Stock journal rolled over without a standby segment");
+        }
+        sealing.add(expected);
+        active = next;
+    }
+}
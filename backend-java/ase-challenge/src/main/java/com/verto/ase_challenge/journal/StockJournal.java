@@ -0,0 +1,216 @@
+package com.verto.ase_challenge.journal;
+
+import com.verto.ase_challenge.repository.ProductRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+// Optional append-only journal of every stock movement (inventory.journal.enabled).
+// Services record movements after their transaction commits; the journal thread
+// forces them to disk every sync interval and periodically folds completed segments
+// into a snapshot. On startup, before the web server accepts requests, the snapshot
+// and remaining segments are replayed and stock_quantity is restored wherever it
+// differs from the journal, except on rows whose reserved and located units exceed
+// the replayed level, which keep their stock so available stock never goes negative.
+// Products the journal knows but the database does not (e.g. an in-memory database
+// that was recreated) are skipped, since the journal only holds stock levels.
+@Component
+@Slf4j
+public class StockJournal {
+    
+    static final String SNAPSHOT_FILE = "stock.snapshot";
+    
+    private final ProductRepository productRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+    private final Path directory;
+    private final DataSize segmentSize;
+    private final Duration syncInterval;
+    private final Duration snapshotInterval;
+    // Folded state and completed segments; only touched on startup and by the journal thread
+    private StockLedger ledger;
+    private final List<Path> completedSegments = new ArrayList<>();
+    private JournalWriter writer;
+    private ScheduledExecutorService journalThread;
+    
+    public StockJournal(
+            ProductRepository productRepository,
+            PlatformTransactionManager transactionManager,
+            @Value("${inventory.journal.enabled:false}") boolean enabled,
+            @Value("${inventory.journal.directory:data/journal}") String directory,
+            @Value("${inventory.journal.segment-size:16MB}") DataSize segmentSize,
+            @Value("${inventory.journal.sync-interval:10ms}") Duration syncInterval,
+            @Value("${inventory.journal.snapshot-interval:1m}") Duration snapshotInterval) {
+        this.productRepository = productRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.enabled = enabled;
+        this.directory = Paths.get(directory);
+        this.segmentSize = segmentSize;
+        this.syncInterval = syncInterval;
+        this.snapshotInterval = snapshotInterval;
+    }
+    
+    public boolean isEnabled() {
+        return enabled;
+    }
+    
+    @PostConstruct
+    public void start() throws IOException {
+        if (!enabled) {
+            return;
+        }
+        Files.createDirectories(directory);
+        replay();
+        
+        writer = new JournalWriter(directory, ledger.lastSequence() + 1, (int) segmentSize.toBytes());
+        journalThread = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "stock-journal");
+            thread.setDaemon(true);
+            return thread;
+        });
+        journalThread.scheduleWithFixedDelay(this::syncQuietly,
+            syncInterval.toMillis(), syncInterval.toMillis(), TimeUnit.MILLISECONDS);
+        journalThread.scheduleWithFixedDelay(this::snapshotQuietly,
+            snapshotInterval.toMillis(), snapshotInterval.toMillis(), TimeUnit.MILLISECONDS);
+        log.info("Stock journal open in {} at sequence {}", directory.toAbsolutePath(), writer.activeBaseSequence());
+    }
+    
+    @PreDestroy
+    public void stop() throws InterruptedException, IOException {
+        if (journalThread == null) {
+            return;
+        }
+        journalThread.shutdown();
+        journalThread.awaitTermination(5, TimeUnit.SECONDS);
+        writer.close();
+    }
+    
+    // Appends once the surrounding transaction commits (immediately when there is none),
+    // so rolled-back changes never reach the journal
+    public void record(StockMovement.Type type, Long productId, int delta, int stockAfter) {
+        if (!enabled) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    append(type, productId, delta, stockAfter);
+                }
+            });
+        } else {
+            append(type, productId, delta, stockAfter);
+        }
+    }
+    
+    // Rolls the active segment and folds every completed segment into the snapshot;
+    // runs on the journal thread
+    void snapshot() throws IOException {
+        writer.roll();
+        completedSegments.addAll(writer.sync());
+        if (completedSegments.isEmpty()) {
+            return;
+        }
+        int corrupt = 0;
+        for (Path segment : completedSegments) {
+            corrupt += ledger.replay(segment);
+        }
+        ledger.write(directory.resolve(SNAPSHOT_FILE));
+        for (Path segment : completedSegments) {
+            Files.deleteIfExists(segment);
+        }
+        log.debug("Stock journal snapshot at sequence {} folded {} segments ({} corrupt records)",
+            ledger.lastSequence(), completedSegments.size(), corrupt);
+        completedSegments.clear();
+    }
+    
+    private void append(StockMovement.Type type, Long productId, int delta, int stockAfter) {
+        try {
+            writer.append(type, productId, delta, stockAfter);
+        } catch (RuntimeException ex) {
+            // The change itself is committed; losing its journal entry must not fail the request
+            log.error("Could not journal {} of {} for product ID: {}", type, delta, productId, ex);
+        }
+    }
+    
+    private void replay() throws IOException {
+        Path snapshot = directory.resolve(SNAPSHOT_FILE);
+        StockLedger replayed = Files.exists(snapshot) ? StockLedger.read(snapshot) : new StockLedger();
+        List<Path> segments = JournalSegment.list(directory);
+        int corrupt = 0;
+        for (Path segment : segments) {
+            corrupt += replayed.replay(segment);
+        }
+        if (corrupt > 0) {
+            log.warn("Stock journal replay skipped {} torn or corrupt records", corrupt);
+        }
+        
+        Map<Long, Integer> restore = new HashMap<>();
+        int[] missing = new int[1];
+        transactionTemplate.executeWithoutResult(status -> {
+            Map<Long, Integer> current = new HashMap<>();
+            productRepository.loadStockQuantities(current::put);
+            replayed.levels().forEach((id, stock) -> {
+                Integer persisted = current.get(id);
+                if (persisted == null) {
+                    missing[0]++;
+                } else if (persisted.intValue() != stock) {
+                    restore.put(id, stock);
+                }
+            });
+            int restored = productRepository.restoreStockQuantities(restore);
+            if (restored < restore.size()) {
+                log.warn("Could not restore stock for {} products below their reserved quantity", restore.size() - restored);
+            }
+        });
+        log.info("Stock journal replayed {} products up to sequence {}: {} restored, {} not in the database",
+            replayed.levels().size(), replayed.lastSequence(), restore.size(), missing[0]);
+        
+        // Rebase on the reconciled table so rows that never went through the journal
+        // (such as seed data) have a base level too, then start from a clean directory
+        StockLedger rebased = new StockLedger(replayed.lastSequence());
+        transactionTemplate.executeWithoutResult(status -> productRepository.loadStockQuantities(rebased::put));
+        rebased.write(snapshot);
+        for (Path segment : segments) {
+            Files.deleteIfExists(segment);
+        }
+        ledger = rebased;
+    }
+    
+    private void syncQuietly() {
+        try {
+            completedSegments.addAll(writer.sync());
+            writer.prepareStandby();
+        } catch (IOException | RuntimeException ex) {
+            log.error("Stock journal sync failed, will retry: {}", ex.getMessage(), ex);
+        }
+    }
+    
+    private void snapshotQuietly() {
+        try {
+            snapshot();
+        } catch (IOException | RuntimeException ex) {
+            log.error("Stock journal snapshot failed, will retry: {}", ex.getMessage(), ex);
+        }
+    }
+}
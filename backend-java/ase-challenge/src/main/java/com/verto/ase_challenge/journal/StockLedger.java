@@ -0,0 +1,118 @@
+package com.verto.ase_challenge.journal;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.zip.CRC32C;
+
+// Stock levels folded from the journal up to lastSequence. Every movement adds its delta
+// to the level (starting from zero for a product not seen yet) and deletions drop the
+// product. Movements are appended after their transactions commit, so two commits on one
+// product can reach the journal in either order; deltas add up to the same level whichever
+// way round they arrive, where overwriting with stockAfter would keep whichever was
+// appended last. A movement appended after the product's deletion leaves a level for an
+// id the database no longer has, which replay skips. Movements at or below lastSequence
+// are already included and ignored, so replaying overlapping input is safe.
+// A snapshot file is the ledger written out in one piece, so journal segments it covers
+// can be deleted.
+public final class StockLedger {
+    
+    private static final int MAGIC = 0x534C4447; // "SLDG"
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = 20;
+    private static final int ENTRY_SIZE = 12;
+    
+    private final Map<Long, Integer> levels = new HashMap<>();
+    private long lastSequence;
+    
+    public StockLedger() {
+    }
+    
+    public StockLedger(long lastSequence) {
+        this.lastSequence = lastSequence;
+    }
+    
+    public long lastSequence() {
+        return lastSequence;
+    }
+    
+    public Map<Long, Integer> levels() {
+        return Collections.unmodifiableMap(levels);
+    }
+    
+    public void put(long productId, int stock) {
+        levels.put(productId, stock);
+    }
+    
+    public void apply(StockMovement movement) {
+        if (movement.sequence() <= lastSequence) {
+            return;
+        }
+        lastSequence = movement.sequence();
+        if (movement.type() == StockMovement.Type.DELETED) {
+            levels.remove(movement.productId());
+        } else {
+            levels.merge(movement.productId(), movement.delta(), Integer::sum);
+        }
+    }
+    
+    // Folds one journal file into the ledger; returns the number of corrupt records skipped
+    public int replay(Path segment) throws IOException {
+        return JournalSegment.read(segment, this::apply);
+    }
+    
+    public static StockLedger read(Path snapshot) throws IOException {
+        ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(snapshot));
+        if (buffer.remaining() < HEADER_SIZE + 4 || buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION) {
+            throw new IOException("Not a stock snapshot: " + snapshot);
+        }
+        int checksumOffset = buffer.limit() - 4;
+        if (buffer.getInt(checksumOffset) != checksum(buffer.slice(0, checksumOffset))) {
+            throw new IOException("Stock snapshot is corrupt: " + snapshot);
+        }
+        
+        StockLedger ledger = new StockLedger(buffer.getLong(8));
+        int entries = buffer.getInt(16);
+        buffer.position(HEADER_SIZE);
+        for (int i = 0; i < entries; i++) {
+            ledger.levels.put(buffer.getLong(), buffer.getInt());
+        }
+        return ledger;
+    }
+    
+    // Written to a temporary file first and moved into place, so a crash mid-write
+    // leaves the previous snapshot intact
+    public void write(Path snapshot) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(HEADER_SIZE + levels.size() * ENTRY_SIZE + 4)
+            .putInt(MAGIC)
+            .putInt(VERSION)
+            .putLong(lastSequence)
+            .putInt(levels.size());
+        levels.forEach((id, stock) -> buffer.putLong(id).putInt(stock));
+        buffer.putInt(checksum(buffer.slice(0, buffer.position())));
+        buffer.flip();
+        
+        Path temporary = snapshot.resolveSibling(snapshot.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(temporary,
+                StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            channel.force(true);
+        }
+        Files.move(temporary, snapshot, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+    
+    private static int checksum(ByteBuffer bytes) {
+        CRC32C crc = new CRC32C();
+        crc.update(bytes);
+        return (int) crc.getValue();
+    }
+}
@@ -0,0 +1,28 @@
+package com.verto.ase_challenge.journal;
+
+// One entry of the stock journal. Every type but DELETED, which drops the product, is
+// replayed as its signed delta (CREATED from zero, UPDATED as the difference to the
+// previous level); stockAfter is the level observed right after the change and is kept
+// for auditing only, since concurrent changes may append in a different order than they commit.
+public record StockMovement(long sequence, long timestamp, long productId, Type type, int delta, int stockAfter) {
+    
+    // Persisted by ordinal: only ever append new types
+    public enum Type {
+        CREATED,
+        UPDATED,
+        DELETED,
+        INCREASED,
+        DECREASED,
+        BATCH_ADJUSTED,
+        RESERVATION_HELD,
+        RESERVATION_RETURNED,
+        RESERVATION_CONFIRMED,
+        LOCATION_ADJUSTED;
+        
+        private static final Type[] VALUES = values();
+        
+        static Type fromOrdinal(int ordinal) {
+            return ordinal >= 0 && ordinal < VALUES.length ? VALUES[ordinal] : null;
+        }
+    }
+}
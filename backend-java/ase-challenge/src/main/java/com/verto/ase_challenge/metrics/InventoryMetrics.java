@@ -0,0 +1,84 @@
+package com.verto.ase_challenge.metrics;
+
+import com.verto.ase_challenge.repository.ProductRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntSupplier;
+
+/**
+ * Inventory-specific meters. Request latency per endpoint comes from Spring MVC's
+ * {@code http.server.requests} and connection-pool wait from Hikari's
+ * {@code hikaricp.connections.acquire}; this class adds what those cannot see.
+ * Meters are registered once up front so the hot paths only touch pre-resolved instances.
+ */
+@Component
+public class InventoryMetrics {
+    
+    // Expected request failures, answered with a 4xx; counted instead of logged
+    public enum Rejection {
+        PRODUCT_NOT_FOUND,
+        INSUFFICIENT_STOCK,
+        DUPLICATE_NAME,
+        RESERVATION_NOT_FOUND,
+        RESERVATION_CONFLICT,
+        PRECONDITION_FAILED,
+        CONCURRENT_MODIFICATION,
+        INVALID_CURSOR,
+        VALIDATION
+    }
+    
+    private final Timer stockIncrease;
+    private final Timer stockDecrease;
+    private final Map<Rejection, Counter> rejections = new EnumMap<>(Rejection.class);
+    
+    public InventoryMetrics(MeterRegistry registry, ProductRepository productRepository) {
+        // Time spent in the guarded UPDATE, which is where concurrent writers queue on the row lock
+        this.stockIncrease = Timer.builder("inventory.stock.update")
+            .description("Guarded stock UPDATE duration, including row-lock wait")
+            .tag("operation", "increase")
+            .register(registry);
+        this.stockDecrease = Timer.builder("inventory.stock.update")
+            .description("Guarded stock UPDATE duration, including row-lock wait")
+            .tag("operation", "decrease")
+            .register(registry);
+        for (Rejection rejection : Rejection.values()) {
+            rejections.put(rejection, Counter.builder("inventory.requests.rejected")
+                .description("Requests and batch items turned down with a client error, by reason")
+                .tag("reason", rejection.name().toLowerCase(Locale.ROOT))
+                .register(registry));
+        }
+        // Evaluated on scrape only; served from the indexed low_stock column
+        Gauge.builder("inventory.products.low_stock", productRepository, ProductRepository::countLowStockProducts)
+            .description("Products at or below their low-stock threshold")
+            .register(registry);
+    }
+    
+    public int timeStockIncrease(IntSupplier update) {
+        return time(stockIncrease, update);
+    }
+    
+    public int timeStockDecrease(IntSupplier update) {
+        return time(stockDecrease, update);
+    }
+    
+    public void rejected(Rejection rejection) {
+        rejections.get(rejection).increment();
+    }
+    
+    private static int time(Timer timer, IntSupplier update) {
+        long start = System.nanoTime();
+        try {
+            return update.getAsInt();
+        } finally {
+            timer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+}
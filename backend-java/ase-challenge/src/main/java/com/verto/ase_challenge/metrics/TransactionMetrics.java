@@ -0,0 +1,82 @@
+package com.verto.ase_challenge.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.TransactionExecution;
+import org.springframework.transaction.TransactionExecutionListener;
+
+import java.util.ArrayDeque;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Records {@code inventory.transaction} (begin to commit or rollback) for every new transaction,
+ * tagged with the transactional method and the outcome. Spring Boot attaches
+ * {@link TransactionExecutionListener} beans to the transaction manager automatically.
+ */
+@Component
+public class TransactionMetrics implements TransactionExecutionListener {
+    
+    // Begin/complete callbacks are strictly nested per thread, even with REQUIRES_NEW
+    private final ThreadLocal<ArrayDeque<Long>> startTimes = ThreadLocal.withInitial(ArrayDeque::new);
+    private final MeterRegistry registry;
+    // Transaction name -> outcome -> timer
+    private final Map<String, Map<String, Timer>> timers = new ConcurrentHashMap<>();
+    
+    public TransactionMetrics(MeterRegistry registry) {
+        this.registry = registry;
+    }
+    
+    @Override
+    public void afterBegin(TransactionExecution transaction, @Nullable Throwable beginFailure) {
+        if (beginFailure == null) {
+            startTimes.get().push(System.nanoTime());
+        }
+    }
+    
+    @Override
+    public void afterCommit(TransactionExecution transaction, @Nullable Throwable commitFailure) {
+        record(transaction, commitFailure == null ? "commit" : "commit_failed");
+    }
+    
+    @Override
+    public void afterRollback(TransactionExecution transaction, @Nullable Throwable rollbackFailure) {
+        record(transaction, "rollback");
+    }
+    
+    private void record(TransactionExecution transaction, String outcome) {
+        Long start = startTimes.get().poll();
+        if (start == null) {
+            return;
+        }
+        timer(transaction.getTransactionName(), outcome).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+    }
+    
+    // Registered on first use; afterwards two map lookups, no builder or registry access per transaction
+    private Timer timer(@Nullable String transactionName, String outcome) {
+        Map<String, Timer> byOutcome = timers.computeIfAbsent(
+            transactionName == null ? "" : transactionName, name -> new ConcurrentHashMap<>());
+        Timer timer = byOutcome.get(outcome);
+        if (timer == null) {
+            timer = byOutcome.computeIfAbsent(outcome, key -> Timer.builder("inventory.transaction")
+                .description("Transaction duration from begin to completion")
+                .tag("name", shortName(transactionName))
+                .tag("outcome", key)
+                .register(registry));
+        }
+        return timer;
+    }
+    
+    // "com.verto.ase_challenge.service.ProductService.decreaseStock" -> "ProductService.decreaseStock"
+    private static String shortName(String transactionName) {
+        if (transactionName == null || transactionName.isEmpty()) {
+            return "unnamed";
+        }
+        int method = transactionName.lastIndexOf('.');
+        int type = method > 0 ? transactionName.lastIndexOf('.', method - 1) : -1;
+        return transactionName.substring(type + 1);
+    }
+}
@@ -0,0 +1,55 @@
+package com.verto.ase_challenge.reactive;
+
+import com.verto.ase_challenge.dto.ProductResponse;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.ReadOnlyProperty;
+import org.springframework.data.annotation.Version;
+import org.springframework.data.relational.core.mapping.Table;
+
+/**
+ * R2DBC mapping of the {@code products} table. The schema itself is owned by the JPA
+ * {@link com.verto.ase_challenge.entity.Product} entity; this is only a row view of it.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Table("products")
+public class ProductRow {
+    
+    @Id
+    private Long id;
+    private String name;
+    private String description;
+    private Integer stockQuantity;
+    private Integer lowStockThreshold;
+    private Integer reservedQuantity;
+    private Integer locatedQuantity;
+    
+    // Generated column: readable and filterable, never written
+    @ReadOnlyProperty
+    private Boolean lowStock;
+    
+    // Shared with the JPA entity's @Version; the repository's UPDATEs bump it themselves
+    @Version
+    private Long version;
+    
+    public int getAvailableQuantity() {
+        return stockQuantity - (reservedQuantity != null ? reservedQuantity : 0)
+            - (locatedQuantity != null ? locatedQuantity : 0);
+    }
+    
+    public ProductResponse toResponse() {
+        return new ProductResponse(
+            id,
+            name,
+            description,
+            stockQuantity,
+            lowStockThreshold,
+            stockQuantity <= lowStockThreshold,
+            version
+        );
+    }
+}
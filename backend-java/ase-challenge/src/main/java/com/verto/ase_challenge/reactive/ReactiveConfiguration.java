@@ -0,0 +1,81 @@
+package com.verto.ase_challenge.reactive;
+
+import io.r2dbc.pool.ConnectionPool;
+import io.r2dbc.pool.ConnectionPoolConfiguration;
+import io.r2dbc.spi.ConnectionFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.autoconfigure.r2dbc.R2dbcProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.r2dbc.ConnectionFactoryBuilder;
+import org.springframework.boot.web.embedded.netty.NettyReactiveWebServerFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.r2dbc.core.R2dbcEntityTemplate;
+import org.springframework.data.r2dbc.repository.config.EnableR2dbcRepositories;
+import org.springframework.r2dbc.connection.R2dbcTransactionManager;
+import org.springframework.transaction.reactive.TransactionalOperator;
+
+/**
+ * Reactive-stack infrastructure, active only when running as a reactive web application.
+ *
+ * <p>R2DBC auto-configuration is excluded. Boot would otherwise back off the JDBC DataSource
+ * as soon as a ConnectionFactory bean exists, and JPA still owns the schema, the sample data and
+ * the background jobs in both stacks. So the connection pool lives inside {@link ReactiveConnections}
+ * rather than being a bean itself. For the same reason the R2DBC transaction manager is not a bean:
+ * a second TransactionManager would make every plain {@code @Transactional} ambiguous.
+ */
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+@EnableConfigurationProperties(R2dbcProperties.class)
+@EnableR2dbcRepositories(basePackageClasses = ReactiveProductRepository.class, entityOperationsRef = "reactiveEntityTemplate")
+public class ReactiveConfiguration {
+    
+    // Tomcat is also on the classpath (servlet stack) and would otherwise win; use Netty's event loop
+    @Bean
+    NettyReactiveWebServerFactory nettyReactiveWebServerFactory() {
+        return new NettyReactiveWebServerFactory();
+    }
+    
+    @Bean
+    ReactiveConnections reactiveConnections(R2dbcProperties properties) {
+        return new ReactiveConnections(properties);
+    }
+    
+    @Bean
+    R2dbcEntityTemplate reactiveEntityTemplate(ReactiveConnections connections) {
+        return new R2dbcEntityTemplate(connections.connectionFactory());
+    }
+    
+    @Bean
+    TransactionalOperator reactiveTransactionalOperator(ReactiveConnections connections) {
+        return TransactionalOperator.create(new R2dbcTransactionManager(connections.connectionFactory()));
+    }
+    
+    public static class ReactiveConnections implements DisposableBean {
+        
+        private final ConnectionPool pool;
+        
+        ReactiveConnections(R2dbcProperties properties) {
+            ConnectionFactory connectionFactory = ConnectionFactoryBuilder.withUrl(properties.getUrl())
+                .username(properties.getUsername())
+                .password(properties.getPassword())
+                .build();
+            R2dbcProperties.Pool pool = properties.getPool();
+            this.pool = new ConnectionPool(ConnectionPoolConfiguration.builder(connectionFactory)
+                .initialSize(pool.getInitialSize())
+                .maxSize(pool.getMaxSize())
+                .maxIdleTime(pool.getMaxIdleTime())
+                .build());
+        }
+        
+        public ConnectionFactory connectionFactory() {
+            return pool;
+        }
+        
+        @Override
+        public void destroy() {
+            pool.dispose();
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package com.verto.ase_challenge.reactive;
+
+import com.verto.ase_challenge.dto.BatchStockUpdateRequest;
+import com.verto.ase_challenge.dto.BatchStockUpdateResponse;
+import com.verto.ase_challenge.dto.ProductPage;
+import com.verto.ase_challenge.dto.ProductQuery;
+import com.verto.ase_challenge.dto.ProductRequest;
+import com.verto.ase_challenge.dto.ProductResponse;
+import com.verto.ase_challenge.dto.StockUpdateRequest;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * WebFlux implementation of the {@code /api/products} contract served by
+ * {@link com.verto.ase_challenge.controller.ProductController} on the servlet stack.
+ * Active when the application runs as a reactive web application (the "reactive" profile).
+ */
+@RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+@RequestMapping("/api/products")
+@RequiredArgsConstructor
+@Slf4j
+public class ReactiveProductController {
+    
+    private final ReactiveProductService productService;
+    
+    @PostMapping
+    public Mono<ResponseEntity<ProductResponse>> createProduct(@Valid @RequestBody ProductRequest request) {
+        log.debug("POST /api/products - Creating product: {}", request.getName());
+        return productService.createProduct(request)
+            .map(response -> ResponseEntity.status(HttpStatus.CREATED).eTag(response.eTag()).body(response));
+    }
+    
+    @GetMapping("/{id}")
+    public Mono<ResponseEntity<ProductResponse>> getProduct(@PathVariable Long id) {
+        log.debug("GET /api/products/{} - Fetching product", id);
+        // A matching If-None-Match is answered with 304 before the body is encoded
+        return productService.getProductById(id).map(ReactiveProductController::withETag);
+    }
+    
+    @GetMapping
+    public Mono<ResponseEntity<ProductPage>> getAllProducts(ProductQuery query) {
+        log.debug("GET /api/products - Fetching products page");
+        return productService.getProducts(query).map(ResponseEntity::ok);
+    }
+    
+    @GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<ProductResponse> exportProducts() {
+        log.debug("GET /api/products/export - Streaming product export");
+        return productService.exportProducts();
+    }
+    
+    @PutMapping("/{id}")
+    public Mono<ResponseEntity<ProductResponse>> updateProduct(
+            @PathVariable Long id,
+            @Valid @RequestBody ProductRequest request,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        log.debug("PUT /api/products/{} - Updating product", id);
+        return productService.updateProduct(id, request, ifMatch).map(ReactiveProductController::withETag);
+    }
+    
+    @DeleteMapping("/{id}")
+    public Mono<ResponseEntity<Void>> deleteProduct(@PathVariable Long id) {
+        log.debug("DELETE /api/products/{} - Deleting product", id);
+        return productService.deleteProduct(id).then(Mono.just(ResponseEntity.noContent().<Void>build()));
+    }
+    
+    @PostMapping("/{id}/stock/increase")
+    public Mono<ResponseEntity<ProductResponse>> increaseStock(
+            @PathVariable Long id,
+            @Valid @RequestBody StockUpdateRequest request,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        log.debug("POST /api/products/{}/stock/increase - Increasing stock by {}", id, request.getQuantity());
+        return productService.increaseStock(id, request.getQuantity(), ifMatch).map(ReactiveProductController::withETag);
+    }
+    
+    @PostMapping("/{id}/stock/decrease")
+    public Mono<ResponseEntity<ProductResponse>> decreaseStock(
+            @PathVariable Long id,
+            @Valid @RequestBody StockUpdateRequest request,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        log.debug("POST /api/products/{}/stock/decrease - Decreasing stock by {}", id, request.getQuantity());
+        return productService.decreaseStock(id, request.getQuantity(), ifMatch).map(ReactiveProductController::withETag);
+    }
+    
+    @PostMapping("/stock/batch")
+    public Mono<ResponseEntity<BatchStockUpdateResponse>> adjustStockBatch(
+            @Valid @RequestBody BatchStockUpdateRequest request) {
+        log.debug("POST /api/products/stock/batch - Applying {} stock adjustments", request.getItems().size());
+        return productService.adjustStockBatch(request).map(ResponseEntity::ok);
+    }
+    
+    @GetMapping("/low-stock")
+    public Flux<ProductResponse> getLowStockProducts() {
+        log.debug("GET /api/products/low-stock - Fetching low stock products");
+        return productService.getLowStockProducts();
+    }
+    
+    private static ResponseEntity<ProductResponse> withETag(ProductResponse response) {
+        return ResponseEntity.ok().eTag(response.eTag()).body(response);
+    }
+}
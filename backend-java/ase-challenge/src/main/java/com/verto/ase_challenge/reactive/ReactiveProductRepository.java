@@ -0,0 +1,72 @@
+package com.verto.ase_challenge.reactive;
+
+import org.springframework.data.r2dbc.repository.Modifying;
+import org.springframework.data.r2dbc.repository.Query;
+import org.springframework.data.r2dbc.repository.R2dbcRepository;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Non-blocking counterpart of {@link com.verto.ase_challenge.repository.ProductRepository}.
+ * Stock changes use the same guarded UPDATEs, so the affected-row count decides the outcome; a
+ * details update may not set the stock below what reservations and locations hold.
+ * The {@code *AtVersion} variants additionally require the version an If-Match header was checked against.
+ */
+@Repository
+public interface ReactiveProductRepository extends R2dbcRepository<ProductRow, Long> {
+    
+    @Query("SELECT * FROM products WHERE low_stock = TRUE ORDER BY id")
+    Flux<ProductRow> findLowStockProducts();
+    
+    @Modifying
+    @Query("UPDATE products SET name = :name, description = :description, stock_quantity = :stockQuantity, " +
+           "low_stock_threshold = :lowStockThreshold, version = version + 1 " +
+           "WHERE id = :id AND :stockQuantity >= reserved_quantity + located_quantity")
+    Mono<Integer> updateDetails(@Param("id") Long id, @Param("name") String name,
+                                @Param("description") String description,
+                                @Param("stockQuantity") int stockQuantity,
+                                @Param("lowStockThreshold") int lowStockThreshold);
+    
+    @Modifying
+    @Query("UPDATE products SET name = :name, description = :description, stock_quantity = :stockQuantity, " +
+           "low_stock_threshold = :lowStockThreshold, version = version + 1 " +
+           "WHERE id = :id AND :stockQuantity >= reserved_quantity + located_quantity AND version = :version")
+    Mono<Integer> updateDetailsAtVersion(@Param("id") Long id, @Param("name") String name,
+                                         @Param("description") String description,
+                                         @Param("stockQuantity") int stockQuantity,
+                                         @Param("lowStockThreshold") int lowStockThreshold,
+                                         @Param("version") long version);
+    
+    @Modifying
+    @Query("DELETE FROM products WHERE id = :id")
+    Mono<Integer> deleteProduct(@Param("id") Long id);
+    
+    @Modifying
+    @Query("UPDATE products SET stock_quantity = stock_quantity + :quantity, version = version + 1 WHERE id = :id")
+    Mono<Integer> increaseStock(@Param("id") Long id, @Param("quantity") int quantity);
+    
+    @Modifying
+    @Query("UPDATE products SET stock_quantity = stock_quantity + :quantity, version = version + 1 " +
+           "WHERE id = :id AND version = :version")
+    Mono<Integer> increaseStockAtVersion(@Param("id") Long id, @Param("quantity") int quantity,
+                                         @Param("version") long version);
+    
+    @Modifying
+    @Query("UPDATE products SET stock_quantity = stock_quantity - :quantity, version = version + 1 " +
+           "WHERE id = :id AND stock_quantity - reserved_quantity - located_quantity >= :quantity")
+    Mono<Integer> decreaseStock(@Param("id") Long id, @Param("quantity") int quantity);
+    
+    @Modifying
+    @Query("UPDATE products SET stock_quantity = stock_quantity - :quantity, version = version + 1 " +
+           "WHERE id = :id AND stock_quantity - reserved_quantity - located_quantity >= :quantity " +
+           "AND version = :version")
+    Mono<Integer> decreaseStockAtVersion(@Param("id") Long id, @Param("quantity") int quantity,
+                                         @Param("version") long version);
+    
+    @Modifying
+    @Query("UPDATE products SET stock_quantity = stock_quantity + :delta, version = version + 1 " +
+           "WHERE id = :id AND stock_quantity + :delta >= reserved_quantity + located_quantity")
+    Mono<Integer> applyStockDelta(@Param("id") Long id, @Param("delta") int delta);
+}
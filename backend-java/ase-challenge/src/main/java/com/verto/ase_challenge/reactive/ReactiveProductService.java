@@ -0,0 +1,309 @@
+package com.verto.ase_challenge.reactive;
+
+import com.verto.ase_challenge.dto.BatchStockUpdateRequest;
+import com.verto.ase_challenge.dto.BatchStockUpdateResponse;
+import com.verto.ase_challenge.dto.ProductPage;
+import com.verto.ase_challenge.dto.ProductQuery;
+import com.verto.ase_challenge.dto.ProductRequest;
+import com.verto.ase_challenge.dto.ProductResponse;
+import com.verto.ase_challenge.dto.StockAdjustmentItem;
+import com.verto.ase_challenge.dto.StockAdjustmentResult;
+import com.verto.ase_challenge.events.StockEvents;
+import com.verto.ase_challenge.exception.InsufficientStockException;
+import com.verto.ase_challenge.exception.PreconditionFailedException;
+import com.verto.ase_challenge.exception.ProductNotFoundException;
+import com.verto.ase_challenge.repository.ProductRepository;
+import com.verto.ase_challenge.service.ProductService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.r2dbc.core.R2dbcEntityTemplate;
+import org.springframework.data.relational.core.query.Criteria;
+import org.springframework.data.relational.core.query.Query;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Non-blocking implementation of the {@link ProductService} contract: same validation
+ * outcomes, exceptions and messages, so {@code GlobalExceptionHandler} maps errors identically.
+ * The cache and write-behind counters are servlet-stack features and are not used here.
+ * Stock events are published once each statement (or, for all-or-nothing batches, the
+ * transaction) has completed.
+ */
+@Service
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+@RequiredArgsConstructor
+@Slf4j
+public class ReactiveProductService {
+    
+    private final ReactiveProductRepository productRepository;
+    private final R2dbcEntityTemplate template;
+    private final TransactionalOperator transactionalOperator;
+    private final StockEvents stockEvents;
+    
+    public Mono<ProductResponse> createProduct(ProductRequest request) {
+        log.debug("Creating product with name: {}", request.getName());
+        ProductRow row = new ProductRow(
+            null,
+            request.getName(),
+            request.getDescription(),
+            request.getStockQuantity(),
+            request.getLowStockThreshold() != null ? request.getLowStockThreshold() : 10,
+            0,
+            0,
+            null,
+            null
+        );
+        return productRepository.save(row)
+            .map(ProductRow::toResponse)
+            .doOnNext(response -> stockEvents.stockChanged(response, response.getStockQuantity(), false));
+    }
+    
+    public Mono<ProductResponse> getProductById(Long id) {
+        log.debug("Fetching product with ID: {}", id);
+        return findProductById(id).map(ProductRow::toResponse);
+    }
+    
+    public Mono<ProductPage> getProducts(ProductQuery query) {
+        int limit = ProductService.pageLimit(query);
+        Long afterId;
+        try {
+            afterId = ProductService.decodeCursor(query.getCursor());
+        } catch (RuntimeException ex) {
+            return Mono.error(ex);
+        }
+        log.debug("Fetching products after ID: {} with limit: {}", afterId, limit);
+        
+        return template.select(ProductRow.class)
+            .matching(Query.query(matching(afterId, query)).sort(Sort.by("id")).limit(limit + 1))
+            .all()
+            .map(ProductRow::toResponse)
+            .collectList()
+            .map(items -> {
+                boolean hasMore = items.size() > limit;
+                List<ProductResponse> page = hasMore ? items.subList(0, limit) : items;
+                String nextCursor = hasMore ? ProductService.encodeCursor(page.get(page.size() - 1).getId()) : null;
+                return new ProductPage(page, nextCursor);
+            });
+    }
+    
+    // Rows are pulled from the driver only as fast as the client consumes them, in fetch-size chunks
+    public Flux<ProductResponse> exportProducts() {
+        log.debug("Exporting all products");
+        return productRepository.findAll(Sort.by("id"))
+            .limitRate(ProductRepository.EXPORT_FETCH_SIZE)
+            .map(ProductRow::toResponse);
+    }
+    
+    public Mono<ProductResponse> updateProduct(Long id, ProductRequest request) {
+        return updateProduct(id, request, null);
+    }
+    
+    public Mono<ProductResponse> updateProduct(Long id, ProductRequest request, String ifMatch) {
+        log.debug("Updating product with ID: {}", id);
+        int lowStockThreshold = request.getLowStockThreshold() != null ? request.getLowStockThreshold() : 10;
+        // Read first in any case: the stock event needs the previous level and threshold
+        return findProductById(id).flatMap(current -> {
+            ProductService.checkPrecondition(ifMatch, current.toResponse());
+            Mono<Integer> update = ifMatch == null || ifMatch.trim().equals("*")
+                ? productRepository.updateDetails(id, request.getName(), request.getDescription(),
+                    request.getStockQuantity(), lowStockThreshold)
+                : productRepository.updateDetailsAtVersion(id, request.getName(), request.getDescription(),
+                    request.getStockQuantity(), lowStockThreshold, current.getVersion());
+            return update
+                .flatMap(updated -> updated != 0
+                    ? getProductById(id)
+                    // No row matched: the product is gone, it changed since the If-Match check,
+                    // or the new total would not cover what is reserved and held at locations
+                    : findProductById(id).flatMap(product ->
+                        Mono.<ProductResponse>error(updateRejected(product, request.getStockQuantity()))))
+                .doOnNext(response -> stockEvents.stockChanged(response,
+                    response.getStockQuantity() - current.getStockQuantity(),
+                    current.getStockQuantity() <= current.getLowStockThreshold()));
+        });
+    }
+    
+    public Mono<Void> deleteProduct(Long id) {
+        log.debug("Deleting product with ID: {}", id);
+        return productRepository.deleteProduct(id)
+            .flatMap(deleted -> deleted == 0 ? notFound(id) : Mono.empty())
+            .then(Mono.fromRunnable(() -> stockEvents.productDeleted(id)));
+    }
+    
+    public Mono<ProductResponse> increaseStock(Long id, Integer quantity) {
+        return increaseStock(id, quantity, null);
+    }
+    
+    public Mono<ProductResponse> increaseStock(Long id, Integer quantity, String ifMatch) {
+        log.debug("Increasing stock for product ID: {} by quantity: {}", id, quantity);
+        return expectedVersion(id, ifMatch)
+            .flatMap(version -> version.isEmpty()
+                ? productRepository.increaseStock(id, quantity)
+                : productRepository.increaseStockAtVersion(id, quantity, version.get()))
+            .flatMap(updated -> updated == 0
+                ? findProductById(id).flatMap(product -> Mono.<ProductResponse>error(modifiedConcurrently(product)))
+                : getProductById(id))
+            .doOnNext(response -> stockEvents.stockChanged(response, quantity));
+    }
+    
+    public Mono<ProductResponse> decreaseStock(Long id, Integer quantity) {
+        return decreaseStock(id, quantity, null);
+    }
+    
+    public Mono<ProductResponse> decreaseStock(Long id, Integer quantity, String ifMatch) {
+        log.debug("Decreasing stock for product ID: {} by quantity: {}", id, quantity);
+        return expectedVersion(id, ifMatch)
+            .flatMap(version -> (version.isEmpty()
+                    ? productRepository.decreaseStock(id, quantity)
+                    : productRepository.decreaseStockAtVersion(id, quantity, version.get()))
+                .flatMap(updated -> updated != 0
+                    ? getProductById(id)
+                    // No row matched: the product is gone, it changed since the If-Match check,
+                    // or the guard rejected the decrement
+                    : findProductById(id).flatMap(product -> Mono.error(version.isPresent()
+                            && !version.get().equals(product.getVersion())
+                        ? modifiedConcurrently(product)
+                        : new InsufficientStockException(String.format("Insufficient stock. Available: %d, Requested: %d",
+                            product.getAvailableQuantity(), quantity))))))
+            .doOnNext(response -> stockEvents.stockChanged(response, -quantity));
+    }
+    
+    public Mono<BatchStockUpdateResponse> adjustStockBatch(BatchStockUpdateRequest request) {
+        // Apply in id order so concurrent batches lock rows in the same sequence
+        List<StockAdjustmentItem> items = request.getItems()
+            .stream()
+            .sorted(Comparator.comparing(StockAdjustmentItem::getId))
+            .toList();
+        log.debug("Applying batch of {} stock adjustments in {} mode", items.size(), request.getMode());
+        
+        if (request.getMode() == BatchStockUpdateRequest.Mode.ALL_OR_NOTHING) {
+            // Any failing item errors the whole flux, which rolls the transaction back
+            return Flux.fromIterable(items)
+                .concatMap(item -> applyItem(item).flatMap(adjustment -> adjustment.applied()
+                    ? Mono.just(adjustment)
+                    : Mono.error(failure(adjustment.result()))))
+                .collectList()
+                .as(transactionalOperator::transactional)
+                .map(adjustments -> {
+                    adjustments.forEach(this::publish);
+                    List<StockAdjustmentResult> results = adjustments.stream().map(Adjustment::result).toList();
+                    return new BatchStockUpdateResponse(request.getMode(), results.size(), 0, results);
+                });
+        }
+        
+        return Flux.fromIterable(items)
+            .concatMap(this::applyItem)
+            .doOnNext(this::publish)
+            .map(Adjustment::result)
+            .collectList()
+            .map(results -> {
+                int failed = (int) results.stream()
+                    .filter(result -> result.getStatus() != StockAdjustmentResult.Status.APPLIED)
+                    .count();
+                log.debug("Stock batch finished. Applied: {}, Failed: {}", results.size() - failed, failed);
+                return new BatchStockUpdateResponse(request.getMode(), results.size() - failed, failed, results);
+            });
+    }
+    
+    public Flux<ProductResponse> getLowStockProducts() {
+        log.debug("Fetching products with low stock");
+        return productRepository.findLowStockProducts().map(ProductRow::toResponse);
+    }
+    
+    private Mono<Adjustment> applyItem(StockAdjustmentItem item) {
+        return productRepository.applyStockDelta(item.getId(), item.getDelta())
+            .flatMap(updated -> productRepository.findById(item.getId())
+                .map(row -> updated != 0
+                    ? new Adjustment(new StockAdjustmentResult(item.getId(), item.getDelta(),
+                        StockAdjustmentResult.Status.APPLIED, row.getStockQuantity(), null), row)
+                    : new Adjustment(new StockAdjustmentResult(item.getId(), item.getDelta(),
+                        StockAdjustmentResult.Status.INSUFFICIENT_STOCK, row.getStockQuantity(),
+                        String.format("Insufficient stock. Available: %d, Requested: %d",
+                            row.getAvailableQuantity(), -item.getDelta())), row))
+                .defaultIfEmpty(new Adjustment(new StockAdjustmentResult(item.getId(), item.getDelta(),
+                    StockAdjustmentResult.Status.NOT_FOUND, null, "Product not found with ID: " + item.getId()), null)));
+    }
+    
+    private void publish(Adjustment adjustment) {
+        if (adjustment.applied()) {
+            stockEvents.stockChanged(adjustment.row().toResponse(), adjustment.result().getDelta());
+        }
+    }
+    
+    // A batch item's outcome together with the row as read right after it
+    private record Adjustment(StockAdjustmentResult result, ProductRow row) {
+        
+        boolean applied() {
+            return result.getStatus() == StockAdjustmentResult.Status.APPLIED;
+        }
+    }
+    
+    private static RuntimeException failure(StockAdjustmentResult result) {
+        log.debug("Rejecting stock batch at product ID: {}. {}", result.getId(), result.getMessage());
+        return result.getStatus() == StockAdjustmentResult.Status.NOT_FOUND
+            ? new ProductNotFoundException(result.getMessage())
+            : new InsufficientStockException(result.getMessage());
+    }
+    
+    // Mirrors ProductSpecifications: only requested filters reach the WHERE clause
+    private static Criteria matching(Long afterId, ProductQuery query) {
+        Criteria criteria = Criteria.empty();
+        if (afterId != null) {
+            criteria = criteria.and("id").greaterThan(afterId);
+        }
+        if (query.getMinStock() != null) {
+            criteria = criteria.and("stockQuantity").greaterThanOrEquals(query.getMinStock());
+        }
+        if (query.getMaxStock() != null) {
+            criteria = criteria.and("stockQuantity").lessThanOrEquals(query.getMaxStock());
+        }
+        if (query.getLowStock() != null) {
+            criteria = criteria.and("lowStock").is(query.getLowStock());
+        }
+        return criteria;
+    }
+    
+    // The version an If-Match header was checked against, for the guarded UPDATE to re-check;
+    // empty when there is no header or it is "*", and an error when the check already fails.
+    // Without a header the UPDATE's row count alone means the product does not exist.
+    private Mono<Optional<Long>> expectedVersion(Long id, String ifMatch) {
+        if (ifMatch == null) {
+            return Mono.just(Optional.empty());
+        }
+        return findProductById(id).map(product -> {
+            ProductService.checkPrecondition(ifMatch, product.toResponse());
+            return ifMatch.trim().equals("*") ? Optional.<Long>empty() : Optional.of(product.getVersion());
+        });
+    }
+    
+    private static RuntimeException updateRejected(ProductRow product, int stockQuantity) {
+        int held = product.getStockQuantity() - product.getAvailableQuantity();
+        if (stockQuantity < held) {
+            return new InsufficientStockException(String.format(
+                "Stock quantity cannot be below the %d units reserved or held at locations. Requested: %d",
+                held, stockQuantity));
+        }
+        return modifiedConcurrently(product);
+    }
+    
+    private static RuntimeException modifiedConcurrently(ProductRow product) {
+        return new PreconditionFailedException(
+            "Product " + product.getId() + " has changed. Current ETag: " + product.toResponse().eTag());
+    }
+    
+    private Mono<ProductRow> findProductById(Long id) {
+        return productRepository.findById(id)
+            .switchIfEmpty(Mono.error(() -> new ProductNotFoundException("Product not found with ID: " + id)));
+    }
+    
+    private static <T> Mono<T> notFound(Long id) {
+        return Mono.error(new ProductNotFoundException("Product not found with ID: " + id));
+    }
+}
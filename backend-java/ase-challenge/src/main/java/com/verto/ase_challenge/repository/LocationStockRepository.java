@@ -0,0 +1,59 @@
+package com.verto.ase_challenge.repository;
+
+import com.verto.ase_challenge.dto.LocationStockResponse;
+import com.verto.ase_challenge.entity.LocationStock;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface LocationStockRepository extends JpaRepository<LocationStock, Long> {
+    
+    String RESPONSE_SELECT = "SELECT new com.verto.ase_challenge.dto.LocationStockResponse("
+        + "l.productId, l.location, l.quantity) FROM LocationStock l ";
+    
+    @Query(RESPONSE_SELECT + "WHERE l.productId = :productId ORDER BY l.location")
+    List<LocationStockResponse> findResponsesByProductId(@Param("productId") Long productId);
+    
+    @Query(RESPONSE_SELECT + "WHERE l.productId = :productId AND l.location = :location")
+    Optional<LocationStockResponse> findResponse(@Param("productId") Long productId, @Param("location") String location);
+    
+    // Upsert and increment in one statement, so the first delivery to a new location needs
+    // no separate existence check
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(nativeQuery = true, value =
+        "MERGE INTO location_stock t USING (VALUES (CAST(:productId AS BIGINT), CAST(:location AS VARCHAR), " +
+        "CAST(:quantity AS INTEGER))) s (product_id, location, quantity) " +
+        "ON t.product_id = s.product_id AND t.location = s.location " +
+        "WHEN MATCHED THEN UPDATE SET quantity = t.quantity + s.quantity " +
+        "WHEN NOT MATCHED THEN INSERT (product_id, location, quantity, aggregated_quantity) " +
+        "VALUES (s.product_id, s.location, s.quantity, 0)")
+    int addStock(@Param("productId") Long productId, @Param("location") String location, @Param("quantity") int quantity);
+    
+    // 0 when the location has no row for the product or not enough stock
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE LocationStock l SET l.quantity = l.quantity - :quantity " +
+           "WHERE l.productId = :productId AND l.location = :location AND l.quantity >= :quantity")
+    int removeStock(@Param("productId") Long productId, @Param("location") String location, @Param("quantity") int quantity);
+    
+    @Query("SELECT l FROM LocationStock l WHERE l.productId IN :productIds AND l.quantity <> l.aggregatedQuantity")
+    List<LocationStock> findUnaggregated(@Param("productIds") Collection<Long> productIds);
+    
+    @Query("SELECT l FROM LocationStock l WHERE l.quantity <> l.aggregatedQuantity")
+    List<LocationStock> findAllUnaggregated();
+    
+    // Adds what was folded rather than copying quantity, which may have moved on since it was read
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE LocationStock l SET l.aggregatedQuantity = l.aggregatedQuantity + :folded WHERE l.id = :id")
+    int markAggregated(@Param("id") Long id, @Param("folded") int folded);
+    
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("DELETE FROM LocationStock l WHERE l.productId = :productId")
+    int deleteByProductId(@Param("productId") Long productId);
+}
@@ -0,0 +1,30 @@
+package com.verto.ase_challenge.repository;
+
+import com.verto.ase_challenge.entity.LowStockAlert;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface LowStockAlertRepository extends JpaRepository<LowStockAlert, Long> {
+    
+    // Oldest first, so each product's crossings are seen in the order they committed
+    List<LowStockAlert> findByStatusOrderByIdAsc(LowStockAlert.Status status, Limit limit);
+    
+    long countByStatus(LowStockAlert.Status status);
+    
+    // Guarded on PENDING so a row is only ever settled once
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE LowStockAlert a SET a.status = :status, a.processedAt = :processedAt " +
+           "WHERE a.id IN :ids AND a.status = com.verto.ase_challenge.entity.LowStockAlert.Status.PENDING")
+    int markProcessed(@Param("ids") Collection<Long> ids,
+                      @Param("status") LowStockAlert.Status status,
+                      @Param("processedAt") Instant processedAt);
+}
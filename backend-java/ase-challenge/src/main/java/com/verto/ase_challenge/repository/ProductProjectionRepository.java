@@ -0,0 +1,13 @@
+package com.verto.ase_challenge.repository;
+
+import com.verto.ase_challenge.dto.ProductResponse;
+import com.verto.ase_challenge.entity.Product;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.List;
+
+public interface ProductProjectionRepository {
+    
+    // First limit matches in id order, built straight from the selected columns
+    List<ProductResponse> findResponses(Specification<Product> specification, int limit);
+}
@@ -0,0 +1,45 @@
+package com.verto.ase_challenge.repository;
+
+import com.verto.ase_challenge.dto.ProductResponse;
+import com.verto.ase_challenge.entity.Product;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.List;
+
+// The fluent findBy(Specification, ...) API can only return entities, so the filtered
+// listing builds its own criteria query with the same specification and a constructor
+// projection: no entity instances, no persistence context entries, no snapshots.
+@RequiredArgsConstructor
+public class ProductProjectionRepositoryImpl implements ProductProjectionRepository {
+    
+    private final EntityManager entityManager;
+    
+    @Override
+    public List<ProductResponse> findResponses(Specification<Product> specification, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<ProductResponse> query = cb.createQuery(ProductResponse.class);
+        Root<Product> root = query.from(Product.class);
+        query.select(cb.construct(ProductResponse.class,
+            root.get("id"),
+            root.get("name"),
+            root.get("description"),
+            root.get("stockQuantity"),
+            root.get("lowStockThreshold"),
+            root.get("lowStock"),
+            root.get("version")));
+        Predicate predicate = specification.toPredicate(root, query, cb);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        query.orderBy(cb.asc(root.get("id")));
+        return entityManager.createQuery(query)
+            .setMaxResults(limit)
+            .getResultList();
+    }
+}
@@ -1,17 +1,129 @@
 package com.verto.ase_challenge.repository;
 
+import com.verto.ase_challenge.dto.ProductResponse;
 import com.verto.ase_challenge.entity.Product;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
-public interface ProductRepository extends JpaRepository<Product, Long> {
+public interface ProductRepository extends JpaRepository<Product, Long>, JpaSpecificationExecutor<Product>,
+        ProductStockBatchRepository, ProductStreamingRepository, ProductProjectionRepository {
     
-    @Query("SELECT p FROM Product p WHERE p.stockQuantity <= p.lowStockThreshold")
-    List<Product> findLowStockProducts();
+    int EXPORT_FETCH_SIZE = 500;
     
-    boolean existsByNameIgnoreCase(String name);
-}
\ No newline at end of file
+    // Read paths select ProductResponse directly: no entity hydration, persistence context
+    // entries or dirty-checking snapshots, and isLowStock comes from the low_stock column
+    String RESPONSE_SELECT = "SELECT new com.verto.ase_challenge.dto.ProductResponse("
+        + "p.id, p.name, p.description, p.stockQuantity, p.lowStockThreshold, p.lowStock, p.version) FROM Product p ";
+    
+    @Query(RESPONSE_SELECT + "WHERE p.id = :id")
+    Optional<ProductResponse> findResponseById(@Param("id") Long id);
+    
+    @Query(RESPONSE_SELECT + "WHERE p.id IN :ids")
+    List<ProductResponse> findResponsesByIdIn(@Param("ids") Collection<Long> ids);
+    
+    @Query(RESPONSE_SELECT + "WHERE p.lowStock = true ORDER BY p.id")
+    List<ProductResponse> findLowStockProducts();
+    
+    @Query("SELECT COUNT(p) FROM Product p WHERE p.lowStock = true")
+    long countLowStockProducts();
+    
+    // What a decrement may take: stock that is neither reserved nor held at a location
+    @Query("SELECT p.stockQuantity - p.reservedQuantity - p.locatedQuantity FROM Product p WHERE p.id = :id")
+    Optional<Integer> findAvailableQuantity(@Param("id") Long id);
+    
+    // Name uniqueness checks go through the unique name_key index (see Product.nameKey);
+    // callers pass already normalized keys
+    boolean existsByNameKey(String nameKey);
+    
+    boolean existsByNameKeyAndIdNot(String nameKey, Long id);
+    
+    // One round trip for a whole import chunk instead of a query per row
+    @Query("SELECT p.nameKey FROM Product p WHERE p.nameKey IN :nameKeys")
+    List<String> findExistingNameKeys(@Param("nameKeys") Collection<String> nameKeys);
+    
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "" + EXPORT_FETCH_SIZE),
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT p.nameKey FROM Product p")
+    Stream<String> streamNameKeys();
+    
+    // Must be consumed inside a transaction and closed; rows are pulled from the
+    // cursor in chunks of EXPORT_FETCH_SIZE rather than materialized up front.
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "" + EXPORT_FETCH_SIZE),
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT p FROM Product p ORDER BY p.id")
+    Stream<Product> streamAll();
+    
+    // Same cursor as streamAll, but rows never become entities, so nothing needs detaching
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "" + EXPORT_FETCH_SIZE))
+    @Query(RESPONSE_SELECT + "ORDER BY p.id")
+    Stream<ProductResponse> streamAllResponses();
+    
+    // Atomic stock mutations: the returned row count is 0 when the product is missing
+    // (or, for decrements, when there is not enough stock left that is neither reserved
+    // nor held at a location). Bulk UPDATEs
+    // bypass @Version, so the ones that change stock bump it explicitly.
+    @Transactional
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Product p SET p.stockQuantity = p.stockQuantity + :quantity, p.version = p.version + 1 " +
+           "WHERE p.id = :id")
+    int increaseStock(@Param("id") Long id, @Param("quantity") int quantity);
+    
+    @Transactional
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Product p SET p.stockQuantity = p.stockQuantity - :quantity, p.version = p.version + 1 " +
+           "WHERE p.id = :id AND p.stockQuantity - p.reservedQuantity - p.locatedQuantity >= :quantity")
+    int decreaseStock(@Param("id") Long id, @Param("quantity") int quantity);
+    
+    // If-Match variants: also 0 when the row has moved past the version the client saw
+    @Transactional
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Product p SET p.stockQuantity = p.stockQuantity + :quantity, p.version = p.version + 1 " +
+           "WHERE p.id = :id AND p.version = :version")
+    int increaseStockAtVersion(@Param("id") Long id, @Param("quantity") int quantity, @Param("version") long version);
+    
+    @Transactional
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Product p SET p.stockQuantity = p.stockQuantity - :quantity, p.version = p.version + 1 " +
+           "WHERE p.id = :id AND p.version = :version " +
+           "AND p.stockQuantity - p.reservedQuantity - p.locatedQuantity >= :quantity")
+    int decreaseStockAtVersion(@Param("id") Long id, @Param("quantity") int quantity, @Param("version") long version);
+    
+    @Transactional
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Product p SET p.reservedQuantity = p.reservedQuantity + :quantity, p.version = p.version + 1 " +
+           "WHERE p.id = :id AND p.stockQuantity - p.reservedQuantity - p.locatedQuantity >= :quantity")
+    int reserveStock(@Param("id") Long id, @Param("quantity") int quantity);
+    
+    @Transactional
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Product p SET p.reservedQuantity = p.reservedQuantity - :quantity, p.version = p.version + 1 " +
+           "WHERE p.id = :id AND p.reservedQuantity >= :quantity")
+    int releaseReservedStock(@Param("id") Long id, @Param("quantity") int quantity);
+    
+    // Turns a hold into a sale: both on-hand and reserved stock drop by the held quantity
+    @Transactional
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Product p SET p.stockQuantity = p.stockQuantity - :quantity, " +
+           "p.reservedQuantity = p.reservedQuantity - :quantity, p.version = p.version + 1 " +
+           "WHERE p.id = :id AND p.reservedQuantity >= :quantity " +
+           "AND p.stockQuantity - p.locatedQuantity >= :quantity")
+    int commitReservedStock(@Param("id") Long id, @Param("quantity") int quantity);
+}
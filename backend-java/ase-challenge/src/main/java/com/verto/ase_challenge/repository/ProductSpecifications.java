@@ -0,0 +1,36 @@
+package com.verto.ase_challenge.repository;
+
+import com.verto.ase_challenge.dto.ProductQuery;
+import com.verto.ase_challenge.entity.Product;
+import jakarta.persistence.criteria.Predicate;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public final class ProductSpecifications {
+    
+    private ProductSpecifications() {
+    }
+    
+    // Only the filters that were actually requested end up in the WHERE clause,
+    // so the planner never sees "(:param IS NULL OR ...)" branches.
+    public static Specification<Product> matching(Long afterId, ProductQuery query) {
+        return (root, cq, cb) -> {
+            List<Predicate> predicates = new ArrayList<>();
+            if (afterId != null) {
+                predicates.add(cb.greaterThan(root.get("id"), afterId));
+            }
+            if (query.getMinStock() != null) {
+                predicates.add(cb.greaterThanOrEqualTo(root.get("stockQuantity"), query.getMinStock()));
+            }
+            if (query.getMaxStock() != null) {
+                predicates.add(cb.lessThanOrEqualTo(root.get("stockQuantity"), query.getMaxStock()));
+            }
+            if (query.getLowStock() != null) {
+                predicates.add(cb.equal(root.get("lowStock"), query.getLowStock()));
+            }
+            return cb.and(predicates.toArray(new Predicate[0]));
+        };
+    }
+}
@@ -0,0 +1,32 @@
+package com.verto.ase_challenge.repository;
+
+import com.verto.ase_challenge.dto.StockAdjustmentItem;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.function.ObjIntConsumer;
+
+public interface ProductStockBatchRepository {
+    
+    // Applies every delta as one guarded UPDATE in a single JDBC batch and returns
+    // the affected-row count per item, in the order the items were given.
+    int[] applyStockDeltas(List<StockAdjustmentItem> items);
+    
+    // Same guarded UPDATEs without bumping the version, for write-behind flushes: the
+    // counters already served that stock, so what clients see does not change
+    int[] flushStockDeltas(List<StockAdjustmentItem> items);
+    
+    // Folds per-product location deltas into both stock_quantity and located_quantity,
+    // one UPDATE per product in a single JDBC batch; see LocationStockAggregator
+    int[] applyLocatedDeltas(Map<Long, Integer> deltas);
+    
+    Map<Long, Integer> findStockQuantities(Collection<Long> ids);
+    
+    // Streams (id, stock_quantity) for every product without materializing the table
+    void loadStockQuantities(ObjIntConsumer<Long> consumer);
+    
+    // Overwrites stock_quantity for every entry in one JDBC batch, skipping rows whose
+    // reserved and located quantities would exceed the new level; returns the number of rows changed.
+    int restoreStockQuantities(Map<Long, Integer> stock);
+}
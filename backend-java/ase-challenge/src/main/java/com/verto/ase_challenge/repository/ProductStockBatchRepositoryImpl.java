@@ -0,0 +1,115 @@
+package com.verto.ase_challenge.repository;
+
+import com.verto.ase_challenge.dto.StockAdjustmentItem;
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+
+import java.sql.PreparedStatement;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.ObjIntConsumer;
+
+@RequiredArgsConstructor
+public class ProductStockBatchRepositoryImpl implements ProductStockBatchRepository {
+    
+    private static final String APPLY_DELTA_SQL =
+        "UPDATE products SET stock_quantity = stock_quantity + ?, version = version + 1 " +
+        "WHERE id = ? AND stock_quantity + ? >= reserved_quantity + located_quantity";
+    
+    private static final String FLUSH_DELTA_SQL =
+        "UPDATE products SET stock_quantity = stock_quantity + ? " +
+        "WHERE id = ? AND stock_quantity + ? >= reserved_quantity + located_quantity";
+    
+    // Unguarded: the location rows already checked their own stock
+    private static final String APPLY_LOCATED_DELTA_SQL =
+        "UPDATE products SET stock_quantity = stock_quantity + ?, located_quantity = located_quantity + ?, " +
+        "version = version + 1 WHERE id = ?";
+    
+    private static final String FIND_STOCK_SQL =
+        "SELECT id, stock_quantity FROM products WHERE id IN (:ids)";
+    
+    private static final String LOAD_ALL_STOCK_SQL =
+        "SELECT id, stock_quantity FROM products";
+    
+    private static final String RESTORE_STOCK_SQL =
+        "UPDATE products SET stock_quantity = ?, version = version + 1 " +
+        "WHERE id = ? AND reserved_quantity + located_quantity <= ?";
+    
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final EntityManager entityManager;
+    
+    @Override
+    public int[] applyStockDeltas(List<StockAdjustmentItem> items) {
+        return updateStock(APPLY_DELTA_SQL, items);
+    }
+    
+    @Override
+    public int[] flushStockDeltas(List<StockAdjustmentItem> items) {
+        return updateStock(FLUSH_DELTA_SQL, items);
+    }
+    
+    @Override
+    public int[] applyLocatedDeltas(Map<Long, Integer> deltas) {
+        entityManager.flush();
+        List<Map.Entry<Long, Integer>> entries = List.copyOf(deltas.entrySet());
+        int[] updateCounts = jdbcTemplate.getJdbcTemplate().batchUpdate(APPLY_LOCATED_DELTA_SQL, entries, entries.size(), (ps, entry) -> {
+            ps.setInt(1, entry.getValue());
+            ps.setInt(2, entry.getValue());
+            ps.setLong(3, entry.getKey());
+        })[0];
+        entityManager.clear();
+        return updateCounts;
+    }
+    
+    @Override
+    public Map<Long, Integer> findStockQuantities(Collection<Long> ids) {
+        Map<Long, Integer> stock = new HashMap<>();
+        if (ids.isEmpty()) {
+            return stock;
+        }
+        jdbcTemplate.query(FIND_STOCK_SQL, Map.of("ids", ids),
+            rs -> { stock.put(rs.getLong("id"), rs.getInt("stock_quantity")); });
+        return stock;
+    }
+    
+    @Override
+    public void loadStockQuantities(ObjIntConsumer<Long> consumer) {
+        jdbcTemplate.getJdbcTemplate().query(con -> {
+            PreparedStatement statement = con.prepareStatement(LOAD_ALL_STOCK_SQL);
+            statement.setFetchSize(ProductRepository.EXPORT_FETCH_SIZE);
+            return statement;
+        }, rs -> { consumer.accept(rs.getLong("id"), rs.getInt("stock_quantity")); });
+    }
+    
+    @Override
+    public int restoreStockQuantities(Map<Long, Integer> stock) {
+        if (stock.isEmpty()) {
+            return 0;
+        }
+        entityManager.flush();
+        List<Map.Entry<Long, Integer>> entries = List.copyOf(stock.entrySet());
+        int[] updateCounts = jdbcTemplate.getJdbcTemplate().batchUpdate(RESTORE_STOCK_SQL, entries, entries.size(), (ps, entry) -> {
+            ps.setInt(1, entry.getValue());
+            ps.setLong(2, entry.getKey());
+            ps.setInt(3, entry.getValue());
+        })[0];
+        entityManager.clear();
+        return Arrays.stream(updateCounts).sum();
+    }
+    
+    private int[] updateStock(String sql, List<StockAdjustmentItem> items) {
+        // Same contract as @Modifying(flushAutomatically = true, clearAutomatically = true)
+        entityManager.flush();
+        int[] updateCounts = jdbcTemplate.getJdbcTemplate().batchUpdate(sql, items, items.size(), (ps, item) -> {
+            ps.setInt(1, item.getDelta());
+            ps.setLong(2, item.getId());
+            ps.setInt(3, item.getDelta());
+        })[0];
+        entityManager.clear();
+        return updateCounts;
+    }
+}
@@ -0,0 +1,9 @@
+package com.verto.ase_challenge.repository;
+
+import com.verto.ase_challenge.entity.Product;
+
+public interface ProductStreamingRepository {
+    
+    // Evicts an entity read from a stream so the persistence context stays empty
+    void detach(Product product);
+}
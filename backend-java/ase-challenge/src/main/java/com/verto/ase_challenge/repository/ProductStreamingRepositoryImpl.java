@@ -0,0 +1,16 @@
+package com.verto.ase_challenge.repository;
+
+import com.verto.ase_challenge.entity.Product;
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+
+@RequiredArgsConstructor
+public class ProductStreamingRepositoryImpl implements ProductStreamingRepository {
+    
+    private final EntityManager entityManager;
+    
+    @Override
+    public void detach(Product product) {
+        entityManager.detach(product);
+    }
+}
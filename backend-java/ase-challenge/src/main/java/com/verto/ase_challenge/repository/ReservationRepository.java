@@ -0,0 +1,29 @@
+package com.verto.ase_challenge.repository;
+
+import com.verto.ase_challenge.entity.Reservation;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface ReservationRepository extends JpaRepository<Reservation, UUID> {
+    
+    List<Reservation> findByStatus(Reservation.Status status);
+    
+    // Status changes are guarded so that exactly one of confirm, release and expiry wins
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Reservation r SET r.status = :to WHERE r.id = :id AND r.status = :from")
+    int transition(@Param("id") UUID id, @Param("from") Reservation.Status from, @Param("to") Reservation.Status to);
+    
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Reservation r SET r.status = com.verto.ase_challenge.entity.Reservation.Status.CONFIRMED " +
+           "WHERE r.id = :id AND r.status = com.verto.ase_challenge.entity.Reservation.Status.ACTIVE " +
+           "AND r.expiresAt > :now")
+    int confirm(@Param("id") UUID id, @Param("now") Instant now);
+}
@@ -0,0 +1,133 @@
+package com.verto.ase_challenge.reservation;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+// Hashed timing wheel (Varghese & Lauck): timeouts are hashed into one of a fixed
+// number of buckets by deadline, and a single worker thread visits one bucket per
+// tick. Scheduling and cancelling are O(1) and no thread ever scans all timeouts.
+// New timeouts are handed to the worker through a lock-free queue, so the buckets
+// themselves are only ever touched by the worker.
+@Slf4j
+public final class HashedTimingWheel<T> implements AutoCloseable {
+    
+    public interface Timeout {
+        void cancel();
+    }
+    
+    private final long tickNanos;
+    private final int mask;
+    private final ArrayDeque<Entry<T>>[] buckets;
+    private final Queue<Entry<T>> incoming = new ConcurrentLinkedQueue<>();
+    private final Consumer<T> onExpiry;
+    private final Thread worker;
+    private final long startNanos;
+    private volatile boolean running = true;
+    
+    @SuppressWarnings("unchecked")
+    public HashedTimingWheel(String name, Duration tick, int wheelSize, Consumer<T> onExpiry) {
+        if (Integer.bitCount(wheelSize) != 1) {
+            throw new IllegalArgumentException("Wheel size must be a power of two: " + wheelSize);
+        }
+        this.tickNanos = tick.toNanos();
+        this.mask = wheelSize - 1;
+        this.buckets = new ArrayDeque[wheelSize];
+        for (int i = 0; i < wheelSize; i++) {
+            buckets[i] = new ArrayDeque<>();
+        }
+        this.onExpiry = onExpiry;
+        this.startNanos = System.nanoTime();
+        this.worker = new Thread(this::run, name);
+        this.worker.setDaemon(true);
+        this.worker.start();
+    }
+    
+    public Timeout schedule(T payload, Duration delay) {
+        Entry<T> entry = new Entry<>(payload, System.nanoTime() + Math.max(0, delay.toNanos()));
+        incoming.add(entry);
+        return entry;
+    }
+    
+    @Override
+    public void close() throws InterruptedException {
+        running = false;
+        worker.interrupt();
+        worker.join(TimeUnit.SECONDS.toMillis(5));
+    }
+    
+    private void run() {
+        long tick = 0;
+        while (running) {
+            long sleepNanos = startNanos + (tick + 1) * tickNanos - System.nanoTime();
+            if (sleepNanos > 0) {
+                try {
+                    TimeUnit.NANOSECONDS.sleep(sleepNanos);
+                } catch (InterruptedException ex) {
+                    if (!running) {
+                        return;
+                    }
+                    continue;
+                }
+            }
+            transferIncoming(tick);
+            expire(buckets[(int) (tick & mask)]);
+            tick++;
+        }
+    }
+    
+    private void transferIncoming(long currentTick) {
+        Entry<T> entry;
+        while ((entry = incoming.poll()) != null) {
+            if (entry.cancelled) {
+                continue;
+            }
+            // Deadlines that already passed land in the bucket processed right now
+            long targetTick = Math.max((entry.deadlineNanos - startNanos) / tickNanos, currentTick);
+            entry.remainingRounds = (targetTick - currentTick) / buckets.length;
+            buckets[(int) (targetTick & mask)].add(entry);
+        }
+    }
+    
+    private void expire(ArrayDeque<Entry<T>> bucket) {
+        for (Iterator<Entry<T>> it = bucket.iterator(); it.hasNext(); ) {
+            Entry<T> entry = it.next();
+            if (entry.cancelled) {
+                it.remove();
+            } else if (entry.remainingRounds <= 0) {
+                it.remove();
+                try {
+                    onExpiry.accept(entry.payload);
+                } catch (RuntimeException ex) {
+                    log.error("Timeout handler failed for {}: {}", entry.payload, ex.getMessage(), ex);
+                }
+            } else {
+                entry.remainingRounds--;
+            }
+        }
+    }
+    
+    private static final class Entry<T> implements Timeout {
+        
+        private final T payload;
+        private final long deadlineNanos;
+        private long remainingRounds;
+        private volatile boolean cancelled;
+        
+        private Entry(T payload, long deadlineNanos) {
+            this.payload = payload;
+            this.deadlineNanos = deadlineNanos;
+        }
+        
+        @Override
+        public void cancel() {
+            cancelled = true;
+        }
+    }
+}
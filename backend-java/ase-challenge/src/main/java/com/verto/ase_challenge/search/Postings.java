@@ -0,0 +1,135 @@
+package com.verto.ase_challenge.search;
+
+// Product ids containing one term, each with a bit mask of the fields it appears in.
+// Open addressing over primitive arrays with linear probing and backward-shift
+// deletion: a boxed map per term would cost several times the memory at a million
+// products. Id 0 marks an empty slot, which is safe since sequence ids start at 1.
+final class Postings {
+    
+    static final byte NAME = 1;
+    static final byte DESCRIPTION = 2;
+    
+    private static final int INITIAL_CAPACITY = 4;
+    
+    // Id of the dictionary word these postings belong to, or 0 for scratch sets
+    private final int word;
+    private long[] ids = new long[INITIAL_CAPACITY];
+    private byte[] fields = new byte[INITIAL_CAPACITY];
+    private int size;
+    
+    Postings() {
+        this(0);
+    }
+    
+    Postings(int word) {
+        this.word = word;
+    }
+    
+    int word() {
+        return word;
+    }
+    
+    int size() {
+        return size;
+    }
+    
+    boolean isEmpty() {
+        return size == 0;
+    }
+    
+    // 0 when the product does not contain the term
+    byte fields(long id) {
+        int mask = ids.length - 1;
+        for (int slot = index(id, mask); ; slot = (slot + 1) & mask) {
+            long current = ids[slot];
+            if (current == id) {
+                return fields[slot];
+            }
+            if (current == 0) {
+                return 0;
+            }
+        }
+    }
+    
+    void add(long id, byte field) {
+        // Keep the load factor at or below one half so probe sequences stay short
+        if ((size + 1) * 2 > ids.length) {
+            resize(ids.length * 2);
+        }
+        int mask = ids.length - 1;
+        for (int slot = index(id, mask); ; slot = (slot + 1) & mask) {
+            long current = ids[slot];
+            if (current == id) {
+                fields[slot] |= field;
+                return;
+            }
+            if (current == 0) {
+                ids[slot] = id;
+                fields[slot] = field;
+                size++;
+                return;
+            }
+        }
+    }
+    
+    void remove(long id) {
+        int mask = ids.length - 1;
+        int slot = index(id, mask);
+        while (ids[slot] != id) {
+            if (ids[slot] == 0) {
+                return;
+            }
+            slot = (slot + 1) & mask;
+        }
+        
+        // Pull later entries of the probe run back into the hole instead of leaving a tombstone
+        int hole = slot;
+        for (int next = (hole + 1) & mask; ids[next] != 0; next = (next + 1) & mask) {
+            int home = index(ids[next], mask);
+            boolean movable = hole <= next ? home <= hole || home > next : home <= hole && home > next;
+            if (movable) {
+                ids[hole] = ids[next];
+                fields[hole] = fields[next];
+                hole = next;
+            }
+        }
+        ids[hole] = 0;
+        fields[hole] = 0;
+        size--;
+    }
+    
+    // False when the visitor stopped early
+    boolean forEach(Visitor visitor) {
+        for (int slot = 0; slot < ids.length; slot++) {
+            if (ids[slot] != 0 && !visitor.visit(ids[slot], fields[slot])) {
+                return false;
+            }
+        }
+        return true;
+    }
+    
+    @FunctionalInterface
+    interface Visitor {
+        // Returns false to stop the iteration
+        boolean visit(long id, byte fields);
+    }
+    
+    private void resize(int capacity) {
+        long[] oldIds = ids;
+        byte[] oldFields = fields;
+        ids = new long[capacity];
+        fields = new byte[capacity];
+        size = 0;
+        for (int slot = 0; slot < oldIds.length; slot++) {
+            if (oldIds[slot] != 0) {
+                add(oldIds[slot], oldFields[slot]);
+            }
+        }
+    }
+    
+    private static int index(long id, int mask) {
+        // Sequential ids would cluster in adjacent slots without mixing
+        long hash = id * 0x9E3779B97F4A7C15L;
+        return (int) (hash ^ (hash >>> 32)) & mask;
+    }
+}
@@ -0,0 +1,610 @@
+package com.verto.ase_challenge.search;
+
+import com.verto.ase_challenge.entity.Product;
+import com.verto.ase_challenge.repository.ProductRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Stream;
+
+// In-memory inverted index over product names and descriptions (inventory.search.enabled).
+// Words map to postings of product ids; the word dictionary is sorted for prefix lookups,
+// and a trigram index over the dictionary (not over the documents, which would cost far
+// more memory) finds words containing a fragment. ProductService and the bulk import feed
+// it after commit; it is rebuilt from the database on startup. Writes that bypass them
+// (raw SQL, the reactive stack) are not seen until the next restart.
+@Component
+@Slf4j
+public class ProductSearchIndex {
+    
+    // Query words beyond this are ignored; each one narrows the result further anyway
+    static final int MAX_QUERY_WORDS = 8;
+    // A very short prefix or fragment can match a large part of the dictionary. Only the
+    // first words in dictionary order are used then, so results for it may be incomplete.
+    static final int MAX_EXPANSIONS = 1024;
+    // Words longer than this are truncated; nobody types them and they only bloat the dictionary
+    static final int MAX_WORD_LENGTH = 48;
+    // Deepest rank a page can reach, which also bounds the heap kept per search
+    public static final int MAX_RESULT_WINDOW = 10_000;
+    // Matches counted before a search may stop early; clients show "1000+" beyond this
+    public static final int MAX_COUNTED_HITS = 1_000;
+    
+    private static final int TRIGRAM = 3;
+    // Score for a query word matching a document word, best match wins per query word
+    private static final int NAME_EXACT = 8;
+    private static final int NAME_PARTIAL = 4;
+    private static final int DESCRIPTION_EXACT = 2;
+    private static final int DESCRIPTION_PARTIAL = 1;
+    private static final int[] TIERS = {NAME_EXACT, NAME_PARTIAL, DESCRIPTION_EXACT, DESCRIPTION_PARTIAL};
+    private static final String[] NO_WORDS = new String[0];
+    
+    private final ProductRepository productRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+    
+    // Searches share the read lock; index updates are short and take the write lock
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final NavigableMap<String, Postings> dictionary = new TreeMap<>();
+    private final Map<String, Set<String>> trigrams = new HashMap<>();
+    // Products refer to words by id: an int array is far cheaper to scan than String references
+    private final Map<Integer, String> wordsById = new HashMap<>();
+    private int nextWordId = 1;
+    // Words indexed for each product with the fields they appear in, so an update or delete
+    // can remove exactly those and a wide query word can be checked against one product
+    private final Map<Long, Document> documents = new HashMap<>();
+    
+    public ProductSearchIndex(
+            ProductRepository productRepository,
+            PlatformTransactionManager transactionManager,
+            @Value("${inventory.search.enabled:true}") boolean enabled) {
+        this.productRepository = productRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+        this.enabled = enabled;
+    }
+    
+    public boolean isEnabled() {
+        return enabled;
+    }
+    
+    @PostConstruct
+    public void rebuild() {
+        if (!enabled) {
+            return;
+        }
+        long started = System.nanoTime();
+        int indexed = transactionTemplate.execute(status -> {
+            int count = 0;
+            try (Stream<Product> products = productRepository.streamAll()) {
+                for (Product product : (Iterable<Product>) products::iterator) {
+                    apply(product.getId(), product.getName(), product.getDescription());
+                    productRepository.detach(product);
+                    count++;
+                }
+            }
+            return count;
+        });
+        log.info("Search index built for {} products ({} words) in {} ms",
+            indexed, dictionary.size(), (System.nanoTime() - started) / 1_000_000);
+    }
+    
+    // Index updates wait for the surrounding transaction to commit (apply immediately
+    // when there is none), so searches never return rolled-back products
+    public void index(Product product) {
+        if (!enabled) {
+            return;
+        }
+        Long id = product.getId();
+        String name = product.getName();
+        String description = product.getDescription();
+        afterCommit(() -> apply(id, name, description));
+    }
+    
+    public void remove(Long id) {
+        if (!enabled) {
+            return;
+        }
+        afterCommit(() -> apply(id, null, null));
+    }
+    
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return documents.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    // Products containing every query word, best score first; returns at most limit ids
+    // after skipping offset, plus the number of matches (see Hits)
+    public Hits search(String query, SearchMode mode, int offset, int limit) {
+        List<String> words = new ArrayList<>(new LinkedHashSet<>(Arrays.asList(tokenize(query))));
+        if (words.isEmpty() || !enabled || offset >= MAX_RESULT_WINDOW) {
+            return Hits.EMPTY;
+        }
+        if (words.size() > MAX_QUERY_WORDS) {
+            words = words.subList(0, MAX_QUERY_WORDS);
+        }
+        
+        lock.readLock().lock();
+        try {
+            List<Clause> clauses = new ArrayList<>(words.size());
+            for (String word : words) {
+                Clause clause = expand(word, mode);
+                if (clause.isEmpty()) {
+                    return Hits.EMPTY;
+                }
+                clauses.add(clause);
+            }
+            return collect(clauses, offset, limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    // Counting may stop once MAX_COUNTED_HITS matches are found and the ranking of the
+    // requested page is settled; total is then a lower bound and totalExact is false
+    public record Hits(int total, boolean totalExact, long[] ids) {
+        static final Hits EMPTY = new Hits(0, true, new long[0]);
+    }
+    
+    private void afterCommit(Runnable update) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    update.run();
+                }
+            });
+        } else {
+            update.run();
+        }
+    }
+    
+    // Replaces whatever was indexed for the product; a null name removes it
+    private void apply(Long id, String name, String description) {
+        String[] nameWords = name == null ? NO_WORDS : tokenize(name);
+        String[] descriptionWords = name == null ? NO_WORDS : tokenize(description);
+        
+        lock.writeLock().lock();
+        try {
+            Document previous = documents.remove(id);
+            if (previous != null) {
+                for (int wordId : previous.words()) {
+                    String word = wordsById.get(wordId);
+                    Postings postings = dictionary.get(word);
+                    postings.remove(id);
+                    if (postings.isEmpty()) {
+                        dictionary.remove(word);
+                        wordsById.remove(wordId);
+                        forgetTrigrams(word);
+                    }
+                }
+            }
+            if (name == null) {
+                return;
+            }
+            
+            Map<Integer, Byte> words = new LinkedHashMap<>();
+            for (String word : nameWords) {
+                words.merge(add(id, word, Postings.NAME), Postings.NAME, (a, b) -> (byte) (a | b));
+            }
+            for (String word : descriptionWords) {
+                words.merge(add(id, word, Postings.DESCRIPTION), Postings.DESCRIPTION, (a, b) -> (byte) (a | b));
+            }
+            int[] wordIds = new int[words.size()];
+            byte[] fields = new byte[words.size()];
+            int i = 0;
+            for (Map.Entry<Integer, Byte> entry : words.entrySet()) {
+                wordIds[i] = entry.getKey();
+                fields[i++] = entry.getValue();
+            }
+            documents.put(id, new Document(wordIds, fields));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+    
+    private record Document(int[] words, byte[] fields) {}
+    
+    // Returns the word's id, registering the word on first use
+    private int add(long id, String word, byte field) {
+        Postings postings = dictionary.get(word);
+        if (postings == null) {
+            postings = new Postings(nextWordId++);
+            dictionary.put(word, postings);
+            wordsById.put(postings.word(), word);
+            for (String trigram : trigramsOf(word)) {
+                trigrams.computeIfAbsent(trigram, key -> new HashSet<>()).add(word);
+            }
+        }
+        postings.add(id, field);
+        return postings.word();
+    }
+    
+    private void forgetTrigrams(String word) {
+        for (String trigram : trigramsOf(word)) {
+            Set<String> words = trigrams.get(trigram);
+            words.remove(word);
+            if (words.isEmpty()) {
+                trigrams.remove(trigram);
+            }
+        }
+    }
+    
+    // Dictionary words a query word matches in the given mode
+    private Clause expand(String word, SearchMode mode) {
+        Clause clause = new Clause(word);
+        if (mode == SearchMode.TOKEN) {
+            clause.add(word, dictionary.get(word));
+        } else if (mode == SearchMode.CONTAINS && word.length() >= TRIGRAM) {
+            for (String candidate : containing(word)) {
+                if (clause.isFull()) {
+                    break;
+                }
+                clause.add(candidate, dictionary.get(candidate));
+            }
+        } else {
+            // Prefix matching, also used for fragments too short to have a trigram
+            for (Map.Entry<String, Postings> entry : dictionary.tailMap(word, true).entrySet()) {
+                if (!entry.getKey().startsWith(word) || clause.isFull()) {
+                    break;
+                }
+                clause.add(entry.getKey(), entry.getValue());
+            }
+        }
+        return clause;
+    }
+    
+    // Intersects the word sets of every trigram of the fragment, smallest set first,
+    // then confirms each candidate since sharing trigrams does not imply containment
+    private List<String> containing(String fragment) {
+        List<Set<String>> sets = new ArrayList<>();
+        for (String trigram : trigramsOf(fragment)) {
+            Set<String> words = trigrams.get(trigram);
+            if (words == null) {
+                return List.of();
+            }
+            sets.add(words);
+        }
+        sets.sort((a, b) -> Integer.compare(a.size(), b.size()));
+        
+        List<String> matches = new ArrayList<>();
+        for (String candidate : sets.get(0)) {
+            boolean inAll = true;
+            for (int i = 1; i < sets.size() && inAll; i++) {
+                inAll = sets.get(i).contains(candidate);
+            }
+            if (inAll && candidate.contains(fragment)) {
+                matches.add(candidate);
+            }
+        }
+        matches.sort(null);
+        if (matches.remove(fragment)) {
+            matches.add(0, fragment);
+        }
+        return matches;
+    }
+    
+    // Visits the matches of the cheapest clause tier by tier, from name matches of the
+    // exact word down to description matches of longer words, and probes every other
+    // clause per candidate. Once the page is full and nothing left in the current tier
+    // could outscore it, and enough matches were counted, the rest is skipped: a common
+    // word then costs about as much as a rare one. Equal scores keep visiting order, so
+    // a longer page always starts with the shorter one. A single whole word is counted
+    // exactly for free, since its postings hold exactly its matches.
+    private Hits collect(List<Clause> clauses, int offset, int limit) {
+        clauses.sort((a, b) -> Long.compare(a.cost(), b.cost()));
+        Clause driver = clauses.get(0);
+        List<Clause> others = clauses.subList(1, clauses.size());
+        int othersBest = 0;
+        for (Clause clause : others) {
+            othersBest += clause.best();
+        }
+        
+        boolean singleWord = others.isEmpty() && driver.size() == 1;
+        int countTarget = singleWord ? 0 : MAX_COUNTED_HITS;
+        TopHits top = new TopHits(Math.min(offset + limit, MAX_RESULT_WINDOW));
+        // A product can match several words of the driver clause; only its best tier counts
+        Postings seen = driver.size() > 1 ? new Postings() : null;
+        int[] counted = new int[1];
+        for (int tier : TIERS) {
+            boolean inName = tier == NAME_EXACT || tier == NAME_PARTIAL;
+            boolean exactWords = tier == NAME_EXACT || tier == DESCRIPTION_EXACT;
+            int tierBest = tier + othersBest;
+            for (int i = 0; i < driver.size(); i++) {
+                if (driver.isExact(i) != exactWords) {
+                    continue;
+                }
+                boolean completed = driver.postings(i).forEach((id, fields) -> {
+                    if (((fields & Postings.NAME) != 0) != inName) {
+                        return true;
+                    }
+                    if (seen != null) {
+                        if (seen.fields(id) != 0) {
+                            return true;
+                        }
+                        seen.add(id, Postings.NAME);
+                    }
+                    int score = tier;
+                    for (Clause clause : others) {
+                        int clauseScore = clause.score(id);
+                        if (clauseScore == 0) {
+                            return true;
+                        }
+                        score += clauseScore;
+                    }
+                    counted[0]++;
+                    top.offer(score, id);
+                    return counted[0] < countTarget || !top.isFull() || top.lowestScore() < tierBest;
+                });
+                if (!completed) {
+                    return singleWord
+                        ? new Hits(driver.postings(0).size(), true, top.drain(offset))
+                        : new Hits(counted[0], false, top.drain(offset));
+                }
+            }
+        }
+        return new Hits(counted[0], true, top.drain(offset));
+    }
+    
+    // Lowercased runs of letters and digits
+    static String[] tokenize(String text) {
+        if (text == null || text.isEmpty()) {
+            return NO_WORDS;
+        }
+        List<String> words = new ArrayList<>();
+        int start = -1;
+        for (int i = 0; i <= text.length(); i++) {
+            boolean wordChar = i < text.length() && Character.isLetterOrDigit(text.charAt(i));
+            if (wordChar && start < 0) {
+                start = i;
+            } else if (!wordChar && start >= 0) {
+                words.add(text.substring(start, Math.min(i, start + MAX_WORD_LENGTH)).toLowerCase(Locale.ROOT));
+                start = -1;
+            }
+        }
+        return words.toArray(NO_WORDS);
+    }
+    
+    private static List<String> trigramsOf(String word) {
+        if (word.length() < TRIGRAM) {
+            return List.of();
+        }
+        List<String> result = new ArrayList<>(word.length() - TRIGRAM + 1);
+        for (int i = 0; i + TRIGRAM <= word.length(); i++) {
+            result.add(word.substring(i, i + TRIGRAM));
+        }
+        return result;
+    }
+    
+    // One query word and the postings of every dictionary word it matched
+    private final class Clause {
+        
+        // Up to this many postings are probed per candidate; a wider clause is checked
+        // against the candidate's own words instead, which costs the same however wide
+        private static final int MAX_PROBES = 4;
+        
+        private final String word;
+        private final List<Postings> postings = new ArrayList<>();
+        private final List<Boolean> exact = new ArrayList<>();
+        private long cost;
+        // Id of the query word itself when it is in the dictionary, otherwise 0
+        private int exactWord;
+        // Open-addressed set of the matched word ids at a load of at most one quarter,
+        // built on first use; most lookups for other words end on the first empty slot
+        private int[] wordIds;
+        
+        Clause(String word) {
+            this.word = word;
+        }
+        
+        void add(String match, Postings matchPostings) {
+            if (matchPostings == null) {
+                return;
+            }
+            postings.add(matchPostings);
+            exact.add(match.equals(word));
+            if (match.equals(word)) {
+                exactWord = matchPostings.word();
+            }
+            cost += matchPostings.size();
+        }
+        
+        int size() {
+            return postings.size();
+        }
+        
+        Postings postings(int index) {
+            return postings.get(index);
+        }
+        
+        boolean isExact(int index) {
+            return exact.get(index);
+        }
+        
+        boolean isEmpty() {
+            return postings.isEmpty();
+        }
+        
+        boolean isFull() {
+            return postings.size() >= MAX_EXPANSIONS;
+        }
+        
+        long cost() {
+            return cost;
+        }
+        
+        // Highest score a product can get from this clause
+        int best() {
+            return exactWord != 0 ? NAME_EXACT : NAME_PARTIAL;
+        }
+        
+        // 0 when the product does not match this query word
+        int score(long id) {
+            int best = 0;
+            if (postings.size() <= MAX_PROBES) {
+                for (int i = 0; i < postings.size() && best < NAME_EXACT; i++) {
+                    byte fields = postings.get(i).fields(id);
+                    if (fields != 0) {
+                        best = Math.max(best, weight(fields, exact.get(i)));
+                    }
+                }
+                return best;
+            }
+            
+            if (wordIds == null) {
+                wordIds = new int[Integer.highestOneBit(postings.size()) * 8];
+                for (Postings matched : postings) {
+                    int slot = slot(matched.word());
+                    while (wordIds[slot] != 0) {
+                        slot = (slot + 1) & (wordIds.length - 1);
+                    }
+                    wordIds[slot] = matched.word();
+                }
+            }
+            Document document = documents.get(id);
+            int[] words = document.words();
+            for (int i = 0; i < words.length && best < NAME_EXACT; i++) {
+                if (containsWord(words[i])) {
+                    best = Math.max(best, weight(document.fields()[i], words[i] == exactWord));
+                }
+            }
+            return best;
+        }
+        
+        private boolean containsWord(int wordId) {
+            for (int slot = slot(wordId); wordIds[slot] != 0; slot = (slot + 1) & (wordIds.length - 1)) {
+                if (wordIds[slot] == wordId) {
+                    return true;
+                }
+            }
+            return false;
+        }
+        
+        private int slot(int wordId) {
+            return (wordId * 0x9E3779B9) >>> 16 & (wordIds.length - 1);
+        }
+        
+        private static int weight(byte fields, boolean exactMatch) {
+            if ((fields & Postings.NAME) != 0) {
+                return exactMatch ? NAME_EXACT : NAME_PARTIAL;
+            }
+            return exactMatch ? DESCRIPTION_EXACT : DESCRIPTION_PARTIAL;
+        }
+    }
+    
+    // Bounded min-heap of hits keyed by score and then visiting order, packed into one long
+    private static final class TopHits {
+        
+        private static final long ORDER_MASK = (1L << 40) - 1;
+        
+        private final long[] keys;
+        private final long[] ids;
+        private int size;
+        private long visited;
+        
+        TopHits(int capacity) {
+            this.keys = new long[Math.max(capacity, 1)];
+            this.ids = new long[keys.length];
+        }
+        
+        boolean isFull() {
+            return size == keys.length;
+        }
+        
+        int lowestScore() {
+            return (int) (keys[0] >>> 40);
+        }
+        
+        void offer(int score, long id) {
+            // Inverting the order makes earlier hits the larger key among equal scores
+            long key = ((long) score << 40) | (ORDER_MASK - visited++);
+            if (size < keys.length) {
+                keys[size] = key;
+                ids[size] = id;
+                siftUp(size++);
+            } else if (key > keys[0]) {
+                keys[0] = key;
+                ids[0] = id;
+                siftDown(0);
+            }
+        }
+        
+        // Ids in rank order, skipping the first offset
+        long[] drain(int offset) {
+            long[] ranked = new long[Math.max(0, size - offset)];
+            for (int i = size - 1; i >= 0; i--) {
+                // Popping the minimum fills the ranking from the back
+                if (i - offset >= 0) {
+                    ranked[i - offset] = ids[0];
+                }
+                keys[0] = keys[i];
+                ids[0] = ids[i];
+                size = i;
+                siftDown(0);
+            }
+            return ranked;
+        }
+        
+        private void siftUp(int index) {
+            while (index > 0) {
+                int parent = (index - 1) / 2;
+                if (keys[parent] <= keys[index]) {
+                    return;
+                }
+                swap(parent, index);
+                index = parent;
+            }
+        }
+        
+        private void siftDown(int index) {
+            while (true) {
+                int smallest = index;
+                int left = 2 * index + 1;
+                int right = left + 1;
+                if (left < size && keys[left] < keys[smallest]) {
+                    smallest = left;
+                }
+                if (right < size && keys[right] < keys[smallest]) {
+                    smallest = right;
+                }
+                if (smallest == index) {
+                    return;
+                }
+                swap(smallest, index);
+                index = smallest;
+            }
+        }
+        
+        private void swap(int a, int b) {
+            long key = keys[a];
+            keys[a] = keys[b];
+            keys[b] = key;
+            long id = ids[a];
+            ids[a] = ids[b];
+            ids[b] = id;
+        }
+    }
+}
@@ -0,0 +1,11 @@
+package com.verto.ase_challenge.search;
+
+// How each query word is matched against the words of a product's name and description
+public enum SearchMode {
+    // Whole words only
+    TOKEN,
+    // Words starting with the query word, for search-as-you-type
+    PREFIX,
+    // Words containing the query word anywhere, found through the trigram index
+    CONTAINS
+}
@@ -0,0 +1,85 @@
+package com.verto.ase_challenge.service;
+
+import com.verto.ase_challenge.audit.AuditEvent;
+import com.verto.ase_challenge.audit.AuditLog;
+import com.verto.ase_challenge.dto.LocationStockResponse;
+import com.verto.ase_challenge.exception.InsufficientStockException;
+import com.verto.ase_challenge.exception.ProductNotFoundException;
+import com.verto.ase_challenge.repository.LocationStockRepository;
+import com.verto.ase_challenge.repository.ProductRepository;
+import com.verto.ase_challenge.stock.LocationStockAggregator;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+// Stock per warehouse location. Each change is one guarded statement on the location's own
+// row; the product's total follows through LocationStockAggregator.
+@Service
+@ConditionalOnProperty(name = "inventory.stock.write-behind.enabled", havingValue = "false", matchIfMissing = true)
+@RequiredArgsConstructor
+@Slf4j
+@Transactional
+public class LocationStockService {
+    
+    private final LocationStockRepository locationStockRepository;
+    private final ProductRepository productRepository;
+    private final LocationStockAggregator aggregator;
+    private final AuditLog auditLog;
+    
+    @Transactional(readOnly = true)
+    public List<LocationStockResponse> getLocations(Long productId) {
+        log.debug("Fetching location stock for product ID: {}", productId);
+        ensureProductExists(productId);
+        return locationStockRepository.findResponsesByProductId(productId);
+    }
+    
+    public LocationStockResponse increaseStock(Long productId, String location, Integer quantity) {
+        log.debug("Increasing stock for product ID: {} at location {} by quantity: {}", productId, location, quantity);
+        // An indexed existence read, not a lock: the product row is left to the aggregator
+        ensureProductExists(productId);
+        try {
+            locationStockRepository.addStock(productId, location, quantity);
+        } catch (DataIntegrityViolationException ex) {
+            // The foreign key: the product was deleted after the check above
+            throw new ProductNotFoundException("Product not found with ID: " + productId);
+        }
+        aggregator.changed(productId);
+        LocationStockResponse response = findLocationStock(productId, location);
+        auditLog.stockChanged(AuditEvent.Action.LOCATION_INCREASE, productId, quantity, response.getStockQuantity());
+        return response;
+    }
+    
+    public LocationStockResponse decreaseStock(Long productId, String location, Integer quantity) {
+        log.debug("Decreasing stock for product ID: {} at location {} by quantity: {}", productId, location, quantity);
+        if (locationStockRepository.removeStock(productId, location, quantity) == 0) {
+            ensureProductExists(productId);
+            int available = locationStockRepository.findResponse(productId, location)
+                .map(LocationStockResponse::getStockQuantity)
+                .orElse(0);
+            String message = String.format(
+                "Insufficient stock at location %s. Available: %d, Requested: %d", location, available, quantity);
+            auditLog.rejected(AuditEvent.Action.LOCATION_DECREASE, productId, -quantity, "insufficient_stock");
+            throw new InsufficientStockException(message);
+        }
+        aggregator.changed(productId);
+        LocationStockResponse response = findLocationStock(productId, location);
+        auditLog.stockChanged(AuditEvent.Action.LOCATION_DECREASE, productId, -quantity, response.getStockQuantity());
+        return response;
+    }
+    
+    private LocationStockResponse findLocationStock(Long productId, String location) {
+        return locationStockRepository.findResponse(productId, location)
+            .orElseThrow(() -> new IllegalStateException("Location stock vanished for product ID: " + productId));
+    }
+    
+    private void ensureProductExists(Long productId) {
+        if (!productRepository.existsById(productId)) {
+            throw new ProductNotFoundException("Product not found with ID: " + productId);
+        }
+    }
+}
@@ -0,0 +1,206 @@
+package com.verto.ase_challenge.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.csv.CsvMapper;
+import com.verto.ase_challenge.alert.LowStockAlerts;
+import com.verto.ase_challenge.audit.AuditEvent;
+import com.verto.ase_challenge.audit.AuditLog;
+import com.verto.ase_challenge.cache.ProductNameFilter;
+import com.verto.ase_challenge.dto.ProductImportError;
+import com.verto.ase_challenge.dto.ProductImportReport;
+import com.verto.ase_challenge.dto.ProductRequest;
+import com.verto.ase_challenge.dto.ProductResponse;
+import com.verto.ase_challenge.entity.Product;
+import com.verto.ase_challenge.events.StockEvents;
+import com.verto.ase_challenge.journal.StockJournal;
+import com.verto.ase_challenge.journal.StockMovement;
+import com.verto.ase_challenge.repository.ProductRepository;
+import com.verto.ase_challenge.search.ProductSearchIndex;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+// Bulk catalog onboarding. The body is parsed one row at a time, rows are validated
+// against the ProductRequest constraints, and valid ones are inserted in chunks of
+// inventory.import.chunk-size, each in its own transaction and flushed as JDBC batches.
+// Only the current chunk and the first inventory.import.max-reported-errors failures
+// are kept in memory, so a file of any size imports in constant space. A chunk that
+// fails in the database is rolled back and reported row by row; earlier chunks stay.
+// Duplicate names are rejected per row, checked once per chunk rather than per row.
+// Each imported product goes through the same journal, event, low-stock alert and audit
+// hooks as a single create, so one that starts at or below its threshold raises LOW_STOCK.
+@Service
+@Slf4j
+public class ProductImportService {
+    
+    private final ProductRepository productRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final Validator validator;
+    private final ObjectMapper objectMapper;
+    private final CsvMapper csvMapper = new CsvMapper();
+    private final StockJournal journal;
+    private final ProductSearchIndex searchIndex;
+    private final ProductNameFilter nameFilter;
+    private final StockEvents stockEvents;
+    private final LowStockAlerts lowStockAlerts;
+    private final AuditLog auditLog;
+    private final int chunkSize;
+    private final int maxReportedErrors;
+    
+    public ProductImportService(
+            ProductRepository productRepository,
+            PlatformTransactionManager transactionManager,
+            Validator validator,
+            ObjectMapper objectMapper,
+            StockJournal journal,
+            ProductSearchIndex searchIndex,
+            ProductNameFilter nameFilter,
+            StockEvents stockEvents,
+            LowStockAlerts lowStockAlerts,
+            AuditLog auditLog,
+            @Value("${inventory.import.chunk-size:1000}") int chunkSize,
+            @Value("${inventory.import.max-reported-errors:1000}") int maxReportedErrors) {
+        this.productRepository = productRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.validator = validator;
+        this.objectMapper = objectMapper;
+        this.journal = journal;
+        this.searchIndex = searchIndex;
+        this.nameFilter = nameFilter;
+        this.stockEvents = stockEvents;
+        this.lowStockAlerts = lowStockAlerts;
+        this.auditLog = auditLog;
+        this.chunkSize = chunkSize;
+        this.maxReportedErrors = maxReportedErrors;
+    }
+    
+    public ProductImportReport importProducts(InputStream body, ProductImportReport.Format format) throws IOException {
+        log.debug("Importing products from {}", format);
+        ProductImportReport report = new ProductImportReport(format, 0, 0, 0, false, new ArrayList<>());
+        List<ProductRowReader.Row> chunk = new ArrayList<>(chunkSize);
+        
+        try (ProductRowReader reader = format == ProductImportReport.Format.CSV
+                ? ProductRowReader.csv(body, csvMapper)
+                : ProductRowReader.ndjson(body, objectMapper)) {
+            for (ProductRowReader.Row row = reader.next(); row != null; row = reader.next()) {
+                report.setProcessed(report.getProcessed() + 1);
+                if (!row.isValid()) {
+                    reject(report, row.number(), row.message(), row.errors());
+                    continue;
+                }
+                Map<String, String> violations = validate(row.request());
+                if (!violations.isEmpty()) {
+                    reject(report, row.number(), null, violations);
+                    continue;
+                }
+                chunk.add(row);
+                if (chunk.size() == chunkSize) {
+                    insert(chunk, report);
+                }
+            }
+            insert(chunk, report);
+        }
+        
+        log.debug("Product import finished. Processed: {}, Imported: {}, Failed: {}",
+            report.getProcessed(), report.getImported(), report.getFailed());
+        return report;
+    }
+    
+    private void insert(List<ProductRowReader.Row> chunk, ProductImportReport report) {
+        List<ProductRowReader.Row> accepted = withAvailableNames(chunk, report);
+        chunk.clear();
+        if (accepted.isEmpty()) {
+            return;
+        }
+        try {
+            int inserted = transactionTemplate.execute(status -> {
+                List<Product> products = productRepository.saveAll(accepted.stream().map(row -> toEntity(row.request())).toList());
+                productRepository.flush();
+                for (Product product : products) {
+                    // Later chunks then see these names as candidates for their IN query
+                    nameFilter.add(product.getName());
+                    journal.record(StockMovement.Type.CREATED, product.getId(),
+                        product.getStockQuantity(), product.getStockQuantity());
+                    searchIndex.index(product);
+                    // Events and audit lines wait for the commit; the alert row joins this chunk's transaction
+                    ProductResponse response = ProductResponse.fromEntity(product);
+                    stockEvents.stockChanged(response, product.getStockQuantity(), false);
+                    lowStockAlerts.stockChanged(response, false);
+                    auditLog.stockChanged(AuditEvent.Action.CREATE, product.getId(),
+                        product.getStockQuantity(), product.getStockQuantity());
+                    // Keeps the persistence context (request-scoped with open-in-view) from growing per chunk
+                    productRepository.detach(product);
+                }
+                return products.size();
+            });
+            report.setImported(report.getImported() + inserted);
+        } catch (DataAccessException ex) {
+            String message = "Not imported: " + NestedExceptionUtils.getMostSpecificCause(ex).getMessage();
+            log.error("Product import chunk of {} rows rolled back. {}", accepted.size(), message);
+            accepted.forEach(row -> reject(report, row.number(), message, null));
+        }
+    }
+    
+    // Rows whose name is taken, by an existing product or an earlier row of the same chunk,
+    // are rejected. Only names the filter cannot rule out are looked up, in one IN query.
+    private List<ProductRowReader.Row> withAvailableNames(List<ProductRowReader.Row> chunk, ProductImportReport report) {
+        List<String> candidates = chunk.stream()
+            .map(row -> Product.nameKey(row.request().getName()))
+            .filter(nameFilter::mightContain)
+            .distinct()
+            .toList();
+        Set<String> taken = candidates.isEmpty()
+            ? new HashSet<>()
+            : new HashSet<>(productRepository.findExistingNameKeys(candidates));
+        
+        List<ProductRowReader.Row> accepted = new ArrayList<>(chunk.size());
+        for (ProductRowReader.Row row : chunk) {
+            if (taken.add(Product.nameKey(row.request().getName()))) {
+                accepted.add(row);
+            } else {
+                reject(report, row.number(), null, Map.of("name", "A product with this name already exists"));
+            }
+        }
+        return accepted;
+    }
+    
+    private Map<String, String> validate(ProductRequest request) {
+        Set<ConstraintViolation<ProductRequest>> violations = validator.validate(request);
+        Map<String, String> errors = new HashMap<>();
+        violations.forEach(violation -> errors.put(violation.getPropertyPath().toString(), violation.getMessage()));
+        return errors;
+    }
+    
+    private void reject(ProductImportReport report, long row, String message, Map<String, String> validationErrors) {
+        report.setFailed(report.getFailed() + 1);
+        if (report.getErrors().size() < maxReportedErrors) {
+            report.getErrors().add(new ProductImportError(row, message, validationErrors));
+        } else {
+            report.setErrorsTruncated(true);
+        }
+    }
+    
+    private static Product toEntity(ProductRequest request) {
+        return new Product(
+            request.getName(),
+            request.getDescription(),
+            request.getStockQuantity(),
+            request.getLowStockThreshold()
+        );
+    }
+}
@@ -0,0 +1,163 @@
+package com.verto.ase_challenge.service;
+
+import com.fasterxml.jackson.core.JacksonException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.exc.MismatchedInputException;
+import com.fasterxml.jackson.dataformat.csv.CsvMapper;
+import com.fasterxml.jackson.dataformat.csv.CsvSchema;
+import com.verto.ase_challenge.dto.ProductRequest;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+// Pulls one ProductRequest at a time from an import body; nothing beyond the current
+// row is held in memory. Rows that cannot be turned into a request at all (bad numbers,
+// malformed JSON) come back with their problems instead, so the import can report them
+// next to bean validation failures.
+abstract class ProductRowReader implements Closeable {
+    
+    static final String INVALID_NUMBER = "Must be a whole number";
+    static final String INVALID_VALUE = "Invalid value";
+    
+    record Row(long number, ProductRequest request, Map<String, String> errors, String message) {
+        
+        boolean isValid() {
+            return errors == null && message == null;
+        }
+    }
+    
+    protected final Reader reader;
+    protected long rows;
+    
+    protected ProductRowReader(InputStream in) {
+        this.reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+    }
+    
+    static ProductRowReader csv(InputStream in, CsvMapper csvMapper) throws IOException {
+        return new Csv(in, csvMapper);
+    }
+    
+    static ProductRowReader ndjson(InputStream in, ObjectMapper objectMapper) {
+        return new Ndjson(in, objectMapper);
+    }
+    
+    // Returns null once the input is exhausted
+    abstract Row next() throws IOException;
+    
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+    
+    // Header-driven CSV; column names are matched case-insensitively and with or without
+    // underscores, so both stockQuantity and stock_quantity work
+    private static final class Csv extends ProductRowReader {
+        
+        private final MappingIterator<Map<String, String>> iterator;
+        private boolean stopped;
+        
+        Csv(InputStream in, CsvMapper csvMapper) throws IOException {
+            super(in);
+            this.iterator = csvMapper.readerForMapOf(String.class)
+                .with(CsvSchema.emptySchema().withHeader())
+                .readValues(reader);
+        }
+        
+        @Override
+        Row next() throws IOException {
+            if (stopped) {
+                return null;
+            }
+            try {
+                if (!iterator.hasNextValue()) {
+                    return null;
+                }
+                Map<String, String> columns = new HashMap<>();
+                iterator.nextValue().forEach((column, value) -> columns.put(normalize(column), value));
+                return toRow(++rows, columns);
+            } catch (JacksonException ex) {
+                // The tokenizer cannot resynchronize after a structural error (e.g. an unclosed quote)
+                stopped = true;
+                return new Row(++rows, null, null,
+                    "Malformed CSV at line " + ex.getLocation().getLineNr() + ", import stopped: " + ex.getOriginalMessage());
+            }
+        }
+        
+        private static Row toRow(long number, Map<String, String> columns) {
+            Map<String, String> errors = new HashMap<>();
+            ProductRequest request = new ProductRequest();
+            request.setName(blankToNull(columns.get("name")));
+            request.setDescription(blankToNull(columns.get("description")));
+            request.setStockQuantity(parseInt(columns.get("stockquantity"), "stockQuantity", errors));
+            Integer threshold = parseInt(columns.get("lowstockthreshold"), "lowStockThreshold", errors);
+            if (threshold != null) {
+                request.setLowStockThreshold(threshold);
+            }
+            return errors.isEmpty() ? new Row(number, request, null, null) : new Row(number, null, errors, null);
+        }
+        
+        private static Integer parseInt(String value, String field, Map<String, String> errors) {
+            if (value == null || value.isBlank()) {
+                return null;
+            }
+            try {
+                return Integer.valueOf(value.trim());
+            } catch (NumberFormatException ex) {
+                errors.put(field, INVALID_NUMBER);
+                return null;
+            }
+        }
+        
+        private static String blankToNull(String value) {
+            return value == null || value.isBlank() ? null : value.trim();
+        }
+        
+        private static String normalize(String column) {
+            return column.trim().replace("_", "").toLowerCase(Locale.ROOT);
+        }
+    }
+    
+    // One JSON object per line; blank lines are skipped but still counted
+    private static final class Ndjson extends ProductRowReader {
+        
+        private final ObjectMapper objectMapper;
+        
+        Ndjson(InputStream in, ObjectMapper objectMapper) {
+            super(in);
+            this.objectMapper = objectMapper;
+        }
+        
+        @Override
+        Row next() throws IOException {
+            String line;
+            do {
+                line = ((BufferedReader) reader).readLine();
+                if (line == null) {
+                    return null;
+                }
+                rows++;
+            } while (line.isBlank());
+            
+            try {
+                return new Row(rows, objectMapper.readValue(line, ProductRequest.class), null, null);
+            } catch (MismatchedInputException ex) {
+                if (!ex.getPath().isEmpty() && ex.getPath().get(0).getFieldName() != null) {
+                    String message = ex.getTargetType() == Integer.class ? INVALID_NUMBER : INVALID_VALUE;
+                    return new Row(rows, null, Map.of(ex.getPath().get(0).getFieldName(), message), null);
+                }
+                return new Row(rows, null, null, "Malformed JSON: " + ex.getOriginalMessage());
+            } catch (JacksonException ex) {
+                return new Row(rows, null, null, "Malformed JSON: " + ex.getOriginalMessage());
+            }
+        }
+    }
+}
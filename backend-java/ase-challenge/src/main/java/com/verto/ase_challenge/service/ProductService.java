@@ -1,18 +1,56 @@
 package com.verto.ase_challenge.service;
 
+import com.verto.ase_challenge.alert.LowStockAlerts;
+import com.verto.ase_challenge.audit.AuditEvent;
+import com.verto.ase_challenge.audit.AuditLog;
+import com.verto.ase_challenge.cache.ProductCache;
+import com.verto.ase_challenge.cache.ProductNameFilter;
+import com.verto.ase_challenge.dto.BatchStockUpdateRequest;
+import com.verto.ase_challenge.dto.BatchStockUpdateResponse;
+import com.verto.ase_challenge.dto.CacheStatsResponse;
+import com.verto.ase_challenge.dto.ProductPage;
+import com.verto.ase_challenge.dto.ProductQuery;
 import com.verto.ase_challenge.dto.ProductRequest;
 import com.verto.ase_challenge.dto.ProductResponse;
+import com.verto.ase_challenge.dto.ProductSearchPage;
+import com.verto.ase_challenge.dto.ProductSearchQuery;
+import com.verto.ase_challenge.dto.StockAdjustmentItem;
+import com.verto.ase_challenge.dto.StockAdjustmentResult;
 import com.verto.ase_challenge.entity.Product;
+import com.verto.ase_challenge.events.StockEvents;
+import com.verto.ase_challenge.exception.DuplicateProductNameException;
 import com.verto.ase_challenge.exception.InsufficientStockException;
+import com.verto.ase_challenge.exception.InvalidCursorException;
+import com.verto.ase_challenge.exception.PreconditionFailedException;
 import com.verto.ase_challenge.exception.ProductNotFoundException;
+import com.verto.ase_challenge.journal.StockJournal;
+import com.verto.ase_challenge.journal.StockMovement;
+import com.verto.ase_challenge.metrics.InventoryMetrics;
+import com.verto.ase_challenge.repository.LocationStockRepository;
 import com.verto.ase_challenge.repository.ProductRepository;
+import com.verto.ase_challenge.repository.ProductSpecifications;
+import com.verto.ase_challenge.search.ProductSearchIndex;
+import com.verto.ase_challenge.stock.StockCounterTable;
+import com.verto.ase_challenge.stock.WriteBehindStockCounters;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ETag;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Comparator;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Consumer;
+import java.util.function.Function;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
@@ -21,9 +59,20 @@
 public class ProductService {
     
     private final ProductRepository productRepository;
+    private final ProductCache productCache;
+    private final WriteBehindStockCounters stockCounters;
+    private final InventoryMetrics metrics;
+    private final StockJournal journal;
+    private final ProductSearchIndex searchIndex;
+    private final ProductNameFilter nameFilter;
+    private final StockEvents stockEvents;
+    private final LowStockAlerts lowStockAlerts;
+    private final LocationStockRepository locationStockRepository;
+    private final AuditLog auditLog;
     
     public ProductResponse createProduct(ProductRequest request) {
-        log.info("Creating product with name: {}", request.getName());
+        log.debug("Creating product with name: {}", request.getName());
+        ensureNameAvailable(request.getName(), null);
         
         Product product = new Product(
             request.getName(),
@@ -33,94 +82,524 @@ public ProductResponse createProduct(ProductRequest request) {
         );
         
         Product savedProduct = productRepository.save(product);
-        log.info("Product created with ID: {}", savedProduct.getId());
+        nameFilter.add(savedProduct.getName());
+        journal.record(StockMovement.Type.CREATED, savedProduct.getId(),
+            savedProduct.getStockQuantity(), savedProduct.getStockQuantity());
+        searchIndex.index(savedProduct);
+        ProductResponse response = ProductResponse.fromEntity(savedProduct);
+        stockChanged(response, savedProduct.getStockQuantity(), false);
+        auditLog.stockChanged(AuditEvent.Action.CREATE, savedProduct.getId(),
+            savedProduct.getStockQuantity(), savedProduct.getStockQuantity());
+        log.debug("Product created with ID: {}", savedProduct.getId());
         
-        return ProductResponse.fromEntity(savedProduct);
+        return response;
     }
     
-    @Transactional(readOnly = true)
+    // No transaction of its own: cache hits should not check out a connection
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
     public ProductResponse getProductById(Long id) {
-        log.info("Fetching product with ID: {}", id);
-        Product product = findProductById(id);
-        return ProductResponse.fromEntity(product);
+        log.debug("Fetching product with ID: {}", id);
+        auditLog.read(AuditEvent.Action.GET, id);
+        return withLiveStock(productCache.get(id, key -> productRepository.findResponseById(key)
+            .orElseThrow(() -> new ProductNotFoundException("Product not found with ID: " + key))));
+    }
+    
+    public CacheStatsResponse getProductCacheStats() {
+        return productCache.stats();
+    }
+    
+    @Transactional(readOnly = true)
+    public ProductPage getProducts(ProductQuery query) {
+        int limit = pageLimit(query);
+        Long afterId = decodeCursor(query.getCursor());
+        log.debug("Fetching products after ID: {} with limit: {}", afterId, limit);
+        auditLog.read(AuditEvent.Action.LIST, null);
+        
+        // Seek on the primary key and fetch one extra row to learn whether another page exists
+        List<ProductResponse> products = productRepository.findResponses(
+            ProductSpecifications.matching(afterId, query), limit + 1);
+        
+        boolean hasMore = products.size() > limit;
+        List<ProductResponse> items = products.stream()
+            .limit(limit)
+            .map(this::withLiveStock)
+            .collect(Collectors.toList());
+        String nextCursor = hasMore ? encodeCursor(items.get(items.size() - 1).getId()) : null;
+        
+        return new ProductPage(items, nextCursor);
     }
     
+    // Ranked matches come from the in-memory index; only the page itself is read, by primary key
     @Transactional(readOnly = true)
-    public List<ProductResponse> getAllProducts() {
-        log.info("Fetching all products");
-        return productRepository.findAll()
+    public ProductSearchPage searchProducts(ProductSearchQuery query) {
+        int limit = pageLimit(query.getLimit());
+        int offset = decodeSearchCursor(query.getCursor());
+        log.debug("Searching products for '{}' in {} mode at offset: {}", query.getQ(), query.getMode(), offset);
+        auditLog.read(AuditEvent.Action.SEARCH, null);
+        
+        ProductSearchIndex.Hits hits = searchIndex.search(query.getQ(), query.getMode(), offset, limit);
+        List<Long> ids = Arrays.stream(hits.ids()).boxed().collect(Collectors.toList());
+        Map<Long, ProductResponse> products = productRepository.findResponsesByIdIn(ids)
             .stream()
-            .map(ProductResponse::fromEntity)
+            .collect(Collectors.toMap(ProductResponse::getId, Function.identity()));
+        
+        // Keep the index's rank order; a product deleted since the lookup is simply skipped
+        List<ProductResponse> items = ids.stream()
+            .map(products::get)
+            .filter(product -> product != null)
+            .map(this::withLiveStock)
             .collect(Collectors.toList());
+        // A lower-bound total may hide further matches, so a full page always offers another
+        int nextOffset = offset + ids.size();
+        boolean hasMore = nextOffset < ProductSearchIndex.MAX_RESULT_WINDOW
+            && (nextOffset < hits.total() || (!hits.totalExact() && ids.size() == limit));
+        String nextCursor = hasMore ? encodeSearchCursor(nextOffset) : null;
+        
+        return new ProductSearchPage(items, hits.total(), hits.totalExact(), nextCursor);
+    }
+    
+    @Transactional(readOnly = true)
+    public long exportProducts(Consumer<ProductResponse> sink) {
+        log.debug("Exporting all products");
+        auditLog.read(AuditEvent.Action.EXPORT, null);
+        long exported = 0;
+        try (Stream<ProductResponse> products = productRepository.streamAllResponses()) {
+            for (ProductResponse product : (Iterable<ProductResponse>) products::iterator) {
+                sink.accept(withLiveStock(product));
+                exported++;
+            }
+        }
+        log.debug("Exported {} products", exported);
+        return exported;
     }
     
     public ProductResponse updateProduct(Long id, ProductRequest request) {
-        log.info("Updating product with ID: {}", id);
+        return updateProduct(id, request, null);
+    }
+    
+    // ifMatch is the raw If-Match header, or null for an unconditional update. Either way
+    // @Version rejects the update if another one commits between this read and the flush.
+    public ProductResponse updateProduct(Long id, ProductRequest request, String ifMatch) {
+        log.debug("Updating product with ID: {}", id);
         Product product = findProductById(id);
+        checkPrecondition(ifMatch, withLiveStock(ProductResponse.fromEntity(product)));
+        int previousStock = currentStock(product);
+        boolean wasLowStock = previousStock <= product.getLowStockThreshold();
+        // Keeping the name (or changing only its case) is not a conflict with itself
+        if (!Objects.equals(Product.nameKey(request.getName()), Product.nameKey(product.getName()))) {
+            ensureNameAvailable(request.getName(), id);
+        }
+        // The total cannot drop below what reservations and locations hold; release or move those
+        // through their own endpoints. A hold committed after this read bumps the version, so
+        // saveAndFlush fails instead of slipping past the check.
+        int held = product.getReservedQuantity() + product.getLocatedQuantity();
+        if (request.getStockQuantity() < held) {
+            String message = String.format(
+                "Stock quantity cannot be below the %d units reserved or held at locations. Requested: %d",
+                held, request.getStockQuantity());
+            auditLog.rejected(AuditEvent.Action.UPDATE, id, request.getStockQuantity(), "held_stock");
+            throw new InsufficientStockException(message);
+        }
         
         product.setName(request.getName());
         product.setDescription(request.getDescription());
-        product.setStockQuantity(request.getStockQuantity());
         product.setLowStockThreshold(request.getLowStockThreshold());
+        if (stockCounters.isEnabled()) {
+            // The counter owns the stock level; the column catches up on the next flush
+            stockCounters.set(id, request.getStockQuantity());
+        } else {
+            product.setStockQuantity(request.getStockQuantity());
+        }
         
-        Product updatedProduct = productRepository.save(product);
-        log.info("Product updated with ID: {}", updatedProduct.getId());
+        // Flushed here so the response (and its ETag) carries the bumped version
+        Product updatedProduct = productRepository.saveAndFlush(product);
+        nameFilter.add(updatedProduct.getName());
+        productCache.invalidate(id);
+        journal.record(StockMovement.Type.UPDATED, id,
+            request.getStockQuantity() - previousStock, request.getStockQuantity());
+        searchIndex.index(updatedProduct);
+        ProductResponse response = withLiveStock(ProductResponse.fromEntity(updatedProduct));
+        stockChanged(response, request.getStockQuantity() - previousStock, wasLowStock);
+        auditLog.stockChanged(AuditEvent.Action.UPDATE, id,
+            request.getStockQuantity() - previousStock, request.getStockQuantity());
+        log.debug("Product updated with ID: {}", updatedProduct.getId());
         
-        return ProductResponse.fromEntity(updatedProduct);
+        return response;
     }
     
     public void deleteProduct(Long id) {
-        log.info("Deleting product with ID: {}", id);
+        log.debug("Deleting product with ID: {}", id);
         Product product = findProductById(id);
+        int previousStock = currentStock(product);
+        locationStockRepository.deleteByProductId(id);
         productRepository.delete(product);
-        log.info("Product deleted with ID: {}", id);
+        productCache.invalidate(id);
+        journal.record(StockMovement.Type.DELETED, id, -previousStock, 0);
+        searchIndex.remove(id);
+        stockEvents.productDeleted(id);
+        auditLog.stockChanged(AuditEvent.Action.DELETE, id, -previousStock, 0);
+        if (stockCounters.isEnabled()) {
+            stockCounters.remove(id);
+        }
+        log.debug("Product deleted with ID: {}", id);
     }
     
+    // Stock mutations join a caller's transaction but do not start one: the guarded
+    // UPDATE is transactional on its own, and the write-behind path never touches the DB.
+    // With low-stock alerts on, the UPDATE and a possible alert share one (see LowStockAlerts).
+    @Transactional(propagation = Propagation.SUPPORTS)
     public ProductResponse increaseStock(Long id, Integer quantity) {
-        log.info("Increasing stock for product ID: {} by quantity: {}", id, quantity);
-        Product product = findProductById(id);
-        
-        int newStock = product.getStockQuantity() + quantity;
-        product.setStockQuantity(newStock);
+        return increaseStock(id, quantity, null);
+    }
+    
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public ProductResponse increaseStock(Long id, Integer quantity, String ifMatch) {
+        log.debug("Increasing stock for product ID: {} by quantity: {}", id, quantity);
         
-        Product updatedProduct = productRepository.save(product);
-        log.info("Stock increased for product ID: {}. New stock: {}", id, newStock);
+        if (stockCounters.isEnabled()) {
+            // Checked against the live view; the counters have no version to guard the add with
+            checkPrecondition(ifMatch, getProductById(id));
+            int newStock = stockCounters.add(id, quantity);
+            journal.record(StockMovement.Type.INCREASED, id, quantity, newStock);
+            auditLog.stockChanged(AuditEvent.Action.INCREASE, id, quantity, newStock);
+            ProductResponse response = getProductById(id);
+            stockChanged(response, quantity);
+            return response;
+        }
         
-        return ProductResponse.fromEntity(updatedProduct);
+        // Joined by the low-stock alert, if the change crosses the threshold
+        return lowStockAlerts.inTransaction(() -> {
+            Long expectedVersion = expectedVersion(id, ifMatch);
+            int updated = metrics.timeStockIncrease(() -> expectedVersion == null
+                ? productRepository.increaseStock(id, quantity)
+                : productRepository.increaseStockAtVersion(id, quantity, expectedVersion));
+            if (updated == 0) {
+                if (expectedVersion != null) {
+                    throw modifiedConcurrently(findProductById(id));
+                }
+                throw new ProductNotFoundException("Product not found with ID: " + id);
+            }
+            productCache.invalidate(id);
+            
+            Product updatedProduct = findProductById(id);
+            journal.record(StockMovement.Type.INCREASED, id, quantity, updatedProduct.getStockQuantity());
+            auditLog.stockChanged(AuditEvent.Action.INCREASE, id, quantity, updatedProduct.getStockQuantity());
+            
+            ProductResponse response = ProductResponse.fromEntity(updatedProduct);
+            stockChanged(response, quantity);
+            return response;
+        });
     }
     
+    @Transactional(propagation = Propagation.SUPPORTS)
     public ProductResponse decreaseStock(Long id, Integer quantity) {
-        log.info("Decreasing stock for product ID: {} by quantity: {}", id, quantity);
-        Product product = findProductById(id);
+        return decreaseStock(id, quantity, null);
+    }
+    
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public ProductResponse decreaseStock(Long id, Integer quantity, String ifMatch) {
+        log.debug("Decreasing stock for product ID: {} by quantity: {}", id, quantity);
         
-        if (product.getStockQuantity() < quantity) {
-            String message = String.format(
-                "Insufficient stock. Available: %d, Requested: %d", 
-                product.getStockQuantity(), 
-                quantity
-            );
-            log.error("Insufficient stock for product ID: {}. {}", id, message);
-            throw new InsufficientStockException(message);
+        if (stockCounters.isEnabled()) {
+            checkPrecondition(ifMatch, getProductById(id));
+            int newStock = stockCounters.add(id, -quantity);
+            journal.record(StockMovement.Type.DECREASED, id, -quantity, newStock);
+            auditLog.stockChanged(AuditEvent.Action.DECREASE, id, -quantity, newStock);
+            ProductResponse response = getProductById(id);
+            stockChanged(response, -quantity);
+            return response;
+        }
+        
+        return lowStockAlerts.inTransaction(() -> {
+            Long expectedVersion = expectedVersion(id, ifMatch);
+            int updated = metrics.timeStockDecrease(() -> expectedVersion == null
+                ? productRepository.decreaseStock(id, quantity)
+                : productRepository.decreaseStockAtVersion(id, quantity, expectedVersion));
+            if (updated == 0) {
+                // No row matched: the product is gone, it changed since the If-Match check,
+                // or the guard rejected the decrement
+                Product product = findProductById(id);
+                if (expectedVersion != null && !expectedVersion.equals(product.getVersion())) {
+                    throw modifiedConcurrently(product);
+                }
+                String message = String.format(
+                    "Insufficient stock. Available: %d, Requested: %d", 
+                    product.getAvailableQuantity(), 
+                    quantity
+                );
+                auditLog.rejected(AuditEvent.Action.DECREASE, id, -quantity, "insufficient_stock");
+                throw new InsufficientStockException(message);
+            }
+            productCache.invalidate(id);
+            
+            Product updatedProduct = findProductById(id);
+            journal.record(StockMovement.Type.DECREASED, id, -quantity, updatedProduct.getStockQuantity());
+            auditLog.stockChanged(AuditEvent.Action.DECREASE, id, -quantity, updatedProduct.getStockQuantity());
+            
+            ProductResponse response = ProductResponse.fromEntity(updatedProduct);
+            stockChanged(response, -quantity);
+            return response;
+        });
+    }
+    
+    public BatchStockUpdateResponse adjustStockBatch(BatchStockUpdateRequest request) {
+        // Apply in id order so concurrent batches lock rows in the same sequence
+        List<StockAdjustmentItem> items = request.getItems()
+            .stream()
+            .sorted(Comparator.comparing(StockAdjustmentItem::getId))
+            .collect(Collectors.toList());
+        log.debug("Applying batch of {} stock adjustments in {} mode", items.size(), request.getMode());
+        
+        if (stockCounters.isEnabled()) {
+            return adjustStockBatchInMemory(request.getMode(), items);
+        }
+        
+        int[] updateCounts = productRepository.applyStockDeltas(items);
+        // Read back whole rows rather than just stock: events need the thresholds
+        Map<Long, ProductResponse> products = productRepository.findResponsesByIdIn(
+                items.stream().map(StockAdjustmentItem::getId).collect(Collectors.toSet()))
+            .stream()
+            .collect(Collectors.toMap(ProductResponse::getId, Function.identity()));
+        
+        List<StockAdjustmentResult> results = new ArrayList<>(items.size());
+        int failed = 0;
+        for (int i = 0; i < items.size(); i++) {
+            StockAdjustmentItem item = items.get(i);
+            ProductResponse product = products.get(item.getId());
+            Integer stockQuantity = product != null ? product.getStockQuantity() : null;
+            
+            if (updateCounts[i] != 0) {
+                productCache.invalidate(item.getId());
+                journal.record(StockMovement.Type.BATCH_ADJUSTED, item.getId(), item.getDelta(), stockQuantity);
+                stockChanged(product, item.getDelta());
+                auditLog.stockChanged(AuditEvent.Action.BATCH_ADJUST, item.getId(), item.getDelta(), stockQuantity);
+                results.add(new StockAdjustmentResult(
+                    item.getId(), item.getDelta(), StockAdjustmentResult.Status.APPLIED, stockQuantity, null));
+                continue;
+            }
+            
+            failed++;
+            RuntimeException failure = stockQuantity == null
+                ? new ProductNotFoundException("Product not found with ID: " + item.getId())
+                : new InsufficientStockException(String.format(
+                    "Insufficient stock. Available: %d, Requested: %d",
+                    productRepository.findAvailableQuantity(item.getId()).orElse(0), -item.getDelta()));
+            auditLog.rejected(AuditEvent.Action.BATCH_ADJUST, item.getId(), item.getDelta(), rejection(failure));
+            
+            if (request.getMode() == BatchStockUpdateRequest.Mode.ALL_OR_NOTHING) {
+                log.debug("Rejecting stock batch at product ID: {}. {}", item.getId(), failure.getMessage());
+                throw failure;
+            }
+            
+            // Thrown failures are counted by the exception handler; best-effort ones are counted here
+            countFailure(failure);
+            results.add(new StockAdjustmentResult(
+                item.getId(),
+                item.getDelta(),
+                stockQuantity == null
+                    ? StockAdjustmentResult.Status.NOT_FOUND
+                    : StockAdjustmentResult.Status.INSUFFICIENT_STOCK,
+                stockQuantity,
+                failure.getMessage()
+            ));
         }
         
-        int newStock = product.getStockQuantity() - quantity;
-        product.setStockQuantity(newStock);
+        log.debug("Stock batch finished. Applied: {}, Failed: {}", items.size() - failed, failed);
+        return new BatchStockUpdateResponse(request.getMode(), items.size() - failed, failed, results);
+    }
+    
+    private BatchStockUpdateResponse adjustStockBatchInMemory(
+            BatchStockUpdateRequest.Mode mode, List<StockAdjustmentItem> items) {
+        List<StockAdjustmentResult> results = new ArrayList<>(items.size());
+        int failed = 0;
         
-        Product updatedProduct = productRepository.save(product);
-        log.info("Stock decreased for product ID: {}. New stock: {}", id, newStock);
+        if (mode == BatchStockUpdateRequest.Mode.ALL_OR_NOTHING) {
+            stockCounters.addAll(items);
+            for (StockAdjustmentItem item : items) {
+                int newStock = stockCounters.get(item.getId());
+                journal.record(StockMovement.Type.BATCH_ADJUSTED, item.getId(), item.getDelta(), newStock);
+                stockChanged(getProductById(item.getId()), item.getDelta());
+                auditLog.stockChanged(AuditEvent.Action.BATCH_ADJUST, item.getId(), item.getDelta(), newStock);
+                results.add(new StockAdjustmentResult(
+                    item.getId(), item.getDelta(), StockAdjustmentResult.Status.APPLIED, newStock, null));
+            }
+        } else {
+            for (StockAdjustmentItem item : items) {
+                try {
+                    int newStock = stockCounters.add(item.getId(), item.getDelta());
+                    journal.record(StockMovement.Type.BATCH_ADJUSTED, item.getId(), item.getDelta(), newStock);
+                    stockChanged(getProductById(item.getId()), item.getDelta());
+                    auditLog.stockChanged(AuditEvent.Action.BATCH_ADJUST, item.getId(), item.getDelta(), newStock);
+                    results.add(new StockAdjustmentResult(
+                        item.getId(), item.getDelta(), StockAdjustmentResult.Status.APPLIED, newStock, null));
+                } catch (ProductNotFoundException ex) {
+                    failed++;
+                    countFailure(ex);
+                    auditLog.rejected(AuditEvent.Action.BATCH_ADJUST, item.getId(), item.getDelta(), rejection(ex));
+                    results.add(new StockAdjustmentResult(
+                        item.getId(), item.getDelta(), StockAdjustmentResult.Status.NOT_FOUND, null, ex.getMessage()));
+                } catch (InsufficientStockException ex) {
+                    failed++;
+                    countFailure(ex);
+                    auditLog.rejected(AuditEvent.Action.BATCH_ADJUST, item.getId(), item.getDelta(), rejection(ex));
+                    results.add(new StockAdjustmentResult(
+                        item.getId(), item.getDelta(), StockAdjustmentResult.Status.INSUFFICIENT_STOCK,
+                        stockCounters.get(item.getId()), ex.getMessage()));
+                }
+            }
+        }
         
-        return ProductResponse.fromEntity(updatedProduct);
+        log.debug("Stock batch finished. Applied: {}, Failed: {}", items.size() - failed, failed);
+        return new BatchStockUpdateResponse(mode, items.size() - failed, failed, results);
     }
     
     @Transactional(readOnly = true)
     public List<ProductResponse> getLowStockProducts() {
-        log.info("Fetching products with low stock");
+        log.debug("Fetching products with low stock");
+        auditLog.read(AuditEvent.Action.LIST_LOW_STOCK, null);
         return productRepository.findLowStockProducts()
             .stream()
-            .map(ProductResponse::fromEntity)
+            .map(this::withLiveStock)
             .collect(Collectors.toList());
     }
     
+    // product is the state after the change; whether it was low before follows from the delta
+    private void stockChanged(ProductResponse product, int delta) {
+        stockChanged(product, delta, product.getStockQuantity() - delta <= product.getLowStockThreshold());
+    }
+    
+    // Feeds both the live event stream (after commit) and the alert outbox (in this transaction)
+    private void stockChanged(ProductResponse product, int delta, boolean wasLowStock) {
+        stockEvents.stockChanged(product, delta, wasLowStock);
+        lowStockAlerts.stockChanged(product, wasLowStock);
+    }
+    
+    private void countFailure(RuntimeException failure) {
+        if (failure instanceof InsufficientStockException) {
+            metrics.rejected(InventoryMetrics.Rejection.INSUFFICIENT_STOCK);
+        } else {
+            metrics.rejected(InventoryMetrics.Rejection.PRODUCT_NOT_FOUND);
+        }
+    }
+    
+    private static String rejection(RuntimeException failure) {
+        return failure instanceof InsufficientStockException ? "insufficient_stock" : "not_found";
+    }
+    
+    // Strong comparison as If-Match requires: weak tags never match, "*" matches any
+    // current representation. Shared with the reactive stack.
+    public static void checkPrecondition(String ifMatch, ProductResponse current) {
+        if (ifMatch == null) {
+            return;
+        }
+        ETag currentTag = ETag.create(current.eTag());
+        for (ETag tag : ETag.parse(ifMatch)) {
+            if (tag.isWildcard() || tag.compare(currentTag, true)) {
+                return;
+            }
+        }
+        throw new PreconditionFailedException(
+            "Product " + current.getId() + " has changed. Current ETag: " + current.eTag());
+    }
+    
+    // The version the If-Match header was checked against, for the guarded UPDATE to
+    // re-check atomically; null when there is no header or it is "*"
+    private Long expectedVersion(Long id, String ifMatch) {
+        if (ifMatch == null || ifMatch.trim().equals("*")) {
+            return null;
+        }
+        Product current = findProductById(id);
+        checkPrecondition(ifMatch, ProductResponse.fromEntity(current));
+        return current.getVersion();
+    }
+    
+    private static PreconditionFailedException modifiedConcurrently(Product product) {
+        return new PreconditionFailedException("Product " + product.getId()
+            + " has changed. Current ETag: " + ProductResponse.fromEntity(product).eTag());
+    }
+    
+    // Most new names are definitely absent from the filter and need no query at all; a
+    // "maybe" is settled by an index lookup on name_key. The unique index still catches
+    // a concurrent insert of the same name, which GlobalExceptionHandler maps to 409 too.
+    private void ensureNameAvailable(String name, Long excludedId) {
+        if (!nameFilter.mightContain(name)) {
+            return;
+        }
+        String nameKey = Product.nameKey(name);
+        boolean taken = excludedId == null
+            ? productRepository.existsByNameKey(nameKey)
+            : productRepository.existsByNameKeyAndIdNot(nameKey, excludedId);
+        if (taken) {
+            throw new DuplicateProductNameException("A product named '" + name.trim() + "' already exists");
+        }
+    }
+    
+    // The live counter when write-behind is on, since the column may not be flushed yet
+    private int currentStock(Product product) {
+        int stock = stockCounters.isEnabled() ? stockCounters.get(product.getId()) : StockCounterTable.MISSING;
+        return stock != StockCounterTable.MISSING ? stock : product.getStockQuantity();
+    }
+    
+    private ProductResponse withLiveStock(ProductResponse response) {
+        return stockCounters.isEnabled() ? stockCounters.overlay(response) : response;
+    }
+    
+    // Shared with the reactive stack so both hand out and accept the same cursors
+    public static int pageLimit(ProductQuery query) {
+        return pageLimit(query.getLimit());
+    }
+    
+    private static int pageLimit(Integer limit) {
+        return limit == null
+            ? ProductQuery.DEFAULT_LIMIT
+            : Math.max(1, Math.min(limit, ProductQuery.MAX_LIMIT));
+    }
+    
+    public static String encodeCursor(Long lastId) {
+        return Base64.getUrlEncoder().withoutPadding()
+            .encodeToString(("id:" + lastId).getBytes(StandardCharsets.UTF_8));
+    }
+    
+    public static Long decodeCursor(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+        try {
+            String decoded = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            if (!decoded.startsWith("id:")) {
+                throw new InvalidCursorException("Malformed cursor: " + cursor);
+            }
+            return Long.parseLong(decoded.substring(3));
+        } catch (IllegalArgumentException ex) {
+            throw new InvalidCursorException("Malformed cursor: " + cursor, ex);
+        }
+    }
+    
+    private static String encodeSearchCursor(int offset) {
+        return Base64.getUrlEncoder().withoutPadding()
+            .encodeToString(("offset:" + offset).getBytes(StandardCharsets.UTF_8));
+    }
+    
+    // Search pages are ranked, so their cursors carry a position rather than a key
+    private static int decodeSearchCursor(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return 0;
+        }
+        try {
+            String decoded = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            if (!decoded.startsWith("offset:")) {
+                throw new InvalidCursorException("Malformed cursor: " + cursor);
+            }
+            int offset = Integer.parseInt(decoded.substring(7));
+            if (offset < 0) {
+                throw new InvalidCursorException("Malformed cursor: " + cursor);
+            }
+            return offset;
+        } catch (IllegalArgumentException ex) {
+            throw new InvalidCursorException("Malformed cursor: " + cursor, ex);
+        }
+    }
+    
     private Product findProductById(Long id) {
         return productRepository.findById(id)
             .orElseThrow(() -> new ProductNotFoundException("Product not found with ID: " + id));
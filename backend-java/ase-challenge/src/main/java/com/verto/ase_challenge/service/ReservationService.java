@@ -0,0 +1,309 @@
+package com.verto.ase_challenge.service;
+
+import com.verto.ase_challenge.alert.LowStockAlerts;
+import com.verto.ase_challenge.audit.AuditEvent;
+import com.verto.ase_challenge.audit.AuditLog;
+import com.verto.ase_challenge.cache.ProductCache;
+import com.verto.ase_challenge.dto.ProductResponse;
+import com.verto.ase_challenge.dto.ReservationRequest;
+import com.verto.ase_challenge.dto.ReservationResponse;
+import com.verto.ase_challenge.entity.Product;
+import com.verto.ase_challenge.entity.Reservation;
+import com.verto.ase_challenge.events.StockEvents;
+import com.verto.ase_challenge.exception.InsufficientStockException;
+import com.verto.ase_challenge.exception.ProductNotFoundException;
+import com.verto.ase_challenge.exception.ReservationConflictException;
+import com.verto.ase_challenge.exception.ReservationNotFoundException;
+import com.verto.ase_challenge.journal.StockJournal;
+import com.verto.ase_challenge.journal.StockMovement;
+import com.verto.ase_challenge.repository.ProductRepository;
+import com.verto.ase_challenge.repository.ReservationRepository;
+import com.verto.ase_challenge.reservation.HashedTimingWheel;
+import com.verto.ase_challenge.stock.WriteBehindStockCounters;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Holds stock for a limited time (e.g. while a payment is running). A hold raises the
+// product's reserved quantity, which every decrement path treats as unavailable, and
+// is either confirmed into a sale, released, or expired by the timing wheel.
+@Service
+@Slf4j
+@Transactional
+public class ReservationService {
+    
+    private static final int WHEEL_SIZE = 512;
+    
+    private final ProductRepository productRepository;
+    private final ReservationRepository reservationRepository;
+    private final ProductCache productCache;
+    private final WriteBehindStockCounters stockCounters;
+    private final StockJournal journal;
+    private final StockEvents stockEvents;
+    private final LowStockAlerts lowStockAlerts;
+    private final AuditLog auditLog;
+    private final TransactionTemplate transactionTemplate;
+    private final Duration defaultTtl;
+    private final HashedTimingWheel<UUID> expiryWheel;
+    private final Map<UUID, HashedTimingWheel.Timeout> timeouts = new ConcurrentHashMap<>();
+    
+    public ReservationService(
+            ProductRepository productRepository,
+            ReservationRepository reservationRepository,
+            ProductCache productCache,
+            WriteBehindStockCounters stockCounters,
+            StockJournal journal,
+            StockEvents stockEvents,
+            LowStockAlerts lowStockAlerts,
+            AuditLog auditLog,
+            PlatformTransactionManager transactionManager,
+            @Value("${inventory.reservations.default-ttl:5m}") Duration defaultTtl,
+            @Value("${inventory.reservations.timer-tick:100ms}") Duration timerTick) {
+        this.productRepository = productRepository;
+        this.reservationRepository = reservationRepository;
+        this.productCache = productCache;
+        this.stockCounters = stockCounters;
+        this.journal = journal;
+        this.stockEvents = stockEvents;
+        this.lowStockAlerts = lowStockAlerts;
+        this.auditLog = auditLog;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.defaultTtl = defaultTtl;
+        this.expiryWheel = new HashedTimingWheel<>("reservation-expiry", timerTick, WHEEL_SIZE, this::expire);
+    }
+    
+    // Re-arms timers for holds that were active when the previous instance stopped
+    @EventListener(ApplicationReadyEvent.class)
+    public void scheduleActiveReservations() {
+        Instant now = Instant.now();
+        for (Reservation reservation : reservationRepository.findByStatus(Reservation.Status.ACTIVE)) {
+            schedule(reservation.getId(), Duration.between(now, reservation.getExpiresAt()));
+        }
+    }
+    
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        expiryWheel.close();
+    }
+    
+    public ReservationResponse reserve(Long productId, ReservationRequest request) {
+        Duration ttl = request.getTtlSeconds() != null ? Duration.ofSeconds(request.getTtlSeconds()) : defaultTtl;
+        log.debug("Reserving {} units of product ID: {} for {}", request.getQuantity(), productId, ttl);
+        
+        Instant now = Instant.now();
+        Reservation reservation = reservationRepository.save(
+            new Reservation(productId, request.getQuantity(), now, now.plus(ttl)));
+        
+        int availableStock;
+        if (stockCounters.isEnabled()) {
+            // Counters track available stock, so the hold is a stock movement in this mode
+            availableStock = stockCounters.add(productId, -request.getQuantity());
+            onRollback(() -> stockCounters.add(productId, request.getQuantity()));
+            journal.record(StockMovement.Type.RESERVATION_HELD, productId, -request.getQuantity(), availableStock);
+            stockChanged(productId, -request.getQuantity());
+        } else {
+            if (productRepository.reserveStock(productId, request.getQuantity()) == 0) {
+                Product product = findProductById(productId);
+                String message = String.format(
+                    "Insufficient stock. Available: %d, Requested: %d",
+                    product.getAvailableQuantity(),
+                    request.getQuantity()
+                );
+                log.debug("Insufficient stock to reserve for product ID: {}. {}", productId, message);
+                auditLog.rejected(AuditEvent.Action.RESERVATION_HOLD, productId, -request.getQuantity(), "insufficient_stock");
+                throw new InsufficientStockException(message);
+            }
+            availableStock = findProductById(productId).getAvailableQuantity();
+        }
+        
+        // Armed only once the row is committed: a timer that fired first would find nothing to expire
+        afterCommit(() -> schedule(reservation.getId(), ttl));
+        auditLog.reservationChanged(AuditEvent.Action.RESERVATION_HOLD, reservation.getId(), productId,
+            -request.getQuantity(), stockCounters.isEnabled() ? availableStock : null);
+        log.debug("Reservation {} created for product ID: {}", reservation.getId(), productId);
+        return ReservationResponse.fromEntity(reservation, availableStock);
+    }
+    
+    public ReservationResponse confirm(UUID reservationId) {
+        log.debug("Confirming reservation {}", reservationId);
+        Reservation reservation = findReservationById(reservationId);
+        
+        if (reservationRepository.confirm(reservationId, Instant.now()) == 0) {
+            throw conflict(reservation, "confirmed");
+        }
+        // In write-behind mode the units already left the counter when they were reserved
+        Integer stockAfter = null;
+        if (!stockCounters.isEnabled()) {
+            Long productId = reservation.getProductId();
+            if (productRepository.commitReservedStock(productId, reservation.getQuantity()) == 0) {
+                throw new InsufficientStockException(
+                    "Insufficient stock to confirm reservation " + reservationId + " for product ID: " + productId);
+            }
+            ProductResponse product = stockChanged(productId, -reservation.getQuantity());
+            stockAfter = product != null ? product.getStockQuantity() : 0;
+            journal.record(StockMovement.Type.RESERVATION_CONFIRMED, productId, -reservation.getQuantity(), stockAfter);
+        }
+        auditLog.reservationChanged(AuditEvent.Action.RESERVATION_CONFIRM, reservationId, reservation.getProductId(),
+            -reservation.getQuantity(), stockAfter);
+        afterCommit(() -> cancelTimeout(reservationId));
+        productCache.invalidate(reservation.getProductId());
+        
+        reservation.setStatus(Reservation.Status.CONFIRMED);
+        log.debug("Reservation {} confirmed", reservationId);
+        return ReservationResponse.fromEntity(reservation, availableStock(reservation.getProductId()));
+    }
+    
+    public ReservationResponse release(UUID reservationId) {
+        log.debug("Releasing reservation {}", reservationId);
+        Reservation reservation = findReservationById(reservationId);
+        
+        if (reservationRepository.transition(reservationId, Reservation.Status.ACTIVE, Reservation.Status.RELEASED) == 0) {
+            throw conflict(reservation, "released");
+        }
+        Integer stockAfter = returnHeldStock(reservation);
+        afterCommit(() -> cancelTimeout(reservationId));
+        auditLog.reservationChanged(AuditEvent.Action.RESERVATION_RELEASE, reservationId, reservation.getProductId(),
+            reservation.getQuantity(), stockAfter);
+        
+        reservation.setStatus(Reservation.Status.RELEASED);
+        log.debug("Reservation {} released", reservationId);
+        return ReservationResponse.fromEntity(reservation, availableStock(reservation.getProductId()));
+    }
+    
+    @Transactional(readOnly = true)
+    public ReservationResponse getReservation(UUID reservationId) {
+        Reservation reservation = findReservationById(reservationId);
+        return ReservationResponse.fromEntity(reservation, availableStock(reservation.getProductId()));
+    }
+    
+    // Runs on the timing wheel thread, hence the explicit transaction
+    void expire(UUID reservationId) {
+        timeouts.remove(reservationId);
+        transactionTemplate.executeWithoutResult(status -> reservationRepository.findById(reservationId)
+            .filter(reservation -> reservationRepository.transition(
+                reservationId, Reservation.Status.ACTIVE, Reservation.Status.EXPIRED) > 0)
+            .ifPresent(reservation -> {
+                Integer stockAfter = returnHeldStock(reservation);
+                auditLog.reservationChanged(AuditEvent.Action.RESERVATION_EXPIRE, reservationId,
+                    reservation.getProductId(), reservation.getQuantity(), stockAfter);
+                log.debug("Reservation {} expired, returned {} units to product ID: {}",
+                    reservationId, reservation.getQuantity(), reservation.getProductId());
+            }));
+    }
+    
+    // Returns the counter's new stock in write-behind mode; otherwise stock_quantity is untouched and null
+    private Integer returnHeldStock(Reservation reservation) {
+        if (stockCounters.isEnabled()) {
+            int newStock = stockCounters.add(reservation.getProductId(), reservation.getQuantity());
+            onRollback(() -> undoReturn(reservation));
+            journal.record(StockMovement.Type.RESERVATION_RETURNED, reservation.getProductId(), reservation.getQuantity(), newStock);
+            stockChanged(reservation.getProductId(), reservation.getQuantity());
+            return newStock;
+        }
+        productRepository.releaseReservedStock(reservation.getProductId(), reservation.getQuantity());
+        return null;
+    }
+    
+    // For changes to stock_quantity (or the write-behind counter standing in for it): the same
+    // event feed and low-stock outbox hooks as ProductService. Returns the state after the change.
+    private ProductResponse stockChanged(Long productId, int delta) {
+        ProductResponse product = productRepository.findResponseById(productId).orElse(null);
+        if (product == null) {
+            return null;
+        }
+        if (stockCounters.isEnabled()) {
+            product = stockCounters.overlay(product);
+        }
+        stockEvents.stockChanged(product, delta);
+        lowStockAlerts.stockChanged(product, product.getStockQuantity() - delta <= product.getLowStockThreshold());
+        return product;
+    }
+    
+    // The returned units may have been taken meanwhile; then the counter cannot go back and the
+    // hold stays active in the database with its stock already returned
+    private void undoReturn(Reservation reservation) {
+        try {
+            stockCounters.add(reservation.getProductId(), -reservation.getQuantity());
+        } catch (InsufficientStockException ex) {
+            log.warn("Could not take back the stock returned by reservation {} after a rollback: {}",
+                reservation.getId(), ex.getMessage());
+        }
+    }
+    
+    // Write-behind counters are not transactional, so changes to them are undone by hand
+    private static void onRollback(Runnable undo) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status == STATUS_ROLLED_BACK) {
+                        undo.run();
+                    }
+                }
+            });
+        }
+    }
+    
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+    
+    private void schedule(UUID reservationId, Duration delay) {
+        timeouts.put(reservationId, expiryWheel.schedule(reservationId, delay));
+    }
+    
+    private void cancelTimeout(UUID reservationId) {
+        HashedTimingWheel.Timeout timeout = timeouts.remove(reservationId);
+        if (timeout != null) {
+            timeout.cancel();
+        }
+    }
+    
+    private Integer availableStock(Long productId) {
+        if (stockCounters.isEnabled()) {
+            return stockCounters.get(productId);
+        }
+        return productRepository.findById(productId).map(Product::getAvailableQuantity).orElse(null);
+    }
+    
+    private ReservationConflictException conflict(Reservation reservation, String action) {
+        String state = reservation.getStatus() == Reservation.Status.ACTIVE
+            ? "expired"
+            : reservation.getStatus().name().toLowerCase();
+        return new ReservationConflictException(
+            "Reservation " + reservation.getId() + " cannot be " + action + " because it is " + state);
+    }
+    
+    private Product findProductById(Long id) {
+        return productRepository.findById(id)
+            .orElseThrow(() -> new ProductNotFoundException("Product not found with ID: " + id));
+    }
+    
+    private Reservation findReservationById(UUID id) {
+        return reservationRepository.findById(id)
+            .orElseThrow(() -> new ReservationNotFoundException("Reservation not found with ID: " + id));
+    }
+}
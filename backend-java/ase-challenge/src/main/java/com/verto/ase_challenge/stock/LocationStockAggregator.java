@@ -0,0 +1,169 @@
+package com.verto.ase_challenge.stock;
+
+import com.verto.ase_challenge.alert.LowStockAlerts;
+import com.verto.ase_challenge.cache.ProductCache;
+import com.verto.ase_challenge.dto.ProductResponse;
+import com.verto.ase_challenge.entity.LocationStock;
+import com.verto.ase_challenge.events.StockEvents;
+import com.verto.ase_challenge.journal.StockJournal;
+import com.verto.ase_challenge.journal.StockMovement;
+import com.verto.ase_challenge.repository.LocationStockRepository;
+import com.verto.ase_challenge.repository.ProductRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+// Keeps products.stock_quantity equal to the product-level stock plus everything held at
+// locations, without location writes ever touching the product row. Each committed location
+// write marks its product dirty; every aggregate-interval the net delta of all dirty products'
+// location rows is folded into stock_quantity and located_quantity in one JDBC batch. Totals
+// therefore lag location writes by up to one interval, while product reads stay a single row.
+// The owed delta lives in the location rows themselves (quantity - aggregated_quantity), so
+// anything not yet folded when the process stops is picked up on the next start.
+// Write-behind mode overwrites stock_quantity from its counters, so the two are exclusive.
+@Component
+@ConditionalOnProperty(name = "inventory.stock.write-behind.enabled", havingValue = "false", matchIfMissing = true)
+@Slf4j
+public class LocationStockAggregator {
+    
+    private final LocationStockRepository locationStockRepository;
+    private final ProductRepository productRepository;
+    private final ProductCache productCache;
+    private final StockJournal journal;
+    private final StockEvents stockEvents;
+    private final LowStockAlerts lowStockAlerts;
+    private final TransactionTemplate transactionTemplate;
+    private final Duration aggregateInterval;
+    private final Set<Long> dirtyProducts = ConcurrentHashMap.newKeySet();
+    private ScheduledExecutorService aggregator;
+    
+    public LocationStockAggregator(
+            LocationStockRepository locationStockRepository,
+            ProductRepository productRepository,
+            ProductCache productCache,
+            StockJournal journal,
+            StockEvents stockEvents,
+            LowStockAlerts lowStockAlerts,
+            PlatformTransactionManager transactionManager,
+            @Value("${inventory.locations.aggregate-interval:200ms}") Duration aggregateInterval) {
+        this.locationStockRepository = locationStockRepository;
+        this.productRepository = productRepository;
+        this.productCache = productCache;
+        this.journal = journal;
+        this.stockEvents = stockEvents;
+        this.lowStockAlerts = lowStockAlerts;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.aggregateInterval = aggregateInterval;
+    }
+    
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        int folded = transactionTemplate.execute(status -> fold(locationStockRepository.findAllUnaggregated()));
+        if (folded > 0) {
+            log.info("Folded location stock left over from the last run into {} product totals", folded);
+        }
+        
+        aggregator = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "location-stock-aggregator");
+            thread.setDaemon(true);
+            return thread;
+        });
+        aggregator.scheduleWithFixedDelay(this::aggregateQuietly,
+            aggregateInterval.toMillis(), aggregateInterval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+    
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        if (aggregator == null) {
+            return;
+        }
+        aggregator.shutdown();
+        aggregator.awaitTermination(5, TimeUnit.SECONDS);
+        aggregate();
+    }
+    
+    // Called by location writes; takes effect once the write commits
+    public void changed(Long productId) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    dirtyProducts.add(productId);
+                }
+            });
+        } else {
+            dirtyProducts.add(productId);
+        }
+    }
+    
+    // Returns the number of product totals that changed. Runs one at a time, so a caller that
+    // returns from here knows that every write marked before the call has been folded.
+    public synchronized int aggregate() {
+        List<Long> productIds = new ArrayList<>();
+        for (Iterator<Long> it = dirtyProducts.iterator(); it.hasNext(); ) {
+            productIds.add(it.next());
+            it.remove();
+        }
+        if (productIds.isEmpty()) {
+            return 0;
+        }
+        try {
+            return transactionTemplate.execute(status -> fold(locationStockRepository.findUnaggregated(productIds)));
+        } catch (RuntimeException ex) {
+            // The rows still owe their deltas; try these products again next time
+            dirtyProducts.addAll(productIds);
+            throw ex;
+        }
+    }
+    
+    private int fold(List<LocationStock> rows) {
+        Map<Long, Integer> deltas = new HashMap<>();
+        for (LocationStock row : rows) {
+            int owed = row.getQuantity() - row.getAggregatedQuantity();
+            locationStockRepository.markAggregated(row.getId(), owed);
+            deltas.merge(row.getProductId(), owed, Integer::sum);
+        }
+        deltas.values().removeIf(delta -> delta == 0);
+        if (deltas.isEmpty()) {
+            return 0;
+        }
+        
+        productRepository.applyLocatedDeltas(deltas);
+        for (ProductResponse product : productRepository.findResponsesByIdIn(deltas.keySet())) {
+            int delta = deltas.get(product.getId());
+            productCache.invalidate(product.getId());
+            journal.record(StockMovement.Type.LOCATION_ADJUSTED, product.getId(), delta, product.getStockQuantity());
+            stockEvents.stockChanged(product, delta);
+            lowStockAlerts.stockChanged(product, product.getStockQuantity() - delta <= product.getLowStockThreshold());
+        }
+        return deltas.size();
+    }
+    
+    private void aggregateQuietly() {
+        try {
+            aggregate();
+        } catch (RuntimeException ex) {
+            log.error("Location stock aggregation failed", ex);
+        }
+    }
+}
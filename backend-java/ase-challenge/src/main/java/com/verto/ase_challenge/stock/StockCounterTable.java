@@ -0,0 +1,267 @@
+package com.verto.ase_challenge.stock;
+
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+// Open-addressing long -> int table split into independently locked stripes.
+// Structural changes (insert, remove, resize) take the stripe's write lock; stock
+// changes only take the read lock and are applied with a CAS loop, so concurrent
+// decrements of the same product never block each other. Each slot also carries
+// the net delta that has not been written to the database yet.
+public final class StockCounterTable {
+    
+    public static final int MISSING = -1;
+    public static final int INSUFFICIENT = -2;
+    
+    private static final int STRIPES = 64;
+    private static final int INITIAL_CAPACITY = 16;
+    private static final long EMPTY = 0L;
+    private static final long TOMBSTONE = -1L;
+    
+    @FunctionalInterface
+    public interface DeltaConsumer {
+        void accept(long id, int delta);
+    }
+    
+    private final Stripe[] stripes = new Stripe[STRIPES];
+    
+    public StockCounterTable() {
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new Stripe();
+        }
+    }
+    
+    public int get(long id) {
+        Stripe stripe = stripeFor(id);
+        stripe.lock.readLock().lock();
+        try {
+            int slot = stripe.indexOf(id);
+            return slot < 0 ? MISSING : stripe.stock.get(slot);
+        } finally {
+            stripe.lock.readLock().unlock();
+        }
+    }
+    
+    // Returns the new stock level, MISSING if the id is not tracked, or INSUFFICIENT
+    // if the result would be negative (in which case nothing is changed)
+    public int tryAdd(long id, int delta) {
+        Stripe stripe = stripeFor(id);
+        stripe.lock.readLock().lock();
+        try {
+            int slot = stripe.indexOf(id);
+            if (slot < 0) {
+                return MISSING;
+            }
+            for (;;) {
+                int current = stripe.stock.get(slot);
+                int next = Math.addExact(current, delta);
+                if (next < 0) {
+                    return INSUFFICIENT;
+                }
+                if (stripe.stock.compareAndSet(slot, current, next)) {
+                    stripe.pending.addAndGet(slot, delta);
+                    return next;
+                }
+            }
+        } finally {
+            stripe.lock.readLock().unlock();
+        }
+    }
+    
+    // Overwrites the stock level and records the difference as a pending delta
+    public int set(long id, int value) {
+        Stripe stripe = stripeFor(id);
+        stripe.lock.readLock().lock();
+        try {
+            int slot = stripe.indexOf(id);
+            if (slot < 0) {
+                return MISSING;
+            }
+            for (;;) {
+                int current = stripe.stock.get(slot);
+                if (stripe.stock.compareAndSet(slot, current, value)) {
+                    stripe.pending.addAndGet(slot, value - current);
+                    return value;
+                }
+            }
+        } finally {
+            stripe.lock.readLock().unlock();
+        }
+    }
+    
+    // Puts back a delta that was drained but could not be written
+    public void restorePending(long id, int delta) {
+        Stripe stripe = stripeFor(id);
+        stripe.lock.readLock().lock();
+        try {
+            int slot = stripe.indexOf(id);
+            if (slot >= 0) {
+                stripe.pending.addAndGet(slot, delta);
+            }
+        } finally {
+            stripe.lock.readLock().unlock();
+        }
+    }
+    
+    // Re-bases a tracked product on its persisted level plus the deltas still pending, e.g.
+    // after the database refused one; the write lock keeps in-flight changes out of the sum.
+    // Returns the new level, or MISSING if the id is not tracked.
+    public int reseed(long id, int persisted) {
+        Stripe stripe = stripeFor(id);
+        stripe.lock.writeLock().lock();
+        try {
+            int slot = stripe.indexOf(id);
+            if (slot < 0) {
+                return MISSING;
+            }
+            int stock = Math.max(0, persisted + stripe.pending.get(slot));
+            stripe.stock.set(slot, stock);
+            return stock;
+        } finally {
+            stripe.lock.writeLock().unlock();
+        }
+    }
+    
+    // Starts tracking a product at the given (already persisted) level; no-op if tracked
+    public boolean putIfAbsent(long id, int stock) {
+        if (id <= 0) {
+            throw new IllegalArgumentException("Product IDs must be positive: " + id);
+        }
+        Stripe stripe = stripeFor(id);
+        stripe.lock.writeLock().lock();
+        try {
+            if (stripe.indexOf(id) >= 0) {
+                return false;
+            }
+            stripe.insert(id, stock);
+            return true;
+        } finally {
+            stripe.lock.writeLock().unlock();
+        }
+    }
+    
+    public void remove(long id) {
+        Stripe stripe = stripeFor(id);
+        stripe.lock.writeLock().lock();
+        try {
+            int slot = stripe.indexOf(id);
+            if (slot >= 0) {
+                stripe.keys[slot] = TOMBSTONE;
+                stripe.stock.set(slot, 0);
+                stripe.pending.set(slot, 0);
+                stripe.size--;
+            }
+        } finally {
+            stripe.lock.writeLock().unlock();
+        }
+    }
+    
+    // Hands every non-zero pending delta to the consumer and resets it to zero
+    public int drain(DeltaConsumer consumer) {
+        int drained = 0;
+        for (Stripe stripe : stripes) {
+            stripe.lock.readLock().lock();
+            try {
+                long[] keys = stripe.keys;
+                for (int slot = 0; slot < keys.length; slot++) {
+                    if (keys[slot] > 0) {
+                        int delta = stripe.pending.getAndSet(slot, 0);
+                        if (delta != 0) {
+                            consumer.accept(keys[slot], delta);
+                            drained++;
+                        }
+                    }
+                }
+            } finally {
+                stripe.lock.readLock().unlock();
+            }
+        }
+        return drained;
+    }
+    
+    public int size() {
+        int size = 0;
+        for (Stripe stripe : stripes) {
+            stripe.lock.readLock().lock();
+            try {
+                size += stripe.size;
+            } finally {
+                stripe.lock.readLock().unlock();
+            }
+        }
+        return size;
+    }
+    
+    private Stripe stripeFor(long id) {
+        return stripes[(int) (mix(id) >>> 58)];
+    }
+    
+    private static long mix(long id) {
+        long h = id * 0x9E3779B97F4A7C15L;
+        return h ^ (h >>> 32);
+    }
+    
+    private static final class Stripe {
+        
+        private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+        private long[] keys = new long[INITIAL_CAPACITY];
+        private AtomicIntegerArray stock = new AtomicIntegerArray(INITIAL_CAPACITY);
+        private AtomicIntegerArray pending = new AtomicIntegerArray(INITIAL_CAPACITY);
+        private int size;
+        private int used;
+        
+        private int indexOf(long id) {
+            int mask = keys.length - 1;
+            for (int slot = (int) mix(id) & mask; ; slot = (slot + 1) & mask) {
+                long key = keys[slot];
+                if (key == id) {
+                    return slot;
+                }
+                if (key == EMPTY) {
+                    return -1;
+                }
+            }
+        }
+        
+        private void insert(long id, int value) {
+            if ((used + 1) * 2 > keys.length) {
+                rehash(size * 2 >= keys.length / 2 ? keys.length * 2 : keys.length);
+            }
+            int mask = keys.length - 1;
+            int slot = (int) mix(id) & mask;
+            while (keys[slot] > 0) {
+                slot = (slot + 1) & mask;
+            }
+            if (keys[slot] == EMPTY) {
+                used++;
+            }
+            keys[slot] = id;
+            stock.set(slot, value);
+            pending.set(slot, 0);
+            size++;
+        }
+        
+        // Also used to purge tombstones when the table is sparse but polluted
+        private void rehash(int capacity) {
+            long[] oldKeys = keys;
+            AtomicIntegerArray oldStock = stock;
+            AtomicIntegerArray oldPending = pending;
+            keys = new long[capacity];
+            stock = new AtomicIntegerArray(capacity);
+            pending = new AtomicIntegerArray(capacity);
+            int mask = capacity - 1;
+            for (int i = 0; i < oldKeys.length; i++) {
+                if (oldKeys[i] > 0) {
+                    int slot = (int) mix(oldKeys[i]) & mask;
+                    while (keys[slot] != EMPTY) {
+                        slot = (slot + 1) & mask;
+                    }
+                    keys[slot] = oldKeys[i];
+                    stock.set(slot, oldStock.get(i));
+                    pending.set(slot, oldPending.get(i));
+                }
+            }
+            used = size;
+        }
+    }
+}
@@ -0,0 +1,233 @@
+package com.verto.ase_challenge.stock;
+
+import com.verto.ase_challenge.dto.ProductResponse;
+import com.verto.ase_challenge.dto.StockAdjustmentItem;
+import com.verto.ase_challenge.exception.InsufficientStockException;
+import com.verto.ase_challenge.exception.ProductNotFoundException;
+import com.verto.ase_challenge.repository.ProductRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+// Optional write-behind mode for stock levels (inventory.stock.write-behind.enabled).
+// Increases and decreases are applied to an in-memory counter table and a background
+// task periodically writes the coalesced net delta per product in one JDBC batch.
+// The counters are authoritative while the mode is on, which assumes this instance
+// is the only writer of stock_quantity; listings read from the database may lag by
+// up to one flush interval. A delta the guarded UPDATE refuses (the product was deleted,
+// or its row changed behind the counters' back) is counted in
+// inventory.stock.write_behind.rejected and the counter is re-seeded from the row, so it
+// never keeps selling stock the database does not have.
+@Component
+@Slf4j
+public class WriteBehindStockCounters {
+    
+    private final ProductRepository productRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+    private final Duration flushInterval;
+    private final StockCounterTable table = new StockCounterTable();
+    private final Counter rejectedDeltas;
+    private ScheduledExecutorService flusher;
+    
+    public WriteBehindStockCounters(
+            ProductRepository productRepository,
+            PlatformTransactionManager transactionManager,
+            MeterRegistry registry,
+            @Value("${inventory.stock.write-behind.enabled:false}") boolean enabled,
+            @Value("${inventory.stock.write-behind.flush-interval:200ms}") Duration flushInterval) {
+        this.productRepository = productRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.enabled = enabled;
+        this.flushInterval = flushInterval;
+        this.rejectedDeltas = Counter.builder("inventory.stock.write_behind.rejected")
+            .description("Write-behind deltas the database refused; the counter is re-seeded from the row")
+            .register(registry);
+    }
+    
+    public boolean isEnabled() {
+        return enabled;
+    }
+    
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        productRepository.loadStockQuantities(table::putIfAbsent);
+        log.info("Write-behind stock counters hydrated with {} products", table.size());
+        
+        flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "stock-write-behind");
+            thread.setDaemon(true);
+            return thread;
+        });
+        flusher.scheduleWithFixedDelay(this::flushQuietly,
+            flushInterval.toMillis(), flushInterval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+    
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        if (flusher == null) {
+            return;
+        }
+        flusher.shutdown();
+        flusher.awaitTermination(5, TimeUnit.SECONDS);
+        flush();
+    }
+    
+    public int add(Long id, int delta) {
+        int result = table.tryAdd(id, delta);
+        if (result == StockCounterTable.MISSING) {
+            hydrate(id);
+            result = table.tryAdd(id, delta);
+        }
+        if (result == StockCounterTable.INSUFFICIENT) {
+            throw new InsufficientStockException(String.format(
+                "Insufficient stock. Available: %d, Requested: %d", table.get(id), -delta));
+        }
+        if (result == StockCounterTable.MISSING) {
+            throw new ProductNotFoundException("Product not found with ID: " + id);
+        }
+        return result;
+    }
+    
+    public int set(Long id, int stock) {
+        if (table.set(id, stock) == StockCounterTable.MISSING) {
+            hydrate(id);
+            table.set(id, stock);
+        }
+        return stock;
+    }
+    
+    // All-or-nothing: decrements are applied first and undone if any of them fails,
+    // so no other request can ever consume stock that a rejected batch added
+    public void addAll(List<StockAdjustmentItem> items) {
+        for (StockAdjustmentItem item : items) {
+            if (table.get(item.getId()) == StockCounterTable.MISSING) {
+                hydrate(item.getId());
+                if (table.get(item.getId()) == StockCounterTable.MISSING) {
+                    throw new ProductNotFoundException("Product not found with ID: " + item.getId());
+                }
+            }
+        }
+        
+        List<StockAdjustmentItem> applied = new ArrayList<>();
+        try {
+            for (StockAdjustmentItem item : items) {
+                if (item.getDelta() < 0) {
+                    add(item.getId(), item.getDelta());
+                    applied.add(item);
+                }
+            }
+        } catch (RuntimeException ex) {
+            applied.forEach(item -> table.tryAdd(item.getId(), -item.getDelta()));
+            throw ex;
+        }
+        for (StockAdjustmentItem item : items) {
+            if (item.getDelta() >= 0) {
+                add(item.getId(), item.getDelta());
+            }
+        }
+    }
+    
+    public int get(Long id) {
+        return table.get(id);
+    }
+    
+    public void remove(Long id) {
+        table.remove(id);
+    }
+    
+    // Replaces the (possibly not yet flushed) persisted stock with the live counter value
+    public ProductResponse overlay(ProductResponse response) {
+        int stock = table.get(response.getId());
+        if (stock == StockCounterTable.MISSING || stock == response.getStockQuantity()) {
+            return response;
+        }
+        return new ProductResponse(
+            response.getId(),
+            response.getName(),
+            response.getDescription(),
+            stock,
+            response.getLowStockThreshold(),
+            response.getLowStockThreshold() != null && stock <= response.getLowStockThreshold(),
+            response.getVersion()
+        );
+    }
+    
+    // Writes every pending delta as one UPDATE per product; returns the number of products written
+    public int flush() {
+        List<StockAdjustmentItem> deltas = new ArrayList<>();
+        table.drain((id, delta) -> deltas.add(new StockAdjustmentItem(id, delta)));
+        if (deltas.isEmpty()) {
+            return 0;
+        }
+        
+        int[] updateCounts;
+        try {
+            updateCounts = transactionTemplate.execute(status -> productRepository.flushStockDeltas(deltas));
+        } catch (RuntimeException ex) {
+            deltas.forEach(item -> table.restorePending(item.getId(), item.getDelta()));
+            throw ex;
+        }
+        
+        List<Long> rejected = new ArrayList<>();
+        for (int i = 0; i < deltas.size(); i++) {
+            if (updateCounts[i] == 0) {
+                rejected.add(deltas.get(i).getId());
+            }
+        }
+        if (!rejected.isEmpty()) {
+            reseed(rejected);
+        }
+        log.debug("Flushed write-behind stock deltas for {} products", deltas.size());
+        return deltas.size();
+    }
+    
+    private void flushQuietly() {
+        try {
+            flush();
+        } catch (RuntimeException ex) {
+            log.error("Write-behind stock flush failed, will retry: {}", ex.getMessage(), ex);
+        }
+    }
+    
+    // Deleted meanwhile, or the row was changed behind the counters' back: the counter
+    // already holds the refused delta, so rebuild it from the row instead
+    private void reseed(List<Long> ids) {
+        rejectedDeltas.increment(ids.size());
+        Map<Long, Integer> persisted = productRepository.findStockQuantities(ids);
+        for (Long id : ids) {
+            Integer stock = persisted.get(id);
+            if (stock == null) {
+                table.remove(id);
+            } else {
+                table.reseed(id, stock);
+            }
+        }
+        log.warn("Write-behind flush was refused for {} products; re-seeded their counters from the database", ids.size());
+    }
+    
+    private void hydrate(Long id) {
+        Integer stock = productRepository.findStockQuantities(List.of(id)).get(id);
+        if (stock != null) {
+            table.putIfAbsent(id, stock);
+        }
+    }
+}
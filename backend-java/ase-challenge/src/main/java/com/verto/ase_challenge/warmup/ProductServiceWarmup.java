@@ -0,0 +1,121 @@
+package com.verto.ase_challenge.warmup;
+
+import com.verto.ase_challenge.dto.ProductPage;
+import com.verto.ase_challenge.dto.ProductQuery;
+import com.verto.ase_challenge.dto.ProductResponse;
+import com.verto.ase_challenge.dto.ProductSearchQuery;
+import com.verto.ase_challenge.search.ProductSearchIndex;
+import com.verto.ase_challenge.search.SearchMode;
+import com.verto.ase_challenge.service.ProductService;
+import com.verto.ase_challenge.stock.WriteBehindStockCounters;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.logging.LogLevel;
+import org.springframework.boot.logging.LoggerConfiguration;
+import org.springframework.boot.logging.LoggingSystem;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.List;
+
+// Runs the ProductService hot paths (page listing, cached lookups, search and a stock
+// increase/decrease) for a number of rounds before the instance takes traffic, so the JIT has
+// compiled them by the time the first real request arrives. Spring Boot publishes readiness
+// (ACCEPTING_TRAFFIC) only after every ApplicationReadyEvent listener has returned, so
+// /actuator/health/readiness stays DOWN until the warmup is done. Stock changes run in a
+// transaction that is rolled back, and are skipped in write-behind mode, where the counters
+// are not transactional; apart from metrics, nothing the warmup does is visible afterwards.
+@Component
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@ConditionalOnProperty(name = "inventory.warmup.enabled", havingValue = "true")
+@Slf4j
+public class ProductServiceWarmup {
+    
+    private static final int PAGE_SIZE = 50;
+    
+    private final ProductService productService;
+    private final ProductSearchIndex searchIndex;
+    private final WriteBehindStockCounters stockCounters;
+    private final LoggingSystem loggingSystem;
+    private final TransactionTemplate transactionTemplate;
+    private final int rounds;
+    private final Duration maxDuration;
+    
+    public ProductServiceWarmup(
+            ProductService productService,
+            ProductSearchIndex searchIndex,
+            WriteBehindStockCounters stockCounters,
+            LoggingSystem loggingSystem,
+            PlatformTransactionManager transactionManager,
+            @Value("${inventory.warmup.rounds:200}") int rounds,
+            @Value("${inventory.warmup.max-duration:10s}") Duration maxDuration) {
+        this.productService = productService;
+        this.searchIndex = searchIndex;
+        this.stockCounters = stockCounters;
+        this.loggingSystem = loggingSystem;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.rounds = rounds;
+        this.maxDuration = maxDuration;
+    }
+    
+    // Last, so that reservations, aggregators and the like have started before it runs
+    @EventListener(ApplicationReadyEvent.class)
+    @Order(Ordered.LOWEST_PRECEDENCE)
+    public void warmUp() {
+        long started = System.nanoTime();
+        long deadline = started + maxDuration.toNanos();
+        // With DEBUG on, ProductService logs every call; thousands of warmup lines would bury the startup log
+        String logger = ProductService.class.getName();
+        LoggerConfiguration configuration = loggingSystem.getLoggerConfiguration(logger);
+        loggingSystem.setLogLevel(logger, LogLevel.WARN);
+        int completed = 0;
+        try {
+            while (completed < rounds && System.nanoTime() < deadline) {
+                if (!round()) {
+                    break;
+                }
+                completed++;
+            }
+        } catch (RuntimeException ex) {
+            // A failed warmup only costs latency; the instance is still able to serve
+            log.warn("Warmup stopped after {} rounds: {}", completed, ex.getMessage());
+        } finally {
+            loggingSystem.setLogLevel(logger, configuration != null ? configuration.getConfiguredLevel() : null);
+        }
+        log.info("Warmed up ProductService in {} ms ({} rounds)", (System.nanoTime() - started) / 1_000_000, completed);
+    }
+    
+    // Returns false when there is nothing to warm up on
+    private boolean round() {
+        ProductPage page = productService.getProducts(new ProductQuery(null, PAGE_SIZE, null, null, null));
+        List<ProductResponse> products = page.getItems();
+        if (products.isEmpty()) {
+            return false;
+        }
+        productService.getProducts(new ProductQuery(null, PAGE_SIZE, null, null, true));
+        for (ProductResponse product : products) {
+            productService.getProductById(product.getId());
+        }
+        if (searchIndex.isEnabled()) {
+            String name = products.get(0).getName();
+            productService.searchProducts(new ProductSearchQuery(name, SearchMode.PREFIX, null, PAGE_SIZE));
+        }
+        if (!stockCounters.isEnabled()) {
+            Long id = products.get(0).getId();
+            transactionTemplate.executeWithoutResult(status -> {
+                productService.increaseStock(id, 1);
+                productService.decreaseStock(id, 1);
+                status.setRollbackOnly();
+            });
+        }
+        return true;
+    }
+}
@@ -0,0 +1,80 @@
+package com.verto.ase_challenge.web;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.reactivestreams.Publisher;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.web.codec.CodecCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferFactory;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.json.Jackson2SmileDecoder;
+import org.springframework.http.codec.json.Jackson2SmileEncoder;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+import org.springframework.util.MimeType;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Jackson Smile, a binary encoding of the JSON data model, as an alternative body format for
+ * {@code /api}: clients opt in with {@code Accept} or {@code Content-Type: application/x-jackson-smile},
+ * everyone else keeps getting JSON. Both stacks ship a Smile codec once the format is on the classpath,
+ * but built from a bare mapper; these replace it with one built from the application's Jackson settings
+ * so both encodings carry exactly the same fields.
+ */
+@Configuration(proxyBeanMethods = false)
+public class SmileConfiguration {
+    
+    public static final MediaType APPLICATION_SMILE = new MediaType("application", "x-jackson-smile");
+    
+    // Replaces the default converter of the same type, keeping its place after JSON
+    @Bean
+    @ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+    MappingJackson2SmileHttpMessageConverter smileHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2SmileHttpMessageConverter(smileMapper(builder));
+    }
+    
+    // Also applied to the WebClient and WebTestClient codecs. The media type has to be passed
+    // explicitly: given only a mapper, the Jackson codecs assume JSON media types.
+    @Bean
+    @ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+    CodecCustomizer smileCodecCustomizer(Jackson2ObjectMapperBuilder builder) {
+        ObjectMapper mapper = smileMapper(builder);
+        return configurer -> {
+            configurer.defaultCodecs().jackson2SmileEncoder(new SmileEncoder(mapper));
+            configurer.defaultCodecs().jackson2SmileDecoder(new Jackson2SmileDecoder(mapper, APPLICATION_SMILE));
+        };
+    }
+    
+    // Smile writes each repeated property name once and back-references it afterwards,
+    // which is where most of the saving on product lists comes from
+    public static ObjectMapper smileMapper(Jackson2ObjectMapperBuilder builder) {
+        return builder.factory(new SmileFactory()).build();
+    }
+    
+    // The Jackson encoders turn a Flux into an array by writing JSON brackets and commas between
+    // the encoded elements, which is not valid Smile. Collect it and encode one List value instead.
+    static class SmileEncoder extends Jackson2SmileEncoder {
+        
+        SmileEncoder(ObjectMapper mapper) {
+            super(mapper, APPLICATION_SMILE);
+        }
+        
+        @Override
+        public Flux<DataBuffer> encode(Publisher<?> inputStream, DataBufferFactory bufferFactory,
+                                       ResolvableType elementType, MimeType mimeType, Map<String, Object> hints) {
+            if (inputStream instanceof Mono) {
+                return super.encode(inputStream, bufferFactory, elementType, mimeType, hints);
+            }
+            return super.encode(Flux.from(inputStream).collectList(), bufferFactory,
+                ResolvableType.forClassWithGenerics(List.class, elementType), mimeType, hints);
+        }
+    }
+}
@@ -1,8 +1,11 @@
 -- Sample data for demonstration
-INSERT INTO products (name, description, stock_quantity, low_stock_threshold) VALUES 
-('Laptop', 'High-performance gaming laptop', 25, 5),
-('Mouse', 'Wireless optical mouse', 150, 20),
-('Keyboard', 'Mechanical gaming keyboard', 75, 10),
-('Monitor', '27-inch 4K monitor', 12, 5),
-('Headphones', 'Noise-cancelling headphones', 8, 10),
-('Webcam', 'HD webcam for streaming', 45, 15);
\ No newline at end of file
+INSERT INTO products (id, name, description, stock_quantity, low_stock_threshold) VALUES 
+(1, 'Laptop', 'High-performance gaming laptop', 25, 5),
+(2, 'Mouse', 'Wireless optical mouse', 150, 20),
+(3, 'Keyboard', 'Mechanical gaming keyboard', 75, 10),
+(4, 'Monitor', '27-inch 4K monitor', 12, 5),
+(5, 'Headphones', 'Noise-cancelling headphones', 8, 10),
+(6, 'Webcam', 'HD webcam for streaming', 45, 15);
+
+-- Generated ids continue after the sample rows
+ALTER SEQUENCE product_seq RESTART WITH 7;
\ No newline at end of file
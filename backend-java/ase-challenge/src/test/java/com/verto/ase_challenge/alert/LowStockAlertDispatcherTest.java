@@ -0,0 +1,100 @@
+package com.verto.ase_challenge.alert;
+
+import com.verto.ase_challenge.entity.LowStockAlert;
+import com.verto.ase_challenge.repository.LowStockAlertRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.*;
+
+class LowStockAlertDispatcherTest {
+    
+    private static final Instant NOW = Instant.parse("2026-01-01T12:00:00Z");
+    
+    private final LowStockAlertRepository alertRepository = mock(LowStockAlertRepository.class);
+    private final List<LowStockAlert> delivered = new ArrayList<>();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    
+    @Test
+    @DisplayName("Should deliver only the latest state of a product that ended up across its threshold")
+    void shouldCollapseNetCrossingIntoLatestAlert() {
+        // Given
+        givenPending(
+            alert(1L, 7L, LowStockAlert.Type.LOW_STOCK, 30),
+            alert(2L, 7L, LowStockAlert.Type.RESTOCKED, 20),
+            alert(3L, 7L, LowStockAlert.Type.LOW_STOCK, 10)
+        );
+        
+        // When
+        int count = dispatcher(alerts -> delivered.addAll(alerts)).dispatch(NOW);
+        
+        // Then
+        assertThat(count).isEqualTo(1);
+        assertThat(delivered).extracting(LowStockAlert::getId).containsExactly(3L);
+        verify(alertRepository).markProcessed(List.of(3L), LowStockAlert.Status.SENT, NOW);
+        verify(alertRepository).markProcessed(List.of(1L, 2L), LowStockAlert.Status.SUPPRESSED, NOW);
+        assertThat(meterRegistry.get("inventory.alerts.suppressed").counter().count()).isEqualTo(2);
+    }
+    
+    @Test
+    @DisplayName("Should suppress a round trip and hold products that are still changing")
+    void shouldSuppressRoundTripAndHoldUnsettledProducts() {
+        // Given
+        givenPending(
+            alert(1L, 7L, LowStockAlert.Type.LOW_STOCK, 30),
+            alert(2L, 7L, LowStockAlert.Type.RESTOCKED, 20),
+            alert(3L, 8L, LowStockAlert.Type.LOW_STOCK, 1)
+        );
+        
+        // When
+        int count = dispatcher(alerts -> delivered.addAll(alerts)).dispatch(NOW);
+        
+        // Then
+        assertThat(count).isZero();
+        assertThat(delivered).isEmpty();
+        verify(alertRepository).markProcessed(List.of(1L, 2L), LowStockAlert.Status.SUPPRESSED, NOW);
+        verify(alertRepository, never()).markProcessed(anyCollection(), eq(LowStockAlert.Status.SENT), any());
+    }
+    
+    @Test
+    @DisplayName("Should leave the batch pending when the sink fails")
+    void shouldLeaveBatchPendingWhenSinkFails() {
+        // Given
+        givenPending(alert(1L, 7L, LowStockAlert.Type.LOW_STOCK, 30));
+        
+        // When
+        int count = dispatcher(alerts -> {
+            throw new IllegalStateException("Sink unavailable");
+        }).dispatch(NOW);
+        
+        // Then
+        assertThat(count).isZero();
+        verify(alertRepository, never()).markProcessed(anyCollection(), any(), any());
+        assertThat(meterRegistry.get("inventory.alerts.delivery_failures").counter().count()).isEqualTo(1);
+    }
+    
+    private LowStockAlertDispatcher dispatcher(AlertSink sink) {
+        return new LowStockAlertDispatcher(alertRepository, sink, mock(PlatformTransactionManager.class), meterRegistry,
+            true, Duration.ofSeconds(1), Duration.ofSeconds(5), Duration.ofMinutes(1), 100);
+    }
+    
+    private void givenPending(LowStockAlert... alerts) {
+        when(alertRepository.findByStatusOrderByIdAsc(eq(LowStockAlert.Status.PENDING), any())).thenReturn(List.of(alerts));
+    }
+    
+    private static LowStockAlert alert(Long id, Long productId, LowStockAlert.Type type, int secondsAgo) {
+        LowStockAlert alert = new LowStockAlert(productId, type, 5, 10, NOW.minusSeconds(secondsAgo));
+        alert.setId(id);
+        return alert;
+    }
+}
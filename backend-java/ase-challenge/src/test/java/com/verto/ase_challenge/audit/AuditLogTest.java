@@ -0,0 +1,143 @@
+package com.verto.ase_challenge.audit;
+
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.read.ListAppender;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.slf4j.LoggerFactory;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.AbstractPlatformTransactionManager;
+import org.springframework.transaction.support.DefaultTransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AuditLogTest {
+    
+    private final ObjectMapper objectMapper = new ObjectMapper()
+        .registerModule(new JavaTimeModule())
+        .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final TransactionTemplate transaction = new TransactionTemplate(new NoOpTransactionManager());
+    
+    @Test
+    @DisplayName("Should offer a stock change only once its transaction commits")
+    void shouldOfferStockChangeAfterCommit() {
+        // Given
+        AuditLog auditLog = auditLog(0.01);
+        
+        // When
+        transaction.executeWithoutResult(status -> {
+            auditLog.stockChanged(AuditEvent.Action.DECREASE, 1L, -5, 95);
+            
+            // Then
+            assertThat(pending()).isZero();
+        });
+        assertThat(pending()).isEqualTo(1);
+    }
+    
+    @Test
+    @DisplayName("Should record nothing for a stock change whose transaction rolls back")
+    void shouldDropStockChangeOnRollback() {
+        // Given
+        AuditLog auditLog = auditLog(0.01);
+        
+        // When
+        transaction.executeWithoutResult(status -> {
+            auditLog.stockChanged(AuditEvent.Action.INCREASE, 1L, 5, 105);
+            status.setRollbackOnly();
+        });
+        
+        // Then
+        assertThat(pending()).isZero();
+    }
+    
+    @Test
+    @DisplayName("Should sample reads at the configured rate")
+    void shouldSampleReads() {
+        // Given
+        AuditLog never = auditLog(0.0);
+        SimpleMeterRegistry alwaysRegistry = new SimpleMeterRegistry();
+        AuditLog always = new AuditLog(objectMapper, alwaysRegistry, true, 64, 1.0, Duration.ofMillis(5));
+        
+        // When
+        for (int i = 0; i < 10; i++) {
+            never.read(AuditEvent.Action.GET, 1L);
+            always.read(AuditEvent.Action.GET, 1L);
+        }
+        
+        // Then
+        assertThat(pending()).isZero();
+        assertThat(alwaysRegistry.get("inventory.audit.pending").gauge().value()).isEqualTo(10);
+    }
+    
+    @Test
+    @DisplayName("Should write each event as one JSON line and drain the buffer on stop")
+    void shouldWriteJsonLinesAndDrainOnStop() throws Exception {
+        // Given
+        Logger audit = (Logger) LoggerFactory.getLogger("audit");
+        ListAppender<ILoggingEvent> appender = new ListAppender<>();
+        appender.start();
+        audit.addAppender(appender);
+        AuditLog auditLog = auditLog(1.0);
+        auditLog.stockChanged(AuditEvent.Action.DECREASE, 7L, -3, 17);
+        auditLog.rejected(AuditEvent.Action.DECREASE, 7L, -30, "insufficient_stock");
+        
+        try {
+            // When
+            auditLog.start();
+            auditLog.stop();
+            
+            // Then
+            assertThat(appender.list).hasSize(2);
+            JsonNode change = objectMapper.readTree(appender.list.get(0).getFormattedMessage());
+            assertThat(change.get("action").asText()).isEqualTo("DECREASE");
+            assertThat(change.get("productId").asLong()).isEqualTo(7L);
+            assertThat(change.get("quantity").asInt()).isEqualTo(-3);
+            assertThat(change.get("stockAfter").asInt()).isEqualTo(17);
+            assertThat(change.has("rejection")).isFalse();
+            JsonNode rejection = objectMapper.readTree(appender.list.get(1).getFormattedMessage());
+            assertThat(rejection.get("rejection").asText()).isEqualTo("insufficient_stock");
+            assertThat(pending()).isZero();
+            assertThat(registry.get("inventory.audit.written").counter().count()).isEqualTo(2);
+        } finally {
+            audit.detachAppender(appender);
+        }
+    }
+    
+    private AuditLog auditLog(double readSampleRate) {
+        return new AuditLog(objectMapper, registry, true, 64, readSampleRate, Duration.ofMillis(5));
+    }
+    
+    private double pending() {
+        return registry.get("inventory.audit.pending").gauge().value();
+    }
+    
+    private static class NoOpTransactionManager extends AbstractPlatformTransactionManager {
+        
+        @Override
+        protected Object doGetTransaction() {
+            return new Object();
+        }
+        
+        @Override
+        protected void doBegin(Object transaction, TransactionDefinition definition) {
+        }
+        
+        @Override
+        protected void doCommit(DefaultTransactionStatus status) {
+        }
+        
+        @Override
+        protected void doRollback(DefaultTransactionStatus status) {
+        }
+    }
+}
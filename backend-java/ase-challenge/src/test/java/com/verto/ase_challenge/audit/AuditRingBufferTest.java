@@ -0,0 +1,107 @@
+package com.verto.ase_challenge.audit;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class AuditRingBufferTest {
+    
+    private final AuditRingBuffer<Integer> buffer = new AuditRingBuffer<>(4);
+    
+    @Test
+    @DisplayName("Should drain values oldest first, at most max at a time")
+    void shouldDrainInOrderUpToMax() {
+        // Given
+        buffer.offer(1);
+        buffer.offer(2);
+        buffer.offer(3);
+        List<Integer> drained = new ArrayList<>();
+        
+        // When
+        int first = buffer.drainTo(drained, 2);
+        int second = buffer.drainTo(drained, 2);
+        
+        // Then
+        assertThat(first).isEqualTo(2);
+        assertThat(second).isEqualTo(1);
+        assertThat(drained).containsExactly(1, 2, 3);
+        assertThat(buffer.size()).isZero();
+    }
+    
+    @Test
+    @DisplayName("Should reject offers while the ring is full and accept them again once drained")
+    void shouldRejectWhenFull() {
+        // Given
+        for (int i = 1; i <= 4; i++) {
+            assertThat(buffer.offer(i)).isTrue();
+        }
+        
+        // When & Then
+        assertThat(buffer.offer(5)).isFalse();
+        assertThat(buffer.size()).isEqualTo(4);
+        List<Integer> drained = new ArrayList<>();
+        buffer.drainTo(drained, 1);
+        assertThat(buffer.offer(5)).isTrue();
+        buffer.drainTo(drained, 10);
+        assertThat(drained).containsExactly(1, 2, 3, 4, 5);
+    }
+    
+    @Test
+    @DisplayName("Should reject a capacity that is not a power of two")
+    void shouldRejectCapacityThatIsNotPowerOfTwo() {
+        // When & Then
+        assertThatThrownBy(() -> new AuditRingBuffer<Integer>(6))
+            .isInstanceOf(IllegalArgumentException.class)
+            .hasMessageContaining("power of two");
+    }
+    
+    @Test
+    @DisplayName("Should hand every accepted value from concurrent producers to the consumer exactly once")
+    void shouldDeliverEveryAcceptedValueOnce() throws Exception {
+        // Given
+        AuditRingBuffer<Integer> ring = new AuditRingBuffer<>(64);
+        int producers = 4;
+        int perProducer = 5_000;
+        ExecutorService executor = Executors.newFixedThreadPool(producers);
+        CountDownLatch done = new CountDownLatch(producers);
+        for (int p = 0; p < producers; p++) {
+            int base = p * perProducer;
+            executor.execute(() -> {
+                for (int i = 0; i < perProducer; i++) {
+                    while (!ring.offer(base + i)) {
+                        // Full: let the consumer catch up
+                        Thread.yield();
+                    }
+                }
+                done.countDown();
+            });
+        }
+        
+        // When
+        List<Integer> drained = new ArrayList<>();
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (drained.size() < producers * perProducer && System.nanoTime() < deadline) {
+            if (ring.drainTo(drained, 256) == 0) {
+                Thread.yield();
+            }
+        }
+        executor.shutdown();
+        
+        // Then
+        assertThat(done.await(5, TimeUnit.SECONDS)).isTrue();
+        Set<Integer> distinct = new HashSet<>(drained);
+        assertThat(drained).hasSize(producers * perProducer);
+        assertThat(distinct).hasSize(producers * perProducer);
+    }
+}
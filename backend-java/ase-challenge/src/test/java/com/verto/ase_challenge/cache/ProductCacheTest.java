@@ -0,0 +1,91 @@
+package com.verto.ase_challenge.cache;
+
+import com.verto.ase_challenge.dto.CacheStatsResponse;
+import com.verto.ase_challenge.dto.ProductResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ProductCacheTest {
+    
+    private ProductCache productCache;
+    private AtomicInteger loads;
+    
+    @BeforeEach
+    void setUp() {
+        productCache = new ProductCache(2, Duration.ofMinutes(1));
+        loads = new AtomicInteger();
+    }
+    
+    @Test
+    @DisplayName("Should load once and then serve hits")
+    void shouldLoadOnceAndThenServeHits() {
+        // When
+        productCache.get(1L, this::load);
+        productCache.get(1L, this::load);
+        productCache.get(1L, this::load);
+        
+        // Then
+        CacheStatsResponse stats = productCache.stats();
+        assertThat(loads.get()).isEqualTo(1);
+        assertThat(stats.getHits()).isEqualTo(2);
+        assertThat(stats.getMisses()).isEqualTo(1);
+    }
+    
+    @Test
+    @DisplayName("Should reload after invalidation")
+    void shouldReloadAfterInvalidation() {
+        // When
+        productCache.get(1L, this::load);
+        productCache.invalidate(1L);
+        ProductResponse reloaded = productCache.get(1L, this::load);
+        
+        // Then
+        assertThat(loads.get()).isEqualTo(2);
+        assertThat(reloaded.getStockQuantity()).isEqualTo(2);
+        assertThat(productCache.stats().getInvalidations()).isEqualTo(1);
+    }
+    
+    @Test
+    @DisplayName("Should not publish a value loaded before a concurrent invalidation")
+    void shouldNotPublishValueLoadedBeforeConcurrentInvalidation() {
+        // Given: a writer invalidates while the read is still in flight
+        ProductResponse stale = productCache.get(1L, id -> {
+            ProductResponse response = load(id);
+            productCache.invalidate(id);
+            return response;
+        });
+        
+        // When
+        ProductResponse fresh = productCache.get(1L, this::load);
+        
+        // Then
+        assertThat(stale.getStockQuantity()).isEqualTo(1);
+        assertThat(fresh.getStockQuantity()).isEqualTo(2);
+    }
+    
+    @Test
+    @DisplayName("Should evict entries beyond the maximum size")
+    void shouldEvictEntriesBeyondMaximumSize() {
+        // When
+        for (long id = 1; id <= 10; id++) {
+            productCache.get(id, this::load);
+        }
+        productCache.cleanUp();
+        
+        // Then
+        CacheStatsResponse stats = productCache.stats();
+        assertThat(stats.getSize()).isLessThanOrEqualTo(2);
+        assertThat(stats.getEvictions()).isGreaterThanOrEqualTo(8);
+    }
+    
+    private ProductResponse load(Long id) {
+        int version = loads.incrementAndGet();
+        return new ProductResponse(id, "Product " + id, null, version, 10, version <= 10, (long) version);
+    }
+}
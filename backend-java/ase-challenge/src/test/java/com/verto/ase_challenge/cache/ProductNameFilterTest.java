@@ -0,0 +1,50 @@
+package com.verto.ase_challenge.cache;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ProductNameFilterTest {
+    
+    @Test
+    @DisplayName("Should never rule out a name that was added, whatever its case and spacing")
+    void shouldHaveNoFalseNegatives() {
+        // Given
+        ProductNameFilter filter = new ProductNameFilter(null, null, true, 10_000, 0.01);
+        IntStream.range(0, 10_000).forEach(i -> filter.add("Product " + i));
+        
+        // Then
+        assertThat(IntStream.range(0, 10_000)).allMatch(i -> filter.mightContain("Product " + i));
+        assertThat(filter.mightContain("  PRODUCT 42 ")).isTrue();
+    }
+    
+    @Test
+    @DisplayName("Should rule out most unknown names at the configured false-positive rate")
+    void shouldKeepFalsePositivesNearConfiguredRate() {
+        // Given
+        ProductNameFilter filter = new ProductNameFilter(null, null, true, 10_000, 0.01);
+        IntStream.range(0, 10_000).forEach(i -> filter.add("Product " + i));
+        
+        // When
+        long falsePositives = IntStream.range(0, 100_000)
+            .filter(i -> filter.mightContain("Unknown item " + i))
+            .count();
+        
+        // Then
+        assertThat(falsePositives).isLessThan(2_000);
+    }
+    
+    @Test
+    @DisplayName("Should answer maybe for every name when disabled")
+    void shouldDeferToQueryWhenDisabled() {
+        // Given
+        ProductNameFilter filter = new ProductNameFilter(null, null, false, 10_000, 0.01);
+        
+        // Then
+        assertThat(filter.isEnabled()).isFalse();
+        assertThat(filter.mightContain("Anything")).isTrue();
+    }
+}
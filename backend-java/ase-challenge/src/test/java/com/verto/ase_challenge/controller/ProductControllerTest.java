@@ -1,11 +1,23 @@
 package com.verto.ase_challenge.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.verto.ase_challenge.dto.BatchStockUpdateRequest;
+import com.verto.ase_challenge.dto.BatchStockUpdateResponse;
+import com.verto.ase_challenge.dto.ProductPage;
+import com.verto.ase_challenge.dto.ProductQuery;
 import com.verto.ase_challenge.dto.ProductRequest;
 import com.verto.ase_challenge.dto.ProductResponse;
+import com.verto.ase_challenge.dto.ProductSearchPage;
+import com.verto.ase_challenge.dto.ProductSearchQuery;
+import com.verto.ase_challenge.dto.StockAdjustmentItem;
+import com.verto.ase_challenge.dto.StockAdjustmentResult;
 import com.verto.ase_challenge.dto.StockUpdateRequest;
 import com.verto.ase_challenge.exception.InsufficientStockException;
+import com.verto.ase_challenge.exception.PreconditionFailedException;
 import com.verto.ase_challenge.exception.ProductNotFoundException;
+import com.verto.ase_challenge.metrics.InventoryMetrics;
+import com.verto.ase_challenge.search.SearchMode;
+import com.verto.ase_challenge.service.ProductImportService;
 import com.verto.ase_challenge.service.ProductService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -15,12 +27,16 @@
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
 import java.util.Arrays;
 import java.util.List;
+import java.util.function.Consumer;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -34,6 +50,12 @@ class ProductControllerTest {
     @MockBean
     private ProductService productService;
     
+    @MockBean
+    private ProductImportService productImportService;
+    
+    @MockBean
+    private InventoryMetrics inventoryMetrics;
+    
     @Autowired
     private ObjectMapper objectMapper;
     
@@ -49,6 +71,7 @@ void setUp() {
         testProductResponse.setStockQuantity(100);
         testProductResponse.setLowStockThreshold(10);
         testProductResponse.setLowStock(false);
+        testProductResponse.setVersion(4L);
         
         testProductRequest = new ProductRequest();
         testProductRequest.setName("Test Product");
@@ -103,12 +126,44 @@ void shouldGetProductByIdSuccessfully() throws Exception {
         // When & Then
         mockMvc.perform(get("/api/products/1"))
                 .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"4-100\""))
                 .andExpect(jsonPath("$.id").value(1L))
-                .andExpect(jsonPath("$.name").value("Test Product"));
+                .andExpect(jsonPath("$.name").value("Test Product"))
+                .andExpect(jsonPath("$.version").doesNotExist());
         
         verify(productService).getProductById(1L);
     }
     
+    @Test
+    @DisplayName("Should answer 304 without a body when If-None-Match names the current ETag")
+    void shouldReturn304WhenETagMatches() throws Exception {
+        // Given
+        when(productService.getProductById(1L)).thenReturn(testProductResponse);
+        
+        // When & Then
+        mockMvc.perform(get("/api/products/1").header("If-None-Match", "\"4-100\""))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string("ETag", "\"4-100\""))
+                .andExpect(content().string(""));
+    }
+    
+    @Test
+    @DisplayName("Should pass If-Match through and return 412 when it is stale")
+    void shouldReturn412WhenIfMatchIsStale() throws Exception {
+        // Given
+        when(productService.updateProduct(eq(1L), any(ProductRequest.class), eq("\"3-100\"")))
+            .thenThrow(new PreconditionFailedException("Product 1 has changed. Current ETag: \"4-100\""));
+        
+        // When & Then
+        mockMvc.perform(put("/api/products/1")
+                .header("If-Match", "\"3-100\"")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(testProductRequest)))
+                .andExpect(status().isPreconditionFailed())
+                .andExpect(jsonPath("$.status").value(412))
+                .andExpect(jsonPath("$.error").value("Precondition Failed"));
+    }
+    
     @Test
     @DisplayName("Should return 404 when product not found")
     void shouldReturn404WhenProductNotFound() throws Exception {
@@ -129,22 +184,40 @@ void shouldReturn404WhenProductNotFound() throws Exception {
     void shouldGetAllProductsSuccessfully() throws Exception {
         // Given
         List<ProductResponse> products = Arrays.asList(testProductResponse);
-        when(productService.getAllProducts()).thenReturn(products);
+        when(productService.getProducts(any(ProductQuery.class))).thenReturn(new ProductPage(products, "aWQ6MQ"));
         
         // When & Then
-        mockMvc.perform(get("/api/products"))
+        mockMvc.perform(get("/api/products").param("limit", "1").param("lowStock", "false"))
                 .andExpect(status().isOk())
-                .andExpect(jsonPath("$").isArray())
-                .andExpect(jsonPath("$[0].id").value(1L));
+                .andExpect(jsonPath("$.items").isArray())
+                .andExpect(jsonPath("$.items[0].id").value(1L))
+                .andExpect(jsonPath("$.nextCursor").value("aWQ6MQ"));
         
-        verify(productService).getAllProducts();
+        verify(productService).getProducts(new ProductQuery(null, 1, null, null, false));
+    }
+    
+    @Test
+    @DisplayName("Should bind search parameters and return ranked page")
+    void shouldSearchProducts() throws Exception {
+        // Given
+        when(productService.searchProducts(any(ProductSearchQuery.class)))
+            .thenReturn(new ProductSearchPage(List.of(testProductResponse), 1, true, null));
+        
+        // When & Then
+        mockMvc.perform(get("/api/products/search").param("q", "test prod").param("mode", "TOKEN"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items[0].id").value(1L))
+                .andExpect(jsonPath("$.total").value(1));
+        
+        verify(productService).searchProducts(
+            new ProductSearchQuery("test prod", SearchMode.TOKEN, null, ProductQuery.DEFAULT_LIMIT));
     }
     
     @Test
     @DisplayName("Should update product successfully")
     void shouldUpdateProductSuccessfully() throws Exception {
         // Given
-        when(productService.updateProduct(anyLong(), any(ProductRequest.class))).thenReturn(testProductResponse);
+        when(productService.updateProduct(anyLong(), any(ProductRequest.class), isNull())).thenReturn(testProductResponse);
         
         // When & Then
         mockMvc.perform(put("/api/products/1")
@@ -153,7 +226,7 @@ void shouldUpdateProductSuccessfully() throws Exception {
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.id").value(1L));
         
-        verify(productService).updateProduct(eq(1L), any(ProductRequest.class));
+        verify(productService).updateProduct(eq(1L), any(ProductRequest.class), isNull());
     }
     
     @Test
@@ -175,7 +248,7 @@ void shouldIncreaseStockSuccessfully() throws Exception {
         // Given
         StockUpdateRequest request = new StockUpdateRequest(50);
         testProductResponse.setStockQuantity(150);
-        when(productService.increaseStock(1L, 50)).thenReturn(testProductResponse);
+        when(productService.increaseStock(1L, 50, null)).thenReturn(testProductResponse);
         
         // When & Then
         mockMvc.perform(post("/api/products/1/stock/increase")
@@ -184,7 +257,7 @@ void shouldIncreaseStockSuccessfully() throws Exception {
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.stockQuantity").value(150));
         
-        verify(productService).increaseStock(1L, 50);
+        verify(productService).increaseStock(1L, 50, null);
     }
     
     @Test
@@ -193,7 +266,7 @@ void shouldDecreaseStockSuccessfully() throws Exception {
         // Given
         StockUpdateRequest request = new StockUpdateRequest(30);
         testProductResponse.setStockQuantity(70);
-        when(productService.decreaseStock(1L, 30)).thenReturn(testProductResponse);
+        when(productService.decreaseStock(1L, 30, null)).thenReturn(testProductResponse);
         
         // When & Then
         mockMvc.perform(post("/api/products/1/stock/decrease")
@@ -202,7 +275,7 @@ void shouldDecreaseStockSuccessfully() throws Exception {
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.stockQuantity").value(70));
         
-        verify(productService).decreaseStock(1L, 30);
+        verify(productService).decreaseStock(1L, 30, null);
     }
     
     @Test
@@ -210,7 +283,7 @@ void shouldDecreaseStockSuccessfully() throws Exception {
     void shouldReturn400WhenInsufficientStockForDecrease() throws Exception {
         // Given
         StockUpdateRequest request = new StockUpdateRequest(150);
-        when(productService.decreaseStock(1L, 150))
+        when(productService.decreaseStock(1L, 150, null))
             .thenThrow(new InsufficientStockException("Insufficient stock. Available: 100, Requested: 150"));
         
         // When & Then
@@ -221,7 +294,7 @@ void shouldReturn400WhenInsufficientStockForDecrease() throws Exception {
                 .andExpect(jsonPath("$.status").value(400))
                 .andExpect(jsonPath("$.error").value("Insufficient Stock"));
         
-        verify(productService).decreaseStock(1L, 150);
+        verify(productService).decreaseStock(1L, 150, null);
     }
     
     @Test
@@ -238,7 +311,7 @@ void shouldReturnValidationErrorForInvalidStockUpdateRequest() throws Exception
                 .andExpect(jsonPath("$.status").value(400))
                 .andExpect(jsonPath("$.error").value("Validation Failed"));
         
-        verify(productService, never()).increaseStock(anyLong(), anyInt());
+        verify(productService, never()).increaseStock(anyLong(), anyInt(), any());
     }
     
     @Test
@@ -264,4 +337,95 @@ void shouldGetLowStockProductsSuccessfully() throws Exception {
         
         verify(productService).getLowStockProducts();
     }
-}
\ No newline at end of file
+    
+    @Test
+    @DisplayName("Should apply stock batch successfully")
+    void shouldApplyStockBatchSuccessfully() throws Exception {
+        // Given
+        BatchStockUpdateRequest request = new BatchStockUpdateRequest(
+            Arrays.asList(new StockAdjustmentItem(1L, -5)),
+            BatchStockUpdateRequest.Mode.BEST_EFFORT
+        );
+        BatchStockUpdateResponse response = new BatchStockUpdateResponse(
+            BatchStockUpdateRequest.Mode.BEST_EFFORT, 1, 0,
+            Arrays.asList(new StockAdjustmentResult(1L, -5, StockAdjustmentResult.Status.APPLIED, 95, null))
+        );
+        when(productService.adjustStockBatch(any(BatchStockUpdateRequest.class))).thenReturn(response);
+        
+        // When & Then
+        mockMvc.perform(post("/api/products/stock/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.applied").value(1))
+                .andExpect(jsonPath("$.results[0].status").value("APPLIED"))
+                .andExpect(jsonPath("$.results[0].stockQuantity").value(95));
+        
+        verify(productService).adjustStockBatch(any(BatchStockUpdateRequest.class));
+    }
+    
+    @Test
+    @DisplayName("Should return validation error for empty stock batch")
+    void shouldReturnValidationErrorForEmptyStockBatch() throws Exception {
+        // Given
+        BatchStockUpdateRequest request = new BatchStockUpdateRequest(List.of(), BatchStockUpdateRequest.Mode.BEST_EFFORT);
+        
+        // When & Then
+        mockMvc.perform(post("/api/products/stock/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error").value("Validation Failed"));
+        
+        verify(productService, never()).adjustStockBatch(any(BatchStockUpdateRequest.class));
+    }
+    
+    @Test
+    @DisplayName("Should return validation error for a stock batch that names a product twice")
+    void shouldReturnValidationErrorForDuplicateProductInStockBatch() throws Exception {
+        // Given
+        BatchStockUpdateRequest request = new BatchStockUpdateRequest(
+            Arrays.asList(new StockAdjustmentItem(1L, -2), new StockAdjustmentItem(1L, 2)),
+            BatchStockUpdateRequest.Mode.BEST_EFFORT
+        );
+        
+        // When & Then
+        mockMvc.perform(post("/api/products/stock/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.validationErrors.eachProductOnce").value("A batch can adjust each product only once"));
+        
+        verify(productService, never()).adjustStockBatch(any(BatchStockUpdateRequest.class));
+    }
+    
+    @Test
+    @DisplayName("Should stream products as newline-delimited JSON")
+    @SuppressWarnings("unchecked")
+    void shouldStreamProductsAsNdjson() throws Exception {
+        // Given
+        ProductResponse second = new ProductResponse(2L, "Second", null, 5, 10, true, 0L);
+        when(productService.exportProducts(any())).thenAnswer(invocation -> {
+            Consumer<ProductResponse> sink = invocation.getArgument(0);
+            sink.accept(testProductResponse);
+            sink.accept(second);
+            return 2L;
+        });
+        
+        // When
+        MvcResult result = mockMvc.perform(get("/api/products/export"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        
+        // Then
+        String body = mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+                .andReturn().getResponse().getContentAsString();
+        assertThat(body).endsWith("\n").doesNotContain("\n ");
+        String[] lines = body.split("\n");
+        assertThat(lines).hasSize(2);
+        assertThat(objectMapper.readTree(lines[0]).get("id").asLong()).isEqualTo(1L);
+        assertThat(objectMapper.readTree(lines[1]).get("lowStock").asBoolean()).isTrue();
+    }
+}
@@ -0,0 +1,104 @@
+package com.verto.ase_challenge.events;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BroadcastBufferTest {
+    
+    private final BroadcastBuffer<Long> buffer = new BroadcastBuffer<>("test-events", 4);
+    
+    @AfterEach
+    void tearDown() {
+        buffer.close();
+    }
+    
+    @Test
+    @DisplayName("Should deliver values in order and only as fast as the subscriber requests them")
+    void shouldDeliverInOrderWithinDemand() {
+        // When & Then
+        StepVerifier.create(buffer.subscribe(0, value -> value % 2 == 1), 1)
+            .then(() -> LongStream.rangeClosed(1, 3).forEach(i -> buffer.publish(sequence -> sequence)))
+            .expectNext(1L)
+            .expectNoEvent(Duration.ofMillis(50))
+            .thenRequest(1)
+            .expectNext(3L)
+            .thenCancel()
+            .verify(Duration.ofSeconds(5));
+        assertThat(buffer.droppedCount()).isZero();
+    }
+    
+    @Test
+    @DisplayName("Should skip to the oldest buffered value when a subscriber falls a whole ring behind")
+    void shouldDropOldestWhenSubscriberIsLapped() {
+        // When & Then
+        StepVerifier.create(buffer.subscribe(0, value -> true), 0)
+            .then(() -> LongStream.rangeClosed(1, 10).forEach(i -> buffer.publish(sequence -> sequence)))
+            .thenRequest(Long.MAX_VALUE)
+            .expectNext(7L, 8L, 9L, 10L)
+            .thenCancel()
+            .verify(Duration.ofSeconds(5));
+        assertThat(buffer.droppedCount()).isEqualTo(6);
+    }
+    
+    @Test
+    @DisplayName("Should resume right after the last seen sequence while it is still buffered")
+    void shouldResumeAfterLastEventId() {
+        // Given
+        LongStream.rangeClosed(1, 3).forEach(i -> buffer.publish(sequence -> sequence));
+        
+        // When & Then
+        StepVerifier.create(buffer.subscribe(1, value -> true))
+            .expectNext(2L, 3L)
+            .then(() -> buffer.publish(sequence -> sequence))
+            .expectNext(4L)
+            .thenCancel()
+            .verify(Duration.ofSeconds(5));
+        assertThat(buffer.subscriberCount()).isZero();
+    }
+    
+    @Test
+    @DisplayName("Should keep the newer value when a publisher lapped by the ring stores late")
+    void shouldNotLetLatePublisherOverwriteNewerValue() throws Exception {
+        // Given: the publisher of sequence 1 is held in its factory while 2..5 are published,
+        // so 5 takes the slot 1 was claimed for
+        CountDownLatch claimed = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Thread late = new Thread(() -> buffer.publish(sequence -> {
+            claimed.countDown();
+            awaitQuietly(release);
+            return sequence;
+        }));
+        late.start();
+        assertThat(claimed.await(5, TimeUnit.SECONDS)).isTrue();
+        LongStream.rangeClosed(2, 5).forEach(i -> buffer.publish(sequence -> sequence));
+        
+        // When
+        release.countDown();
+        late.join(TimeUnit.SECONDS.toMillis(5));
+        
+        // Then
+        StepVerifier.create(buffer.subscribe(4, value -> true))
+            .expectNext(5L)
+            .then(() -> buffer.publish(sequence -> sequence))
+            .expectNext(6L)
+            .thenCancel()
+            .verify(Duration.ofSeconds(5));
+    }
+    
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package com.verto.ase_challenge.events;
+
+import com.verto.ase_challenge.dto.ProductResponse;
+import com.verto.ase_challenge.dto.StockEvent;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+
+class StockEventsTest {
+    
+    private final StockEvents stockEvents = new StockEvents(new SimpleMeterRegistry(), 16);
+    
+    @AfterEach
+    void tearDown() {
+        stockEvents.close();
+    }
+    
+    @Test
+    @DisplayName("Should publish threshold crossings as low-stock and restocked events")
+    void shouldPublishThresholdCrossings() {
+        // When & Then
+        StepVerifier.create(stockEvents.subscribe(null, false))
+            .then(() -> {
+                stockEvents.stockChanged(product(50), -10);
+                stockEvents.stockChanged(product(5), -45);
+                stockEvents.stockChanged(product(25), 20);
+            })
+            .expectNextMatches(event -> event.getType() == StockEvent.Type.STOCK_CHANGED && event.getDelta() == -10)
+            .expectNextMatches(event -> event.getType() == StockEvent.Type.LOW_STOCK && event.isLowStock())
+            .expectNextMatches(event -> event.getType() == StockEvent.Type.RESTOCKED && !event.isLowStock())
+            .thenCancel()
+            .verify(Duration.ofSeconds(5));
+    }
+    
+    @Test
+    @DisplayName("Should leave out plain stock changes from a low-stock-only stream")
+    void shouldFilterPlainChangesForLowStockOnlyStream() {
+        // When & Then
+        StepVerifier.create(stockEvents.subscribe(null, true))
+            .then(() -> {
+                stockEvents.stockChanged(product(50), -10);
+                stockEvents.stockChanged(product(5), -45);
+                stockEvents.productDeleted(1L);
+            })
+            .expectNextMatches(event -> event.getType() == StockEvent.Type.LOW_STOCK && event.getSequence() == 2L)
+            .expectNextMatches(event -> event.getType() == StockEvent.Type.DELETED)
+            .thenCancel()
+            .verify(Duration.ofSeconds(5));
+    }
+    
+    private static ProductResponse product(int stockQuantity) {
+        return new ProductResponse(1L, "Widget", null, stockQuantity, 10, stockQuantity <= 10, 0L);
+    }
+}
@@ -0,0 +1,14 @@
+package com.verto.ase_challenge.integration;
+
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.MOCK, properties = {
+    "spring.datasource.url=jdbc:h2:mem:contract-mvc;DB_CLOSE_DELAY=-1",
+    "spring.r2dbc.url=r2dbc:h2:mem:///contract-mvc"
+})
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class MvcProductApiContractTest extends ProductApiContractTest {
+}
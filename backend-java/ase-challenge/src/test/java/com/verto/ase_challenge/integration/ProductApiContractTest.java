@@ -0,0 +1,445 @@
+package com.verto.ase_challenge.integration;
+
+import com.jayway.jsonpath.JsonPath;
+import com.verto.ase_challenge.dto.BatchStockUpdateRequest;
+import com.verto.ase_challenge.dto.ProductPage;
+import com.verto.ase_challenge.dto.ProductRequest;
+import com.verto.ase_challenge.dto.ProductResponse;
+import com.verto.ase_challenge.dto.StockAdjustmentItem;
+import com.verto.ase_challenge.dto.StockUpdateRequest;
+import com.verto.ase_challenge.web.SmileConfiguration;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * HTTP contract of {@code /api/products} shared by the servlet and the reactive stack.
+ * Subclasses only choose the web application type; every scenario must pass against both.
+ */
+abstract class ProductApiContractTest {
+    
+    @Autowired
+    protected WebTestClient webTestClient;
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.update("DELETE FROM products");
+    }
+    
+    @Test
+    @DisplayName("Should perform complete product lifecycle operations")
+    void shouldPerformCompleteProductLifecycleOperations() {
+        Long productId = create(new ProductRequest("Laptop", "Gaming Laptop", 50, 5)).getId();
+        
+        webTestClient.get().uri("/api/products/{id}", productId)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.id").isEqualTo(productId)
+                .jsonPath("$.name").isEqualTo("Laptop");
+        
+        webTestClient.put().uri("/api/products/{id}", productId)
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(new ProductRequest("Gaming Laptop Pro", "High-end Gaming Laptop", 60, 8))
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.name").isEqualTo("Gaming Laptop Pro")
+                .jsonPath("$.stockQuantity").isEqualTo(60);
+        
+        changeStock(productId, "increase", 20)
+                .expectStatus().isOk()
+                .expectBody().jsonPath("$.stockQuantity").isEqualTo(80);
+        changeStock(productId, "decrease", 30)
+                .expectStatus().isOk()
+                .expectBody().jsonPath("$.stockQuantity").isEqualTo(50);
+        changeStock(productId, "decrease", 100)
+                .expectStatus().isBadRequest()
+                .expectBody()
+                .jsonPath("$.error").isEqualTo("Insufficient Stock")
+                .jsonPath("$.message").isEqualTo("Insufficient stock. Available: 50, Requested: 100");
+        
+        webTestClient.delete().uri("/api/products/{id}", productId)
+                .exchange()
+                .expectStatus().isNoContent();
+        webTestClient.get().uri("/api/products/{id}", productId)
+                .exchange()
+                .expectStatus().isNotFound()
+                .expectBody().jsonPath("$.error").isEqualTo("Product Not Found");
+    }
+    
+    @Test
+    @DisplayName("Should handle edge cases for stock operations")
+    void shouldHandleEdgeCasesForStockOperations() {
+        Long productId = create(new ProductRequest("Edge Case Product", "Testing edge cases", 1, 5)).getId();
+        
+        changeStock(productId, "decrease", 1)
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.stockQuantity").isEqualTo(0)
+                .jsonPath("$.lowStock").isEqualTo(true);
+        changeStock(productId, "decrease", 1)
+                .expectStatus().isBadRequest()
+                .expectBody().jsonPath("$.error").isEqualTo("Insufficient Stock");
+        changeStock(productId, "increase", 10)
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.stockQuantity").isEqualTo(10)
+                .jsonPath("$.lowStock").isEqualTo(false);
+    }
+    
+    @Test
+    @DisplayName("Should validate input data correctly")
+    void shouldValidateInputDataCorrectly() {
+        webTestClient.post().uri("/api/products")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(new ProductRequest("", "Description", -5, -1))
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody()
+                .jsonPath("$.error").isEqualTo("Validation Failed")
+                .jsonPath("$.validationErrors.name").exists()
+                .jsonPath("$.validationErrors.stockQuantity").exists();
+        
+        changeStock(1L, "increase", 0)
+                .expectStatus().isBadRequest()
+                .expectBody()
+                .jsonPath("$.error").isEqualTo("Validation Failed")
+                .jsonPath("$.validationErrors.quantity").isEqualTo("Quantity must be at least 1");
+    }
+    
+    @Test
+    @DisplayName("Should reject a product name that is already taken, ignoring case")
+    void shouldRejectDuplicateProductNames() {
+        create(new ProductRequest("Laptop", "Gaming Laptop", 50, 5));
+        Long monitorId = create(new ProductRequest("Monitor", "27 inch", 10, 2)).getId();
+        
+        webTestClient.post().uri("/api/products")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(new ProductRequest(" LAPTOP ", "Another laptop", 5, 1))
+                .exchange()
+                .expectStatus().isEqualTo(409)
+                .expectBody().jsonPath("$.error").isEqualTo("Duplicate Product Name");
+        webTestClient.put().uri("/api/products/{id}", monitorId)
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(new ProductRequest("laptop", "27 inch", 10, 2))
+                .exchange()
+                .expectStatus().isEqualTo(409)
+                .expectBody().jsonPath("$.error").isEqualTo("Duplicate Product Name");
+        
+        // Renaming a product to a different case of its own name is fine
+        webTestClient.put().uri("/api/products/{id}", monitorId)
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(new ProductRequest("MONITOR", "27 inch", 10, 2))
+                .exchange()
+                .expectStatus().isOk();
+    }
+    
+    @Test
+    @DisplayName("Should serve ETags, answer If-None-Match with 304 and reject stale If-Match with 412")
+    void shouldHandleConditionalRequests() {
+        Long productId = create(new ProductRequest("Keyboard", "Mechanical", 20, 5)).getId();
+        String etag = webTestClient.get().uri("/api/products/{id}", productId)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().exists("ETag")
+                .returnResult(ProductResponse.class)
+                .getResponseHeaders().getETag();
+        
+        webTestClient.get().uri("/api/products/{id}", productId)
+                .header("If-None-Match", etag)
+                .exchange()
+                .expectStatus().isNotModified()
+                .expectBody().isEmpty();
+        
+        // A write with the current tag succeeds and hands back the next one
+        String updated = webTestClient.post().uri("/api/products/{id}/stock/increase", productId)
+                .header("If-Match", etag)
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(new StockUpdateRequest(5))
+                .exchange()
+                .expectStatus().isOk()
+                .returnResult(ProductResponse.class)
+                .getResponseHeaders().getETag();
+        assertThat(updated).isNotEqualTo(etag);
+        
+        // The old tag is now stale for every conditional write
+        webTestClient.put().uri("/api/products/{id}", productId)
+                .header("If-Match", etag)
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(new ProductRequest("Keyboard", "Wireless", 25, 5))
+                .exchange()
+                .expectStatus().isEqualTo(412)
+                .expectBody().jsonPath("$.error").isEqualTo("Precondition Failed");
+        webTestClient.post().uri("/api/products/{id}/stock/decrease", productId)
+                .header("If-Match", etag)
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(new StockUpdateRequest(1))
+                .exchange()
+                .expectStatus().isEqualTo(412);
+        webTestClient.get().uri("/api/products/{id}", productId)
+                .header("If-None-Match", etag)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody().jsonPath("$.stockQuantity").isEqualTo(25);
+        
+        webTestClient.put().uri("/api/products/{id}", productId)
+                .header("If-Match", updated)
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(new ProductRequest("Keyboard", "Wireless", 25, 5))
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().value("ETag", next -> assertThat(next).isNotEqualTo(updated))
+                .expectBody().jsonPath("$.description").isEqualTo("Wireless");
+    }
+    
+    @Test
+    @DisplayName("Should read and write Smile instead of JSON when the client asks for it")
+    void shouldNegotiateSmileBodies() {
+        Long laptopId = create(new ProductRequest("Laptop", "Gaming Laptop", 50, 5)).getId();
+        
+        ProductResponse created = webTestClient.post().uri("/api/products")
+                .contentType(SmileConfiguration.APPLICATION_SMILE)
+                .accept(SmileConfiguration.APPLICATION_SMILE)
+                .bodyValue(new ProductRequest("Mouse", "Wireless", 3, 5))
+                .exchange()
+                .expectStatus().isCreated()
+                .expectHeader().contentType(SmileConfiguration.APPLICATION_SMILE)
+                .expectBody(ProductResponse.class).returnResult().getResponseBody();
+        assertThat(created.getName()).isEqualTo("Mouse");
+        assertThat(created.isLowStock()).isTrue();
+        
+        ProductResponse laptop = webTestClient.get().uri("/api/products/{id}", laptopId)
+                .accept(SmileConfiguration.APPLICATION_SMILE)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentType(SmileConfiguration.APPLICATION_SMILE)
+                .expectBody(ProductResponse.class).returnResult().getResponseBody();
+        assertThat(laptop.getStockQuantity()).isEqualTo(50);
+        
+        ProductPage page = webTestClient.get().uri("/api/products")
+                .accept(SmileConfiguration.APPLICATION_SMILE)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentType(SmileConfiguration.APPLICATION_SMILE)
+                .expectBody(ProductPage.class).returnResult().getResponseBody();
+        assertThat(page.getItems()).extracting(ProductResponse::getName).containsExactly("Laptop", "Mouse");
+        
+        webTestClient.get().uri("/api/products/low-stock")
+                .accept(SmileConfiguration.APPLICATION_SMILE)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentType(SmileConfiguration.APPLICATION_SMILE)
+                .expectBodyList(ProductResponse.class).hasSize(1);
+        
+        // Errors follow the negotiated format too
+        webTestClient.get().uri("/api/products/{id}", 999_999)
+                .accept(SmileConfiguration.APPLICATION_SMILE)
+                .exchange()
+                .expectStatus().isNotFound()
+                .expectHeader().contentType(SmileConfiguration.APPLICATION_SMILE);
+    }
+    
+    @Test
+    @DisplayName("Should list only products below their threshold as low stock")
+    void shouldListOnlyProductsBelowTheirThresholdAsLowStock() {
+        create(new ProductRequest("Normal Product", "Normal stock", 100, 10));
+        Long low = create(new ProductRequest("Low Stock", "Low stock product", 5, 10)).getId();
+        
+        webTestClient.get().uri("/api/products/low-stock")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.length()").isEqualTo(1)
+                .jsonPath("$[0].id").isEqualTo(low)
+                .jsonPath("$[0].lowStock").isEqualTo(true);
+    }
+    
+    @Test
+    @DisplayName("Should page through filtered products with a cursor")
+    void shouldPageThroughFilteredProductsWithCursor() {
+        for (int i = 1; i <= 5; i++) {
+            create(new ProductRequest("Paged " + i, "Paged product " + i, i * 10, 25));
+        }
+        
+        // Stock >= 20 leaves four products, fetched two at a time
+        byte[] firstPage = webTestClient.get().uri("/api/products?limit=2&minStock=20")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.items.length()").isEqualTo(2)
+                .jsonPath("$.items[0].stockQuantity").isEqualTo(20)
+                .jsonPath("$.items[1].stockQuantity").isEqualTo(30)
+                .jsonPath("$.nextCursor").isNotEmpty()
+                .returnResult().getResponseBodyContent();
+        String cursor = JsonPath.read(new String(firstPage), "$.nextCursor");
+        
+        webTestClient.get().uri("/api/products?limit=2&minStock=20&cursor={cursor}", cursor)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.items.length()").isEqualTo(2)
+                .jsonPath("$.items[0].stockQuantity").isEqualTo(40)
+                .jsonPath("$.items[1].stockQuantity").isEqualTo(50)
+                .jsonPath("$.nextCursor").doesNotExist();
+        
+        webTestClient.get().uri("/api/products?lowStock=true")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody().jsonPath("$.items.length()").isEqualTo(2);
+        
+        webTestClient.get().uri("/api/products?cursor={cursor}", "%%%")
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody().jsonPath("$.error").isEqualTo("Invalid Cursor");
+    }
+    
+    @Test
+    @DisplayName("Should not update the stock below what is held at locations")
+    void shouldRejectUpdateBelowLocatedStock() {
+        Long productId = create(new ProductRequest("Shelved Product", "Partly at locations", 10, 2)).getId();
+        jdbcTemplate.update("UPDATE products SET located_quantity = 4 WHERE id = ?", productId);
+        
+        update(productId, new ProductRequest("Shelved Product", "Partly at locations", 3, 2))
+                .expectStatus().isBadRequest()
+                .expectBody().jsonPath("$.error").isEqualTo("Insufficient Stock");
+        update(productId, new ProductRequest("Shelved Product", "Partly at locations", 4, 2))
+                .expectStatus().isOk()
+                .expectBody().jsonPath("$.stockQuantity").isEqualTo(4);
+    }
+    
+    @Test
+    @DisplayName("Should not update the stock below what reservations and locations hold together")
+    void shouldRejectUpdateBelowReservedAndLocatedStock() {
+        Long productId = create(new ProductRequest("Held Product", "Reserved and shelved", 10, 2)).getId();
+        // Stands in for an active reservation, which only the servlet stack can place
+        jdbcTemplate.update("UPDATE products SET reserved_quantity = 3, located_quantity = 2 WHERE id = ?", productId);
+        
+        update(productId, new ProductRequest("Held Product", "Reserved and shelved", 4, 2))
+                .expectStatus().isBadRequest()
+                .expectBody()
+                .jsonPath("$.error").isEqualTo("Insufficient Stock")
+                .jsonPath("$.message")
+                .isEqualTo("Stock quantity cannot be below the 5 units reserved or held at locations. Requested: 4");
+        update(productId, new ProductRequest("Held Product", "Reserved and shelved", 5, 2))
+                .expectStatus().isOk()
+                .expectBody().jsonPath("$.stockQuantity").isEqualTo(5);
+    }
+    
+    @Test
+    @DisplayName("Should apply stock batches in both modes")
+    void shouldApplyStockBatchesInBothModes() {
+        Long first = create(new ProductRequest("Batch 1", "First batch product", 10, 2)).getId();
+        Long second = create(new ProductRequest("Batch 2", "Second batch product", 3, 2)).getId();
+        
+        // Best effort: the oversell on the second product is reported, the rest is applied
+        batch(new BatchStockUpdateRequest(
+                List.of(
+                    new StockAdjustmentItem(second, -5),
+                    new StockAdjustmentItem(first, 7),
+                    new StockAdjustmentItem(999999L, 1)
+                ),
+                BatchStockUpdateRequest.Mode.BEST_EFFORT))
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.applied").isEqualTo(1)
+                .jsonPath("$.failed").isEqualTo(2)
+                .jsonPath("$.results[0].id").isEqualTo(first)
+                .jsonPath("$.results[0].stockQuantity").isEqualTo(17)
+                .jsonPath("$.results[1].status").isEqualTo("INSUFFICIENT_STOCK")
+                .jsonPath("$.results[2].status").isEqualTo("NOT_FOUND");
+        
+        // All or nothing: the applied first item is rolled back with the failing second one
+        batch(new BatchStockUpdateRequest(
+                List.of(new StockAdjustmentItem(first, -1), new StockAdjustmentItem(second, -4)),
+                BatchStockUpdateRequest.Mode.ALL_OR_NOTHING))
+                .expectStatus().isBadRequest()
+                .expectBody().jsonPath("$.error").isEqualTo("Insufficient Stock");
+        
+        webTestClient.get().uri("/api/products/{id}", first)
+                .exchange()
+                .expectBody().jsonPath("$.stockQuantity").isEqualTo(17);
+    }
+    
+    @Test
+    @DisplayName("Should report only unheld stock as available when a batch item is rejected")
+    void shouldReportAvailableStockForRejectedBatchItems() {
+        Long productId = create(new ProductRequest("Held Batch Product", "Reserved and shelved", 10, 2)).getId();
+        jdbcTemplate.update("UPDATE products SET reserved_quantity = 3, located_quantity = 1 WHERE id = ?", productId);
+        
+        batch(new BatchStockUpdateRequest(
+                List.of(new StockAdjustmentItem(productId, -8)),
+                BatchStockUpdateRequest.Mode.BEST_EFFORT))
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.results[0].status").isEqualTo("INSUFFICIENT_STOCK")
+                .jsonPath("$.results[0].stockQuantity").isEqualTo(10)
+                .jsonPath("$.results[0].message").isEqualTo("Insufficient stock. Available: 6, Requested: 8");
+        batch(new BatchStockUpdateRequest(
+                List.of(new StockAdjustmentItem(productId, -8)),
+                BatchStockUpdateRequest.Mode.ALL_OR_NOTHING))
+                .expectStatus().isBadRequest()
+                .expectBody().jsonPath("$.message").isEqualTo("Insufficient stock. Available: 6, Requested: 8");
+    }
+    
+    @Test
+    @DisplayName("Should export the catalogue as newline-delimited JSON in id order")
+    void shouldExportCatalogueAsNdjson() {
+        for (int i = 1; i <= 3; i++) {
+            create(new ProductRequest("Export " + i, "Exported product " + i, i, 1));
+        }
+        
+        List<ProductResponse> exported = webTestClient.get().uri("/api/products/export")
+                .accept(MediaType.APPLICATION_NDJSON)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON)
+                .expectBodyList(ProductResponse.class)
+                .returnResult().getResponseBody();
+        
+        assertThat(exported).extracting(ProductResponse::getName)
+            .containsExactly("Export 1", "Export 2", "Export 3");
+    }
+    
+    private ProductResponse create(ProductRequest request) {
+        return webTestClient.post().uri("/api/products")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(request)
+                .exchange()
+                .expectStatus().isCreated()
+                .expectBody(ProductResponse.class)
+                .returnResult().getResponseBody();
+    }
+    
+    private WebTestClient.ResponseSpec update(Long productId, ProductRequest request) {
+        return webTestClient.put().uri("/api/products/{id}", productId)
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(request)
+                .exchange();
+    }
+    
+    private WebTestClient.ResponseSpec changeStock(Long productId, String direction, int quantity) {
+        return webTestClient.post().uri("/api/products/{id}/stock/{direction}", productId, direction)
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(new StockUpdateRequest(quantity))
+                .exchange();
+    }
+    
+    private WebTestClient.ResponseSpec batch(BatchStockUpdateRequest request) {
+        return webTestClient.post().uri("/api/products/stock/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(request)
+                .exchange();
+    }
+}
@@ -0,0 +1,235 @@
+package com.verto.ase_challenge.integration;
+
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.read.ListAppender;
+import com.verto.ase_challenge.entity.LowStockAlert;
+import com.verto.ase_challenge.entity.Product;
+import com.verto.ase_challenge.repository.LowStockAlertRepository;
+import com.verto.ase_challenge.repository.ProductRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+// Not @Transactional: every import chunk commits on its own, as it does in production
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.MOCK, properties = {
+    "inventory.import.chunk-size=100",
+    "inventory.import.max-reported-errors=5"
+})
+@AutoConfigureTestDatabase
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class ProductImportIntegrationTest {
+    
+    private static final MediaType TEXT_CSV = MediaType.parseMediaType("text/csv");
+    
+    @Autowired
+    private MockMvc mockMvc;
+    
+    @Autowired
+    private ProductRepository productRepository;
+    
+    @Autowired
+    private LowStockAlertRepository alertRepository;
+    
+    @BeforeEach
+    void setUp() {
+        productRepository.deleteAll();
+        alertRepository.deleteAll();
+    }
+    
+    @Test
+    @DisplayName("Should import valid CSV rows and report invalid ones by row number")
+    void shouldImportCsvAndReportInvalidRows() throws Exception {
+        String csv = """
+            name,description,stock_quantity,low_stock_threshold
+            Desk,"Standing desk, oak",12,3
+            ,Missing name,5,1
+            Chair,Office chair,-4,2
+            Lamp,Desk lamp,lots,2
+            Shelf,,40,
+            """;
+        
+        mockMvc.perform(post("/api/products/import").contentType(TEXT_CSV).content(csv))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.format").value("CSV"))
+                .andExpect(jsonPath("$.processed").value(5))
+                .andExpect(jsonPath("$.imported").value(2))
+                .andExpect(jsonPath("$.failed").value(3))
+                .andExpect(jsonPath("$.errors[0].row").value(2))
+                .andExpect(jsonPath("$.errors[0].validationErrors.name").value("Product name is required"))
+                .andExpect(jsonPath("$.errors[1].row").value(3))
+                .andExpect(jsonPath("$.errors[1].validationErrors.stockQuantity").value("Stock quantity cannot be negative"))
+                .andExpect(jsonPath("$.errors[2].row").value(4))
+                .andExpect(jsonPath("$.errors[2].validationErrors.stockQuantity").value("Must be a whole number"));
+        
+        List<Product> products = productRepository.findAll();
+        assertThat(products).extracting(Product::getName).containsExactlyInAnyOrder("Desk", "Shelf");
+        assertThat(products).filteredOn(product -> product.getName().equals("Desk"))
+            .extracting(Product::getDescription).containsExactly("Standing desk, oak");
+        assertThat(products).filteredOn(product -> product.getName().equals("Shelf"))
+            .extracting(Product::getLowStockThreshold).containsExactly(10);
+    }
+    
+    @Test
+    @DisplayName("Should raise low-stock alerts and audit each imported product like a single create")
+    void shouldAlertAndAuditImportedProducts() throws Exception {
+        // Given
+        String csv = """
+            name,description,stockQuantity,lowStockThreshold
+            Scarce,Starts below its threshold,2,5
+            Plenty,Well stocked,50,5
+            """;
+        Logger audit = (Logger) LoggerFactory.getLogger("audit");
+        ListAppender<ILoggingEvent> appender = new ListAppender<>();
+        appender.start();
+        audit.addAppender(appender);
+        
+        try {
+            // When
+            mockMvc.perform(post("/api/products/import").contentType(TEXT_CSV).content(csv))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.imported").value(2));
+            
+            // Then
+            Map<String, Long> ids = productRepository.findAll().stream()
+                .collect(Collectors.toMap(Product::getName, Product::getId));
+            assertThat(alertRepository.findAll())
+                .extracting(LowStockAlert::getProductId, LowStockAlert::getType)
+                .containsExactly(tuple(ids.get("Scarce"), LowStockAlert.Type.LOW_STOCK));
+            // Written by the audit-writer thread shortly after the chunk commits
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (appender.list.size() < 2 && System.nanoTime() < deadline) {
+                Thread.sleep(10);
+            }
+            assertThat(appender.list)
+                .extracting(ILoggingEvent::getFormattedMessage)
+                .anySatisfy(line -> assertThat(line).contains("\"action\":\"CREATE\"", "\"productId\":" + ids.get("Scarce")))
+                .anySatisfy(line -> assertThat(line).contains("\"action\":\"CREATE\"", "\"productId\":" + ids.get("Plenty")));
+        } finally {
+            audit.detachAppender(appender);
+        }
+    }
+    
+    @Test
+    @DisplayName("Should import NDJSON line by line and keep going after malformed lines")
+    void shouldImportNdjsonAndSkipMalformedLines() throws Exception {
+        String ndjson = """
+            {"name":"Cable","description":"USB-C cable","stockQuantity":200,"lowStockThreshold":20}
+            {"name":"Adapter","stockQuantity":"many"}
+            
+            {"name":"Dock",
+            {"name":"Hub","stockQuantity":15}
+            """;
+        
+        mockMvc.perform(post("/api/products/import").contentType(MediaType.APPLICATION_NDJSON).content(ndjson))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.processed").value(4))
+                .andExpect(jsonPath("$.imported").value(2))
+                .andExpect(jsonPath("$.errors[0].row").value(2))
+                .andExpect(jsonPath("$.errors[0].validationErrors.stockQuantity").value("Must be a whole number"))
+                .andExpect(jsonPath("$.errors[1].row").value(4))
+                .andExpect(jsonPath("$.errors[1].message").value(org.hamcrest.Matchers.startsWith("Malformed JSON")));
+        
+        assertThat(productRepository.findAll()).extracting(Product::getName).containsExactlyInAnyOrder("Cable", "Hub");
+    }
+    
+    @Test
+    @DisplayName("Should insert large files across many chunks and cap the error report")
+    void shouldInsertAcrossChunksAndCapErrorReport() throws Exception {
+        StringBuilder csv = new StringBuilder("name,description,stockQuantity,lowStockThreshold\n");
+        for (int i = 1; i <= 1_050; i++) {
+            // Every 100th row is invalid
+            csv.append(i % 100 == 0 ? "" : "Bulk " + i).append(",Imported,").append(i).append(",5\n");
+        }
+        
+        mockMvc.perform(post("/api/products/import").contentType(TEXT_CSV).content(csv.toString()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.processed").value(1_050))
+                .andExpect(jsonPath("$.imported").value(1_040))
+                .andExpect(jsonPath("$.failed").value(10))
+                .andExpect(jsonPath("$.errors.length()").value(5))
+                .andExpect(jsonPath("$.errorsTruncated").value(true));
+        
+        assertThat(productRepository.count()).isEqualTo(1_040);
+        // Ids come from the pooled sequence and stay unique across chunks
+        assertThat(productRepository.findAll()).extracting(Product::getId).doesNotHaveDuplicates();
+    }
+    
+    @Test
+    @DisplayName("Should reject rows whose name is already taken, in the catalog or earlier in the file")
+    void shouldRejectDuplicateNames() throws Exception {
+        // Given
+        mockMvc.perform(post("/api/products").contentType(MediaType.APPLICATION_JSON)
+                .content("{\"name\":\"Desk\",\"stockQuantity\":3}"))
+                .andExpect(status().isCreated());
+        StringBuilder csv = new StringBuilder("name,description,stockQuantity,lowStockThreshold\n");
+        csv.append(" DESK ,Same name as the existing product,1,1\n");
+        for (int i = 2; i <= 150; i++) {
+            csv.append("Item ").append(i).append(",Imported,1,1\n");
+        }
+        // Repeats a name from the same chunk and one from the previous chunk
+        csv.append("item 140,Repeat,1,1\n");
+        csv.append("Item 2,Repeat,1,1\n");
+        
+        // When / Then
+        mockMvc.perform(post("/api/products/import").contentType(TEXT_CSV).content(csv.toString()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.processed").value(152))
+                .andExpect(jsonPath("$.imported").value(149))
+                .andExpect(jsonPath("$.errors[0].row").value(1))
+                .andExpect(jsonPath("$.errors[0].validationErrors.name").value("A product with this name already exists"))
+                .andExpect(jsonPath("$.errors[1].row").value(151))
+                .andExpect(jsonPath("$.errors[2].row").value(152));
+        
+        assertThat(productRepository.count()).isEqualTo(150);
+    }
+    
+    @Test
+    @DisplayName("Should make imported products searchable once their chunk commits")
+    void shouldSearchImportedProducts() throws Exception {
+        // Given
+        String ndjson = """
+            {"name":"Trackball Mouse","description":"Ergonomic trackball","stockQuantity":12}
+            {"name":"Mouse Pad","description":"Extended pad for a trackball or mouse","stockQuantity":40}
+            {"name":"Keyboard","description":"Mechanical keyboard","stockQuantity":8}
+            """;
+        mockMvc.perform(post("/api/products/import").contentType(MediaType.APPLICATION_NDJSON).content(ndjson))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.imported").value(3));
+        
+        // When / Then
+        mockMvc.perform(get("/api/products/search").param("q", "trackb").param("limit", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.total").value(2))
+                .andExpect(jsonPath("$.items[0].name").value("Trackball Mouse"))
+                .andExpect(jsonPath("$.nextCursor").isNotEmpty());
+        
+        mockMvc.perform(get("/api/products/search").param("q", "board").param("mode", "CONTAINS"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items[0].name").value("Keyboard"))
+                .andExpect(jsonPath("$.nextCursor").doesNotExist());
+        
+        mockMvc.perform(get("/api/products/search").param("q", "mouse").param("mode", "SIMILAR"))
+                .andExpect(status().isBadRequest());
+    }
+}
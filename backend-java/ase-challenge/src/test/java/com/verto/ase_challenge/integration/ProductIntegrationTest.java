@@ -1,31 +1,59 @@
 package com.verto.ase_challenge.integration;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.verto.ase_challenge.alert.LowStockAlertDispatcher;
+import com.verto.ase_challenge.dto.BatchStockUpdateRequest;
 import com.verto.ase_challenge.dto.ProductRequest;
+import com.verto.ase_challenge.dto.ReservationRequest;
+import com.verto.ase_challenge.dto.StockAdjustmentItem;
 import com.verto.ase_challenge.dto.StockUpdateRequest;
+import com.verto.ase_challenge.entity.LowStockAlert;
 import com.verto.ase_challenge.entity.Product;
+import com.verto.ase_challenge.metrics.TransactionMetrics;
+import com.verto.ase_challenge.repository.LocationStockRepository;
+import com.verto.ase_challenge.repository.LowStockAlertRepository;
 import com.verto.ase_challenge.repository.ProductRepository;
+import com.verto.ase_challenge.stock.LocationStockAggregator;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
-import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureWebMvc;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.system.CapturedOutput;
+import org.springframework.boot.test.system.OutputCaptureExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Sort;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.transaction.TestTransaction;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.ConfigurableTransactionManager;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 @SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.MOCK)
 @AutoConfigureTestDatabase
-@AutoConfigureWebMvc
+@AutoConfigureMockMvc
+@AutoConfigureObservability
 @ActiveProfiles("test")
 @Transactional
+@ExtendWith(OutputCaptureExtension.class)
 class ProductIntegrationTest {
     
     @Autowired
@@ -37,9 +65,29 @@ class ProductIntegrationTest {
     @Autowired
     private ObjectMapper objectMapper;
     
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    
+    @Autowired
+    private LowStockAlertRepository alertRepository;
+    
+    @Autowired
+    private LowStockAlertDispatcher alertDispatcher;
+    
+    @Autowired
+    private LocationStockRepository locationStockRepository;
+    
+    @Autowired
+    private LocationStockAggregator locationStockAggregator;
+    
+    @Autowired
+    private MeterRegistry meterRegistry;
+    
     @BeforeEach
     void setUp() {
         productRepository.deleteAll();
+        alertRepository.deleteAll();
+        locationStockRepository.deleteAll();
     }
     
     @Test
@@ -194,4 +242,365 @@ void shouldValidateInputDataCorrectly() throws Exception {
                 .andExpect(status().isBadRequest())
                 .andExpect(jsonPath("$.error").value("Validation Failed"));
     }
-}
\ No newline at end of file
+    
+    @Test
+    @DisplayName("Should apply stock batches in both modes")
+    void shouldApplyStockBatchesInBothModes() throws Exception {
+        Product first = productRepository.save(new Product("Batch 1", "First batch product", 10, 2));
+        Product second = productRepository.save(new Product("Batch 2", "Second batch product", 3, 2));
+        
+        // Best effort: the oversell on the second product is reported, the rest is applied
+        BatchStockUpdateRequest bestEffort = new BatchStockUpdateRequest(
+            List.of(
+                new StockAdjustmentItem(second.getId(), -5),
+                new StockAdjustmentItem(first.getId(), 7),
+                new StockAdjustmentItem(999999L, 1)
+            ),
+            BatchStockUpdateRequest.Mode.BEST_EFFORT
+        );
+        mockMvc.perform(post("/api/products/stock/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(bestEffort)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.applied").value(1))
+                .andExpect(jsonPath("$.failed").value(2))
+                .andExpect(jsonPath("$.results[0].id").value(first.getId()))
+                .andExpect(jsonPath("$.results[0].stockQuantity").value(17))
+                .andExpect(jsonPath("$.results[1].status").value("INSUFFICIENT_STOCK"))
+                .andExpect(jsonPath("$.results[2].status").value("NOT_FOUND"));
+        
+        mockMvc.perform(get("/api/products/" + first.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.stockQuantity").value(17));
+        
+        // All or nothing: a single failing item rejects the request
+        BatchStockUpdateRequest allOrNothing = new BatchStockUpdateRequest(
+            List.of(new StockAdjustmentItem(first.getId(), -1), new StockAdjustmentItem(second.getId(), -4)),
+            BatchStockUpdateRequest.Mode.ALL_OR_NOTHING
+        );
+        mockMvc.perform(post("/api/products/stock/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(allOrNothing)))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error").value("Insufficient Stock"));
+    }
+    
+    @Test
+    @DisplayName("Should page through filtered products with a cursor")
+    void shouldPageThroughFilteredProductsWithCursor() throws Exception {
+        for (int i = 1; i <= 5; i++) {
+            productRepository.save(new Product("Paged " + i, "Paged product " + i, i * 10, 25));
+        }
+        
+        // Stock >= 20 leaves four products, fetched two at a time
+        String firstPage = mockMvc.perform(get("/api/products")
+                .param("limit", "2")
+                .param("minStock", "20"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items.length()").value(2))
+                .andExpect(jsonPath("$.items[0].stockQuantity").value(20))
+                .andExpect(jsonPath("$.items[1].stockQuantity").value(30))
+                .andExpect(jsonPath("$.nextCursor").isNotEmpty())
+                .andReturn().getResponse().getContentAsString();
+        String cursor = objectMapper.readTree(firstPage).get("nextCursor").asText();
+        
+        mockMvc.perform(get("/api/products")
+                .param("limit", "2")
+                .param("minStock", "20")
+                .param("cursor", cursor))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items.length()").value(2))
+                .andExpect(jsonPath("$.items[0].stockQuantity").value(40))
+                .andExpect(jsonPath("$.items[1].stockQuantity").value(50))
+                .andExpect(jsonPath("$.nextCursor").doesNotExist());
+        
+        // Low stock flag filter
+        mockMvc.perform(get("/api/products").param("lowStock", "true"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items.length()").value(2));
+        
+        mockMvc.perform(get("/api/products").param("cursor", "%%%"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error").value("Invalid Cursor"));
+    }
+    
+    @Test
+    @DisplayName("Should keep the low stock listing in sync with every write path")
+    void shouldKeepLowStockListingInSyncWithEveryWritePath() throws Exception {
+        ProductRequest createRequest = new ProductRequest("Threshold Product", "Crosses its threshold", 12, 10);
+        String createResponse = mockMvc.perform(post("/api/products")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(createRequest)))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+        Long productId = objectMapper.readTree(createResponse).get("id").asLong();
+        
+        mockMvc.perform(get("/api/products/low-stock"))
+                .andExpect(jsonPath("$.length()").value(0));
+        
+        // Decrease below the threshold
+        mockMvc.perform(post("/api/products/" + productId + "/stock/decrease")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(new StockUpdateRequest(5))))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/api/products/low-stock"))
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(jsonPath("$[0].id").value(productId));
+        
+        // Increase back above it
+        mockMvc.perform(post("/api/products/" + productId + "/stock/increase")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(new StockUpdateRequest(20))))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/api/products/low-stock"))
+                .andExpect(jsonPath("$.length()").value(0));
+        
+        // Raise the threshold through an update
+        ProductRequest updateRequest = new ProductRequest("Threshold Product", "Crosses its threshold", 27, 30);
+        mockMvc.perform(put("/api/products/" + productId)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(updateRequest)))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/api/products/low-stock"))
+                .andExpect(jsonPath("$.length()").value(1));
+        
+        // Batch adjustments go through the same column
+        BatchStockUpdateRequest batch = new BatchStockUpdateRequest(
+            List.of(new StockAdjustmentItem(productId, 10)), BatchStockUpdateRequest.Mode.ALL_OR_NOTHING);
+        mockMvc.perform(post("/api/products/stock/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(batch)))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/api/products/low-stock"))
+                .andExpect(jsonPath("$.length()").value(0));
+    }
+    
+    @Test
+    @DisplayName("Should hold reserved stock until it is released or confirmed")
+    void shouldHoldReservedStockUntilReleasedOrConfirmed() throws Exception {
+        Product product = productRepository.save(new Product("Reserved Product", "Held during checkout", 10, 2));
+        Long productId = product.getId();
+        
+        String reserveResponse = mockMvc.perform(post("/api/products/" + productId + "/reservations")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(new ReservationRequest(8, 60))))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.status").value("ACTIVE"))
+                .andExpect(jsonPath("$.availableStock").value(2))
+                .andReturn().getResponse().getContentAsString();
+        String firstReservation = objectMapper.readTree(reserveResponse).get("id").asText();
+        
+        // Held units cannot be sold or reserved again
+        mockMvc.perform(post("/api/products/" + productId + "/stock/decrease")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(new StockUpdateRequest(5))))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("Insufficient stock. Available: 2, Requested: 5"));
+        mockMvc.perform(put("/api/products/" + productId)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(
+                    new ProductRequest("Reserved Product", "Held during checkout", 7, 2))))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message")
+                    .value("Stock quantity cannot be below the 8 units reserved or held at locations. Requested: 7"));
+        mockMvc.perform(post("/api/products/" + productId + "/reservations")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(new ReservationRequest(3, 60))))
+                .andExpect(status().isBadRequest());
+        
+        // Releasing gives the units back
+        mockMvc.perform(post("/api/products/reservations/" + firstReservation + "/release"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status").value("RELEASED"))
+                .andExpect(jsonPath("$.availableStock").value(10));
+        mockMvc.perform(post("/api/products/reservations/" + firstReservation + "/confirm"))
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.error").value("Reservation Conflict"));
+        
+        // Confirming turns the hold into a sale
+        String secondResponse = mockMvc.perform(post("/api/products/" + productId + "/reservations")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(new ReservationRequest(3, null))))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+        String secondReservation = objectMapper.readTree(secondResponse).get("id").asText();
+        mockMvc.perform(post("/api/products/reservations/" + secondReservation + "/confirm"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status").value("CONFIRMED"))
+                .andExpect(jsonPath("$.availableStock").value(7));
+        mockMvc.perform(get("/api/products/" + productId))
+                .andExpect(jsonPath("$.stockQuantity").value(7));
+        
+        mockMvc.perform(get("/api/products/reservations/" + UUID.randomUUID()))
+                .andExpect(status().isNotFound());
+    }
+    
+    @Test
+    @DisplayName("Should expose inventory metrics on the Prometheus scrape endpoint")
+    void shouldExposeInventoryMetricsOnPrometheusEndpoint() throws Exception {
+        Product product = productRepository.save(new Product("Metered Product", "Counts rejections", 5, 10));
+        
+        mockMvc.perform(post("/api/products/" + product.getId() + "/stock/decrease")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(new StockUpdateRequest(50))))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/products/999999"))
+                .andExpect(status().isNotFound());
+        
+        String scrape = mockMvc.perform(get("/actuator/prometheus"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        
+        assertThat(scrape)
+                .contains("inventory_stock_update_seconds_count{application=\"ase-challenge\",operation=\"decrease\"}")
+                .contains("inventory_requests_rejected_total{application=\"ase-challenge\",reason=\"insufficient_stock\"}")
+                .contains("inventory_requests_rejected_total{application=\"ase-challenge\",reason=\"product_not_found\"}")
+                .contains("inventory_products_low_stock{application=\"ase-challenge\"} 1.0")
+                .contains("http_server_requests_seconds_bucket");
+        // Requests here join the test transaction, so only check the duration listener is attached
+        assertThat(((ConfigurableTransactionManager) transactionManager).getTransactionExecutionListeners())
+                .hasAtLeastOneElementOfType(TransactionMetrics.class);
+    }
+    
+    @Test
+    @DisplayName("Should count an insufficient-stock rejection once and log nothing at ERROR")
+    void shouldCountRejectionWithoutErrorLog(CapturedOutput output) throws Exception {
+        // Given
+        Product product = productRepository.save(new Product("Rejected Product", "Too few left", 5, 2));
+        Counter rejected = meterRegistry.get("inventory.requests.rejected")
+                .tag("reason", "insufficient_stock").counter();
+        double before = rejected.count();
+        
+        // When
+        mockMvc.perform(post("/api/products/" + product.getId() + "/stock/decrease")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(new StockUpdateRequest(6))))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error").value("Insufficient Stock"));
+        
+        // Then
+        assertThat(rejected.count()).isEqualTo(before + 1);
+        assertThat(output.getAll()).doesNotContain(" ERROR ");
+    }
+    
+    @Test
+    @DisplayName("Should not restore a journal level below what reservations and locations hold")
+    void shouldNotRestoreStockBelowHeldUnits() {
+        // Given
+        Product held = new Product("Held Product", "Reserved and located", 20, 2);
+        held.setReservedQuantity(6);
+        held.setLocatedQuantity(4);
+        held = productRepository.saveAndFlush(held);
+        Product free = productRepository.saveAndFlush(new Product("Free Product", "Nothing held", 20, 2));
+        
+        // When
+        int restored = productRepository.restoreStockQuantities(Map.of(held.getId(), 9, free.getId(), 9));
+        
+        // Then
+        assertThat(restored).isEqualTo(1);
+        assertThat(productRepository.findById(held.getId()).orElseThrow().getStockQuantity()).isEqualTo(20);
+        assertThat(productRepository.findById(free.getId()).orElseThrow().getStockQuantity()).isEqualTo(9);
+    }
+    
+    @Test
+    @DisplayName("Should write threshold crossings to the alert outbox and deliver only the net change")
+    void shouldRecordCrossingsInOutboxAndDeliverNetChange() throws Exception {
+        ProductRequest createRequest = new ProductRequest("Flapping Product", "Crosses back and forth", 12, 10);
+        String createResponse = mockMvc.perform(post("/api/products")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(createRequest)))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+        Long productId = objectMapper.readTree(createResponse).get("id").asLong();
+        
+        // Down across the threshold, back up, down again, plus a change that stays below it
+        for (String change : List.of("decrease:5", "increase:20", "decrease:20", "decrease:1")) {
+            String[] parts = change.split(":");
+            mockMvc.perform(post("/api/products/" + productId + "/stock/" + parts[0])
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(objectMapper.writeValueAsString(new StockUpdateRequest(Integer.parseInt(parts[1])))))
+                    .andExpect(status().isOk());
+        }
+        
+        assertThat(alertRepository.findAll(Sort.by("id")))
+                .extracting(LowStockAlert::getType)
+                .containsExactly(LowStockAlert.Type.LOW_STOCK, LowStockAlert.Type.RESTOCKED, LowStockAlert.Type.LOW_STOCK);
+        
+        // Held while the product is still settling, then collapsed into one alert
+        assertThat(alertDispatcher.dispatch(Instant.now())).isZero();
+        assertThat(alertDispatcher.dispatch(Instant.now().plusSeconds(10))).isEqualTo(1);
+        assertThat(alertRepository.findAll(Sort.by("id")))
+                .extracting(LowStockAlert::getStatus)
+                .containsExactly(LowStockAlert.Status.SUPPRESSED, LowStockAlert.Status.SUPPRESSED, LowStockAlert.Status.SENT);
+    }
+    
+    @Test
+    @DisplayName("Should keep stock per location and fold it into the product total")
+    void shouldFoldLocationStockIntoProductTotal() throws Exception {
+        Product product = productRepository.save(new Product("Located Product", "Stored in two warehouses", 10, 2));
+        String base = "/api/products/" + product.getId() + "/locations/";
+        
+        mockMvc.perform(post(base + "WH-1/stock/increase")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(new StockUpdateRequest(30))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.location").value("WH-1"))
+                .andExpect(jsonPath("$.stockQuantity").value(30));
+        mockMvc.perform(post(base + "WH-2/stock/increase")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(new StockUpdateRequest(5))))
+                .andExpect(status().isOk());
+        mockMvc.perform(post(base + "WH-2/stock/decrease")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(new StockUpdateRequest(2))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.stockQuantity").value(3));
+        mockMvc.perform(get("/api/products/" + product.getId() + "/locations"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2));
+        
+        // The aggregator only sees committed location writes
+        TestTransaction.flagForCommit();
+        TestTransaction.end();
+        locationStockAggregator.aggregate();
+        
+        Product aggregated = productRepository.findById(product.getId()).orElseThrow();
+        assertThat(aggregated.getStockQuantity()).isEqualTo(43);
+        assertThat(aggregated.getLocatedQuantity()).isEqualTo(33);
+        
+        // Locations and the product-level stock cannot draw on each other
+        mockMvc.perform(post(base + "WH-2/stock/decrease")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(new StockUpdateRequest(4))))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(post("/api/products/" + product.getId() + "/stock/decrease")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(new StockUpdateRequest(11))))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(post("/api/products/" + product.getId() + "/stock/decrease")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(new StockUpdateRequest(10))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.stockQuantity").value(33));
+        
+        // Committed above, so clean up rather than rely on the rollback
+        mockMvc.perform(delete("/api/products/" + product.getId()))
+                .andExpect(status().isNoContent());
+        assertThat(locationStockRepository.count()).isZero();
+    }
+    
+    @Test
+    @DisplayName("Should drop location stock with its product and refuse it for a missing product")
+    void shouldNotKeepLocationStockWithoutProduct() {
+        Product product = productRepository.save(new Product("Orphan Check", "Deleted while stocked", 10, 2));
+        locationStockRepository.addStock(product.getId(), "WH-1", 5);
+        
+        // Bypasses ProductService, which deletes the rows itself
+        productRepository.delete(product);
+        productRepository.flush();
+        
+        assertThat(locationStockRepository.count()).isZero();
+        assertThatThrownBy(() -> locationStockRepository.addStock(product.getId(), "WH-1", 5))
+                .isInstanceOf(DataIntegrityViolationException.class);
+    }
+}
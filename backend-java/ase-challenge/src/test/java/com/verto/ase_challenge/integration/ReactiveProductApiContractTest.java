@@ -0,0 +1,15 @@
+package com.verto.ase_challenge.integration;
+
+import org.springframework.boot.test.autoconfigure.web.reactive.AutoConfigureWebTestClient;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.MOCK, properties = {
+    "spring.main.web-application-type=reactive",
+    "spring.datasource.url=jdbc:h2:mem:contract-reactive;DB_CLOSE_DELAY=-1",
+    "spring.r2dbc.url=r2dbc:h2:mem:///contract-reactive"
+})
+@AutoConfigureWebTestClient
+@ActiveProfiles("test")
+class ReactiveProductApiContractTest extends ProductApiContractTest {
+}
@@ -0,0 +1,86 @@
+package com.verto.ase_challenge.jdbc;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class ConcurrencyLimitedDataSourceTest {
+    
+    private DataSource target;
+    private ConcurrencyLimitedDataSource gate;
+    
+    @BeforeEach
+    void setUp() throws SQLException {
+        target = mock(DataSource.class);
+        when(target.getConnection()).thenAnswer(invocation -> mock(Connection.class));
+        gate = new ConcurrencyLimitedDataSource(target, 2, Duration.ofMillis(100));
+    }
+    
+    @Test
+    @DisplayName("Should time out once every permit is held and recover when a connection closes")
+    void shouldTimeOutWhenAllPermitsHeld() throws Exception {
+        // Given
+        Connection first = gate.getConnection();
+        Connection second = gate.getConnection();
+        assertThat(gate.getActiveCount()).isEqualTo(2);
+        
+        // When & Then
+        assertThatThrownBy(gate::getConnection)
+            .isInstanceOf(SQLTransientConnectionException.class)
+            .hasMessageContaining("2 in use");
+        
+        first.close();
+        first.close(); // a second close must not hand out an extra permit
+        assertThat(gate.getActiveCount()).isEqualTo(1);
+        assertThat(gate.getConnection()).isNotNull();
+        assertThatThrownBy(gate::getConnection).isInstanceOf(SQLTransientConnectionException.class);
+        second.close();
+    }
+    
+    @Test
+    @DisplayName("Should hand a freed permit to a waiting caller")
+    void shouldHandFreedPermitToWaitingCaller() throws Exception {
+        // Given
+        ConcurrencyLimitedDataSource slowGate = new ConcurrencyLimitedDataSource(target, 1, Duration.ofSeconds(5));
+        Connection held = slowGate.getConnection();
+        CompletableFuture<Connection> waiter = CompletableFuture.supplyAsync(() -> {
+            try {
+                return slowGate.getConnection();
+            } catch (SQLException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        while (slowGate.getWaitingCount() == 0) {
+            Thread.onSpinWait();
+        }
+        
+        // When
+        held.close();
+        
+        // Then
+        assertThat(waiter.get(5, TimeUnit.SECONDS)).isNotNull();
+        assertThat(slowGate.getActiveCount()).isEqualTo(1);
+    }
+    
+    @Test
+    @DisplayName("Should return the permit when the pool fails to provide a connection")
+    void shouldReturnPermitWhenPoolFails() throws SQLException {
+        // Given
+        when(target.getConnection()).thenThrow(new SQLException("pool exhausted"));
+        
+        // When & Then
+        assertThatThrownBy(gate::getConnection).hasMessage("pool exhausted");
+        assertThat(gate.getActiveCount()).isZero();
+    }
+}
@@ -0,0 +1,217 @@
+package com.verto.ase_challenge.journal;
+
+import com.verto.ase_challenge.repository.ProductRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.ObjIntConsumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class StockJournalTest {
+    
+    @TempDir
+    Path directory;
+    
+    @Test
+    @DisplayName("Should fold absolute, delta and delete movements back into stock levels")
+    void shouldFoldMovementsIntoStockLevels() throws IOException {
+        // Given
+        try (JournalWriter writer = new JournalWriter(directory, 1, 4096)) {
+            writer.append(StockMovement.Type.CREATED, 1L, 10, 10);
+            writer.append(StockMovement.Type.CREATED, 2L, 5, 5);
+            writer.append(StockMovement.Type.DECREASED, 1L, -3, 7);
+            writer.append(StockMovement.Type.BATCH_ADJUSTED, 1L, 4, 11);
+            writer.append(StockMovement.Type.UPDATED, 2L, 20, 25);
+            writer.append(StockMovement.Type.CREATED, 3L, 1, 1);
+            writer.append(StockMovement.Type.DELETED, 3L, -1, 0);
+        }
+        
+        // When
+        StockLedger ledger = new StockLedger();
+        int corrupt = 0;
+        for (Path segment : JournalSegment.list(directory)) {
+            corrupt += ledger.replay(segment);
+        }
+        
+        // Then
+        assertThat(corrupt).isZero();
+        assertThat(ledger.levels()).isEqualTo(Map.of(1L, 11, 2L, 25));
+        assertThat(ledger.lastSequence()).isEqualTo(7);
+    }
+    
+    @Test
+    @DisplayName("Should reach the committed level whatever order concurrent commits were appended in")
+    void shouldFoldMovementsAppendedOutOfCommitOrder() throws IOException {
+        // Given: commits C(create 10), U(update to 50), D(decrease 5), appended as D, U, C
+        try (JournalWriter writer = new JournalWriter(directory, 1, 4096)) {
+            writer.append(StockMovement.Type.DECREASED, 1L, -5, 45);
+            writer.append(StockMovement.Type.UPDATED, 1L, 40, 50);
+            writer.append(StockMovement.Type.CREATED, 1L, 10, 10);
+        }
+        
+        // When
+        StockLedger ledger = new StockLedger();
+        for (Path segment : JournalSegment.list(directory)) {
+            ledger.replay(segment);
+        }
+        
+        // Then
+        assertThat(ledger.levels()).isEqualTo(Map.of(1L, 45));
+    }
+    
+    @Test
+    @DisplayName("Should hand out unique sequences to concurrent appenders across segment rollovers")
+    void shouldAppendConcurrentlyAcrossRollovers() throws Exception {
+        // Given: 100 records per segment, so the appenders roll over constantly
+        int threads = 4;
+        int perThread = 5_000;
+        JournalWriter writer = new JournalWriter(directory, 1, 100 * JournalSegment.RECORD_SIZE);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        
+        // When
+        for (int t = 0; t < threads; t++) {
+            long productId = t + 1;
+            executor.submit(() -> {
+                start.await();
+                for (int i = 0; i < perThread; i++) {
+                    writer.append(StockMovement.Type.INCREASED, productId, 1, i + 1);
+                    if (i % 1_000 == 0) {
+                        writer.prepareStandby();
+                    }
+                }
+                return null;
+            });
+        }
+        start.countDown();
+        executor.shutdown();
+        assertThat(executor.awaitTermination(30, TimeUnit.SECONDS)).isTrue();
+        writer.close();
+        
+        // Then
+        Set<Long> sequences = new HashSet<>();
+        List<StockMovement> movements = new ArrayList<>();
+        int corrupt = 0;
+        for (Path segment : JournalSegment.list(directory)) {
+            corrupt += JournalSegment.read(segment, movement -> {
+                sequences.add(movement.sequence());
+                movements.add(movement);
+            });
+        }
+        assertThat(corrupt).isZero();
+        assertThat(movements).hasSize(threads * perThread);
+        assertThat(sequences).hasSize(threads * perThread);
+        assertThat(movements).extracting(StockMovement::sequence).isSorted();
+    }
+    
+    @Test
+    @DisplayName("Should skip torn records and keep the rest of the segment")
+    void shouldSkipTornRecords() throws IOException {
+        // Given
+        try (JournalWriter writer = new JournalWriter(directory, 1, 4096)) {
+            writer.append(StockMovement.Type.CREATED, 1L, 10, 10);
+            writer.append(StockMovement.Type.DECREASED, 1L, -2, 8);
+            writer.append(StockMovement.Type.DECREASED, 1L, -1, 7);
+        }
+        Path segment = JournalSegment.list(directory).get(0);
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.WRITE)) {
+            // Flip the delta of the second record without fixing its checksum
+            channel.write(ByteBuffer.allocate(4).putInt(0, -200), JournalSegment.RECORD_SIZE + 28);
+        }
+        
+        // When
+        StockLedger ledger = new StockLedger();
+        int corrupt = ledger.replay(segment);
+        
+        // Then
+        assertThat(corrupt).isEqualTo(1);
+        assertThat(ledger.levels()).containsEntry(1L, 9);
+    }
+    
+    @Test
+    @DisplayName("Should round-trip snapshots and ignore movements they already cover")
+    void shouldRoundTripSnapshots() throws IOException {
+        // Given
+        StockLedger ledger = new StockLedger(41);
+        ledger.put(1L, 12);
+        ledger.put(2L, 0);
+        Path snapshot = directory.resolve(StockJournal.SNAPSHOT_FILE);
+        ledger.write(snapshot);
+        
+        // When
+        StockLedger restored = StockLedger.read(snapshot);
+        restored.apply(new StockMovement(41, 0, 1L, StockMovement.Type.INCREASED, 5, 17));
+        restored.apply(new StockMovement(42, 0, 2L, StockMovement.Type.INCREASED, 3, 3));
+        
+        // Then
+        assertThat(restored.lastSequence()).isEqualTo(42);
+        assertThat(restored.levels()).isEqualTo(Map.of(1L, 12, 2L, 3));
+        
+        Files.write(snapshot, new byte[] {1, 2, 3}, StandardOpenOption.APPEND);
+        assertThatThrownBy(() -> StockLedger.read(snapshot)).isInstanceOf(IOException.class);
+    }
+    
+    @Test
+    @DisplayName("Should restore stock levels from the journal on startup and compact it")
+    @SuppressWarnings("unchecked")
+    void shouldRestoreStockLevelsOnStartup() throws Exception {
+        // Given: a snapshot plus a segment written by a previous run
+        StockLedger previous = new StockLedger(10);
+        previous.put(1L, 50);
+        previous.put(2L, 8);
+        previous.write(directory.resolve(StockJournal.SNAPSHOT_FILE));
+        try (JournalWriter writer = new JournalWriter(directory, 11, 4096)) {
+            writer.append(StockMovement.Type.DECREASED, 1L, -15, 35);
+            writer.append(StockMovement.Type.CREATED, 9L, 4, 4);
+        }
+        
+        // The database was reset to seed values and no longer has product 9
+        ProductRepository productRepository = mock(ProductRepository.class);
+        doAnswer(invocation -> {
+            ObjIntConsumer<Long> consumer = invocation.getArgument(0);
+            consumer.accept(1L, 100);
+            consumer.accept(2L, 8);
+            consumer.accept(3L, 30);
+            return null;
+        }).when(productRepository).loadStockQuantities(any());
+        when(productRepository.restoreStockQuantities(any())).thenReturn(1);
+        
+        StockJournal journal = new StockJournal(productRepository, mock(PlatformTransactionManager.class), true,
+            directory.toString(), DataSize.ofKilobytes(4), Duration.ofMinutes(1), Duration.ofMinutes(1));
+        
+        // When
+        journal.start();
+        journal.stop();
+        
+        // Then
+        verify(productRepository).restoreStockQuantities(Map.of(1L, 35));
+        StockLedger rebased = StockLedger.read(directory.resolve(StockJournal.SNAPSHOT_FILE));
+        assertThat(rebased.lastSequence()).isEqualTo(12);
+        assertThat(rebased.levels()).containsKeys(1L, 2L, 3L);
+        // Only the fresh, empty segment of the new run is left
+        assertThat(JournalSegment.list(directory)).hasSize(1);
+    }
+}
@@ -0,0 +1,77 @@
+package com.verto.ase_challenge.load;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Stored reference results, keyed by scenario and concurrency (e.g. {@code READ_HEAVY@8}). A run regresses when a latency percentile
+ * grows, or throughput drops, by more than the tolerance relative to the baseline.
+ */
+class LoadBaseline {
+    
+    static final String RESOURCE = "/load/baseline.json";
+    
+    private final Map<String, LoadResult> results;
+    
+    private LoadBaseline(Map<String, LoadResult> results) {
+        this.results = results;
+    }
+    
+    static LoadBaseline load(ObjectMapper objectMapper) throws IOException {
+        try (InputStream in = LoadBaseline.class.getResourceAsStream(RESOURCE)) {
+            if (in == null) {
+                return new LoadBaseline(Map.of());
+            }
+            return new LoadBaseline(objectMapper.readValue(in, new TypeReference<TreeMap<String, LoadResult>>() { }));
+        }
+    }
+    
+    static void write(ObjectMapper objectMapper, Collection<LoadResult> results, Path file) throws IOException {
+        Map<String, LoadResult> byScenario = new TreeMap<>();
+        results.forEach(result -> byScenario.put(key(result), result));
+        Files.createDirectories(file.getParent());
+        objectMapper.writer(SerializationFeature.INDENT_OUTPUT).writeValue(file.toFile(), byScenario);
+    }
+    
+    /**
+     * Returns a description of every metric that regressed beyond {@code tolerance}
+     * (e.g. 0.3 for 30%); empty when the run is within bounds or has no baseline.
+     */
+    List<String> regressions(LoadResult current, double tolerance) {
+        LoadResult baseline = results.get(key(current));
+        List<String> regressions = new ArrayList<>();
+        if (baseline == null) {
+            return regressions;
+        }
+        String scenario = current.scenario();
+        checkLatency(regressions, scenario + " p50", baseline.p50Micros(), current.p50Micros(), tolerance);
+        checkLatency(regressions, scenario + " p99", baseline.p99Micros(), current.p99Micros(), tolerance);
+        checkLatency(regressions, scenario + " p999", baseline.p999Micros(), current.p999Micros(), tolerance);
+        if (current.throughput() < baseline.throughput() * (1 - tolerance)) {
+            regressions.add(String.format("%s throughput %.1f req/s is below baseline %.1f req/s",
+                current.scenario(), current.throughput(), baseline.throughput()));
+        }
+        return regressions;
+    }
+    
+    private static String key(LoadResult result) {
+        return result.scenario() + "@" + result.concurrency();
+    }
+    
+    private static void checkLatency(List<String> regressions, String metric, long baseline, long current, double tolerance) {
+        if (current > baseline * (1 + tolerance)) {
+            regressions.add(String.format("%s latency %dus exceeds baseline %dus", metric, current, baseline));
+        }
+    }
+}
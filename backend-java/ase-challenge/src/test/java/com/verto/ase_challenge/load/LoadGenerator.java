@@ -0,0 +1,160 @@
+package com.verto.ase_challenge.load;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Closed-loop HTTP load generator: {@code concurrency} workers each send a request, wait for the
+ * full response and immediately send the next, recording every latency into an HdrHistogram.
+ */
+class LoadGenerator {
+    
+    private static final long HIGHEST_TRACKABLE_MICROS = TimeUnit.MINUTES.toMicros(1);
+    private static final int BULK_PAGE_SIZE = 500;
+    
+    private final HttpClient httpClient;
+    private final ObjectMapper objectMapper;
+    private final URI baseUri;
+    private final int catalogSize;
+    private final int hotProducts;
+    
+    LoadGenerator(URI baseUri, ObjectMapper objectMapper, int catalogSize, int hotProducts) {
+        this.httpClient = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+        this.objectMapper = objectMapper;
+        this.baseUri = baseUri;
+        this.catalogSize = catalogSize;
+        this.hotProducts = hotProducts;
+    }
+    
+    LoadResult run(LoadScenario scenario, int concurrency, Duration warmup, Duration duration) throws InterruptedException {
+        drive(scenario, concurrency, warmup);
+        long started = System.nanoTime();
+        List<Worker> workers = drive(scenario, concurrency, duration);
+        Duration elapsed = Duration.ofNanos(System.nanoTime() - started);
+        
+        Histogram histogram = newHistogram();
+        long errors = 0;
+        for (Worker worker : workers) {
+            histogram.add(worker.histogram);
+            errors += worker.errors;
+        }
+        return LoadResult.from(scenario, concurrency, histogram, errors, elapsed);
+    }
+    
+    private List<Worker> drive(LoadScenario scenario, int concurrency, Duration duration) throws InterruptedException {
+        long deadline = System.nanoTime() + duration.toNanos();
+        List<Worker> workers = new ArrayList<>(concurrency);
+        ExecutorService executor = Executors.newFixedThreadPool(concurrency);
+        try {
+            List<Future<?>> futures = new ArrayList<>(concurrency);
+            for (int i = 0; i < concurrency; i++) {
+                Worker worker = new Worker(scenario, deadline);
+                workers.add(worker);
+                futures.add(executor.submit(worker));
+            }
+            for (Future<?> future : futures) {
+                try {
+                    future.get();
+                } catch (java.util.concurrent.ExecutionException e) {
+                    throw new IllegalStateException("Load worker failed", e.getCause());
+                }
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        return workers;
+    }
+    
+    private static Histogram newHistogram() {
+        return new Histogram(HIGHEST_TRACKABLE_MICROS, 3);
+    }
+    
+    private class Worker implements Runnable {
+        
+        private final LoadScenario scenario;
+        private final long deadline;
+        private final Histogram histogram = newHistogram();
+        private long errors;
+        // Each worker walks the catalog with its own keyset cursor
+        private String cursor;
+        
+        Worker(LoadScenario scenario, long deadline) {
+            this.scenario = scenario;
+            this.deadline = deadline;
+        }
+        
+        @Override
+        public void run() {
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            while (System.nanoTime() < deadline) {
+                LoadOperation operation = scenario.pick(random.nextInt(scenario.totalWeight()));
+                HttpRequest request = buildRequest(operation, random);
+                long start = System.nanoTime();
+                try {
+                    HttpResponse<byte[]> response = httpClient.send(request, HttpResponse.BodyHandlers.ofByteArray());
+                    histogram.recordValue(Math.min(HIGHEST_TRACKABLE_MICROS, (System.nanoTime() - start) / 1_000));
+                    if (response.statusCode() / 100 != 2) {
+                        errors++;
+                    } else if (operation == LoadOperation.LIST_BULK_PAGE) {
+                        advanceCursor(response.body());
+                    }
+                } catch (IOException e) {
+                    histogram.recordValue(Math.min(HIGHEST_TRACKABLE_MICROS, (System.nanoTime() - start) / 1_000));
+                    errors++;
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+        
+        private HttpRequest buildRequest(LoadOperation operation, ThreadLocalRandom random) {
+            return switch (operation) {
+                case GET_BY_ID -> get("/api/products/" + random.nextInt(1, catalogSize + 1));
+                case LIST_PAGE -> get("/api/products?limit=" + 50 + (random.nextBoolean() ? "&lowStock=true" : ""));
+                case LIST_BULK_PAGE -> get("/api/products?limit=" + BULK_PAGE_SIZE
+                    + (cursor != null ? "&cursor=" + URLEncoder.encode(cursor, StandardCharsets.UTF_8) : ""));
+                case DECREASE_HOT_STOCK -> HttpRequest.newBuilder(baseUri.resolve(
+                        "/api/products/" + random.nextInt(1, hotProducts + 1) + "/stock/decrease"))
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString("{\"quantity\":1}"))
+                    .build();
+                case EXPORT -> get("/api/products/export");
+            };
+        }
+        
+        private HttpRequest get(String path) {
+            return HttpRequest.newBuilder(baseUri.resolve(path)).GET().build();
+        }
+        
+        private void advanceCursor(byte[] body) {
+            try {
+                JsonNode nextCursor = objectMapper.readTree(body).get("nextCursor");
+                cursor = nextCursor == null || nextCursor.isNull() ? null : nextCursor.asText();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+}
@@ -0,0 +1,12 @@
+package com.verto.ase_challenge.load;
+
+/**
+ * The individual HTTP calls a {@link LoadScenario} mixes together.
+ */
+enum LoadOperation {
+    GET_BY_ID,
+    LIST_PAGE,
+    LIST_BULK_PAGE,
+    DECREASE_HOT_STOCK,
+    EXPORT
+}
@@ -0,0 +1,42 @@
+package com.verto.ase_challenge.load;
+
+import org.HdrHistogram.Histogram;
+
+import java.time.Duration;
+
+/**
+ * Summary of one measured run. Latencies are in microseconds, throughput in requests per second.
+ */
+record LoadResult(
+    String scenario,
+    int concurrency,
+    long requests,
+    long errors,
+    double throughput,
+    long p50Micros,
+    long p99Micros,
+    long p999Micros,
+    long maxMicros
+) {
+    
+    static LoadResult from(LoadScenario scenario, int concurrency, Histogram histogram, long errors, Duration elapsed) {
+        long requests = histogram.getTotalCount();
+        return new LoadResult(
+            scenario.name(),
+            concurrency,
+            requests,
+            errors,
+            requests / (elapsed.toNanos() / 1_000_000_000.0),
+            histogram.getValueAtPercentile(50.0),
+            histogram.getValueAtPercentile(99.0),
+            histogram.getValueAtPercentile(99.9),
+            histogram.getMaxValue()
+        );
+    }
+    
+    @Override
+    public String toString() {
+        return String.format("%-16s c=%-3d n=%-7d err=%-4d %8.1f req/s  p50=%6dus  p99=%7dus  p999=%7dus  max=%7dus",
+            scenario, concurrency, requests, errors, throughput, p50Micros, p99Micros, p999Micros, maxMicros);
+    }
+}
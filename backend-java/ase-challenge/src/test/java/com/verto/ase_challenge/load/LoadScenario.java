@@ -0,0 +1,57 @@
+package com.verto.ase_challenge.load;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * A named request mix. Weights are relative; each worker picks its next operation at random
+ * with probability proportional to the operation's weight.
+ */
+enum LoadScenario {
+    
+    // Typical storefront traffic: mostly product page views, some listing
+    READ_HEAVY(Map.of(
+        LoadOperation.GET_BY_ID, 90,
+        LoadOperation.LIST_PAGE, 10
+    )),
+    
+    // Checkout spike: every worker decrementing the same few hot products
+    DECREMENT_STORM(Map.of(
+        LoadOperation.DECREASE_HOT_STOCK, 95,
+        LoadOperation.GET_BY_ID, 5
+    )),
+    
+    // Catalog syncs: large keyset pages plus the occasional full export
+    BULK_LISTING(Map.of(
+        LoadOperation.LIST_BULK_PAGE, 90,
+        LoadOperation.EXPORT, 10
+    ));
+    
+    private final LoadOperation[] operations;
+    private final int[] cumulativeWeights;
+    
+    LoadScenario(Map<LoadOperation, Integer> weights) {
+        Map<LoadOperation, Integer> ordered = new EnumMap<>(weights);
+        this.operations = ordered.keySet().toArray(LoadOperation[]::new);
+        this.cumulativeWeights = new int[operations.length];
+        int total = 0;
+        for (int i = 0; i < operations.length; i++) {
+            total += ordered.get(operations[i]);
+            cumulativeWeights[i] = total;
+        }
+    }
+    
+    LoadOperation pick(int roll) {
+        int point = roll % totalWeight();
+        for (int i = 0; i < operations.length; i++) {
+            if (point < cumulativeWeights[i]) {
+                return operations[i];
+            }
+        }
+        throw new IllegalStateException("Unreachable");
+    }
+    
+    int totalWeight() {
+        return cumulativeWeights[cumulativeWeights.length - 1];
+    }
+}
@@ -0,0 +1,105 @@
+package com.verto.ase_challenge.load;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.convert.DurationStyle;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.net.URI;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Drives the product API over real HTTP and compares latency percentiles and throughput
+ * against {@code src/test/resources/load/baseline.json}. Excluded from the default build;
+ * run with {@code ./mvnw -Pload-test test}. Tunable through system properties:
+ * {@code load.concurrency}, {@code load.warmup}, {@code load.duration}, {@code load.tolerance},
+ * {@code load.catalog-size}. With {@code -Dload.update-baseline=true} the run never fails and
+ * the results written to {@code target/load-test/results.json} can replace the stored baseline.
+ */
+@Tag("load")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+    "spring.datasource.url=jdbc:h2:mem:loadtest;DB_CLOSE_DELAY=-1",
+    "logging.level.com.verto.ase_challenge=WARN",
+    "logging.level.org.springframework.web=WARN"
+})
+@ActiveProfiles("test")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class ProductLoadTest {
+    
+    private static final int HOT_PRODUCTS = 4;
+    
+    private final int concurrency = Integer.getInteger("load.concurrency", 8);
+    private final Duration warmup = DurationStyle.detectAndParse(System.getProperty("load.warmup", "5s"));
+    private final Duration duration = DurationStyle.detectAndParse(System.getProperty("load.duration", "15s"));
+    private final double tolerance = Double.parseDouble(System.getProperty("load.tolerance", "0.5"));
+    private final int catalogSize = Integer.getInteger("load.catalog-size", 1000);
+    private final boolean updateBaseline = Boolean.getBoolean("load.update-baseline");
+    
+    private final List<LoadResult> results = new ArrayList<>();
+    
+    @LocalServerPort
+    private int port;
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
+    @Autowired
+    private ObjectMapper objectMapper;
+    
+    private LoadGenerator loadGenerator;
+    private LoadBaseline baseline;
+    
+    @BeforeAll
+    void setUp() throws Exception {
+        // Hot products get enough stock that a decrement storm never drains them
+        jdbcTemplate.batchUpdate(
+            "INSERT INTO products (name, description, stock_quantity, low_stock_threshold) VALUES (?, ?, ?, ?)",
+            IntStream.rangeClosed(1, catalogSize)
+                .mapToObj(i -> new Object[] {
+                    "Product " + i,
+                    "Load test catalog entry " + i,
+                    i <= HOT_PRODUCTS ? 1_000_000_000 : (i % 10 == 0 ? 3 : 100),
+                    10
+                })
+                .toList());
+        loadGenerator = new LoadGenerator(URI.create("http://localhost:" + port), objectMapper, catalogSize, HOT_PRODUCTS);
+        baseline = LoadBaseline.load(objectMapper);
+    }
+    
+    @AfterAll
+    void writeResults() throws Exception {
+        LoadBaseline.write(objectMapper, results, Path.of("target", "load-test", "results.json"));
+    }
+    
+    @ParameterizedTest
+    @EnumSource(LoadScenario.class)
+    @DisplayName("Should stay within the latency and throughput baseline")
+    void shouldStayWithinBaseline(LoadScenario scenario) throws Exception {
+        // When
+        LoadResult result = loadGenerator.run(scenario, concurrency, warmup, duration);
+        results.add(result);
+        System.out.println(result);
+        
+        // Then
+        assertThat(result.errors()).as("failed requests").isZero();
+        if (!updateBaseline) {
+            assertThat(baseline.regressions(result, tolerance)).as("regressions against " + LoadBaseline.RESOURCE).isEmpty();
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package com.verto.ase_challenge.reservation;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class HashedTimingWheelTest {
+    
+    private final List<String> expired = new CopyOnWriteArrayList<>();
+    private final CountDownLatch latch = new CountDownLatch(2);
+    private HashedTimingWheel<String> wheel;
+    
+    @BeforeEach
+    void setUp() {
+        // Tiny wheel so that the longer delay needs more than one round
+        wheel = new HashedTimingWheel<>("test-wheel", Duration.ofMillis(10), 4, payload -> {
+            expired.add(payload);
+            latch.countDown();
+        });
+    }
+    
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        wheel.close();
+    }
+    
+    @Test
+    @DisplayName("Should fire timeouts in deadline order and skip cancelled ones")
+    void shouldFireTimeoutsInDeadlineOrderAndSkipCancelled() throws InterruptedException {
+        // Given
+        wheel.schedule("late", Duration.ofMillis(150));
+        HashedTimingWheel.Timeout cancelled = wheel.schedule("cancelled", Duration.ofMillis(50));
+        wheel.schedule("early", Duration.ofMillis(20));
+        cancelled.cancel();
+        
+        // When
+        assertThat(latch.await(2, TimeUnit.SECONDS)).isTrue();
+        Thread.sleep(50);
+        
+        // Then
+        assertThat(expired).containsExactly("early", "late");
+    }
+    
+    @Test
+    @DisplayName("Should fire overdue timeouts on the next tick")
+    void shouldFireOverdueTimeoutsOnNextTick() throws InterruptedException {
+        // When
+        wheel.schedule("overdue", Duration.ofMillis(-100));
+        wheel.schedule("now", Duration.ZERO);
+        
+        // Then
+        assertThat(latch.await(1, TimeUnit.SECONDS)).isTrue();
+        assertThat(expired).containsExactlyInAnyOrder("overdue", "now");
+    }
+}
@@ -0,0 +1,185 @@
+package com.verto.ase_challenge.search;
+
+import com.verto.ase_challenge.entity.Product;
+import com.verto.ase_challenge.repository.ProductRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+class ProductSearchIndexTest {
+    
+    private ProductSearchIndex index;
+    
+    @BeforeEach
+    void setUp() {
+        index = new ProductSearchIndex(mock(ProductRepository.class), mock(PlatformTransactionManager.class), true);
+        index.index(product(1L, "Gaming Laptop", "15 inch laptop with a dedicated graphics card"));
+        index.index(product(2L, "Laptop Sleeve", "Neoprene sleeve for laptops up to 15 inches"));
+        index.index(product(3L, "Wireless Mouse", "Ergonomic mouse for gaming and office work"));
+        index.index(product(4L, "Notebook", "Paper notebook, A5, dotted"));
+    }
+    
+    @Test
+    @DisplayName("Should match whole words only in token mode")
+    void shouldMatchWholeWordsInTokenMode() {
+        // When
+        ProductSearchIndex.Hits hits = index.search("laptop", SearchMode.TOKEN, 0, 10);
+        
+        // Then
+        assertThat(hits.total()).isEqualTo(2);
+        assertThat(hits.totalExact()).isTrue();
+        assertThat(hits.ids()).containsExactlyInAnyOrder(1L, 2L);
+    }
+    
+    @Test
+    @DisplayName("Should rank name matches above description matches and exact words above prefixes")
+    void shouldRankNameAndExactMatchesFirst() {
+        // When
+        ProductSearchIndex.Hits laptop = index.search("laptop", SearchMode.PREFIX, 0, 10);
+        ProductSearchIndex.Hits gaming = index.search("GAMING", SearchMode.PREFIX, 0, 10);
+        
+        // Then
+        // Both have the exact word in their name; product 2's "laptops" does not add to that
+        assertThat(laptop.ids()).containsExactlyInAnyOrder(1L, 2L);
+        // Name match first, then the description match
+        assertThat(gaming.ids()).containsExactly(1L, 3L);
+    }
+    
+    @Test
+    @DisplayName("Should require every query word and treat each one as a prefix")
+    void shouldRequireEveryQueryWord() {
+        // When
+        ProductSearchIndex.Hits hits = index.search("lap sle", SearchMode.PREFIX, 0, 10);
+        
+        // Then
+        assertThat(hits.ids()).containsExactly(2L);
+        assertThat(index.search("laptop mouse", SearchMode.PREFIX, 0, 10).total()).isZero();
+    }
+    
+    @Test
+    @DisplayName("Should find words containing a fragment through the trigram index")
+    void shouldFindWordsContainingFragment() {
+        // When
+        ProductSearchIndex.Hits hits = index.search("book", SearchMode.CONTAINS, 0, 10);
+        
+        // Then
+        assertThat(hits.ids()).containsExactly(4L);
+        assertThat(index.search("book", SearchMode.PREFIX, 0, 10).total()).isZero();
+        assertThat(index.search("ergo", SearchMode.CONTAINS, 0, 10).ids()).containsExactly(3L);
+    }
+    
+    @Test
+    @DisplayName("Should page through ranked hits with offset and limit")
+    void shouldPageThroughHits() {
+        // Given
+        for (long id = 10; id < 40; id++) {
+            index.index(product(id, "Cable " + id, null));
+        }
+        
+        // When
+        ProductSearchIndex.Hits first = index.search("cable", SearchMode.TOKEN, 0, 20);
+        ProductSearchIndex.Hits second = index.search("cable", SearchMode.TOKEN, 20, 20);
+        ProductSearchIndex.Hits all = index.search("cable", SearchMode.TOKEN, 0, 40);
+        
+        // Then
+        assertThat(first.total()).isEqualTo(30);
+        assertThat(first.ids()).hasSize(20);
+        assertThat(second.ids()).hasSize(10);
+        assertThat(LongStream.concat(Arrays.stream(first.ids()), Arrays.stream(second.ids())).toArray())
+            .containsExactly(all.ids());
+    }
+    
+    @Test
+    @DisplayName("Should stop counting a very common prefix once the page is settled")
+    void shouldStopCountingCommonPrefix() {
+        // Given
+        for (long id = 100; id < 3_100; id++) {
+            index.index(product(id, id == 2_000 ? "Cable reel" : "Spare part", id % 2 == 0 ? "Cable" : "Cables"));
+        }
+        
+        // When
+        ProductSearchIndex.Hits prefix = index.search("cab", SearchMode.PREFIX, 0, 10);
+        ProductSearchIndex.Hits token = index.search("cable", SearchMode.TOKEN, 0, 10);
+        
+        // Then
+        // The one name match outranks the description matches however late it is visited
+        assertThat(prefix.ids()[0]).isEqualTo(2_000L);
+        assertThat(prefix.total()).isEqualTo(ProductSearchIndex.MAX_COUNTED_HITS);
+        assertThat(prefix.totalExact()).isFalse();
+        // A single whole word is counted exactly without visiting every match
+        assertThat(token.ids()[0]).isEqualTo(2_000L);
+        assertThat(token.total()).isEqualTo(1_500);
+        assertThat(token.totalExact()).isTrue();
+    }
+    
+    @Test
+    @DisplayName("Should drop old words on update and everything on delete")
+    void shouldReindexOnUpdateAndDelete() {
+        // When
+        index.index(product(1L, "Gaming Desktop", "Tower PC"));
+        index.remove(3L);
+        
+        // Then
+        assertThat(index.search("laptop", SearchMode.TOKEN, 0, 10).ids()).containsExactly(2L);
+        assertThat(index.search("desktop", SearchMode.TOKEN, 0, 10).ids()).containsExactly(1L);
+        assertThat(index.search("mouse", SearchMode.PREFIX, 0, 10).total()).isZero();
+        assertThat(index.search("ergo", SearchMode.CONTAINS, 0, 10).total()).isZero();
+        assertThat(index.size()).isEqualTo(3);
+    }
+    
+    @Test
+    @DisplayName("Should keep postings consistent through many adds and removes")
+    void shouldKeepPostingsConsistent() {
+        // Given
+        Postings postings = new Postings();
+        Set<Long> expected = new HashSet<>();
+        for (long id = 1; id <= 5_000; id++) {
+            postings.add(id, Postings.NAME);
+            expected.add(id);
+        }
+        
+        // When
+        for (long id = 1; id <= 5_000; id += 3) {
+            postings.remove(id);
+            expected.remove(id);
+        }
+        
+        // Then
+        Set<Long> actual = new HashSet<>();
+        postings.forEach((id, fields) -> {
+            actual.add(id);
+            return true;
+        });
+        assertThat(actual).isEqualTo(expected);
+        assertThat(postings.size()).isEqualTo(expected.size());
+        assertThat(expected).allMatch(id -> postings.fields(id) == Postings.NAME);
+        assertThat(postings.fields(1L)).isZero();
+    }
+    
+    @Test
+    @DisplayName("Should split text into lowercase words of letters and digits")
+    void shouldTokenizeText() {
+        // When
+        String[] words = ProductSearchIndex.tokenize("USB-C Hub, 4 ports (Grey)");
+        
+        // Then
+        assertThat(Arrays.stream(words).collect(Collectors.toList()))
+            .containsExactly("usb", "c", "hub", "4", "ports", "grey");
+    }
+    
+    private static Product product(Long id, String name, String description) {
+        Product product = new Product(name, description, 10, 5);
+        product.setId(id);
+        return product;
+    }
+}
@@ -1,26 +1,65 @@
 package com.verto.ase_challenge.service;
 
+import com.verto.ase_challenge.alert.LowStockAlerts;
+import com.verto.ase_challenge.audit.AuditEvent;
+import com.verto.ase_challenge.audit.AuditLog;
+import com.verto.ase_challenge.cache.ProductCache;
+import com.verto.ase_challenge.cache.ProductNameFilter;
+import com.verto.ase_challenge.dto.BatchStockUpdateRequest;
+import com.verto.ase_challenge.dto.BatchStockUpdateResponse;
+import com.verto.ase_challenge.dto.ProductPage;
+import com.verto.ase_challenge.dto.ProductQuery;
 import com.verto.ase_challenge.dto.ProductRequest;
 import com.verto.ase_challenge.dto.ProductResponse;
+import com.verto.ase_challenge.dto.ProductSearchPage;
+import com.verto.ase_challenge.dto.ProductSearchQuery;
+import com.verto.ase_challenge.dto.StockAdjustmentItem;
+import com.verto.ase_challenge.dto.StockAdjustmentResult;
+import com.verto.ase_challenge.entity.LowStockAlert;
 import com.verto.ase_challenge.entity.Product;
+import com.verto.ase_challenge.events.StockEvents;
+import com.verto.ase_challenge.exception.DuplicateProductNameException;
 import com.verto.ase_challenge.exception.InsufficientStockException;
+import com.verto.ase_challenge.exception.InvalidCursorException;
+import com.verto.ase_challenge.exception.PreconditionFailedException;
 import com.verto.ase_challenge.exception.ProductNotFoundException;
+import com.verto.ase_challenge.journal.StockJournal;
+import com.verto.ase_challenge.journal.StockMovement;
+import com.verto.ase_challenge.metrics.InventoryMetrics;
+import com.verto.ase_challenge.repository.LocationStockRepository;
+import com.verto.ase_challenge.repository.LowStockAlertRepository;
 import com.verto.ase_challenge.repository.ProductRepository;
+import com.verto.ase_challenge.search.ProductSearchIndex;
+import com.verto.ase_challenge.search.SearchMode;
+import com.verto.ase_challenge.stock.WriteBehindStockCounters;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.transaction.PlatformTransactionManager;
 
+import java.time.Duration;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
 
 import static org.assertj.core.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -29,6 +68,38 @@ class ProductServiceTest {
     @Mock
     private ProductRepository productRepository;
     
+    @Spy
+    private ProductCache productCache = new ProductCache(100, Duration.ofMinutes(1));
+    
+    @Spy
+    private WriteBehindStockCounters stockCounters = new WriteBehindStockCounters(null, null, new SimpleMeterRegistry(), false, Duration.ofSeconds(1));
+    
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    
+    @Spy
+    private InventoryMetrics metrics = new InventoryMetrics(meterRegistry, mock(ProductRepository.class));
+    
+    @Mock
+    private StockJournal journal;
+    
+    @Mock
+    private ProductSearchIndex searchIndex;
+    
+    @Spy
+    private ProductNameFilter nameFilter = new ProductNameFilter(null, null, true, 1_000, 0.01);
+    
+    @Mock
+    private StockEvents stockEvents;
+    
+    @Spy
+    private LowStockAlerts lowStockAlerts = new LowStockAlerts(null, null, false);
+    
+    @Mock
+    private LocationStockRepository locationStockRepository;
+    
+    @Mock
+    private AuditLog auditLog;
+    
     @InjectMocks
     private ProductService productService;
     
@@ -65,13 +136,53 @@ void shouldCreateProductSuccessfully() {
         assertThat(response.getName()).isEqualTo("Test Product");
         assertThat(response.getStockQuantity()).isEqualTo(100);
         verify(productRepository).save(any(Product.class));
+        verify(searchIndex).index(testProduct);
+        // A name the filter has never seen needs no uniqueness query
+        verify(productRepository, never()).existsByNameKey(any());
+        assertThat(nameFilter.mightContain("Test Product")).isTrue();
+    }
+    
+    @Test
+    @DisplayName("Should reject a name that differs from an existing one only in case and spacing")
+    void shouldRejectDuplicateProductName() {
+        // Given
+        nameFilter.add("Test Product");
+        when(productRepository.existsByNameKey("test product")).thenReturn(true);
+        testRequest.setName("  TEST product ");
+        
+        // When & Then
+        assertThatThrownBy(() -> productService.createProduct(testRequest))
+            .isInstanceOf(DuplicateProductNameException.class)
+            .hasMessageContaining("TEST product");
+        verify(productRepository, never()).save(any(Product.class));
+    }
+    
+    @Test
+    @DisplayName("Should only check the name on update when it actually changes")
+    void shouldCheckNameOnUpdateOnlyWhenChanged() {
+        // Given
+        nameFilter.add("Test Product");
+        nameFilter.add("Other Product");
+        when(productRepository.findById(1L)).thenReturn(Optional.of(testProduct));
+        when(productRepository.saveAndFlush(any(Product.class))).thenReturn(testProduct);
+        when(productRepository.existsByNameKeyAndIdNot("other product", 1L)).thenReturn(true);
+        
+        // When
+        testRequest.setName("TEST PRODUCT");
+        productService.updateProduct(1L, testRequest);
+        
+        // Then
+        verify(productRepository, never()).existsByNameKeyAndIdNot(any(), any());
+        testRequest.setName("Other Product");
+        assertThatThrownBy(() -> productService.updateProduct(1L, testRequest))
+            .isInstanceOf(DuplicateProductNameException.class);
     }
     
     @Test
     @DisplayName("Should get product by ID successfully")
     void shouldGetProductByIdSuccessfully() {
         // Given
-        when(productRepository.findById(1L)).thenReturn(Optional.of(testProduct));
+        when(productRepository.findResponseById(1L)).thenReturn(Optional.of(ProductResponse.fromEntity(testProduct)));
         
         // When
         ProductResponse response = productService.getProductById(1L);
@@ -80,14 +191,41 @@ void shouldGetProductByIdSuccessfully() {
         assertThat(response).isNotNull();
         assertThat(response.getId()).isEqualTo(1L);
         assertThat(response.getName()).isEqualTo("Test Product");
+        // Read straight into the response, never as a managed entity
+        verify(productRepository).findResponseById(1L);
+        verify(productRepository, never()).findById(anyLong());
+    }
+    
+    @Test
+    @DisplayName("Should serve repeated reads from the cache until the product changes")
+    void shouldServeRepeatedReadsFromCacheUntilProductChanges() {
+        // Given
+        when(productRepository.findResponseById(1L))
+            .thenAnswer(invocation -> Optional.of(ProductResponse.fromEntity(testProduct)));
+        when(productRepository.findById(1L)).thenReturn(Optional.of(testProduct));
+        when(productRepository.increaseStock(1L, 5)).thenReturn(1);
+        
+        // When
+        productService.getProductById(1L);
+        productService.getProductById(1L);
+        testProduct.setStockQuantity(105);
+        productService.increaseStock(1L, 5);
+        ProductResponse afterWrite = productService.getProductById(1L);
+        
+        // Then
+        assertThat(afterWrite.getStockQuantity()).isEqualTo(105);
+        // Two loads for reads (before and after the write) plus the read-back inside increaseStock
+        verify(productRepository, times(2)).findResponseById(1L);
         verify(productRepository).findById(1L);
+        verify(productCache).invalidate(1L);
+        assertThat(productService.getProductCacheStats().getHits()).isEqualTo(1);
     }
     
     @Test
     @DisplayName("Should throw exception when product not found")
     void shouldThrowExceptionWhenProductNotFound() {
         // Given
-        when(productRepository.findById(anyLong())).thenReturn(Optional.empty());
+        when(productRepository.findResponseById(anyLong())).thenReturn(Optional.empty());
         
         // When & Then
         assertThatThrownBy(() -> productService.getProductById(999L))
@@ -96,18 +234,50 @@ void shouldThrowExceptionWhenProductNotFound() {
     }
     
     @Test
-    @DisplayName("Should get all products successfully")
-    void shouldGetAllProductsSuccessfully() {
+    @DisplayName("Should get products page successfully")
+    void shouldGetProductsPageSuccessfully() {
         // Given
-        List<Product> products = Arrays.asList(testProduct, new Product());
-        when(productRepository.findAll()).thenReturn(products);
+        List<ProductResponse> products = Arrays.asList(ProductResponse.fromEntity(testProduct), new ProductResponse());
+        when(productRepository.findResponses(any(Specification.class), eq(ProductQuery.DEFAULT_LIMIT + 1))).thenReturn(products);
         
         // When
-        List<ProductResponse> responses = productService.getAllProducts();
+        ProductPage page = productService.getProducts(new ProductQuery());
         
         // Then
-        assertThat(responses).hasSize(2);
-        verify(productRepository).findAll();
+        assertThat(page.getItems()).hasSize(2);
+        assertThat(page.getNextCursor()).isNull();
+        verify(productRepository, never()).findAll();
+    }
+    
+    @Test
+    @DisplayName("Should return next cursor when more products are available")
+    void shouldReturnNextCursorWhenMoreProductsAreAvailable() {
+        // Given
+        ProductResponse second = new ProductResponse(2L, "Second", null, 5, 10, true, 0L);
+        when(productRepository.findResponses(any(Specification.class), eq(2)))
+            .thenReturn(Arrays.asList(ProductResponse.fromEntity(testProduct), second));
+        ProductQuery query = new ProductQuery();
+        query.setLimit(1);
+        
+        // When
+        ProductPage page = productService.getProducts(query);
+        
+        // Then
+        assertThat(page.getItems()).extracting(ProductResponse::getId).containsExactly(1L);
+        assertThat(page.getNextCursor()).isNotNull();
+        assertThat(ProductService.decodeCursor(page.getNextCursor())).isEqualTo(1L);
+    }
+    
+    @Test
+    @DisplayName("Should reject malformed cursor")
+    void shouldRejectMalformedCursor() {
+        // Given
+        ProductQuery query = new ProductQuery();
+        query.setCursor("not-a-cursor");
+        
+        // When & Then
+        assertThatThrownBy(() -> productService.getProducts(query))
+            .isInstanceOf(InvalidCursorException.class);
     }
     
     @Test
@@ -115,7 +285,7 @@ void shouldGetAllProductsSuccessfully() {
     void shouldUpdateProductSuccessfully() {
         // Given
         when(productRepository.findById(1L)).thenReturn(Optional.of(testProduct));
-        when(productRepository.save(any(Product.class))).thenReturn(testProduct);
+        when(productRepository.saveAndFlush(any(Product.class))).thenReturn(testProduct);
         
         ProductRequest updateRequest = new ProductRequest();
         updateRequest.setName("Updated Product");
@@ -129,7 +299,35 @@ void shouldUpdateProductSuccessfully() {
         // Then
         assertThat(response).isNotNull();
         verify(productRepository).findById(1L);
-        verify(productRepository).save(testProduct);
+        verify(productRepository).saveAndFlush(testProduct);
+    }
+    
+    @Test
+    @DisplayName("Should reject an update that sets stock below what the locations hold")
+    void shouldRejectUpdateBelowLocatedStock() {
+        // Given
+        testProduct.setLocatedQuantity(150);
+        when(productRepository.findById(1L)).thenReturn(Optional.of(testProduct));
+        
+        // When & Then
+        assertThatThrownBy(() -> productService.updateProduct(1L, testRequest))
+            .isInstanceOf(InsufficientStockException.class)
+            .hasMessageContaining("150 units reserved or held at locations");
+        verify(productRepository, never()).saveAndFlush(any());
+    }
+    
+    @Test
+    @DisplayName("Should reject an update whose If-Match names an older version")
+    void shouldRejectUpdateWithStaleIfMatch() {
+        // Given
+        testProduct.setVersion(3L);
+        when(productRepository.findById(1L)).thenReturn(Optional.of(testProduct));
+        
+        // When & Then
+        assertThatThrownBy(() -> productService.updateProduct(1L, testRequest, "\"2-100\""))
+            .isInstanceOf(PreconditionFailedException.class)
+            .hasMessageContaining("\"3-100\"");
+        verify(productRepository, never()).saveAndFlush(any(Product.class));
     }
     
     @Test
@@ -143,47 +341,159 @@ void shouldDeleteProductSuccessfully() {
         
         // Then
         verify(productRepository).findById(1L);
+        verify(locationStockRepository).deleteByProductId(1L);
         verify(productRepository).delete(testProduct);
+        verify(searchIndex).remove(1L);
+    }
+    
+    @Test
+    @DisplayName("Should load search hits by id in rank order and skip products deleted since the lookup")
+    void shouldLoadSearchHitsInRankOrder() {
+        // Given
+        ProductResponse second = new ProductResponse(2L, "Second Product", null, 5, 10, true, 0L);
+        when(searchIndex.search("product", SearchMode.PREFIX, 0, 2))
+            .thenReturn(new ProductSearchIndex.Hits(3, true, new long[] {2L, 9L}));
+        when(productRepository.findResponsesByIdIn(List.of(2L, 9L))).thenReturn(List.of(second));
+        
+        // When
+        ProductSearchPage page = productService.searchProducts(
+            new ProductSearchQuery("product", SearchMode.PREFIX, null, 2));
+        
+        // Then
+        assertThat(page.getItems()).extracting(ProductResponse::getId).containsExactly(2L);
+        assertThat(page.getTotal()).isEqualTo(3);
+        assertThat(page.getNextCursor()).isNotNull();
+        
+        // When
+        when(searchIndex.search("product", SearchMode.PREFIX, 2, 2))
+            .thenReturn(new ProductSearchIndex.Hits(3, true, new long[] {1L}));
+        when(productRepository.findResponsesByIdIn(List.of(1L))).thenReturn(List.of(ProductResponse.fromEntity(testProduct)));
+        ProductSearchPage last = productService.searchProducts(
+            new ProductSearchQuery("product", SearchMode.PREFIX, page.getNextCursor(), 2));
+        
+        // Then
+        assertThat(last.getItems()).extracting(ProductResponse::getId).containsExactly(1L);
+        assertThat(last.getNextCursor()).isNull();
     }
     
     @Test
     @DisplayName("Should increase stock successfully")
     void shouldIncreaseStockSuccessfully() {
         // Given
+        testProduct.setStockQuantity(150);
+        when(productRepository.increaseStock(1L, 50)).thenReturn(1);
         when(productRepository.findById(1L)).thenReturn(Optional.of(testProduct));
-        when(productRepository.save(any(Product.class))).thenReturn(testProduct);
         
         // When
         ProductResponse response = productService.increaseStock(1L, 50);
         
         // Then
         assertThat(response).isNotNull();
-        assertThat(testProduct.getStockQuantity()).isEqualTo(150);
-        verify(productRepository).findById(1L);
-        verify(productRepository).save(testProduct);
+        assertThat(response.getStockQuantity()).isEqualTo(150);
+        verify(productRepository).increaseStock(1L, 50);
+        verify(productRepository, never()).save(any(Product.class));
+        verify(journal).record(StockMovement.Type.INCREASED, 1L, 50, 150);
+    }
+    
+    @Test
+    @DisplayName("Should guard a conditional stock change with the version the If-Match was checked against")
+    void shouldDecreaseStockAtCheckedVersion() {
+        // Given
+        testProduct.setVersion(3L);
+        when(productRepository.findById(1L)).thenReturn(Optional.of(testProduct));
+        when(productRepository.decreaseStockAtVersion(1L, 30, 3L)).thenReturn(1);
+        
+        // When
+        ProductResponse response = productService.decreaseStock(1L, 30, "W/\"1-1\", \"3-100\"");
+        
+        // Then
+        assertThat(response).isNotNull();
+        verify(productRepository).decreaseStockAtVersion(1L, 30, 3L);
+        verify(productRepository, never()).decreaseStock(anyLong(), anyInt());
+    }
+    
+    @Test
+    @DisplayName("Should answer 412 when the product changes between the If-Match check and the update")
+    void shouldRejectStockChangeThatLostRaceToAnotherWriter() {
+        // Given
+        testProduct.setVersion(3L);
+        Product changed = new Product();
+        changed.setId(1L);
+        changed.setStockQuantity(90);
+        changed.setVersion(4L);
+        when(productRepository.findById(1L)).thenReturn(Optional.of(testProduct), Optional.of(changed));
+        when(productRepository.increaseStockAtVersion(1L, 5, 3L)).thenReturn(0);
+        
+        // When & Then
+        assertThatThrownBy(() -> productService.increaseStock(1L, 5, "\"3-100\""))
+            .isInstanceOf(PreconditionFailedException.class)
+            .hasMessageContaining("\"4-90\"");
+        verifyNoInteractions(journal);
+    }
+    
+    @Test
+    @DisplayName("Should throw exception when increasing stock of missing product")
+    void shouldThrowExceptionWhenIncreasingStockOfMissingProduct() {
+        // Given
+        when(productRepository.increaseStock(999L, 5)).thenReturn(0);
+        
+        // When & Then
+        assertThatThrownBy(() -> productService.increaseStock(999L, 5))
+            .isInstanceOf(ProductNotFoundException.class)
+            .hasMessageContaining("Product not found with ID: 999");
+        
+        verify(productRepository, never()).findById(anyLong());
     }
     
     @Test
     @DisplayName("Should decrease stock successfully when sufficient stock available")
     void shouldDecreaseStockSuccessfullyWhenSufficientStock() {
         // Given
+        testProduct.setStockQuantity(70);
+        when(productRepository.decreaseStock(1L, 30)).thenReturn(1);
         when(productRepository.findById(1L)).thenReturn(Optional.of(testProduct));
-        when(productRepository.save(any(Product.class))).thenReturn(testProduct);
         
         // When
         ProductResponse response = productService.decreaseStock(1L, 30);
         
         // Then
         assertThat(response).isNotNull();
-        assertThat(testProduct.getStockQuantity()).isEqualTo(70);
-        verify(productRepository).findById(1L);
-        verify(productRepository).save(testProduct);
+        assertThat(response.getStockQuantity()).isEqualTo(70);
+        verify(productRepository).decreaseStock(1L, 30);
+        verify(productRepository, never()).save(any(Product.class));
+        verify(journal).record(StockMovement.Type.DECREASED, 1L, -30, 70);
+        verify(stockEvents).stockChanged(response, -30, false);
+        assertThat(meterRegistry.get("inventory.stock.update").tag("operation", "decrease").timer().count())
+            .isEqualTo(1);
+    }
+    
+    @Test
+    @DisplayName("Should record a low-stock alert when a decrease crosses the threshold")
+    void shouldRecordAlertWhenDecreaseCrossesThreshold() {
+        // Given
+        LowStockAlertRepository alertRepository = mock(LowStockAlertRepository.class);
+        LowStockAlerts alerts = new LowStockAlerts(alertRepository, mock(PlatformTransactionManager.class), true);
+        ProductService alertingService = new ProductService(productRepository, productCache, stockCounters, metrics,
+            journal, searchIndex, nameFilter, stockEvents, alerts, locationStockRepository, auditLog);
+        testProduct.setStockQuantity(8);
+        when(productRepository.decreaseStock(eq(1L), anyInt())).thenReturn(1);
+        when(productRepository.findById(1L)).thenReturn(Optional.of(testProduct));
+        
+        // When
+        alertingService.decreaseStock(1L, 5);
+        alertingService.decreaseStock(1L, 1);
+        
+        // Then
+        verify(alertRepository).save(argThat(alert -> alert.getType() == LowStockAlert.Type.LOW_STOCK
+            && alert.getProductId() == 1L && alert.getStockQuantity() == 8));
+        verifyNoMoreInteractions(alertRepository);
     }
     
     @Test
     @DisplayName("Should throw exception when trying to decrease stock below zero")
     void shouldThrowExceptionWhenDecreasingStockBelowZero() {
         // Given
+        when(productRepository.decreaseStock(1L, 150)).thenReturn(0);
         when(productRepository.findById(1L)).thenReturn(Optional.of(testProduct));
         
         // When & Then
@@ -191,14 +501,31 @@ void shouldThrowExceptionWhenDecreasingStockBelowZero() {
             .isInstanceOf(InsufficientStockException.class)
             .hasMessageContaining("Insufficient stock. Available: 100, Requested: 150");
         
-        verify(productRepository).findById(1L);
+        verify(productRepository).decreaseStock(1L, 150);
         verify(productRepository, never()).save(any(Product.class));
+        verify(auditLog).rejected(AuditEvent.Action.DECREASE, 1L, -150, "insufficient_stock");
+        verify(auditLog, never()).stockChanged(any(), any(), anyInt(), anyInt());
+        verifyNoInteractions(journal);
+    }
+    
+    @Test
+    @DisplayName("Should throw not found when decreasing stock of missing product")
+    void shouldThrowNotFoundWhenDecreasingStockOfMissingProduct() {
+        // Given
+        when(productRepository.decreaseStock(999L, 1)).thenReturn(0);
+        when(productRepository.findById(999L)).thenReturn(Optional.empty());
+        
+        // When & Then
+        assertThatThrownBy(() -> productService.decreaseStock(999L, 1))
+            .isInstanceOf(ProductNotFoundException.class)
+            .hasMessageContaining("Product not found with ID: 999");
     }
     
     @Test
     @DisplayName("Should throw exception when trying to decrease exact stock amount plus one")
     void shouldThrowExceptionWhenDecreasingExactStockPlusOne() {
         // Given
+        when(productRepository.decreaseStock(1L, 101)).thenReturn(0);
         when(productRepository.findById(1L)).thenReturn(Optional.of(testProduct));
         
         // When & Then
@@ -211,29 +538,27 @@ void shouldThrowExceptionWhenDecreasingExactStockPlusOne() {
     @DisplayName("Should allow decreasing stock to exactly zero")
     void shouldAllowDecreasingStockToExactlyZero() {
         // Given
+        testProduct.setStockQuantity(0);
+        when(productRepository.decreaseStock(1L, 100)).thenReturn(1);
         when(productRepository.findById(1L)).thenReturn(Optional.of(testProduct));
-        when(productRepository.save(any(Product.class))).thenReturn(testProduct);
         
         // When
         ProductResponse response = productService.decreaseStock(1L, 100);
         
         // Then
         assertThat(response).isNotNull();
-        assertThat(testProduct.getStockQuantity()).isEqualTo(0);
-        verify(productRepository).save(testProduct);
+        assertThat(response.getStockQuantity()).isEqualTo(0);
+        verify(productRepository).decreaseStock(1L, 100);
     }
     
     @Test
     @DisplayName("Should get low stock products successfully")
     void shouldGetLowStockProductsSuccessfully() {
         // Given
-        Product lowStockProduct = new Product();
-        lowStockProduct.setId(2L);
-        lowStockProduct.setName("Low Stock Product");
-        lowStockProduct.setStockQuantity(5);
-        lowStockProduct.setLowStockThreshold(10);
+        // isLowStock is selected from the low_stock column by the query
+        ProductResponse lowStockProduct = new ProductResponse(2L, "Low Stock Product", null, 5, 10, true, 0L);
         
-        List<Product> lowStockProducts = Arrays.asList(lowStockProduct);
+        List<ProductResponse> lowStockProducts = Arrays.asList(lowStockProduct);
         when(productRepository.findLowStockProducts()).thenReturn(lowStockProducts);
         
         // When
@@ -249,17 +574,17 @@ void shouldGetLowStockProductsSuccessfully() {
     @DisplayName("Should handle edge case - decrease stock by 1 when stock is 1")
     void shouldHandleEdgeCaseDecreaseStockBy1WhenStockIs1() {
         // Given
-        testProduct.setStockQuantity(1);
+        testProduct.setStockQuantity(0);
+        when(productRepository.decreaseStock(1L, 1)).thenReturn(1);
         when(productRepository.findById(1L)).thenReturn(Optional.of(testProduct));
-        when(productRepository.save(any(Product.class))).thenReturn(testProduct);
         
         // When
         ProductResponse response = productService.decreaseStock(1L, 1);
         
         // Then
         assertThat(response).isNotNull();
-        assertThat(testProduct.getStockQuantity()).isEqualTo(0);
-        verify(productRepository).save(testProduct);
+        assertThat(response.getStockQuantity()).isEqualTo(0);
+        verify(productRepository).decreaseStock(1L, 1);
     }
     
     @Test
@@ -267,6 +592,7 @@ void shouldHandleEdgeCaseDecreaseStockBy1WhenStockIs1() {
     void shouldHandleEdgeCaseTryDecreaseStockBy1WhenStockIs0() {
         // Given
         testProduct.setStockQuantity(0);
+        when(productRepository.decreaseStock(1L, 1)).thenReturn(0);
         when(productRepository.findById(1L)).thenReturn(Optional.of(testProduct));
         
         // When & Then
@@ -274,4 +600,109 @@ void shouldHandleEdgeCaseTryDecreaseStockBy1WhenStockIs0() {
             .isInstanceOf(InsufficientStockException.class)
             .hasMessageContaining("Insufficient stock. Available: 0, Requested: 1");
     }
-}
\ No newline at end of file
+    
+    @Test
+    @DisplayName("Should apply batch in id order and report per-item results in best-effort mode")
+    void shouldApplyBatchInIdOrderAndReportResultsInBestEffortMode() {
+        // Given
+        BatchStockUpdateRequest request = new BatchStockUpdateRequest(
+            Arrays.asList(
+                new StockAdjustmentItem(3L, -50),
+                new StockAdjustmentItem(1L, 10),
+                new StockAdjustmentItem(2L, -1)
+            ),
+            BatchStockUpdateRequest.Mode.BEST_EFFORT
+        );
+        when(productRepository.applyStockDeltas(anyList())).thenReturn(new int[] {1, 0, 0});
+        when(productRepository.findResponsesByIdIn(Set.of(1L, 2L, 3L))).thenReturn(List.of(
+            new ProductResponse(1L, "First", null, 110, 10, false, 0L),
+            new ProductResponse(3L, "Third", null, 20, 10, false, 0L)));
+        // 8 of the 20 units are reserved
+        when(productRepository.findAvailableQuantity(3L)).thenReturn(Optional.of(12));
+        
+        // When
+        BatchStockUpdateResponse response = productService.adjustStockBatch(request);
+        
+        // Then
+        verify(productRepository).applyStockDeltas(Arrays.asList(
+            new StockAdjustmentItem(1L, 10),
+            new StockAdjustmentItem(2L, -1),
+            new StockAdjustmentItem(3L, -50)
+        ));
+        assertThat(response.getApplied()).isEqualTo(1);
+        assertThat(response.getFailed()).isEqualTo(2);
+        assertThat(response.getResults())
+            .extracting(StockAdjustmentResult::getStatus)
+            .containsExactly(
+                StockAdjustmentResult.Status.APPLIED,
+                StockAdjustmentResult.Status.NOT_FOUND,
+                StockAdjustmentResult.Status.INSUFFICIENT_STOCK
+            );
+        assertThat(response.getResults().get(0).getStockQuantity()).isEqualTo(110);
+        assertThat(response.getResults().get(2).getMessage())
+            .isEqualTo("Insufficient stock. Available: 12, Requested: 50");
+        verify(stockEvents).stockChanged(argThat(product -> product.getId() == 1L), eq(10), eq(false));
+        verifyNoMoreInteractions(stockEvents);
+        assertThat(meterRegistry.get("inventory.requests.rejected").tag("reason", "insufficient_stock").counter().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("inventory.requests.rejected").tag("reason", "product_not_found").counter().count()).isEqualTo(1);
+    }
+    
+    @Test
+    @DisplayName("Should reject the whole batch in all-or-nothing mode when an item fails")
+    void shouldRejectWholeBatchInAllOrNothingModeWhenItemFails() {
+        // Given
+        BatchStockUpdateRequest request = new BatchStockUpdateRequest(
+            Arrays.asList(new StockAdjustmentItem(1L, 10), new StockAdjustmentItem(2L, -500)),
+            BatchStockUpdateRequest.Mode.ALL_OR_NOTHING
+        );
+        when(productRepository.applyStockDeltas(anyList())).thenReturn(new int[] {1, 0});
+        when(productRepository.findResponsesByIdIn(Set.of(1L, 2L))).thenReturn(List.of(
+            new ProductResponse(1L, "First", null, 110, 10, false, 0L),
+            new ProductResponse(2L, "Second", null, 5, 10, true, 0L)));
+        when(productRepository.findAvailableQuantity(2L)).thenReturn(Optional.of(5));
+        
+        // When & Then
+        assertThatThrownBy(() -> productService.adjustStockBatch(request))
+            .isInstanceOf(InsufficientStockException.class)
+            .hasMessageContaining("Insufficient stock. Available: 5, Requested: 500");
+    }
+    
+    @Test
+    @DisplayName("Should stream projected rows to the sink without loading entities")
+    void shouldStreamProjectedRowsToSink() {
+        // Given
+        ProductResponse second = new ProductResponse(2L, "Second", null, 5, 10, true, 0L);
+        when(productRepository.streamAllResponses()).thenReturn(Stream.of(ProductResponse.fromEntity(testProduct), second));
+        List<ProductResponse> exported = new ArrayList<>();
+        
+        // When
+        long count = productService.exportProducts(exported::add);
+        
+        // Then
+        assertThat(count).isEqualTo(2);
+        assertThat(exported).extracting(ProductResponse::getId).containsExactly(1L, 2L);
+        verify(productRepository, never()).streamAll();
+    }
+    
+    @Test
+    @DisplayName("Should apply stock changes to in-memory counters in write-behind mode")
+    void shouldApplyStockChangesToCountersInWriteBehindMode() {
+        // Given
+        WriteBehindStockCounters counters = new WriteBehindStockCounters(productRepository, null, new SimpleMeterRegistry(), true, Duration.ofSeconds(1));
+        ProductService writeBehindService = new ProductService(productRepository, productCache, counters, metrics, journal, searchIndex, nameFilter, stockEvents, lowStockAlerts, locationStockRepository, auditLog);
+        when(productRepository.findStockQuantities(List.of(1L))).thenReturn(Map.of(1L, 100));
+        when(productRepository.findResponseById(1L)).thenReturn(Optional.of(ProductResponse.fromEntity(testProduct)));
+        
+        // When
+        writeBehindService.decreaseStock(1L, 30);
+        ProductResponse response = writeBehindService.increaseStock(1L, 5);
+        
+        // Then
+        assertThat(response.getStockQuantity()).isEqualTo(75);
+        assertThatThrownBy(() -> writeBehindService.decreaseStock(1L, 76))
+            .isInstanceOf(InsufficientStockException.class)
+            .hasMessageContaining("Insufficient stock. Available: 75, Requested: 76");
+        verify(productRepository, never()).decreaseStock(anyLong(), anyInt());
+        verify(productRepository, never()).increaseStock(anyLong(), anyInt());
+    }
+}
@@ -0,0 +1,269 @@
+package com.verto.ase_challenge.service;
+
+import com.verto.ase_challenge.alert.LowStockAlerts;
+import com.verto.ase_challenge.audit.AuditEvent;
+import com.verto.ase_challenge.audit.AuditLog;
+import com.verto.ase_challenge.cache.ProductCache;
+import com.verto.ase_challenge.dto.ProductResponse;
+import com.verto.ase_challenge.dto.ReservationRequest;
+import com.verto.ase_challenge.dto.ReservationResponse;
+import com.verto.ase_challenge.entity.Product;
+import com.verto.ase_challenge.entity.Reservation;
+import com.verto.ase_challenge.events.StockEvents;
+import com.verto.ase_challenge.exception.InsufficientStockException;
+import com.verto.ase_challenge.exception.ReservationConflictException;
+import com.verto.ase_challenge.journal.StockJournal;
+import com.verto.ase_challenge.repository.ProductRepository;
+import com.verto.ase_challenge.repository.ReservationRepository;
+import com.verto.ase_challenge.stock.WriteBehindStockCounters;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.AbstractPlatformTransactionManager;
+import org.springframework.transaction.support.DefaultTransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.transaction.TransactionDefinition;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ReservationServiceTest {
+    
+    @Mock
+    private ProductRepository productRepository;
+    
+    @Mock
+    private ReservationRepository reservationRepository;
+    
+    @Mock
+    private StockEvents stockEvents;
+    
+    @Mock
+    private LowStockAlerts lowStockAlerts;
+    
+    @Mock
+    private AuditLog auditLog;
+    
+    private ReservationService reservationService;
+    private Product testProduct;
+    private Reservation testReservation;
+    
+    @BeforeEach
+    void setUp() {
+        reservationService = new ReservationService(
+            productRepository,
+            reservationRepository,
+            new ProductCache(100, Duration.ofMinutes(1)),
+            new WriteBehindStockCounters(null, null, new SimpleMeterRegistry(), false, Duration.ofSeconds(1)),
+            mock(StockJournal.class),
+            stockEvents,
+            lowStockAlerts,
+            auditLog,
+            new NoOpTransactionManager(),
+            Duration.ofMinutes(5),
+            Duration.ofMillis(10)
+        );
+        
+        testProduct = new Product("Test Product", "Test Description", 10, 2);
+        testProduct.setId(1L);
+        
+        testReservation = new Reservation(1L, 4, Instant.now(), Instant.now().plusSeconds(300));
+        testReservation.setId(UUID.randomUUID());
+    }
+    
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        reservationService.stop();
+    }
+    
+    @Test
+    @DisplayName("Should hold stock when reserving")
+    void shouldHoldStockWhenReserving() {
+        // Given
+        when(reservationRepository.save(any(Reservation.class))).thenAnswer(invocation -> {
+            Reservation reservation = invocation.getArgument(0);
+            reservation.setId(UUID.randomUUID());
+            return reservation;
+        });
+        when(productRepository.reserveStock(1L, 4)).thenReturn(1);
+        testProduct.setReservedQuantity(4);
+        when(productRepository.findById(1L)).thenReturn(Optional.of(testProduct));
+        
+        // When
+        ReservationResponse response = reservationService.reserve(1L, new ReservationRequest(4, 60));
+        
+        // Then
+        assertThat(response.getStatus()).isEqualTo(Reservation.Status.ACTIVE);
+        assertThat(response.getAvailableStock()).isEqualTo(6);
+        assertThat(response.getExpiresAt()).isAfter(Instant.now().plusSeconds(50));
+        verify(productRepository).reserveStock(1L, 4);
+    }
+    
+    @Test
+    @DisplayName("Should reject reservation beyond available stock")
+    void shouldRejectReservationBeyondAvailableStock() {
+        // Given
+        when(reservationRepository.save(any(Reservation.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        when(productRepository.reserveStock(1L, 9)).thenReturn(0);
+        testProduct.setReservedQuantity(3);
+        when(productRepository.findById(1L)).thenReturn(Optional.of(testProduct));
+        
+        // When & Then
+        assertThatThrownBy(() -> reservationService.reserve(1L, new ReservationRequest(9, null)))
+            .isInstanceOf(InsufficientStockException.class)
+            .hasMessageContaining("Insufficient stock. Available: 7, Requested: 9");
+    }
+    
+    @Test
+    @DisplayName("Should turn the hold into a sale on confirm")
+    void shouldTurnHoldIntoSaleOnConfirm() {
+        // Given
+        when(reservationRepository.findById(testReservation.getId())).thenReturn(Optional.of(testReservation));
+        when(reservationRepository.confirm(eq(testReservation.getId()), any(Instant.class))).thenReturn(1);
+        when(productRepository.commitReservedStock(1L, 4)).thenReturn(1);
+        when(productRepository.findById(1L)).thenReturn(Optional.of(testProduct));
+        
+        // When
+        ReservationResponse response = reservationService.confirm(testReservation.getId());
+        
+        // Then
+        assertThat(response.getStatus()).isEqualTo(Reservation.Status.CONFIRMED);
+        verify(productRepository).commitReservedStock(1L, 4);
+        verify(productRepository, never()).releaseReservedStock(anyLong(), anyInt());
+    }
+    
+    @Test
+    @DisplayName("Should raise a low-stock alert and event when a confirm takes stock below the threshold")
+    void shouldReportLowStockCrossingOnConfirm() {
+        // Given
+        when(reservationRepository.findById(testReservation.getId())).thenReturn(Optional.of(testReservation));
+        when(reservationRepository.confirm(eq(testReservation.getId()), any(Instant.class))).thenReturn(1);
+        when(productRepository.commitReservedStock(1L, 4)).thenReturn(1);
+        // 5 units, threshold 2: the sale of 4 leaves 1
+        ProductResponse afterSale = new ProductResponse(1L, "Test Product", null, 1, 2, true, 1L);
+        when(productRepository.findResponseById(1L)).thenReturn(Optional.of(afterSale));
+        when(productRepository.findById(1L)).thenReturn(Optional.of(testProduct));
+        
+        // When
+        reservationService.confirm(testReservation.getId());
+        
+        // Then
+        verify(stockEvents).stockChanged(afterSale, -4);
+        verify(lowStockAlerts).stockChanged(afterSale, false);
+        verify(auditLog).reservationChanged(AuditEvent.Action.RESERVATION_CONFIRM, testReservation.getId(), 1L, -4, 1);
+    }
+    
+    @Test
+    @DisplayName("Should refuse to confirm a reservation that is no longer active")
+    void shouldRefuseToConfirmInactiveReservation() {
+        // Given
+        testReservation.setStatus(Reservation.Status.RELEASED);
+        when(reservationRepository.findById(testReservation.getId())).thenReturn(Optional.of(testReservation));
+        when(reservationRepository.confirm(eq(testReservation.getId()), any(Instant.class))).thenReturn(0);
+        
+        // When & Then
+        assertThatThrownBy(() -> reservationService.confirm(testReservation.getId()))
+            .isInstanceOf(ReservationConflictException.class)
+            .hasMessageContaining("because it is released");
+        verify(productRepository, never()).commitReservedStock(anyLong(), anyInt());
+    }
+    
+    @Test
+    @DisplayName("Should return held stock when a reservation expires")
+    void shouldReturnHeldStockWhenReservationExpires() {
+        // Given
+        when(reservationRepository.findById(testReservation.getId())).thenReturn(Optional.of(testReservation));
+        when(reservationRepository.transition(
+            testReservation.getId(), Reservation.Status.ACTIVE, Reservation.Status.EXPIRED)).thenReturn(1);
+        
+        // When
+        reservationService.expire(testReservation.getId());
+        
+        // Then
+        verify(productRepository).releaseReservedStock(1L, 4);
+        verify(auditLog).reservationChanged(AuditEvent.Action.RESERVATION_EXPIRE, testReservation.getId(), 1L, 4, null);
+    }
+    
+    @Test
+    @DisplayName("Should not return stock twice when a released reservation expires")
+    void shouldNotReturnStockTwiceWhenReleasedReservationExpires() {
+        // Given
+        when(reservationRepository.findById(testReservation.getId())).thenReturn(Optional.of(testReservation));
+        when(reservationRepository.transition(
+            testReservation.getId(), Reservation.Status.ACTIVE, Reservation.Status.EXPIRED)).thenReturn(0);
+        
+        // When
+        reservationService.expire(testReservation.getId());
+        
+        // Then
+        verify(productRepository, never()).releaseReservedStock(anyLong(), anyInt());
+        verifyNoInteractions(auditLog);
+    }
+    
+    @Test
+    @DisplayName("Should give the held units back to the write-behind counter when the reservation rolls back")
+    void shouldUndoCounterHoldWhenReservationRollsBack() throws InterruptedException {
+        // Given
+        WriteBehindStockCounters counters = new WriteBehindStockCounters(productRepository, null, new SimpleMeterRegistry(), true, Duration.ofSeconds(1));
+        ReservationService writeBehindService = new ReservationService(
+            productRepository, reservationRepository, new ProductCache(100, Duration.ofMinutes(1)), counters,
+            mock(StockJournal.class), stockEvents, lowStockAlerts, auditLog, new NoOpTransactionManager(),
+            Duration.ofMinutes(5), Duration.ofMillis(10));
+        when(productRepository.findStockQuantities(List.of(1L))).thenReturn(Map.of(1L, 10));
+        when(productRepository.findResponseById(1L)).thenReturn(Optional.of(ProductResponse.fromEntity(testProduct)));
+        when(reservationRepository.save(any(Reservation.class))).thenAnswer(invocation -> {
+            Reservation reservation = invocation.getArgument(0);
+            reservation.setId(UUID.randomUUID());
+            return reservation;
+        });
+        TransactionTemplate transaction = new TransactionTemplate(new NoOpTransactionManager());
+        
+        // When
+        transaction.executeWithoutResult(status -> {
+            writeBehindService.reserve(1L, new ReservationRequest(4, 60));
+            assertThat(counters.get(1L)).isEqualTo(6);
+            status.setRollbackOnly();
+        });
+        
+        // Then
+        assertThat(counters.get(1L)).isEqualTo(10);
+        writeBehindService.stop();
+    }
+    
+    private static class NoOpTransactionManager extends AbstractPlatformTransactionManager {
+        
+        @Override
+        protected Object doGetTransaction() {
+            return new Object();
+        }
+        
+        @Override
+        protected void doBegin(Object transaction, TransactionDefinition definition) {
+        }
+        
+        @Override
+        protected void doCommit(DefaultTransactionStatus status) {
+        }
+        
+        @Override
+        protected void doRollback(DefaultTransactionStatus status) {
+        }
+    }
+}
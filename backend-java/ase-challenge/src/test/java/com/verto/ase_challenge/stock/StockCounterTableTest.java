@@ -0,0 +1,128 @@
+package com.verto.ase_challenge.stock;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class StockCounterTableTest {
+    
+    private StockCounterTable table;
+    
+    @BeforeEach
+    void setUp() {
+        table = new StockCounterTable();
+    }
+    
+    @Test
+    @DisplayName("Should apply deltas and reject ones that would go negative")
+    void shouldApplyDeltasAndRejectNegativeResults() {
+        // Given
+        table.putIfAbsent(1L, 10);
+        
+        // When & Then
+        assertThat(table.tryAdd(1L, -4)).isEqualTo(6);
+        assertThat(table.tryAdd(1L, -7)).isEqualTo(StockCounterTable.INSUFFICIENT);
+        assertThat(table.tryAdd(1L, 3)).isEqualTo(9);
+        assertThat(table.tryAdd(2L, 1)).isEqualTo(StockCounterTable.MISSING);
+        assertThat(table.get(1L)).isEqualTo(9);
+    }
+    
+    @Test
+    @DisplayName("Should coalesce pending deltas per product and reset them on drain")
+    void shouldCoalescePendingDeltasAndResetOnDrain() {
+        // Given
+        table.putIfAbsent(1L, 10);
+        table.putIfAbsent(2L, 10);
+        table.tryAdd(1L, -3);
+        table.tryAdd(1L, -2);
+        table.tryAdd(2L, 5);
+        table.set(2L, 12);
+        
+        // When
+        Map<Long, Integer> drained = new HashMap<>();
+        table.drain(drained::put);
+        
+        // Then
+        assertThat(drained).containsEntry(1L, -5).containsEntry(2L, 2);
+        assertThat(table.drain((id, delta) -> { })).isZero();
+    }
+    
+    @Test
+    @DisplayName("Should re-seed a counter from the persisted level plus what is still pending")
+    void shouldReseedFromPersistedLevelAndPendingDeltas() {
+        // Given
+        table.putIfAbsent(1L, 10);
+        table.tryAdd(1L, -4);
+        table.drain((id, delta) -> { });
+        table.tryAdd(1L, -1);
+        
+        // When
+        int reseeded = table.reseed(1L, 8);
+        
+        // Then
+        assertThat(reseeded).isEqualTo(7);
+        assertThat(table.get(1L)).isEqualTo(7);
+        assertThat(table.reseed(2L, 5)).isEqualTo(StockCounterTable.MISSING);
+    }
+    
+    @Test
+    @DisplayName("Should keep tracking products across growth and removal")
+    void shouldKeepTrackingProductsAcrossGrowthAndRemoval() {
+        // When
+        for (long id = 1; id <= 10_000; id++) {
+            table.putIfAbsent(id, (int) id);
+        }
+        for (long id = 1; id <= 10_000; id += 2) {
+            table.remove(id);
+        }
+        
+        // Then
+        assertThat(table.size()).isEqualTo(5_000);
+        assertThat(table.get(9_999L)).isEqualTo(StockCounterTable.MISSING);
+        assertThat(table.get(10_000L)).isEqualTo(10_000);
+        assertThat(table.putIfAbsent(10_000L, 1)).isFalse();
+    }
+    
+    @Test
+    @DisplayName("Should never oversell under concurrent decrements")
+    void shouldNeverOversellUnderConcurrentDecrements() throws Exception {
+        // Given
+        table.putIfAbsent(42L, 1_000);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger sold = new AtomicInteger();
+        
+        // When
+        for (int t = 0; t < 8; t++) {
+            executor.submit(() -> {
+                start.await();
+                for (int i = 0; i < 500; i++) {
+                    if (table.tryAdd(42L, -1) >= 0) {
+                        sold.incrementAndGet();
+                    }
+                }
+                return null;
+            });
+        }
+        start.countDown();
+        executor.shutdown();
+        assertThat(executor.awaitTermination(10, TimeUnit.SECONDS)).isTrue();
+        
+        // Then
+        Map<Long, Integer> drained = new HashMap<>();
+        table.drain(drained::put);
+        assertThat(sold.get()).isEqualTo(1_000);
+        assertThat(table.get(42L)).isZero();
+        assertThat(drained).containsEntry(42L, -1_000);
+    }
+}
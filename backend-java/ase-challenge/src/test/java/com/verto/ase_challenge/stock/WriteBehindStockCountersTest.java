@@ -0,0 +1,56 @@
+package com.verto.ase_challenge.stock;
+
+import com.verto.ase_challenge.dto.StockAdjustmentItem;
+import com.verto.ase_challenge.repository.ProductRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+class WriteBehindStockCountersTest {
+    
+    private final ProductRepository productRepository = mock(ProductRepository.class);
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final WriteBehindStockCounters counters = new WriteBehindStockCounters(
+        productRepository, mock(PlatformTransactionManager.class), registry, true, Duration.ofSeconds(1));
+    
+    @Test
+    @DisplayName("Should re-seed or drop counters whose delta the database refused, and count the refusals")
+    void shouldReseedCountersWhenFlushIsRefused() {
+        // Given: product 1 changed behind the counters' back, product 2 was deleted, product 3 is fine
+        when(productRepository.findStockQuantities(List.of(1L))).thenReturn(Map.of(1L, 10));
+        when(productRepository.findStockQuantities(List.of(2L))).thenReturn(Map.of(2L, 5));
+        when(productRepository.findStockQuantities(List.of(3L))).thenReturn(Map.of(3L, 8));
+        counters.add(1L, -4);
+        counters.add(2L, -1);
+        counters.add(3L, -2);
+        Set<Long> refused = Set.of(1L, 2L);
+        when(productRepository.flushStockDeltas(anyList())).thenAnswer(invocation -> {
+            List<StockAdjustmentItem> items = invocation.getArgument(0);
+            return items.stream().mapToInt(item -> refused.contains(item.getId()) ? 0 : 1).toArray();
+        });
+        when(productRepository.findStockQuantities(argThat(ids -> ids.size() == 2 && ids.containsAll(refused))))
+            .thenReturn(Map.of(1L, 3));
+        
+        // When
+        int flushed = counters.flush();
+        
+        // Then
+        assertThat(flushed).isEqualTo(3);
+        assertThat(counters.get(1L)).isEqualTo(3);
+        assertThat(counters.get(2L)).isEqualTo(StockCounterTable.MISSING);
+        assertThat(counters.get(3L)).isEqualTo(6);
+        assertThat(registry.get("inventory.stock.write_behind.rejected").counter().count()).isEqualTo(2);
+        // Nothing is left pending for the refused products
+        assertThat(counters.flush()).isZero();
+    }
+}
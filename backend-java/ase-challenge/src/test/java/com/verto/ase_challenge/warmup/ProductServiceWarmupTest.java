@@ -0,0 +1,77 @@
+package com.verto.ase_challenge.warmup;
+
+import com.verto.ase_challenge.dto.ProductPage;
+import com.verto.ase_challenge.dto.ProductQuery;
+import com.verto.ase_challenge.dto.ProductResponse;
+import com.verto.ase_challenge.search.ProductSearchIndex;
+import com.verto.ase_challenge.service.ProductService;
+import com.verto.ase_challenge.stock.WriteBehindStockCounters;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.logging.LogLevel;
+import org.springframework.boot.logging.LoggingSystem;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class ProductServiceWarmupTest {
+    
+    private final ProductService productService = mock(ProductService.class);
+    private final ProductSearchIndex searchIndex = mock(ProductSearchIndex.class);
+    private final LoggingSystem loggingSystem = mock(LoggingSystem.class);
+    private final PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+    private final ProductResponse product = new ProductResponse(1L, "Laptop", null, 50, 5, false, 0L);
+    
+    @Test
+    @DisplayName("Should run every round and roll back its stock changes")
+    void shouldRunRoundsAndRollBackStockChanges() {
+        // Given
+        SimpleTransactionStatus status = new SimpleTransactionStatus();
+        when(transactionManager.getTransaction(any())).thenReturn(status);
+        when(productService.getProducts(any(ProductQuery.class))).thenReturn(new ProductPage(List.of(product), null));
+        
+        // When
+        warmup(new WriteBehindStockCounters(null, null, new SimpleMeterRegistry(), false, Duration.ofSeconds(1))).warmUp();
+        
+        // Then
+        verify(productService, times(3)).getProductById(1L);
+        verify(productService, times(3)).increaseStock(1L, 1);
+        verify(productService, times(3)).decreaseStock(1L, 1);
+        // The transaction manager rolls back a completed transaction that was marked rollback-only
+        assertThat(status.isRollbackOnly()).isTrue();
+        verify(loggingSystem).setLogLevel(ProductService.class.getName(), LogLevel.WARN);
+        verify(loggingSystem).setLogLevel(ProductService.class.getName(), null);
+    }
+    
+    @Test
+    @DisplayName("Should leave stock alone in write-behind mode and stop on an empty catalog")
+    void shouldSkipStockChangesInWriteBehindMode() {
+        // Given
+        WriteBehindStockCounters counters = mock(WriteBehindStockCounters.class);
+        when(counters.isEnabled()).thenReturn(true);
+        when(productService.getProducts(any(ProductQuery.class)))
+            .thenReturn(new ProductPage(List.of(product), null))
+            .thenReturn(new ProductPage(List.of(product), null))
+            .thenReturn(new ProductPage(List.of(), null));
+        
+        // When
+        warmup(counters).warmUp();
+        
+        // Then
+        verify(productService, times(1)).getProductById(1L);
+        verify(productService, never()).increaseStock(any(), any());
+        verifyNoInteractions(transactionManager);
+    }
+    
+    private ProductServiceWarmup warmup(WriteBehindStockCounters counters) {
+        return new ProductServiceWarmup(productService, searchIndex, counters, loggingSystem, transactionManager,
+            3, Duration.ofSeconds(10));
+    }
+}